@@ -9,8 +9,10 @@ import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.ObservableMap;
+import javafx.scene.control.Alert;
 import javafx.scene.input.DataFormat;
 import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.app.action.Action;
 import org.jhotdraw8.app.action.file.CloseFileAction;
 import org.jhotdraw8.app.action.file.ExportFileAction;
@@ -18,26 +20,68 @@ import org.jhotdraw8.app.action.file.RevertFileAction;
 import org.jhotdraw8.app.action.file.SaveFileAction;
 import org.jhotdraw8.app.action.file.SaveFileAsAction;
 import org.jhotdraw8.binding.CustomBinding;
+import org.jhotdraw8.concurrent.WorkState;
 import org.jhotdraw8.net.UriUtil;
+import org.jhotdraw8.util.Resources;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * AbstractFileBasedActivity.
+ * <p>
+ * If a subclass supports autosave, it creates a {@link DocumentJournal} in
+ * {@link #createJournal(Path)}. The journal is started by the actions that
+ * read or save the document with {@link #startJournal()}, and it is
+ * discarded when the document is saved again or when the activity is
+ * destroyed. If the document has been edited while it was saved, the
+ * journal is rebased instead of being discarded.
  *
  * @author Werner Randelshofer
  */
 public abstract class AbstractFileBasedActivity extends AbstractActivity implements FileBasedActivity {
+    private static final Logger LOGGER = Logger.getLogger(AbstractFileBasedActivity.class.getName());
 
     protected final BooleanProperty modified = new SimpleBooleanProperty() {
         @Override
         public void set(boolean newValue) {
-            super.set(newValue); //To change body of generated methods, choose Tools | Templates.
+            if (newValue) {
+                modificationCount++;
+            }
+            super.set(newValue);
         }
 
     };
+    /**
+     * Counts how often the document has been marked as modified.
+     */
+    private long modificationCount;
+    /**
+     * The value of {@link #modificationCount} when a write has taken a
+     * snapshot of the document, by the work state of the write.
+     * <p>
+     * This is a weak map, so that the entries of failed writes are
+     * removed.
+     */
+    private final @NonNull Map<WorkState, Long> snapshotModificationCounts = new WeakHashMap<>();
     protected final ObjectProperty<URI> uri = new SimpleObjectProperty<>();
     protected final ObjectProperty<DataFormat> dataFormat = new SimpleObjectProperty<>();
+    /**
+     * The journal of the current document. This is null if autosave is
+     * not supported, or if the document has not been saved to a file yet.
+     */
+    private @Nullable DocumentJournal journal;
+    /**
+     * This is set to true, when the document has been recovered from a
+     * journal. The recovered changes have not been saved yet.
+     */
+    private boolean recovered;
 
     protected void initTitle() {
         titleProperty().bind(CustomBinding.convert(uri, uri ->
@@ -52,9 +96,94 @@ public abstract class AbstractFileBasedActivity extends AbstractActivity impleme
 
     @Override
     public void clearModified() {
+        if (recovered) {
+            // the document contains the unsaved changes from the journal
+            return;
+        }
         modified.set(false);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the document has been edited after the write has invoked
+     * {@link #onWriteSnapshotTaken(WorkState)}, the document remains
+     * modified, and the journal is rebased, so that it contains the edits
+     * that are not in the written file.
+     */
+    @Override
+    public void onWriteSucceeded(@NonNull WorkState workState) {
+        Long snapshotCount = snapshotModificationCounts.remove(workState);
+        if (snapshotCount == null || snapshotCount == modificationCount) {
+            clearModified();
+            startJournal();
+            return;
+        }
+        // the document has been edited after the written snapshot was taken
+        if (journal == null) {
+            journal = createJournalForURI();
+        }
+        if (journal != null) {
+            try {
+                journal.rebase();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, e, () -> "Couldn't rebase journal of " + getURI());
+            }
+        }
+    }
+
+    /**
+     * Enables this activity again while a write is in progress, after the
+     * write has taken a snapshot of the document.
+     * <p>
+     * The document can be edited while the snapshot is being written.
+     * These edits are not contained in the written file. Therefore, if the
+     * document has been edited, {@link #onWriteSucceeded(WorkState)} keeps
+     * it marked as modified when the write has succeeded.
+     *
+     * @param workState the work state with which the activity has been
+     *                  disabled for the write
+     */
+    protected void onWriteSnapshotTaken(@NonNull WorkState workState) {
+        snapshotModificationCounts.put(workState, modificationCount);
+        removeDisabler(workState);
+    }
+
+    @Override
+    public void startJournal() {
+        if (recovered) {
+            // the recovered journal continues to record the changes
+            recovered = false;
+            return;
+        }
+        discardJournal();
+        journal = createJournalForURI();
+    }
+
+    /**
+     * Creates a journal for the current URI, and shows an alert if the
+     * journal can not be created.
+     *
+     * @return the journal, or null
+     */
+    private @Nullable DocumentJournal createJournalForURI() {
+        URI u = getURI();
+        if (u != null && "file".equals(u.getScheme())) {
+            Path file = Paths.get(u);
+            try {
+                return createJournal(file);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, e, () -> "Couldn't create journal for " + file);
+                Resources labels = ApplicationLabels.getResources();
+                Alert alert = new Alert(Alert.AlertType.WARNING, e.getLocalizedMessage());
+                alert.getDialogPane().setMaxWidth(640.0);
+                alert.setHeaderText(labels.getFormatted("file.journal.couldntCreate.message", UriUtil.getName(u)));
+                alert.show();
+            }
+        }
+        return null;
+    }
+
     protected void markAsModified() {
         modified.set(true);
     }
@@ -69,6 +198,65 @@ public abstract class AbstractFileBasedActivity extends AbstractActivity impleme
         return dataFormat;
     }
 
+    @Override
+    public void destroy() {
+        discardJournal();
+        super.destroy();
+    }
+
+    /**
+     * Returns the journal file for the specified document file.
+     *
+     * @param file the document file
+     * @return the journal file
+     */
+    public static @NonNull Path getJournalFile(@NonNull Path file) {
+        return file.resolveSibling("." + file.getFileName() + ".journal");
+    }
+
+    /**
+     * Creates a journal that records the changes of the current document.
+     * <p>
+     * This method is invoked on the FX Application Thread by
+     * {@link #startJournal()}.
+     * <p>
+     * The default implementation returns null.
+     *
+     * @param file the document file
+     * @return a new journal, or null if autosave is not supported
+     * @throws IOException if the journal can not be created
+     */
+    protected @Nullable DocumentJournal createJournal(@NonNull Path file) throws IOException {
+        return null;
+    }
+
+    /**
+     * Sets the journal from which the current document has been recovered.
+     * <p>
+     * This method must be invoked by {@link #read} before the read
+     * operation completes. The document remains marked as modified, and
+     * the journal continues to record changes until the document is saved.
+     *
+     * @param journal the journal
+     */
+    protected void setRecoveredJournal(@NonNull DocumentJournal journal) {
+        discardJournal();
+        this.journal = journal;
+        recovered = true;
+        markAsModified();
+    }
+
+    private void discardJournal() {
+        if (journal != null) {
+            try {
+                journal.discard();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, e, () -> "Couldn't discard journal of " + getURI());
+            }
+            journal = null;
+        }
+    }
+
     @Override
     protected void initActions(@NonNull ObservableMap<String, Action> map) {
         map.put(RevertFileAction.ID, new RevertFileAction(this));
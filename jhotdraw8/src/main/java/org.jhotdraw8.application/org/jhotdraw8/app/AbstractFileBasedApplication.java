@@ -569,6 +569,7 @@ public abstract class AbstractFileBasedApplication extends AbstractApplication i
                     v.setURI(uri);
                     v.setDataFormat(result);
                     v.clearModified();
+                    v.startJournal();
                 }
                 v.removeDisabler(this);
             });
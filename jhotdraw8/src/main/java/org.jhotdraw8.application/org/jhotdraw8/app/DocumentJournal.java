@@ -0,0 +1,43 @@
+/*
+ * @(#)DocumentJournal.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.app;
+
+import java.io.IOException;
+
+/**
+ * A journal records the changes that are made to a document since it has
+ * been saved for the last time.
+ * <p>
+ * The journal is stored in a file next to the document. If the application
+ * terminates without saving the document, the changes can be recovered
+ * from the journal when the document is opened again.
+ * <p>
+ * The life cycle of a journal is managed by {@link AbstractFileBasedActivity}.
+ *
+ * @author Werner Randelshofer
+ */
+public interface DocumentJournal {
+    /**
+     * Stops recording and deletes the journal file.
+     * <p>
+     * This method is invoked when the document has been saved, or when
+     * the changes have been discarded.
+     *
+     * @throws IOException if the journal file can not be deleted
+     */
+    void discard() throws IOException;
+
+    /**
+     * Makes the journal independent of the document file.
+     * <p>
+     * This method is invoked when the document file has been written, but
+     * the document contains changes that are not in the written file. The
+     * journal then records the current state of the document, so that all
+     * unsaved changes can be recovered from the new document file.
+     *
+     * @throws IOException if the journal can not be rebased
+     */
+    void rebase() throws IOException;
+}
@@ -56,6 +56,42 @@ public interface FileBasedActivity extends Activity {
      */
     void clearModified();
 
+    /**
+     * Discards the current journal of the document, and starts recording
+     * the changes in a new journal.
+     * <p>
+     * This method is invoked by the actions that read, revert or save the
+     * document, after they have invoked {@link #clearModified()}. If the
+     * document has been recovered from a journal, the recovered journal
+     * continues to record the changes.
+     * <p>
+     * The default implementation does nothing.
+     */
+    default void startJournal() {
+    }
+
+    /**
+     * Clears the modified property and starts a new journal after the
+     * document has been written successfully.
+     * <p>
+     * This method is invoked by the actions that save the document, after
+     * they have set the URI of the document. The work state identifies
+     * the write. If the document has been edited after the write has taken
+     * a snapshot of the document, these edits are not contained in the
+     * written file. In this case the document remains marked as modified,
+     * and the journal keeps recording the edits.
+     * <p>
+     * The default implementation invokes {@link #clearModified()} and
+     * {@link #startJournal()}.
+     *
+     * @param workState the work state that has been passed to
+     *                  {@link #write}
+     */
+    default void onWriteSucceeded(@NonNull WorkState workState) {
+        clearModified();
+        startJournal();
+    }
+
     /**
      * This property is used to identify the resource that is
      * used for storing the document persistently.
@@ -132,7 +168,9 @@ public interface FileBasedActivity extends Activity {
      * This method must not change the current document.
      * <p>
      * The activity must be disabled with a {@link SimpleWorkState} during a read.
-     * See usage example in {@link #read}.
+     * See usage example in {@link #read}. An implementation may enable the
+     * activity again, when it has taken a snapshot of the document, and
+     * writes the snapshot.
      *
      * @param uri       the URI
      * @param format    the desired data format, null means default data format
@@ -221,7 +221,7 @@ public abstract class AbstractSaveUnsavedChangesAction extends AbstractActivityA
                 }
             } else {
                 v.setURI(uri);
-                v.clearModified();
+                v.onWriteSucceeded(workState);
                 app.getRecentUris().put(uri, dataFormat);
                 doIt(v);
             }
@@ -249,7 +249,7 @@ public static final String ID = "application.exit";
                 }
             } else {
                 v.setURI(uri);
-                v.clearModified();
+                v.onWriteSucceeded(workState);
                 app.getRecentUris().put(uri, format);
             }
             return null;
@@ -279,7 +279,7 @@ public static final String ID = "application.exit";
                 }
             } else {
                 v.setURI(uri);
-                v.clearModified();
+                v.onWriteSucceeded(workState);
                 reviewNext(workState);
             }
             return null;
@@ -149,6 +149,7 @@ public abstract class AbstractOpenFileAction extends AbstractApplicationAction {
                 v.setURI(uri);
                 v.setDataFormat(actualFormat);
                 v.clearModified();
+                v.startJournal();
                 getApplication().getRecentUris().put(uri, actualFormat);
                 v.removeDisabler(workState);
             }
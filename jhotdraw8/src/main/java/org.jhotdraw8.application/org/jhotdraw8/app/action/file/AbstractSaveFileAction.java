@@ -184,7 +184,7 @@ public abstract class AbstractSaveFileAction extends AbstractActivityAction<File
                     oldFocusOwner.requestFocus();
                 }
             } else {
-                onSaveSucceeded(view, uri, format);
+                onSaveSucceeded(view, uri, format, workState);
                 view.removeDisabler(workState);
                 if (oldFocusOwner != null) {
                     oldFocusOwner.requestFocus();
@@ -198,5 +198,13 @@ public abstract class AbstractSaveFileAction extends AbstractActivityAction<File
         return null;
     }
 
-    protected abstract void onSaveSucceeded(FileBasedActivity v, URI uri, DataFormat format);
+    /**
+     * Is invoked when the document has been written successfully.
+     *
+     * @param v         the activity
+     * @param uri       the URI to which the document has been written
+     * @param format    the data format
+     * @param workState the work state of the write
+     */
+    protected abstract void onSaveSucceeded(FileBasedActivity v, URI uri, DataFormat format, WorkState workState);
 }
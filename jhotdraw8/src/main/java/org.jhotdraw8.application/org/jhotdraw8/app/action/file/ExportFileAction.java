@@ -11,6 +11,7 @@ import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.app.FileBasedActivity;
 import org.jhotdraw8.collection.Key;
 import org.jhotdraw8.collection.SimpleNullableKey;
+import org.jhotdraw8.concurrent.WorkState;
 import org.jhotdraw8.gui.FileURIChooser;
 import org.jhotdraw8.gui.URIChooser;
 import org.jhotdraw8.reflect.TypeToken;
@@ -78,7 +79,7 @@ public class ExportFileAction extends AbstractSaveFileAction {
     }
 
     @Override
-    protected void onSaveSucceeded(FileBasedActivity v, URI uri, DataFormat format) {
+    protected void onSaveSucceeded(FileBasedActivity v, URI uri, DataFormat format, WorkState workState) {
         // empty
     }
 }
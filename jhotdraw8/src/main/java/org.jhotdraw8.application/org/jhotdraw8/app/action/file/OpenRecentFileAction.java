@@ -156,6 +156,7 @@ public static final String ID = "file.openRecent";
                     v.setURI(uri);
                     v.setDataFormat(actualFormat);
                     v.clearModified();
+                    v.startJournal();
                     v.removeDisabler(workState);
                 }
                 URI finalUri = v.getURI();
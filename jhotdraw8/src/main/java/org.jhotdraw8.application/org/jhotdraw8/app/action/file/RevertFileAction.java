@@ -71,8 +71,10 @@ public static final String ID = "file.revert";
                 alert.getDialogPane().setMaxWidth(640.0);
                 alert.showAndWait();
                 throwable.printStackTrace();
+            } else {
+                view.clearModified();
+                view.startJournal();
             }
-            view.clearModified();
             view.removeDisabler(workState);
             return null;
         };
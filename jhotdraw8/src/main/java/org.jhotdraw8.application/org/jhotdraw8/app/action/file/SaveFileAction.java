@@ -7,6 +7,7 @@ package org.jhotdraw8.app.action.file;
 import javafx.scene.input.DataFormat;
 import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.app.FileBasedActivity;
+import org.jhotdraw8.concurrent.WorkState;
 
 import java.net.URI;
 
@@ -54,9 +55,9 @@ public class SaveFileAction extends AbstractSaveFileAction {
 
 
     @Override
-    protected void onSaveSucceeded(@NonNull FileBasedActivity v, @NonNull URI uri, DataFormat format) {
+    protected void onSaveSucceeded(@NonNull FileBasedActivity v, @NonNull URI uri, DataFormat format, @NonNull WorkState workState) {
         v.setURI(uri);
-        v.clearModified();
+        v.onWriteSucceeded(workState);
         v.setDataFormat(format);
         app.getRecentUris().put(uri, format);
     }
@@ -261,7 +261,7 @@ public abstract class AbstractIndexedArraySet<E> extends ObservableListBase<E>
             for (int i = fromIndex; i < toIndex; i++) {
                 removed.add((E) data[i]);
             }
-            System.arraycopy(data, fromIndex, data, toIndex, size - fromIndex - 1);
+            System.arraycopy(data, toIndex, data, fromIndex, size - toIndex);
             for (int i = size - removedCount; i < size; i++) {
                 data[i] = null;
             }
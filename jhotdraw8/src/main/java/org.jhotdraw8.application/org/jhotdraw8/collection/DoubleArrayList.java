@@ -208,15 +208,15 @@ public class DoubleArrayList implements Iterable<Double> {
     }
 
     private void increaseCapacity(int capacity) {
-        if (capacity <= size) {
+        int length = items == null ? 0 : items.length;
+        if (capacity <= length) {
             return;
         }
-        if (items == null) {
-            items = new double[capacity];
-        }
-        int newCapacity = max(capacity, size + size / 2); // grow by 50%
+        int newCapacity = max(capacity, length + length / 2); // grow by 50%
         double[] newItems = new double[newCapacity];
-        System.arraycopy(items, 0, newItems, 0, size);
+        if (items != null) {
+            System.arraycopy(items, 0, newItems, 0, size);
+        }
         items = newItems;
     }
 
@@ -363,7 +363,7 @@ public class DoubleArrayList implements Iterable<Double> {
 
     @Override
     public @NonNull String toString() {
-        return Arrays.toString(items);
+        return Arrays.toString(toArray());
     }
 
     /**
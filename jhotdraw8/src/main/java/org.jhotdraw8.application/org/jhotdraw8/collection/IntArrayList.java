@@ -208,15 +208,15 @@ public class IntArrayList implements Iterable<Integer> {
     }
 
     private void increaseCapacity(int capacity) {
-        if (capacity <= size) {
+        int length = items == null ? 0 : items.length;
+        if (capacity <= length) {
             return;
         }
-        if (items == null) {
-            items = new int[capacity];
-        }
-        int newCapacity = max(capacity, size + size / 2); // grow by 50%
+        int newCapacity = max(capacity, length + length / 2); // grow by 50%
         int[] newItems = new int[newCapacity];
-        System.arraycopy(items, 0, newItems, 0, size);
+        if (items != null) {
+            System.arraycopy(items, 0, newItems, 0, size);
+        }
         items = newItems;
     }
 
@@ -355,20 +355,24 @@ public class IntArrayList implements Iterable<Integer> {
      */
     public @NonNull int[] toArray() {
         int[] result = new int[size];
-        System.arraycopy(items, 0, result, 0, size);
+        if (size > 0) {
+            System.arraycopy(items, 0, result, 0, size);
+        }
         return result;
     }
 
     @Override
     public @NonNull String toString() {
-        return Arrays.toString(items);
+        return Arrays.toString(toArray());
     }
 
     /**
      * Sorts the items in ascending order.
      */
     public void sort() {
-        Arrays.sort(items, 0, size);
+        if (size > 1) {
+            Arrays.sort(items, 0, size);
+        }
     }
 
     /**
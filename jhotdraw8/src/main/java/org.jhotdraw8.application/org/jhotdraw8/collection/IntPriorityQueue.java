@@ -0,0 +1,127 @@
+/*
+ * @(#)IntPriorityQueue.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A priority queue of int elements, ordered by a double priority.
+ * <p>
+ * The element with the smallest priority is at the head of the queue.
+ * <p>
+ * The queue is implemented as a binary heap on primitive arrays, so that
+ * adding and removing elements does not box values.
+ *
+ * @author Werner Randelshofer
+ */
+public class IntPriorityQueue {
+    private int[] elements;
+    private double[] priorities;
+    private int size;
+
+    public IntPriorityQueue() {
+        this(8);
+    }
+
+    public IntPriorityQueue(int capacity) {
+        elements = new int[Math.max(capacity, 1)];
+        priorities = new double[elements.length];
+    }
+
+    /**
+     * Adds the specified element with the specified priority.
+     *
+     * @param e        the element
+     * @param priority the priority
+     */
+    public void add(int e, double priority) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+        }
+        // sift up
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            elements[i] = elements[parent];
+            priorities[i] = priorities[parent];
+            i = parent;
+        }
+        elements[i] = e;
+        priorities[i] = priority;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the element with the smallest priority without removing it.
+     *
+     * @return the head element
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elements[0];
+    }
+
+    /**
+     * Returns the smallest priority in the queue.
+     *
+     * @return the priority of the head element
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public double peekPriority() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return priorities[0];
+    }
+
+    /**
+     * Removes the element with the smallest priority.
+     *
+     * @return the removed element
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public int remove() {
+        int result = peek();
+        int last = elements[--size];
+        double lastPriority = priorities[size];
+        // sift down
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                child++;
+            }
+            if (lastPriority <= priorities[child]) {
+                break;
+            }
+            elements[i] = elements[child];
+            priorities[i] = priorities[child];
+            i = child;
+        }
+        elements[i] = last;
+        priorities[i] = lastPriority;
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -255,6 +255,7 @@ public class SimpleDrawingView extends AbstractDrawingView {
         onDrawingModelChanged(model, null, model.getValue());
         drawingRenderer.modelProperty().bind(this.modelProperty());
         drawingRenderer.clipBoundsProperty().bind(zoomableScrollPane.visibleContentRectProperty());
+        drawingRenderer.zoomFactorProperty().bind(zoomFactorProperty());
         drawingRenderer.editorProperty().bind(this.editorProperty());
         drawingRenderer.setDrawingView(this);
         handleRenderer.modelProperty().bind(this.modelProperty());
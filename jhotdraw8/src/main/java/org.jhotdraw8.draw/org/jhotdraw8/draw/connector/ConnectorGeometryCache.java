@@ -0,0 +1,89 @@
+/*
+ * @(#)ConnectorGeometryCache.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.connector;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.PathIterableFigure;
+import org.jhotdraw8.draw.render.RenderContext;
+
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the geometry of the target figures of connectors during a layout
+ * pass.
+ * <p>
+ * When many connections are attached to the same figure, the connectors
+ * of all these connections need the outline of the same figure. With this
+ * cache, the outline is only computed once per layout pass.
+ * <p>
+ * The cache is created by the drawing model for a single layout pass, and is
+ * made available to connectors through
+ * {@link RenderContext#CONNECTOR_GEOMETRY_CACHE}. The drawing model
+ * invalidates the entry of a figure, when it lays out the figure.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Werner Randelshofer
+ */
+public class ConnectorGeometryCache {
+    /**
+     * Performance: Figures do not override {@code equals} and
+     * {@code hashCode}, so this map behaves like an identity map.
+     */
+    private final @NonNull Map<Figure, Path2D.Double> paths = new ConcurrentHashMap<>();
+
+    public ConnectorGeometryCache() {
+    }
+
+    /**
+     * Returns a path iterator over the outline of the specified figure in
+     * local coordinates.
+     *
+     * @param ctx    the render context
+     * @param figure the figure
+     * @return a path iterator
+     */
+    public @NonNull PathIterator getPathIterator(@Nullable RenderContext ctx, @NonNull PathIterableFigure figure) {
+        return paths.computeIfAbsent(figure, f -> {
+            Path2D.Double path = new Path2D.Double();
+            path.append(figure.getPathIterator(ctx, null), false);
+            return path;
+        }).getPathIterator(null);
+    }
+
+    /**
+     * Removes the cached geometry of the specified figure.
+     *
+     * @param figure a figure
+     */
+    public void invalidate(@NonNull Figure figure) {
+        paths.remove(figure);
+    }
+
+    /**
+     * Removes all cached geometry.
+     */
+    public void clear() {
+        paths.clear();
+    }
+
+    /**
+     * Returns a path iterator over the outline of the specified figure.
+     * Uses the cache that is provided by the render context, if there is one.
+     *
+     * @param ctx    the render context
+     * @param figure the figure
+     * @return a path iterator
+     */
+    public static @NonNull PathIterator getPathIteratorOf(@Nullable RenderContext ctx, @NonNull PathIterableFigure figure) {
+        ConnectorGeometryCache cache = ctx == null ? null : ctx.get(RenderContext.CONNECTOR_GEOMETRY_CACHE);
+        return cache == null ? figure.getPathIterator(ctx, null) : cache.getPathIterator(ctx, figure);
+    }
+}
@@ -12,8 +12,8 @@ import org.jhotdraw8.draw.locator.BoundsLocator;
 import org.jhotdraw8.draw.locator.Locator;
 import org.jhotdraw8.draw.render.RenderContext;
 import org.jhotdraw8.geom.intersect.IntersectLinePathIterator;
+import org.jhotdraw8.geom.intersect.IntersectionCollector;
 import org.jhotdraw8.geom.intersect.IntersectionPointEx;
-import org.jhotdraw8.geom.intersect.IntersectionResultEx;
 
 import java.awt.geom.PathIterator;
 
@@ -53,21 +53,50 @@ public class PathConnector extends LocatorConnector {
                 case CENTERED:
                 default:
                     // FIXME must stroke the path
-                    pit = pif.getPathIterator(ctx, null);
+                    pit = ConnectorGeometryCache.getPathIteratorOf(ctx, pif);
                     break;
                 case OUTSIDE:
                     // FIXME must stroke the path
-                    pit = pif.getPathIterator(ctx, null);
+                    pit = ConnectorGeometryCache.getPathIteratorOf(ctx, pif);
                     break;
             case INSIDE:
-                pit = pif.getPathIterator(ctx, null);
+                pit = ConnectorGeometryCache.getPathIteratorOf(ctx, pif);
                 break;
             }
         } else {
-            pit = pif.getPathIterator(ctx, null);
+            pit = ConnectorGeometryCache.getPathIteratorOf(ctx, pif);
         }
 
-        IntersectionResultEx i = IntersectLinePathIterator.intersectLinePathIteratorEx(s.getX(), s.getY(), e.getX(), e.getY(), pit);
-        return i.peekLast();
+        LastIntersection last = new LastIntersection();
+        IntersectLinePathIterator.intersectLinePathIterator(s.getX(), s.getY(), e.getX(), e.getY(), pit, last);
+        return last.found
+                ? new IntersectionPointEx(last.x, last.y, last.t, e.getX() - s.getX(), e.getY() - s.getY(), last.tb, last.tangentX, last.tangentY)
+                : null;
+    }
+
+    /**
+     * Remembers the last intersection point, so that we only need to
+     * allocate an {@link IntersectionPointEx} for the point that we return.
+     */
+    private static class LastIntersection implements IntersectionCollector {
+        private boolean found;
+        private double t, x, y, tb, tangentX, tangentY;
+
+        @Override
+        public boolean addIntersection(double t, double x, double y) {
+            return addIntersection(t, x, y, 0, 0, 0);
+        }
+
+        @Override
+        public boolean addIntersection(double t, double x, double y, double tb, double tangentX, double tangentY) {
+            this.found = true;
+            this.t = t;
+            this.x = x;
+            this.y = y;
+            this.tb = tb;
+            this.tangentX = tangentX;
+            this.tangentY = tangentY;
+            return true;
+        }
     }
 }
@@ -52,16 +52,19 @@ public class FigureSelectorModel extends AbstractSelectorModel<Figure> {
 
     private static final Logger LOGGER = Logger.getLogger(FigureSelectorModel.class.getName());
     /**
-     * Maps an attribute name to a key.
+     * Maps a figure class to a map from an attribute name to a key.
+     * <p>
+     * The maps of this class only depend on the supported keys of a figure
+     * class, and are therefore shared by all instances.
      */
-    private @NonNull Map<Class<?>, Map<QualifiedName, WritableStyleableMapAccessor<?>>> nameToKeyMap = new ConcurrentHashMap<>();
-    private @NonNull Map<Class<?>, Map<QualifiedName, ReadOnlyStyleableMapAccessor<?>>> nameToReadableKeyMap = new ConcurrentHashMap<>();
+    private static final @NonNull Map<Class<?>, Map<QualifiedName, WritableStyleableMapAccessor<?>>> nameToKeyMap = new ConcurrentHashMap<>();
+    private static final @NonNull Map<Class<?>, Map<QualifiedName, ReadOnlyStyleableMapAccessor<?>>> nameToReadableKeyMap = new ConcurrentHashMap<>();
     /**
      * Maps a key to an attribute name.
      */
     private @NonNull ConcurrentHashMap<WritableStyleableMapAccessor<?>, QualifiedName> keyToNameMap = new ConcurrentHashMap<>();
-    private @NonNull ConcurrentHashMap<Class<? extends Figure>, Map<QualifiedName, List<WritableStyleableMapAccessor<Object>>>> figureToMetaMap = new ConcurrentHashMap<>();
-    private ConcurrentHashMap<Class<? extends Figure>, Map<QualifiedName, List<ReadOnlyStyleableMapAccessor<Object>>>> figureToReadOnlyMetaMap = new ConcurrentHashMap<>();
+    private static final @NonNull ConcurrentHashMap<Class<? extends Figure>, Map<QualifiedName, List<WritableStyleableMapAccessor<Object>>>> figureToMetaMap = new ConcurrentHashMap<>();
+    private static final @NonNull ConcurrentHashMap<Class<? extends Figure>, Map<QualifiedName, List<ReadOnlyStyleableMapAccessor<Object>>>> figureToReadOnlyMetaMap = new ConcurrentHashMap<>();
 
 
     @Override
@@ -106,15 +109,15 @@ public class FigureSelectorModel extends AbstractSelectorModel<Figure> {
             for (MapAccessor<?> kk : element.getSupportedKeys()) {
                 if (kk instanceof WritableStyleableMapAccessor) {
                     WritableStyleableMapAccessor<?> sk = (WritableStyleableMapAccessor<?>) kk;
-                    m.put(new QualifiedName(sk.getCssNamespace(), element.getClass() + "$" + sk.getCssName()), sk);
+                    m.put(new QualifiedName(sk.getCssNamespace(), sk.getCssName()), sk);
                     if (sk.getCssNamespace() != null) {
-                        m.put(new QualifiedName(null, element.getClass() + "$" + sk.getCssName()), sk);
+                        m.put(new QualifiedName(null, sk.getCssName()), sk);
                     }
                 }
             }
             return m;
         });
-        return mm.get(new QualifiedName(namespace, element.getClass() + "$" + attributeName));
+        return mm.get(new QualifiedName(namespace, attributeName));
     }
 
     private ReadOnlyStyleableMapAccessor<?> findReadableKey(@NonNull Figure element, @Nullable String namespace, String attributeName) {
@@ -123,15 +126,15 @@ public class FigureSelectorModel extends AbstractSelectorModel<Figure> {
             for (MapAccessor<?> kk : element.getSupportedKeys()) {
                 if (kk instanceof ReadOnlyStyleableMapAccessor) {
                     ReadOnlyStyleableMapAccessor<?> sk = (ReadOnlyStyleableMapAccessor<?>) kk;
-                    m.put(new QualifiedName(sk.getCssNamespace(), element.getClass() + "$" + sk.getCssName()), sk);
+                    m.put(new QualifiedName(sk.getCssNamespace(), sk.getCssName()), sk);
                     if (sk.getCssNamespace() != null) {
-                        m.put(new QualifiedName(null, element.getClass() + "$" + sk.getCssName()), sk);
+                        m.put(new QualifiedName(null, sk.getCssName()), sk);
                     }
                 }
             }
             return m;
         });
-        return mm.get(new QualifiedName(namespace, element.getClass() + "$" + attributeName));
+        return mm.get(new QualifiedName(namespace, attributeName));
     }
 
     @Override
@@ -26,6 +26,7 @@ import org.jhotdraw8.draw.handle.MoveHandle;
 import org.jhotdraw8.draw.handle.PathIterableOutlineHandle;
 import org.jhotdraw8.draw.handle.SelectionHandle;
 import org.jhotdraw8.draw.locator.PointLocator;
+import org.jhotdraw8.draw.render.LevelOfDetail;
 import org.jhotdraw8.draw.render.RenderContext;
 import org.jhotdraw8.geom.FXGeom;
 import org.jhotdraw8.geom.FXPathBuilder;
@@ -53,7 +54,7 @@ import static java.lang.Math.signum;
  * @author Werner Randelshofer
  */
 public abstract class AbstractElbowLineConnectionWithMarkersFigure extends AbstractLineConnectionFigure
-        implements PathIterableFigure {
+        implements PathIterableFigure, ConcurrentLayoutableFigure {
 
     private final Polyline path = new Polyline();
 
@@ -155,7 +156,9 @@ public abstract class AbstractElbowLineConnectionWithMarkersFigure extends Abstr
 
         final double startInset = getStrokeCutStart(ctx);
         final double endInset = getStrokeCutEnd(ctx);
-        final String startMarkerStr = getMarkerStartShape();
+        // Performance: markers can hardly be seen at a reduced level of detail
+        final boolean fullDetail = ctx.getNonNull(RenderContext.LEVEL_OF_DETAIL) == LevelOfDetail.FULL;
+        final String startMarkerStr = fullDetail ? getMarkerStartShape() : null;
 
         ObservableList<Double> points = lineNode.getPoints();
 
@@ -173,7 +176,7 @@ public abstract class AbstractElbowLineConnectionWithMarkersFigure extends Abstr
         }
         updateMarkerNode(ctx, g, startMarkerNode, p0,
                 p1, startMarkerStr, getMarkerStartScaleFactor());
-        final String endMarkerStr = getMarkerEndShape();
+        final String endMarkerStr = fullDetail ? getMarkerEndShape() : null;
         updateMarkerNode(ctx, g, endMarkerNode, p3,
                 p2, endMarkerStr, getMarkerEndScaleFactor());
 
@@ -244,7 +247,7 @@ public abstract class AbstractElbowLineConnectionWithMarkersFigure extends Abstr
 
 
     @Override
-    public void layout(@NonNull RenderContext ctx) {
+    public @NonNull Runnable prepareLayout(@NonNull RenderContext ctx) {
         Point2D start = getNonNull(START).getConvertedValue();
         Point2D end = getNonNull(END).getConvertedValue();
         Connector startConnector = get(START_CONNECTOR);
@@ -255,10 +258,6 @@ public abstract class AbstractElbowLineConnectionWithMarkersFigure extends Abstr
         double elbowOffset = elbowOffset1 == null ? 0.0 : ctx.getNonNull(RenderContext.UNIT_CONVERTER_KEY).convert(elbowOffset1, UnitConverter.DEFAULT);
 
 
-        ObservableList<Double> points = path.getPoints();
-        points.clear();
-
-
         if (startConnector != null && startTarget != null) {
             start = startConnector.getPointAndTangentInWorld(this, startTarget).getPoint(Point2D::new);
         }
@@ -267,25 +266,31 @@ public abstract class AbstractElbowLineConnectionWithMarkersFigure extends Abstr
         }
 
         Point2D endTangent = null;
-        if (startConnector != null && startTarget != null) {
+        final boolean startConnected = startConnector != null && startTarget != null;
+        final boolean endConnected = endConnector != null && endTarget != null;
+        OrthogonalConnectionRouter router = ctx.get(RenderContext.ORTHOGONAL_CONNECTION_ROUTER);
+        if (router != null && startConnected && endConnected) {
+            List<Point2D> route = router.route(this, start, startTarget, end, endTarget);
+            if (route != null && route.size() >= 2) {
+                return prepareRoutedLayout(ctx, route, startConnector, startTarget, endConnector, endTarget);
+            }
+        }
+        if (startConnected) {
             IntersectionPointEx intersectionPointEx = startConnector.chopStart(ctx, this, startTarget, start, end);
             start = worldToParent(intersectionPointEx.getX(), intersectionPointEx.getY());
-            set(START, new CssPoint2D(start));
         }
-        if (endConnector != null && endTarget != null) {
+        if (endConnected) {
             IntersectionPointEx intersectionPointEx = endConnector.chopEnd(ctx, this, endTarget, start, end);
             endTangent = new Point2D(intersectionPointEx.getTangentB().getX(), intersectionPointEx.getTangentB().getY());
             end = worldToParent(intersectionPointEx.getX(), intersectionPointEx.getY());
-            set(END, new CssPoint2D(end));
         }
 
-        //ObservableList<Double> points = path.getPoints();
-        // points.clear();
         CssSize elbowOffsetSize = getElbowOffset();
-        UnitConverter unitConverter = ctx.getNonNull(RenderContext.UNIT_CONVERTER_KEY);
+        final Double[] points;
         if (elbowOffset == 0 || endTangent == null || FXGeom.squaredMagnitude(endTangent) < 1e-7) {
-            points.addAll(start.getX(), start.getY());
-            points.addAll(end.getX(), end.getY());
+            points = new Double[]{
+                    start.getX(), start.getY(),
+                    end.getX(), end.getY()};
         } else {
             Point2D endTangentNormalized = endTangent.normalize();
             // Enforce perfect vertical or perfect horizontal line
@@ -303,10 +308,57 @@ public abstract class AbstractElbowLineConnectionWithMarkersFigure extends Abstr
             p2 = endTangentNormalized.multiply(elbowOffset);
             p1 = endTangentNormalized.multiply(abs(dir.dotProduct(end.subtract(start))) - elbowOffset);
 
-            points.addAll(start.getX(), start.getY());
-            points.addAll(start.getX() - p1.getY(), start.getY() + p1.getX());
-            points.addAll(end.getX() + p2.getY(), end.getY() - p2.getX());
-            points.addAll(end.getX(), end.getY());
+            points = new Double[]{
+                    start.getX(), start.getY(),
+                    start.getX() - p1.getY(), start.getY() + p1.getX(),
+                    end.getX() + p2.getY(), end.getY() - p2.getX(),
+                    end.getX(), end.getY()};
+        }
+
+        final Point2D newStart = start;
+        final Point2D newEnd = end;
+        return () -> {
+            if (startConnected) {
+                set(START, new CssPoint2D(newStart));
+            }
+            if (endConnected) {
+                set(END, new CssPoint2D(newEnd));
+            }
+            path.getPoints().setAll(points);
+        };
+    }
+
+    /**
+     * Chops the start and the end of the specified route at the bounds of
+     * the targets.
+     *
+     * @param ctx   the render context
+     * @param route the route in world coordinates
+     * @return a runnable that applies the route to this figure
+     */
+    private @NonNull Runnable prepareRoutedLayout(@NonNull RenderContext ctx, @NonNull List<Point2D> route,
+                                                  @NonNull Connector startConnector, @NonNull Figure startTarget,
+                                                  @NonNull Connector endConnector, @NonNull Figure endTarget) {
+        int n = route.size();
+        IntersectionPointEx chopped = startConnector.chopStart(ctx, this, startTarget, route.get(0), route.get(1));
+        final Point2D newStart = worldToParent(chopped.getX(), chopped.getY());
+        chopped = endConnector.chopEnd(ctx, this, endTarget, route.get(n - 2), route.get(n - 1));
+        final Point2D newEnd = worldToParent(chopped.getX(), chopped.getY());
+
+        final Double[] points = new Double[n * 2];
+        points[0] = newStart.getX();
+        points[1] = newStart.getY();
+        for (int i = 1; i < n - 1; i++) {
+            Point2D p = worldToParent(route.get(i));
+            points[i * 2] = p.getX();
+            points[i * 2 + 1] = p.getY();
         }
+        points[n * 2 - 2] = newEnd.getX();
+        points[n * 2 - 1] = newEnd.getY();
+        return () -> {
+            set(START, new CssPoint2D(newStart));
+            set(END, new CssPoint2D(newEnd));
+            path.getPoints().setAll(points);
+        };
     }
 }
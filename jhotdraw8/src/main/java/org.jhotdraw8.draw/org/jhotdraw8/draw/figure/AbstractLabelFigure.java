@@ -11,8 +11,10 @@ import javafx.geometry.Insets;
 import javafx.geometry.Point2D;
 import javafx.scene.Group;
 import javafx.scene.Node;
+import javafx.scene.paint.Color;
 import javafx.scene.shape.Path;
 import javafx.scene.shape.PathElement;
+import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextBoundsType;
 import org.jhotdraw8.annotation.NonNull;
@@ -29,6 +31,7 @@ import org.jhotdraw8.draw.key.CssPoint2DStyleableMapAccessor;
 import org.jhotdraw8.draw.key.CssSizeStyleableKey;
 import org.jhotdraw8.draw.key.NullableFXSvgPathStyleableKey;
 import org.jhotdraw8.draw.locator.BoundsLocator;
+import org.jhotdraw8.draw.render.LevelOfDetail;
 import org.jhotdraw8.draw.render.RenderContext;
 import org.jhotdraw8.draw.render.SimpleRenderContext;
 import org.jhotdraw8.geom.Shapes;
@@ -202,6 +205,11 @@ public abstract class AbstractLabelFigure extends AbstractLeafFigure
         Text t = (Text) g.getProperties().get("textNode");
 
         updateGroupNode(ctx, g);
+        final LevelOfDetail levelOfDetail = ctx.getNonNull(RenderContext.LEVEL_OF_DETAIL);
+        if (levelOfDetail != LevelOfDetail.FULL) {
+            updateNodeWithReducedDetail(ctx, g, p, t, levelOfDetail);
+            return;
+        }
         updateTextNode(ctx, t);
         updatePathNode(ctx, p, t);
         final Path icon;
@@ -229,6 +237,42 @@ public abstract class AbstractLabelFigure extends AbstractLeafFigure
         }
     }
 
+    /**
+     * Updates the node with a reduced level of detail.
+     * <p>
+     * Performance: Laying out text is expensive. At a reduced level of
+     * detail, the text is drawn as a grey bar. At minimal level of detail,
+     * the text is omitted.
+     *
+     * @param ctx           the render context
+     * @param g             the group node
+     * @param p             the path node
+     * @param t             the text node
+     * @param levelOfDetail the level of detail
+     */
+    protected void updateNodeWithReducedDetail(@NonNull RenderContext ctx, @NonNull Group g, @NonNull Path p, @NonNull Text t,
+                                               @NonNull LevelOfDetail levelOfDetail) {
+        updatePathNode(ctx, p, t);
+        ArrayList<Node> newChildren = new ArrayList<>(2);
+        if (p.getStroke() != null || p.getFill() != null) {
+            newChildren.add(p);
+        }
+        if (levelOfDetail == LevelOfDetail.REDUCED) {
+            Rectangle bar = (Rectangle) g.getProperties().computeIfAbsent("textBarNode", k -> new Rectangle());
+            Bounds b = getLayoutBounds();
+            Insets i = getTotalPaddingAroundText();
+            bar.setX(b.getMinX() + i.getLeft());
+            bar.setY(b.getMinY() + i.getTop());
+            bar.setWidth(Math.max(0, b.getWidth() - i.getLeft() - i.getRight()));
+            bar.setHeight(Math.max(0, b.getHeight() - i.getTop() - i.getBottom()));
+            bar.setFill(Color.LIGHTGRAY);
+            newChildren.add(bar);
+        }
+        if (!newChildren.equals(g.getChildren())) {
+            g.getChildren().setAll(newChildren);
+        }
+    }
+
     public void updateIconNode(final @NonNull RenderContext ctx, final @NonNull Path path) {
         final List<PathElement> elements = getStyled(ICON_SHAPE);
         if (elements == null) {
@@ -22,6 +22,7 @@ import org.jhotdraw8.draw.handle.LineOutlineHandle;
 import org.jhotdraw8.draw.handle.MoveHandle;
 import org.jhotdraw8.draw.handle.SelectionHandle;
 import org.jhotdraw8.draw.locator.PointLocator;
+import org.jhotdraw8.draw.render.LevelOfDetail;
 import org.jhotdraw8.draw.render.RenderContext;
 import org.jhotdraw8.geom.FXPathBuilder;
 import org.jhotdraw8.geom.FXPreciseRotate;
@@ -46,7 +47,7 @@ import java.util.logging.Logger;
  * @author Werner Randelshofer
  */
 public abstract class AbstractStraightLineConnectionWithMarkersFigure extends AbstractLineConnectionFigure
-        implements PathIterableFigure {
+        implements PathIterableFigure, ConcurrentLayoutableFigure {
 
     public AbstractStraightLineConnectionWithMarkersFigure() {
         this(0, 0, 1, 1);
@@ -130,7 +131,7 @@ public abstract class AbstractStraightLineConnectionWithMarkersFigure extends Ab
     public abstract double getStrokeCutStart(RenderContext ctx);
 
     @Override
-    public void layout(@NonNull RenderContext ctx) {
+    public @NonNull Runnable prepareLayout(@NonNull RenderContext ctx) {
         Point2D start = getNonNull(START).getConvertedValue();
         Point2D end = getNonNull(END).getConvertedValue();
         Connector startConnector = get(START_CONNECTOR);
@@ -144,16 +145,29 @@ public abstract class AbstractStraightLineConnectionWithMarkersFigure extends Ab
             end = endConnector.getPointAndTangentInWorld(this, endTarget).getPoint(Point2D::new);
         }
 
+        final Point2D newStart;
+        final Point2D newEnd;
         if (startConnector != null && startTarget != null) {
             java.awt.geom.Point2D.Double chp = startConnector.chopStart(ctx, this, startTarget, start, end);
-            final Point2D p = worldToParent(chp.getX(), chp.getY());
-            set(START, new CssPoint2D(p));
+            newStart = worldToParent(chp.getX(), chp.getY());
+        } else {
+            newStart = null;
         }
         if (endConnector != null && endTarget != null) {
             java.awt.geom.Point2D.Double chp = endConnector.chopEnd(ctx, this, endTarget, start, end);
-            final Point2D p = worldToParent(chp.getX(), chp.getY());
-            set(END, new CssPoint2D(p));
+            newEnd = worldToParent(chp.getX(), chp.getY());
+        } else {
+            newEnd = null;
         }
+
+        return () -> {
+            if (newStart != null) {
+                set(START, new CssPoint2D(newStart));
+            }
+            if (newEnd != null) {
+                set(END, new CssPoint2D(newEnd));
+            }
+        };
     }
 
     public void translateInLocal(@NonNull CssPoint2D t) {
@@ -223,8 +237,10 @@ public abstract class AbstractStraightLineConnectionWithMarkersFigure extends Ab
 
         final double startInset = getStrokeCutStart(ctx);
         final double endInset = getStrokeCutEnd(ctx);
-        final String startMarkerStr = getMarkerStartShape();
-        final String endMarkerStr = getMarkerEndShape();
+        // Performance: markers can hardly be seen at a reduced level of detail
+        final boolean fullDetail = ctx.getNonNull(RenderContext.LEVEL_OF_DETAIL) == LevelOfDetail.FULL;
+        final String startMarkerStr = fullDetail ? getMarkerStartShape() : null;
+        final String endMarkerStr = fullDetail ? getMarkerEndShape() : null;
 
         Point2D dir = end.subtract(start).normalize();
         if (startInset != 0) {
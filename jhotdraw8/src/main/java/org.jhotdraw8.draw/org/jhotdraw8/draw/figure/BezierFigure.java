@@ -14,8 +14,6 @@ import javafx.scene.shape.PathElement;
 import javafx.scene.transform.Transform;
 import javafx.scene.transform.Translate;
 import org.jhotdraw8.annotation.NonNull;
-import org.jhotdraw8.collection.ImmutableList;
-import org.jhotdraw8.collection.ImmutableLists;
 import org.jhotdraw8.css.CssPoint2D;
 import org.jhotdraw8.css.CssRectangle2D;
 import org.jhotdraw8.css.CssSize;
@@ -31,11 +29,16 @@ import org.jhotdraw8.draw.handle.PathIterableOutlineHandle;
 import org.jhotdraw8.draw.key.BezierNodeListStyleableKey;
 import org.jhotdraw8.draw.key.BooleanStyleableKey;
 import org.jhotdraw8.draw.locator.BoundsLocator;
+import org.jhotdraw8.draw.render.LevelOfDetail;
 import org.jhotdraw8.draw.render.RenderContext;
 import org.jhotdraw8.geom.BezierNode;
+import org.jhotdraw8.geom.BezierNodeList;
 import org.jhotdraw8.geom.BezierNodePath;
+import org.jhotdraw8.geom.FXPathBuilder;
 import org.jhotdraw8.geom.FXTransforms;
 import org.jhotdraw8.geom.Shapes;
+import org.jhotdraw8.geom.ShortSegmentsThinningPathBuilder;
+import org.jhotdraw8.geom.SvgPaths;
 
 import java.awt.geom.AffineTransform;
 import java.awt.geom.PathIterator;
@@ -54,7 +57,7 @@ public class BezierFigure extends AbstractLeafFigure
 
     public static final BooleanStyleableKey CLOSED = new BooleanStyleableKey("closed", false);
 
-    public static final BezierNodeListStyleableKey PATH = new BezierNodeListStyleableKey("path", ImmutableLists.emptyList());
+    public static final BezierNodeListStyleableKey PATH = new BezierNodeListStyleableKey("path", BezierNodeList.of());
     /**
      * The CSS type selector for this object is {@value #TYPE_SELECTOR}.
      */
@@ -70,14 +73,14 @@ public class BezierFigure extends AbstractLeafFigure
             list.add(new PathIterableOutlineHandle(this, true));
         } else if (handleType == HandleType.POINT) {
             list.add(new BezierPathEditHandle(this, PATH));
-            ImmutableList<BezierNode> nodes = get(PATH);
+            BezierNodeList nodes = BezierNodeList.of(getNonNull(PATH));
             for (int i = 0, n = nodes.size(); i < n; i++) {
                 list.add(new BezierNodeTangentHandle(this, PATH, i));
                 list.add(new BezierNodeEditHandle(this, PATH, i));
-                if (nodes.get(i).isC1()) {
+                if (nodes.isC1(i)) {
                     list.add(new BezierControlPointEditHandle(this, PATH, i, BezierNode.C1_MASK));
                 }
-                if (nodes.get(i).isC2()) {
+                if (nodes.isC2(i)) {
                     list.add(new BezierControlPointEditHandle(this, PATH, i, BezierNode.C2_MASK));
                 }
             }
@@ -105,11 +108,32 @@ public class BezierFigure extends AbstractLeafFigure
         double minY = Double.POSITIVE_INFINITY;
         double maxX = Double.NEGATIVE_INFINITY;
         double maxY = Double.NEGATIVE_INFINITY;
-        for (BezierNode p : getNonNull(PATH)) {
-            minX = Math.min(minX, p.getMinX());
-            minY = Math.min(minY, p.getMinY());
-            maxX = Math.max(maxX, p.getMaxX());
-            maxY = Math.max(maxY, p.getMaxY());
+        BezierNodeList nodes = BezierNodeList.of(getNonNull(PATH));
+        for (int i = 0, n = nodes.size(); i < n; i++) {
+            double x = nodes.getX0(i), y = nodes.getY0(i);
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            if (nodes.isMoveTo(i)) {
+                continue;
+            }
+            if (nodes.isC1(i)) {
+                x = nodes.getX1(i);
+                y = nodes.getY1(i);
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+            }
+            if (nodes.isC2(i)) {
+                x = nodes.getX2(i);
+                y = nodes.getY2(i);
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+            }
         }
         return new BoundingBox(minX, minY, maxX - minX, maxY - minY);
     }
@@ -152,11 +176,7 @@ public class BezierFigure extends AbstractLeafFigure
 
     @Override
     public void reshapeInLocal(@NonNull Transform transform) {
-        ArrayList<BezierNode> newP = getNonNull(PATH).toArrayList();
-        for (int i = 0, n = newP.size(); i < n; i++) {
-            newP.set(i, newP.get(i).transform(transform));
-        }
-        set(PATH, ImmutableLists.ofCollection(newP));
+        set(PATH, BezierNodeList.of(getNonNull(PATH)).transform(transform));
     }
 
     @Override
@@ -178,11 +198,21 @@ public class BezierFigure extends AbstractLeafFigure
         applyTransformableFigureProperties(ctx, node);
         applyCompositableFigureProperties(ctx, pathNode);
         pathNode.setFillRule(getStyled(FILL_RULE));
-        final List<PathElement> elements =
-                Shapes.fxPathElementsFromAwt(
-                        new BezierNodePath(getStyledNonNull(PATH),
-                                getStyledNonNull(CLOSED),
-                                getStyledNonNull(FILL_RULE)).getPathIterator(null));
+        final PathIterator pathIterator = new BezierNodePath(getStyledNonNull(PATH),
+                getStyledNonNull(CLOSED),
+                getStyledNonNull(FILL_RULE)).getPathIterator(null);
+        final LevelOfDetail levelOfDetail = ctx.getNonNull(RenderContext.LEVEL_OF_DETAIL);
+        final List<PathElement> elements;
+        if (levelOfDetail == LevelOfDetail.FULL) {
+            elements = Shapes.fxPathElementsFromAwt(pathIterator);
+        } else {
+            // Performance: skip segments which are shorter than one pixel
+            // (or four pixels at minimal level of detail) on the screen.
+            double tolerance = (levelOfDetail == LevelOfDetail.REDUCED ? 1.0 : 4.0)
+                    / ctx.getNonNull(RenderContext.ZOOM_FACTOR);
+            elements = new ArrayList<>();
+            SvgPaths.buildFromPathIterator(new ShortSegmentsThinningPathBuilder<>(new FXPathBuilder(elements), tolerance), pathIterator);
+        }
 
         if (!pathNode.getElements().equals(elements)) {
             pathNode.getElements().setAll(elements);
@@ -15,6 +15,7 @@ import org.jhotdraw8.collection.ImmutableList;
 import org.jhotdraw8.css.CssSize;
 import org.jhotdraw8.css.Paintable;
 import org.jhotdraw8.draw.connector.Connector;
+import org.jhotdraw8.draw.key.BooleanStyleableKey;
 import org.jhotdraw8.draw.key.NullableEnumStyleableKey;
 import org.jhotdraw8.draw.render.RenderContext;
 import org.jhotdraw8.geom.AwtPathBuilder;
@@ -22,10 +23,16 @@ import org.jhotdraw8.geom.ConcatenatedPathIterator;
 import org.jhotdraw8.geom.FXTransforms;
 import org.jhotdraw8.geom.Shapes;
 import org.jhotdraw8.geom.SvgPaths;
+import org.jhotdraw8.geom.contour.PlineCombineMode;
+import org.jhotdraw8.geom.contour.PolyArcPath;
+import org.jhotdraw8.geom.contour.PolyArcPathBuilder;
+import org.jhotdraw8.geom.contour.PolyArcPathCombiner;
 
 import java.awt.BasicStroke;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
+import java.awt.geom.FlatteningPathIterator;
+import java.awt.geom.Path2D;
 import java.awt.geom.PathIterator;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -46,6 +53,21 @@ public class CombinedPathFigure extends AbstractCompositeFigure
         ConnectableFigure, PathIterableFigure {
 
     public static final @NonNull NullableEnumStyleableKey<CagOperation> CAG_OPERATION = new NullableEnumStyleableKey<>("cag-operation", CagOperation.class, null);
+    /**
+     * Whether the {@link #CAG_OPERATION} is performed with
+     * {@link PolyArcPathCombiner} instead of with {@link Area}.
+     * <p>
+     * {@link PolyArcPathCombiner} is much faster on shapes with many
+     * segments, and combines independent groups of children in parallel.
+     * However, it flattens curves into line segments, and it requires that
+     * the outline of each child does not intersect itself.
+     */
+    public static final @NonNull BooleanStyleableKey CAG_POLY_ARC = new BooleanStyleableKey("cag-poly-arc", false);
+    /**
+     * The flatness that is used for flattening curves when
+     * {@link #CAG_POLY_ARC} is true.
+     */
+    private static final double CAG_FLATNESS = 0.1;
     /**
      * The CSS type selector for a label object is {@value #TYPE_SELECTOR}.
      */
@@ -126,6 +148,9 @@ public class CombinedPathFigure extends AbstractCompositeFigure
     }
 
     private @NonNull PathIterator getPathIteratorCAG(RenderContext ctx, AffineTransform tx, @NonNull CagOperation op) {
+        if (getStyledNonNull(CAG_POLY_ARC)) {
+            return getPathIteratorPolyArcCAG(ctx, tx, op);
+        }
         Area area = null;
         boolean first = true;
         for (Figure child : getChildren()) {
@@ -158,6 +183,38 @@ public class CombinedPathFigure extends AbstractCompositeFigure
         return iter;
     }
 
+    private @NonNull PathIterator getPathIteratorPolyArcCAG(RenderContext ctx, AffineTransform tx, @NonNull CagOperation op) {
+        List<List<PolyArcPath>> regions = new ArrayList<>();
+        for (Figure child : getChildren()) {
+            if (child instanceof PathIterableFigure) {
+                final PathIterator childPathIterator = getStyledPathIteratorInParent(ctx, (PathIterableFigure) child, tx);
+                regions.add(SvgPaths.buildFromPathIterator(new PolyArcPathBuilder(),
+                        new FlatteningPathIterator(childPathIterator, CAG_FLATNESS)).build());
+            }
+        }
+        PlineCombineMode mode;
+        switch (op) {
+            case ADD:
+            default:
+                mode = PlineCombineMode.Union;
+                break;
+            case INTERSECT:
+                mode = PlineCombineMode.Intersect;
+                break;
+            case SUBTRACT:
+                mode = PlineCombineMode.Exclude;
+                break;
+            case XOR:
+                mode = PlineCombineMode.XOR;
+                break;
+        }
+        Path2D.Double path = new Path2D.Double();
+        for (PolyArcPath pline : PolyArcPathCombiner.combineAll(regions, mode)) {
+            path.append(pline.getPathIterator(null), false);
+        }
+        return path.getPathIterator(null);
+    }
+
     @Override
     public @NonNull String getTypeSelector() {
         return TYPE_SELECTOR;
@@ -11,6 +11,7 @@ import org.jhotdraw8.css.text.CssPercentageConverter;
 import org.jhotdraw8.draw.key.BlendModeStyleableKey;
 import org.jhotdraw8.draw.key.DoubleStyleableKey;
 import org.jhotdraw8.draw.key.EffectStyleableKey;
+import org.jhotdraw8.draw.render.LevelOfDetail;
 import org.jhotdraw8.draw.render.RenderContext;
 
 /**
@@ -73,7 +74,9 @@ public interface CompositableFigure extends Figure {
         // when blend mode != null, although this should be equivalent to SRC_OVER.
         final BlendMode blendMode = getStyled(BLEND_MODE);
         node.setBlendMode(blendMode == BlendMode.SRC_OVER ? null : blendMode);
-        node.setEffect(getStyled(EFFECT));
+        // Performance: effects are expensive, and can hardly be seen at a reduced level of detail
+        final boolean fullDetail = ctx == null || ctx.getNonNull(RenderContext.LEVEL_OF_DETAIL) == LevelOfDetail.FULL;
+        node.setEffect(fullDetail ? getStyled(EFFECT) : null);
         node.setOpacity(getStyledNonNull(OPACITY));
     }
 
@@ -0,0 +1,46 @@
+/*
+ * @(#)ConcurrentLayoutableFigure.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.draw.figure;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.draw.render.RenderContext;
+
+/**
+ * A figure which can compute its layout concurrently with other figures.
+ * <p>
+ * The layout is performed in two steps. {@link #prepareLayout} computes the
+ * new layout from the layout subjects of the figure without changing the state
+ * of any figure. The runnable that is returned by {@code prepareLayout}
+ * applies the computed layout to the figure.
+ * <p>
+ * The drawing model may invoke {@code prepareLayout} concurrently on figures
+ * that do not depend on each other, while no figure of the drawing is being
+ * changed. The returned runnables are invoked on the thread that owns the
+ * drawing.
+ *
+ * @author Werner Randelshofer
+ */
+public interface ConcurrentLayoutableFigure extends Figure {
+    /**
+     * Computes the layout of this figure without changing the state of the
+     * figure.
+     *
+     * @param ctx the render context
+     * @return a runnable that applies the computed layout to this figure
+     */
+    @NonNull Runnable prepareLayout(@NonNull RenderContext ctx);
+
+    /**
+     * The default implementation of this method prepares the layout and
+     * applies it immediately.
+     *
+     * @param ctx the render context
+     */
+    @Override
+    default void layout(@NonNull RenderContext ctx) {
+        prepareLayout(ctx).run();
+    }
+}
@@ -26,12 +26,14 @@ import org.jhotdraw8.css.CssSize;
 import org.jhotdraw8.css.UnitConverter;
 import org.jhotdraw8.draw.handle.Handle;
 import org.jhotdraw8.draw.handle.HandleType;
+import org.jhotdraw8.draw.render.LayerTileCache;
 import org.jhotdraw8.draw.render.RenderContext;
 import org.jhotdraw8.draw.render.RenderingIntent;
 import org.jhotdraw8.geom.FXGeom;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static java.lang.Math.max;
@@ -46,6 +48,69 @@ public class LayerFigure extends AbstractCompositeFigure
 
     private static final int MIN_NODES_FOR_CLIPPING = 100;
 
+    /**
+     * Materializes the children of this layer, if they have been deferred
+     * by the reader that created this layer.
+     */
+    private volatile @Nullable Consumer<LayerFigure> deferredChildren;
+
+    /**
+     * Defers the creation of the children of this layer until they are
+     * materialized with {@link #materializeChildren()}.
+     * <p>
+     * The materializer is invoked with this layer. The materializer must
+     * add the children to this layer, and then invoke this method with a
+     * null value.
+     *
+     * @param materializer the materializer or null
+     */
+    public void setDeferredChildren(@Nullable Consumer<LayerFigure> materializer) {
+        this.deferredChildren = materializer;
+    }
+
+    /**
+     * Returns true if the children of this layer have been deferred and
+     * have not been materialized yet.
+     *
+     * @return true if the children are deferred
+     */
+    public boolean hasDeferredChildren() {
+        return deferredChildren != null;
+    }
+
+    /**
+     * Materializes the deferred children of this layer.
+     * <p>
+     * This method adds the children to this layer without firing
+     * {@code DrawingModelEvent}s. Use
+     * {@link org.jhotdraw8.draw.model.DrawingModel#materializeChildren(LayerFigure)}
+     * for a layer of a drawing that is shown in a drawing view.
+     *
+     * @return true if the children were deferred
+     */
+    public boolean materializeChildren() {
+        Consumer<LayerFigure> materializer = deferredChildren;
+        if (materializer == null) {
+            return false;
+        }
+        materializer.accept(this);
+        return true;
+    }
+
+    /**
+     * Materializes the deferred children of all layers of the specified
+     * drawing.
+     *
+     * @param drawing a drawing
+     */
+    public static void materializeDeferredChildren(@NonNull Figure drawing) {
+        for (Figure child : drawing.getChildren()) {
+            if (child instanceof LayerFigure) {
+                ((LayerFigure) child).materializeChildren();
+            }
+        }
+    }
+
     @Override
     public void reshapeInLocal(@NonNull Transform transform) {
         for (Figure child : getChildren()) {
@@ -73,7 +138,13 @@ public class LayerFigure extends AbstractCompositeFigure
         List<Node> childNodes;
         int maxNodesPerLayer = ctx.getNonNull(RenderContext.MAX_NODES_PER_LAYER);
         final Bounds clipBounds = ctx.get(RenderContext.CLIP_BOUNDS);
-        if (renderingIntent == RenderingIntent.EDITOR
+        final LayerTileCache tileCache = ctx.get(RenderContext.LAYER_TILE_CACHE);
+        final List<Node> tileNodes = renderingIntent == RenderingIntent.EDITOR && tileCache != null && clipBounds != null
+                ? tileCache.getTileNodes(ctx, this, clipBounds, ctx.getNonNull(RenderContext.ZOOM_FACTOR))
+                : null;
+        if (tileNodes != null) {
+            childNodes = tileNodes;
+        } else if (renderingIntent == RenderingIntent.EDITOR
                 && clipBounds != null && getChildren().size() > MIN_NODES_FOR_CLIPPING) {
             childNodes = getChildren().stream()
                     .parallel()
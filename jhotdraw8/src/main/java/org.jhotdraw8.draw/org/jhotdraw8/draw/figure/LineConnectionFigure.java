@@ -31,7 +31,7 @@ import java.util.List;
  */
 public class LineConnectionFigure extends AbstractLineConnectionFigure
         implements StrokableFigure, HideableFigure, StyleableFigure, LockableFigure, CompositableFigure,
-        PathIterableFigure {
+        PathIterableFigure, ConcurrentLayoutableFigure {
 
     /**
      * The CSS type selector for this object is {@value #TYPE_SELECTOR}.
@@ -120,7 +120,7 @@ public class LineConnectionFigure extends AbstractLineConnectionFigure
     }
 
     @Override
-    public void layout(@NonNull RenderContext ctx) {
+    public @NonNull Runnable prepareLayout(@NonNull RenderContext ctx) {
         Point2D start = getNonNull(START).getConvertedValue();
         Point2D end = getNonNull(END).getConvertedValue();
         Connector startConnector = get(START_CONNECTOR);
@@ -134,16 +134,28 @@ public class LineConnectionFigure extends AbstractLineConnectionFigure
             end = endConnector.getPointAndTangentInWorld(this, endTarget).getPoint(Point2D::new);
         }
 
+        final Point2D newStart;
+        final Point2D newEnd;
         if (startConnector != null && startTarget != null) {
             java.awt.geom.Point2D.Double chp = startConnector.chopStart(ctx, this, startTarget, start, end);
-            final Point2D p = worldToParent(chp.getX(), chp.getY());
-            set(START, new CssPoint2D(p));
+            newStart = worldToParent(chp.getX(), chp.getY());
+        } else {
+            newStart = null;
         }
         if (endConnector != null && endTarget != null) {
             java.awt.geom.Point2D.Double chp = endConnector.chopEnd(ctx, this, endTarget, start, end);
-            final Point2D p = worldToParent(chp.getX(), chp.getY());
-            set(END, new CssPoint2D(p));
+            newEnd = worldToParent(chp.getX(), chp.getY());
+        } else {
+            newEnd = null;
         }
 
+        return () -> {
+            if (newStart != null) {
+                set(START, new CssPoint2D(newStart));
+            }
+            if (newEnd != null) {
+                set(END, new CssPoint2D(newEnd));
+            }
+        };
     }
 }
@@ -0,0 +1,594 @@
+/*
+ * @(#)OrthogonalConnectionRouter.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.figure;
+
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.collection.IntArrayList;
+import org.jhotdraw8.draw.model.DrawingModel;
+import org.jhotdraw8.draw.model.DrawingModelEvent;
+import org.jhotdraw8.event.Listener;
+import org.jhotdraw8.geom.DynamicSpatialIndex;
+import org.jhotdraw8.graph.AnyDoubleShortestPathBuilder;
+import org.jhotdraw8.graph.Arc;
+import org.jhotdraw8.graph.VertexPath;
+import org.jhotdraw8.tree.TreeModelEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Computes orthogonal routes for connections, which avoid the bounds of
+ * obstacle figures.
+ * <p>
+ * The router builds a sparse orthogonal visibility graph over the bounds of
+ * the obstacles in the corridor between the start and the end of a
+ * connection. The vertices of the graph are the intersections of the lines
+ * that run along the bounds of the obstacles (grown by a margin), with the
+ * lines through the start and the end point. The router searches the shortest
+ * path through this graph, and adds a penalty for each bend of the path.
+ * <p>
+ * The router keeps track of the obstacles by listening to the events of a
+ * {@link DrawingModel}. The obstacles are held in a spatial index, which is
+ * updated by {@link #validate()}. The router caches the routes, and only
+ * recomputes the routes of connections when their end points have changed,
+ * or when an obstacle has changed inside their corridor.
+ * <p>
+ * Connection figures obtain the router from the render context with key
+ * {@link org.jhotdraw8.draw.render.RenderContext#ORTHOGONAL_CONNECTION_ROUTER}.
+ * <p>
+ * Method {@link #route} only reads the spatial index, and does not access
+ * other figures. It may be invoked concurrently, for example while the
+ * layouts of a batch of connections are prepared in parallel. Method
+ * {@link #validate()} reads the bounds of the changed figures. It must be
+ * invoked on the thread that lays out the drawing, before the routes are
+ * computed.
+ *
+ * @author Werner Randelshofer
+ */
+public class OrthogonalConnectionRouter {
+    /**
+     * The maximal number of vertices in the visibility graph of a route.
+     * If the visibility graph of a corridor would be larger, the router
+     * gives up and the connection falls back to its default layout.
+     */
+    private static final int MAX_GRID_SIZE = 250_000;
+
+    private final double margin;
+    private final double bendPenalty;
+    private final @NonNull Predicate<Figure> obstaclePredicate;
+
+    /**
+     * The bounds of the obstacles in world coordinates.
+     * Guarded by {@code this}.
+     */
+    private final @NonNull Map<Figure, Bounds> obstacles = new IdentityHashMap<>();
+    /**
+     * Figures that have changed since the spatial index was built.
+     * Guarded by {@code this}.
+     */
+    private final @NonNull Set<Figure> dirtyFigures = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * The spatial index of the obstacles. Is updated by {@link #validate()}.
+     */
+    private final @NonNull ObstacleIndex obstacleIndex = new ObstacleIndex();
+    private final @NonNull Map<Figure, Route> routes = new ConcurrentHashMap<>();
+
+    private @Nullable DrawingModel model;
+    private final @NonNull Listener<DrawingModelEvent> drawingModelListener = this::onDrawingModelEvent;
+    private final @NonNull Listener<TreeModelEvent<Figure>> treeModelListener = this::onTreeModelEvent;
+
+    /**
+     * Creates a new instance with a margin of 10, and a bend penalty of 20.
+     * <p>
+     * The obstacles are all figures that are children of a layer, that are
+     * not connections, and that are not laid out relative to other figures.
+     */
+    public OrthogonalConnectionRouter() {
+        this(10, 20, f -> f.getParent() instanceof Layer
+                && !(f instanceof ConnectingFigure)
+                && f.getLayoutSubjects().isEmpty());
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param margin            the distance that routes keep from obstacles
+     * @param bendPenalty       the cost of a bend in a route, expressed as a
+     *                          length
+     * @param obstaclePredicate returns true for figures that are obstacles
+     */
+    public OrthogonalConnectionRouter(double margin, double bendPenalty, @NonNull Predicate<Figure> obstaclePredicate) {
+        this.margin = margin;
+        this.bendPenalty = bendPenalty;
+        this.obstaclePredicate = obstaclePredicate;
+    }
+
+    /**
+     * Installs this router on the specified drawing model.
+     *
+     * @param newValue the drawing model
+     */
+    public void install(@NonNull DrawingModel newValue) {
+        uninstall();
+        model = newValue;
+        newValue.addDrawingModelListener(drawingModelListener);
+        newValue.addTreeModelListener(treeModelListener);
+        invalidateAll(newValue.getDrawing());
+        validate();
+    }
+
+    /**
+     * Uninstalls this router from its drawing model.
+     */
+    public void uninstall() {
+        if (model != null) {
+            model.removeDrawingModelListener(drawingModelListener);
+            model.removeTreeModelListener(treeModelListener);
+            model = null;
+        }
+        invalidateAll(null);
+    }
+
+    /**
+     * Computes an orthogonal route from the start point to the end point.
+     * <p>
+     * The start and the end target are not treated as obstacles for this
+     * route, except that the route may only leave the start target and
+     * enter the end target along a straight line through the start and the
+     * end point.
+     * <p>
+     * The route avoids the obstacles as they were at the last invocation of
+     * {@link #validate()}.
+     *
+     * @param connection  the connection figure
+     * @param start       the start point in world coordinates
+     * @param startTarget the start target
+     * @param end         the end point in world coordinates
+     * @param endTarget   the end target
+     * @return the points of the route in world coordinates, including the
+     * start and the end point; or null if no route could be found
+     */
+    public @Nullable List<Point2D> route(@NonNull Figure connection,
+                                         @NonNull Point2D start, @Nullable Figure startTarget,
+                                         @NonNull Point2D end, @Nullable Figure endTarget) {
+        ObstacleIndex index = obstacleIndex;
+        Route cached = routes.get(connection);
+        if (cached != null && cached.matches(start, startTarget, end, endTarget)) {
+            return cached.points;
+        }
+        Route route = computeRoute(index, start, startTarget, end, endTarget);
+        routes.put(connection, route);
+        return route.points;
+    }
+
+    private @NonNull Route computeRoute(@NonNull ObstacleIndex index,
+                                        @NonNull Point2D start, @Nullable Figure startTarget,
+                                        @NonNull Point2D end, @Nullable Figure endTarget) {
+        final double sx = start.getX(), sy = start.getY(), ex = end.getX(), ey = end.getY();
+
+        // The corridor of the route is the bounding box of the start and
+        // end points, extended by the obstacles that lie in it.
+        final double[] region = {Math.min(sx, ex), Math.min(sy, ey), Math.max(sx, ex), Math.max(sy, ey)};
+        final double[] initial = region.clone();
+        index.visitQuery(initial[0], initial[1], initial[2], initial[3], i -> {
+            region[0] = Math.min(region[0], index.minX(i));
+            region[1] = Math.min(region[1], index.minY(i));
+            region[2] = Math.max(region[2], index.maxX(i));
+            region[3] = Math.max(region[3], index.maxY(i));
+            return true;
+        });
+        region[0] -= margin;
+        region[1] -= margin;
+        region[2] += margin;
+        region[3] += margin;
+
+        if (sx == ex && sy == ey) {
+            return new Route(start, startTarget, end, endTarget, region, null);
+        }
+
+        // The grid lines run along the bounds of the obstacles, and through
+        // the start and end points.
+        IntArrayList inRegion = new IntArrayList();
+        index.visitQuery(region[0], region[1], region[2], region[3], i -> {
+            inRegion.add(i);
+            return true;
+        });
+        double[] xs = new double[inRegion.size() * 2 + 4];
+        double[] ys = new double[inRegion.size() * 2 + 4];
+        xs[0] = region[0];
+        xs[1] = region[2];
+        xs[2] = sx;
+        xs[3] = ex;
+        ys[0] = region[1];
+        ys[1] = region[3];
+        ys[2] = sy;
+        ys[3] = ey;
+        for (int j = 0, n = inRegion.size(); j < n; j++) {
+            int i = inRegion.get(j);
+            xs[4 + j * 2] = Math.max(region[0], index.minX(i));
+            xs[5 + j * 2] = Math.min(region[2], index.maxX(i));
+            ys[4 + j * 2] = Math.max(region[1], index.minY(i));
+            ys[5 + j * 2] = Math.min(region[3], index.maxY(i));
+        }
+        xs = sortedDistinct(xs);
+        ys = sortedDistinct(ys);
+        if ((long) xs.length * ys.length > MAX_GRID_SIZE) {
+            return new Route(start, startTarget, end, endTarget, region, null);
+        }
+
+        Grid grid = new Grid(index, xs, ys, sx, sy, startTarget, ex, ey, endTarget);
+        int startVertex = grid.vertex(Arrays.binarySearch(xs, sx), Arrays.binarySearch(ys, sy), Grid.HORIZONTAL);
+        int endPoint = grid.point(Arrays.binarySearch(xs, ex), Arrays.binarySearch(ys, ey));
+
+        AnyDoubleShortestPathBuilder<Integer, Double> builder = new AnyDoubleShortestPathBuilder<>(grid::getNextArcs, Double::doubleValue);
+        Map.Entry<VertexPath<Integer>, Double> result = builder.findVertexPath(startVertex, v -> v >> 1 == endPoint);
+        if (result == null) {
+            return new Route(start, startTarget, end, endTarget, region, null);
+        }
+
+        // Convert the vertices into points, and remove the points that are
+        // not at a bend of the route.
+        List<Point2D> points = new ArrayList<>();
+        for (Integer v : result.getKey().getVertices()) {
+            Point2D p = grid.toPoint2D(v);
+            int size = points.size();
+            if (size > 0 && points.get(size - 1).equals(p)) {
+                continue;
+            }
+            if (size > 1) {
+                Point2D p0 = points.get(size - 2), p1 = points.get(size - 1);
+                if (p0.getX() == p1.getX() && p1.getX() == p.getX()
+                        || p0.getY() == p1.getY() && p1.getY() == p.getY()) {
+                    points.set(size - 1, p);
+                    continue;
+                }
+            }
+            points.add(p);
+        }
+        return new Route(start, startTarget, end, endTarget, region, Collections.unmodifiableList(points));
+    }
+
+    private static @NonNull double[] sortedDistinct(@NonNull double[] a) {
+        Arrays.sort(a);
+        int n = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (n == 0 || a[n - 1] != a[i]) {
+                a[n++] = a[i];
+            }
+        }
+        return Arrays.copyOf(a, n);
+    }
+
+    /**
+     * Updates the obstacles from the figures that have changed, and
+     * removes the routes whose corridor intersects with a changed obstacle.
+     * <p>
+     * This method reads the layout bounds of the changed figures. It must
+     * be invoked on the thread that lays out the drawing, and must not be
+     * invoked concurrently with {@link #route}.
+     */
+    public synchronized void validate() {
+        if (dirtyFigures.isEmpty()) {
+            return;
+        }
+        List<Bounds> changedBounds = new ArrayList<>();
+        for (Figure f : dirtyFigures) {
+            Bounds oldBounds = obstacles.remove(f);
+            Bounds newBounds = null;
+            // Figures that have been removed from the drawing no longer have a drawing as ancestor
+            if (f.getAncestor(Drawing.class) != null && obstaclePredicate.test(f)) {
+                newBounds = f.getLayoutBoundsInWorld();
+                obstacles.put(f, newBounds);
+            }
+            if (!Objects.equals(oldBounds, newBounds)) {
+                if (oldBounds != null) {
+                    changedBounds.add(oldBounds);
+                }
+                if (newBounds != null) {
+                    changedBounds.add(newBounds);
+                    obstacleIndex.put(f, newBounds, margin);
+                } else {
+                    obstacleIndex.remove(f);
+                }
+            }
+        }
+        dirtyFigures.clear();
+        if (!changedBounds.isEmpty()) {
+            routes.values().removeIf(r -> r.intersects(changedBounds, margin));
+        }
+    }
+
+    private synchronized void invalidate(@Nullable Figure f) {
+        if (f != null) {
+            dirtyFigures.add(f);
+        }
+    }
+
+    private synchronized void invalidateSubtree(@Nullable Figure f) {
+        if (f != null) {
+            for (Figure d : f.preorderIterable()) {
+                dirtyFigures.add(d);
+            }
+        }
+    }
+
+    private synchronized void invalidateAll(@Nullable Figure root) {
+        obstacles.clear();
+        dirtyFigures.clear();
+        routes.clear();
+        obstacleIndex.clear();
+        invalidateSubtree(root);
+    }
+
+    private void onDrawingModelEvent(@NonNull DrawingModelEvent event) {
+        switch (event.getEventType()) {
+        case LAYOUT_CHANGED:
+        case TRANSFORM_CHANGED:
+        case STYLE_CHANGED:
+            invalidateSubtree(event.getNode());
+            break;
+        case PROPERTY_VALUE_CHANGED:
+            invalidate(event.getNode());
+            // The obstacle predicate may depend on the connections of a figure
+            Object oldValue = event.getOldValue();
+            Object newValue = event.getNewValue();
+            if (oldValue instanceof Figure) {
+                invalidate((Figure) oldValue);
+            }
+            if (newValue instanceof Figure) {
+                invalidate((Figure) newValue);
+            }
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void onTreeModelEvent(@NonNull TreeModelEvent<Figure> event) {
+        switch (event.getEventType()) {
+        case ROOT_CHANGED:
+            invalidateAll(event.getRoot());
+            break;
+        case NODE_REMOVED_FROM_TREE:
+            routes.remove(event.getNode());
+            invalidate(event.getNode());
+            break;
+        case NODE_ADDED_TO_TREE:
+        case NODE_CHANGED:
+            invalidate(event.getNode());
+            break;
+        case SUBTREE_NODES_CHANGED:
+            invalidateSubtree(event.getNode());
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Spatial index over the bounds of the obstacles, grown by the margin.
+     * <p>
+     * The index is changed by {@link #validate()}, and may be queried
+     * concurrently between two invocations of {@link #validate()}.
+     */
+    private static class ObstacleIndex {
+        private final @NonNull DynamicSpatialIndex index = new DynamicSpatialIndex();
+        private final @NonNull Map<Figure, Integer> indices = new IdentityHashMap<>();
+        private @NonNull Figure[] figures = new Figure[16];
+
+        void put(@NonNull Figure figure, @NonNull Bounds b, double margin) {
+            double minX = b.getMinX() - margin, minY = b.getMinY() - margin,
+                    maxX = b.getMaxX() + margin, maxY = b.getMaxY() + margin;
+            Integer i = indices.get(figure);
+            if (i != null) {
+                index.update(i, minX, minY, maxX, maxY);
+                return;
+            }
+            int added = index.add(minX, minY, maxX, maxY);
+            if (added >= figures.length) {
+                figures = Arrays.copyOf(figures, Math.max(added + 1, figures.length * 2));
+            }
+            figures[added] = figure;
+            indices.put(figure, added);
+        }
+
+        void remove(@NonNull Figure figure) {
+            Integer i = indices.remove(figure);
+            if (i != null) {
+                index.remove(i);
+                figures[i] = null;
+            }
+        }
+
+        void clear() {
+            index.clear();
+            indices.clear();
+            Arrays.fill(figures, null);
+        }
+
+        void visitQuery(double minX, double minY, double maxX, double maxY, @NonNull IntPredicate visitor) {
+            index.visitQuery(minX, minY, maxX, maxY, visitor);
+        }
+
+        double minX(int i) {
+            return index.getMinX(i);
+        }
+
+        double minY(int i) {
+            return index.getMinY(i);
+        }
+
+        double maxX(int i) {
+            return index.getMaxX(i);
+        }
+
+        double maxY(int i) {
+            return index.getMaxY(i);
+        }
+
+        boolean contains(int i, double x, double y) {
+            return minX(i) < x && x < maxX(i) && minY(i) < y && y < maxY(i);
+        }
+
+        @Nullable Figure getFigure(int i) {
+            return figures[i];
+        }
+    }
+
+    /**
+     * The orthogonal visibility graph of a corridor.
+     * <p>
+     * A vertex of the graph is a point of the grid combined with a direction.
+     * Moving along a grid line costs the length of the move, changing the
+     * direction at a point costs the bend penalty. Changing the direction at
+     * the start or the end point is free.
+     */
+    private class Grid {
+        static final int HORIZONTAL = 0;
+        static final int VERTICAL = 1;
+
+        private final @NonNull ObstacleIndex index;
+        private final @NonNull double[] xs, ys;
+        private final double sx, sy, ex, ey;
+        private final @Nullable Figure startTarget, endTarget;
+        /**
+         * Caches whether a point is free (1) or blocked (2).
+         */
+        private final @NonNull byte[] free;
+
+        Grid(@NonNull ObstacleIndex index, @NonNull double[] xs, @NonNull double[] ys,
+             double sx, double sy, @Nullable Figure startTarget,
+             double ex, double ey, @Nullable Figure endTarget) {
+            this.index = index;
+            this.xs = xs;
+            this.ys = ys;
+            this.sx = sx;
+            this.sy = sy;
+            this.startTarget = startTarget;
+            this.ex = ex;
+            this.ey = ey;
+            this.endTarget = endTarget;
+            this.free = new byte[xs.length * ys.length];
+        }
+
+        int point(int ix, int iy) {
+            return iy * xs.length + ix;
+        }
+
+        int vertex(int ix, int iy, int direction) {
+            return point(ix, iy) << 1 | direction;
+        }
+
+        @NonNull Point2D toPoint2D(int vertex) {
+            int p = vertex >> 1;
+            return new Point2D(xs[p % xs.length], ys[p / xs.length]);
+        }
+
+        /**
+         * Returns true if the specified coordinates are not inside an obstacle.
+         * Inside the start and end targets, only the lines through the start
+         * and the end point are free.
+         */
+        boolean isFreeAt(double x, double y) {
+            boolean[] blocked = new boolean[1];
+            index.visitQuery(x, y, x, y, i -> {
+                if (index.contains(i, x, y)) {
+                    Figure f = index.getFigure(i);
+                    if (f == startTarget && (x == sx || y == sy)
+                            || f == endTarget && (x == ex || y == ey)) {
+                        return true;
+                    }
+                    blocked[0] = true;
+                    return false;
+                }
+                return true;
+            });
+            return !blocked[0];
+        }
+
+        boolean isFree(int ix, int iy) {
+            int p = point(ix, iy);
+            if (free[p] == 0) {
+                free[p] = isFreeAt(xs[ix], ys[iy]) ? (byte) 1 : (byte) 2;
+            }
+            return free[p] == 1;
+        }
+
+        @NonNull Iterable<Arc<Integer, Double>> getNextArcs(@NonNull Integer vertex) {
+            int v = vertex;
+            int p = v >> 1;
+            int direction = v & 1;
+            int ix = p % xs.length;
+            int iy = p / xs.length;
+            double x = xs[ix], y = ys[iy];
+            List<Arc<Integer, Double>> arcs = new ArrayList<>(3);
+            boolean isTerminal = x == sx && y == sy || x == ex && y == ey;
+            arcs.add(new Arc<>(vertex, v ^ 1, isTerminal ? 0.0 : bendPenalty));
+            if (direction == HORIZONTAL) {
+                if (ix > 0 && isFree(ix - 1, iy) && isFreeAt((xs[ix - 1] + x) * 0.5, y)) {
+                    arcs.add(new Arc<>(vertex, vertex(ix - 1, iy, HORIZONTAL), x - xs[ix - 1]));
+                }
+                if (ix < xs.length - 1 && isFree(ix + 1, iy) && isFreeAt((xs[ix + 1] + x) * 0.5, y)) {
+                    arcs.add(new Arc<>(vertex, vertex(ix + 1, iy, HORIZONTAL), xs[ix + 1] - x));
+                }
+            } else {
+                if (iy > 0 && isFree(ix, iy - 1) && isFreeAt(x, (ys[iy - 1] + y) * 0.5)) {
+                    arcs.add(new Arc<>(vertex, vertex(ix, iy - 1, VERTICAL), y - ys[iy - 1]));
+                }
+                if (iy < ys.length - 1 && isFree(ix, iy + 1) && isFreeAt(x, (ys[iy + 1] + y) * 0.5)) {
+                    arcs.add(new Arc<>(vertex, vertex(ix, iy + 1, VERTICAL), ys[iy + 1] - y));
+                }
+            }
+            return arcs;
+        }
+    }
+
+    /**
+     * A cached route.
+     */
+    private static class Route {
+        private final @NonNull Point2D start, end;
+        private final @Nullable Figure startTarget, endTarget;
+        private final @NonNull double[] region;
+        private final @Nullable List<Point2D> points;
+
+        Route(@NonNull Point2D start, @Nullable Figure startTarget, @NonNull Point2D end, @Nullable Figure endTarget,
+              @NonNull double[] region, @Nullable List<Point2D> points) {
+            this.start = start;
+            this.end = end;
+            this.startTarget = startTarget;
+            this.endTarget = endTarget;
+            this.region = region;
+            this.points = points;
+        }
+
+        boolean matches(@NonNull Point2D start, @Nullable Figure startTarget, @NonNull Point2D end, @Nullable Figure endTarget) {
+            return this.startTarget == startTarget && this.endTarget == endTarget
+                    && this.start.equals(start) && this.end.equals(end);
+        }
+
+        boolean intersects(@NonNull List<Bounds> boundsList, double margin) {
+            for (Bounds b : boundsList) {
+                if (b.getMinX() - margin <= region[2] && region[0] <= b.getMaxX() + margin
+                        && b.getMinY() - margin <= region[3] && region[1] <= b.getMaxY() + margin) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -33,7 +33,6 @@ import javafx.scene.transform.Transform;
 import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.collection.ImmutableList;
-import org.jhotdraw8.collection.ImmutableLists;
 import org.jhotdraw8.collection.MapAccessor;
 import org.jhotdraw8.css.CssColor;
 import org.jhotdraw8.css.CssPoint2D;
@@ -41,6 +40,7 @@ import org.jhotdraw8.draw.DrawLabels;
 import org.jhotdraw8.draw.DrawingView;
 import org.jhotdraw8.draw.figure.Figure;
 import org.jhotdraw8.geom.BezierNode;
+import org.jhotdraw8.geom.BezierNodeList;
 import org.jhotdraw8.geom.BezierNodePath;
 import org.jhotdraw8.geom.FXGeom;
 import org.jhotdraw8.geom.FXTransforms;
@@ -175,7 +175,7 @@ public class BezierControlPointEditHandle extends AbstractHandle {
                         newbn = bn.setCollinear(true).setEquidistant(false);
                     }
                     dv.getModel().set(owner, pointKey,
-                            ImmutableLists.set(list, pointIndex, newbn));
+                            BezierNodeList.of(list).set(pointIndex, newbn));
                 }
             }
         }
@@ -203,7 +203,7 @@ public class BezierControlPointEditHandle extends AbstractHandle {
                 // move control point independently
                 BezierNode newBezierNode = bn.setC(controlPointMask, p);
                 view.getModel().set(f, pointKey,
-                        ImmutableLists.set(list, pointIndex, newBezierNode));
+                        BezierNodeList.of(list).set(pointIndex, newBezierNode));
             } else {
                 // move control point and opposite control point to same distance
                 BezierNode newBezierNode = bn.setC(controlPointMask, p);
@@ -228,7 +228,7 @@ public class BezierControlPointEditHandle extends AbstractHandle {
                 }
 
                 view.getModel().set(f, pointKey,
-                        ImmutableLists.set(list, pointIndex, newBezierNode));
+                        BezierNodeList.of(list).set(pointIndex, newBezierNode));
             }
         } else {
             Point2D c0 = bn.getC0();
@@ -264,7 +264,7 @@ public class BezierControlPointEditHandle extends AbstractHandle {
                 newBezierNode = bn.setC2(p).setC1(p2);
             }
             view.getModel().set(f, pointKey,
-                    ImmutableLists.set(list, pointIndex, newBezierNode));
+                    BezierNodeList.of(list).set(pointIndex, newBezierNode));
         }
     }
 
@@ -297,26 +297,22 @@ public class BezierControlPointEditHandle extends AbstractHandle {
         }
         noneRadio.setOnAction(actionEvent -> {
             BezierNode changedNode = bnode.setCollinear(false).setEquidistant(false);
-            path.getNodes().set(pointIndex, changedNode);
-            view.getModel().set(owner, pointKey, ImmutableLists.ofCollection(path.getNodes()));
+            view.getModel().set(owner, pointKey, path.getNodes().set(pointIndex, changedNode));
             view.recreateHandles();
         });
         collinearRadio.setOnAction(actionEvent -> {
             BezierNode changedNode = bnode.setCollinear(true).setEquidistant(false);
-            path.getNodes().set(pointIndex, changedNode);
-            view.getModel().set(owner, pointKey, ImmutableLists.ofCollection(path.getNodes()));
+            view.getModel().set(owner, pointKey, path.getNodes().set(pointIndex, changedNode));
             view.recreateHandles();
         });
         equidistantRadio.setOnAction(actionEvent -> {
             BezierNode changedNode = bnode.setCollinear(false).setEquidistant(true);
-            path.getNodes().set(pointIndex, changedNode);
-            view.getModel().set(owner, pointKey, ImmutableLists.ofCollection(path.getNodes()));
+            view.getModel().set(owner, pointKey, path.getNodes().set(pointIndex, changedNode));
             view.recreateHandles();
         });
         bothRadio.setOnAction(actionEvent -> {
             BezierNode changedNode = bnode.setCollinear(true).setEquidistant(true);
-            path.getNodes().set(pointIndex, changedNode);
-            view.getModel().set(owner, pointKey, ImmutableLists.ofCollection(path.getNodes()));
+            view.getModel().set(owner, pointKey, path.getNodes().set(pointIndex, changedNode));
             view.recreateHandles();
         });
 
@@ -30,7 +30,6 @@ import javafx.scene.transform.Transform;
 import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.collection.ImmutableList;
-import org.jhotdraw8.collection.ImmutableLists;
 import org.jhotdraw8.collection.MapAccessor;
 import org.jhotdraw8.css.CssColor;
 import org.jhotdraw8.css.CssPoint2D;
@@ -38,6 +37,7 @@ import org.jhotdraw8.draw.DrawLabels;
 import org.jhotdraw8.draw.DrawingView;
 import org.jhotdraw8.draw.figure.Figure;
 import org.jhotdraw8.geom.BezierNode;
+import org.jhotdraw8.geom.BezierNodeList;
 import org.jhotdraw8.geom.BezierNodePath;
 import org.jhotdraw8.geom.FXTransforms;
 import org.jhotdraw8.geom.Geom;
@@ -165,8 +165,7 @@ public class BezierNodeEditHandle extends AbstractHandle {
                         case BezierNode.MOVE_MASK:
                             break;
                     }
-                    path.getNodes().set(pointIndex, node);
-                    dv.getModel().set(owner, pointKey, ImmutableLists.ofCollection(path.getNodes()));
+                    dv.getModel().set(owner, pointKey, path.getNodes().set(pointIndex, node));
                     dv.recreateHandles();
                 }
             } else if (event.getClickCount() == 2) {
@@ -181,7 +180,7 @@ public class BezierNodeEditHandle extends AbstractHandle {
         if (owner.get(pointKey).size() > 2) {
             BezierNodePath path = new BezierNodePath(owner.get(pointKey));
             path.join(pointIndex, 1.0);
-            dv.getModel().set(owner, pointKey, ImmutableLists.ofCollection(path.getNodes()));
+            dv.getModel().set(owner, pointKey, path.getNodes());
             dv.recreateHandles();
         }
     }
@@ -201,7 +200,7 @@ public class BezierNodeEditHandle extends AbstractHandle {
         }
         BezierNode p = list.get(pointIndex);
         view.getModel().set(getOwner(), pointKey,
-                ImmutableLists.set(list, pointIndex, p.setC0AndTranslateC1C2(getOwner().worldToLocal(newPoint))));
+                BezierNodeList.of(list).set(pointIndex, p.setC0AndTranslateC1C2(getOwner().worldToLocal(newPoint))));
     }
 
     @Override
@@ -242,26 +241,22 @@ public class BezierNodeEditHandle extends AbstractHandle {
         }
         noneRadio.setOnAction(actionEvent -> {
             BezierNode changedNode = bnode.setMask(C0_MASK);
-            path.getNodes().set(pointIndex, changedNode);
-            view.getModel().set(owner, pointKey, ImmutableLists.ofCollection(path.getNodes()));
+            view.getModel().set(owner, pointKey, path.getNodes().set(pointIndex, changedNode));
             view.recreateHandles();
         });
         inRadio.setOnAction(actionEvent -> {
             BezierNode changedNode = bnode.setMask(C0C1_MASK);
-            path.getNodes().set(pointIndex, changedNode);
-            view.getModel().set(owner, pointKey, ImmutableLists.ofCollection(path.getNodes()));
+            view.getModel().set(owner, pointKey, path.getNodes().set(pointIndex, changedNode));
             view.recreateHandles();
         });
         outRadio.setOnAction(actionEvent -> {
             BezierNode changedNode = bnode.setMask(C0C2_MASK);
-            path.getNodes().set(pointIndex, changedNode);
-            view.getModel().set(owner, pointKey, ImmutableLists.ofCollection(path.getNodes()));
+            view.getModel().set(owner, pointKey, path.getNodes().set(pointIndex, changedNode));
             view.recreateHandles();
         });
         bothRadio.setOnAction(actionEvent -> {
             BezierNode changedNode = bnode.setMask(C0C1C2_MASK);
-            path.getNodes().set(pointIndex, changedNode);
-            view.getModel().set(owner, pointKey, ImmutableLists.ofCollection(path.getNodes()));
+            view.getModel().set(owner, pointKey, path.getNodes().set(pointIndex, changedNode));
             view.recreateHandles();
         });
 
@@ -10,7 +10,6 @@ import javafx.scene.control.MenuItem;
 import javafx.scene.input.MouseEvent;
 import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.collection.ImmutableList;
-import org.jhotdraw8.collection.ImmutableLists;
 import org.jhotdraw8.collection.MapAccessor;
 import org.jhotdraw8.draw.DrawLabels;
 import org.jhotdraw8.draw.DrawingView;
@@ -46,9 +45,7 @@ public class BezierPathEditHandle extends PathIterableOutlineHandle {
             if (!intersectionResultEx.isEmpty()) {
                 IntersectionPoint intersectionPointEx = intersectionResultEx.get(0);
                 int segment = intersectionPointEx.getSegmentA();
-                path.getNodes().add(segment, new BezierNode(
-                        pointInLocal));
-                view.getModel().set(owner, pointKey, ImmutableLists.ofCollection(path.getNodes()));
+                view.getModel().set(owner, pointKey, path.getNodes().add(segment, new BezierNode(pointInLocal)));
                 view.recreateHandles();
             }
         });
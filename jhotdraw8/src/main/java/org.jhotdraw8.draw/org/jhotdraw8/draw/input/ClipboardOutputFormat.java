@@ -15,6 +15,10 @@ import java.util.Map;
 
 /**
  * OutputFormat for clipboard.
+ * <p>
+ * Implementations must materialize layers with deferred children before
+ * they traverse the drawing, see
+ * {@link org.jhotdraw8.draw.figure.LayerFigure#materializeDeferredChildren(Figure)}.
  *
  * @author Werner Randelshofer
  * @design.pattern Drawing Strategy, Strategy.
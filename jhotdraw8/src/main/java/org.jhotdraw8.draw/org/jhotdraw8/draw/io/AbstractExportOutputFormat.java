@@ -14,6 +14,7 @@ import org.jhotdraw8.beans.AbstractPropertyBean;
 import org.jhotdraw8.collection.Key;
 import org.jhotdraw8.draw.figure.Drawing;
 import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.LayerFigure;
 import org.jhotdraw8.draw.figure.Page;
 import org.jhotdraw8.draw.figure.Slice;
 import org.jhotdraw8.draw.render.RenderContext;
@@ -80,6 +81,7 @@ public abstract class AbstractExportOutputFormat extends AbstractPropertyBean im
     protected abstract void writePage(Path file, Page page, Node node, int pageCount, int pageNumber, int internalPageNumber) throws IOException;
 
     protected void writePages(@Nullable Path dir, String basename, @NonNull Drawing drawing) throws IOException {
+        LayerFigure.materializeDeferredChildren(drawing);
         List<Page> pages = new ArrayList<>();
         for (Figure f : drawing.preorderIterable()) {
             if (f instanceof Page) {
@@ -175,6 +177,7 @@ public abstract class AbstractExportOutputFormat extends AbstractPropertyBean im
     protected abstract boolean writeSlice(Path file, Slice slice, Node node, double dpi) throws IOException;
 
     protected void writeSlices(@Nullable Path dir, @NonNull Drawing drawing) throws IOException {
+        LayerFigure.materializeDeferredChildren(drawing);
         List<Slice> slices = new ArrayList<>();
         for (Figure f : drawing.preorderIterable()) {
             if (f instanceof Slice) {
@@ -17,6 +17,7 @@ import javafx.scene.image.WritablePixelFormat;
 import javafx.scene.input.DataFormat;
 import javafx.scene.transform.Transform;
 import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.collection.Key;
 import org.jhotdraw8.concurrent.WorkState;
 import org.jhotdraw8.css.CssColor;
@@ -51,22 +52,47 @@ import java.awt.image.SinglePixelPackedSampleModel;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.IntBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
 
 import static org.jhotdraw8.draw.render.SimpleDrawingRenderer.toNode;
 
 /**
  * BitmapExportOutputFormat.
+ * <p>
+ * When slices and pages are exported to files, the snapshots are taken one
+ * after another on the JavaFX application thread, while the PNG encoding of
+ * the previous snapshots runs on an encoder executor. The number of
+ * snapshots that are waiting for encoding is bounded, so that the memory
+ * usage does not grow with the number of slices. If the bound is reached,
+ * the calling thread encodes the snapshot itself.
+ * <p>
+ * Slices and pages that are larger than the tile size are rendered in
+ * tiles. The tiles of a row are combined into a strip, and the strips are
+ * written into the PNG file one after the other, because each row of a PNG
+ * file spans the full width of the image. The height of a strip is chosen
+ * so that a strip holds at most as many pixels as a square tile. The
+ * buffer for a strip therefore holds at most max(tileSize², width) pixels:
+ * its size does not depend on the height of the image, and only depends
+ * on the width, for images that are wider than tileSize² pixels. No
+ * snapshot exceeds the texture size limit.
  *
  * @author Werner Randelshofer
  */
@@ -76,27 +102,103 @@ public class BitmapExportOutputFormat extends AbstractExportOutputFormat impleme
     public static final String JPEG_MIME_TYPE = "image/jpeg";
     public static final String PNG_MIME_TYPE = "image/png";
 
+    private @NonNull Executor encoderExecutor = ForkJoinPool.commonPool();
+    private int maxPendingImages = ForkJoinPool.getCommonPoolParallelism() + 1;
+    /**
+     * The encoder queue of the export that is in progress on the current
+     * thread. Images are encoded on the calling thread if there is none.
+     * <p>
+     * The queue is bound to the thread, so that concurrent exports with
+     * the same output format do not share a queue.
+     */
+    private final @NonNull ThreadLocal<EncoderQueue> encoderQueue = new ThreadLocal<>();
+    private int tileSize = 2048;
+    /**
+     * Buffered images that can be reused for slices and pages of the same
+     * size.
+     */
+    private final @NonNull Queue<BufferedImage> buffers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Sets the executor that encodes the images of slices and pages.
+     * <p>
+     * The default value is the common fork join pool.
+     *
+     * @param encoderExecutor the executor
+     */
+    public void setEncoderExecutor(@NonNull Executor encoderExecutor) {
+        this.encoderExecutor = encoderExecutor;
+    }
+
+    /**
+     * Sets the maximal number of images that may be waiting for encoding.
+     * <p>
+     * The default value is the parallelism of the common fork join pool
+     * plus one.
+     *
+     * @param maxPendingImages the maximal number of pending images, a value
+     *                         of 0 encodes all images on the calling thread
+     */
+    public void setMaxPendingImages(int maxPendingImages) {
+        this.maxPendingImages = maxPendingImages;
+    }
+
+    /**
+     * Sets the size of the tiles in pixels. Slices and pages that are wider
+     * or higher than the tile size are rendered in tiles.
+     * <p>
+     * The default value is 2048.
+     *
+     * @param tileSize the tile size, must be greater than 0
+     */
+    public void setTileSize(int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize must be > 0, tileSize=" + tileSize);
+        }
+        this.tileSize = tileSize;
+    }
+
     private WritableImage doRenderImage(@NonNull Figure slice, @NonNull Node node, @NonNull Bounds bounds, double dpi) {
-        SnapshotParameters parameters = new SnapshotParameters();
         double scale = dpi / RenderContext.DPI.getDefaultValueNonNull();
-        parameters.setTransform(FXTransforms.concat(Transform.scale(scale, scale), slice.getWorldToLocal()));
-        Drawing drawing = (slice instanceof Drawing) ? (Drawing) slice : slice.getDrawing();
-        final CssColor color = drawing != null ? drawing.get(Drawing.BACKGROUND) : NamedCssColor.WHITE;
-        if (color != null) {
-            parameters.setFill(color.getColor());
-        }
         double x = bounds.getMinX() * scale;
         double y = bounds.getMinY() * scale;
         double width = bounds.getWidth() * scale;
         double height = bounds.getHeight() * scale;
+        return doRenderTile(slice, node, new Rectangle2D(x, y, width, height), scale);
+    }
 
-        parameters.setViewport(new Rectangle2D(x, y, width, height));
+    private WritableImage doRenderTile(@NonNull Figure slice, @NonNull Node node, @NonNull Rectangle2D viewport, double scale) {
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setTransform(FXTransforms.concat(Transform.scale(scale, scale), slice.getWorldToLocal()));
+        final CssColor color = getBackground(slice);
+        if (color != null) {
+            parameters.setFill(color.getColor());
+        }
+        parameters.setViewport(viewport);
 
         WritableImage image = node.snapshot(parameters, null);
 
         return image;
     }
 
+    private @Nullable CssColor getBackground(@NonNull Figure slice) {
+        Drawing drawing = (slice instanceof Drawing) ? (Drawing) slice : slice.getDrawing();
+        return drawing != null ? drawing.get(Drawing.BACKGROUND) : NamedCssColor.WHITE;
+    }
+
+    /**
+     * Returns true if the snapshots of the specified slice are opaque.
+     * This is the case if the background color is opaque. The snapshot
+     * has a white background if no background color is specified.
+     *
+     * @param slice a slice
+     * @return true if opaque
+     */
+    private boolean isOpaque(@NonNull Figure slice) {
+        CssColor color = getBackground(slice);
+        return color == null || color.getColor().isOpaque();
+    }
+
     @Override
     protected @NonNull String getExtension() {
         return "png";
@@ -139,6 +241,72 @@ public class BitmapExportOutputFormat extends AbstractExportOutputFormat impleme
         }
     }
 
+    private WritableImage renderTile(@NonNull Figure slice, @NonNull Node node, @NonNull Rectangle2D viewport, double scale) throws IOException {
+        if (!Platform.isFxApplicationThread()) {
+            CompletableFuture<WritableImage> future = CompletableFuture.supplyAsync(() -> doRenderTile(slice, node, viewport, scale), Platform::runLater);
+            try {
+                return future.get();
+            } catch (InterruptedException | ExecutionException ex) {
+                throw new IOException(ex);
+            }
+        } else {
+            return doRenderTile(slice, node, viewport, scale);
+        }
+    }
+
+    private boolean isTiled(@NonNull Bounds bounds, double dpi) {
+        double scale = dpi / RenderContext.DPI.getDefaultValueNonNull();
+        return Math.ceil(bounds.getWidth() * scale) > tileSize
+                || Math.ceil(bounds.getHeight() * scale) > tileSize;
+    }
+
+    /**
+     * Renders the slice in tiles, and writes the tiles into a PNG file
+     * strip by strip.
+     * <p>
+     * A strip is tileSize² / width rows high, but at least 1 and at most
+     * tileSize rows, so that the strip buffer does not exceed
+     * max(tileSize², width) pixels.
+     *
+     * @param file      the file
+     * @param slice     the slice or page
+     * @param bounds    the bounds of the slice in local coordinates
+     * @param node      the node of the drawing
+     * @param renderDpi the dots per inch for rendering
+     * @param dpi       the dots per inch that is stored in the file
+     * @throws IOException if writing fails
+     */
+    private void writeTiledImage(@NonNull Path file, @NonNull Figure slice, @NonNull Bounds bounds, @NonNull Node node,
+                                 double renderDpi, double dpi) throws IOException {
+        double scale = renderDpi / RenderContext.DPI.getDefaultValueNonNull();
+        double x = bounds.getMinX() * scale;
+        double y = bounds.getMinY() * scale;
+        int width = Math.max(1, (int) Math.ceil(bounds.getWidth() * scale));
+        int height = Math.max(1, (int) Math.ceil(bounds.getHeight() * scale));
+
+        BufferedImage tile = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_ARGB);
+        int stripHeight = (int) Math.max(1, Math.min(Math.min(tileSize, height), (long) tileSize * tileSize / width));
+        int[] strip = new int[width * stripHeight];
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file));
+             PngStripWriter png = new PngStripWriter(out, width, height, dpi)) {
+            for (int ty = 0; ty < height; ty += stripHeight) {
+                int th = Math.min(stripHeight, height - ty);
+                for (int tx = 0; tx < width; tx += tileSize) {
+                    int tw = Math.min(tileSize, width - tx);
+                    WritableImage image = renderTile(slice, node, new Rectangle2D(x + tx, y + ty, tw, th), scale);
+                    tile = fromFXImage(image, tile, false);
+                    int[] tilePixels = ((DataBufferInt) tile.getRaster().getDataBuffer()).getData();
+                    int tileScan = tile.getWidth();
+                    int columns = Math.min(tw, (int) image.getWidth());
+                    for (int row = 0, rows = Math.min(th, (int) image.getHeight()); row < rows; row++) {
+                        System.arraycopy(tilePixels, row * tileScan, strip, row * width + tx, columns);
+                    }
+                }
+                png.writeRows(strip, th);
+            }
+        }
+    }
+
     private void setDPI(@NonNull IIOMetadata metadata, double dpi) throws IIOInvalidTreeException {
         double dotsPerMilli = dpi / INCH_2_MM;
 
@@ -168,7 +336,7 @@ public class BitmapExportOutputFormat extends AbstractExportOutputFormat impleme
     public void write(@NonNull OutputStream out, URI documentHome, @NonNull Drawing drawing, WorkState workState) throws IOException {
         WritableImage writableImage = renderImage(drawing, Collections.singleton(drawing), getNonNull(EXPORT_DRAWING_DPI_KEY));
         //ImageIO.write(SwingFXUtils.fromFXImage(image, null), "png", out);
-        writeImage(out, writableImage, getNonNull(EXPORT_DRAWING_DPI_KEY));
+        writeImage(out, fromFXImage(writableImage, null, isOpaque(drawing)), getNonNull(EXPORT_DRAWING_DPI_KEY));
 
     }
 
@@ -176,21 +344,102 @@ public class BitmapExportOutputFormat extends AbstractExportOutputFormat impleme
         if (isExportDrawing()) {
             OutputFormat.super.write(file, drawing, workState);
         }
-        if (isExportSlices()) {
-            writeSlices(file.getParent(), drawing);
+        if (!isExportSlices() && !isExportPages()) {
+            return;
         }
-        if (isExportPages()) {
-            String basename = file.getFileName().toString();
-            int p = basename.lastIndexOf('.');
-            if (p != -1) {
-                basename = basename.substring(0, p);
+
+        EncoderQueue queue = new EncoderQueue(encoderExecutor, maxPendingImages);
+        encoderQueue.set(queue);
+        IOException error = null;
+        try {
+            if (isExportSlices()) {
+                writeSlices(file.getParent(), drawing);
             }
-            writePages(file.getParent(), basename, drawing);
+            if (isExportPages()) {
+                String basename = file.getFileName().toString();
+                int p = basename.lastIndexOf('.');
+                if (p != -1) {
+                    basename = basename.substring(0, p);
+                }
+                writePages(file.getParent(), basename, drawing);
+            }
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            encoderQueue.remove();
+        }
+        try {
+            queue.await();
+        } catch (IOException e) {
+            if (error == null) {
+                error = e;
+            } else {
+                error.addSuppressed(e);
+            }
+        } finally {
+            buffers.clear();
+        }
+        if (error != null) {
+            throw error;
         }
     }
 
-    private void writeImage(@NonNull OutputStream out, @NonNull WritableImage writableImage, double dpi) throws IOException {
-        BufferedImage image = fromFXImage(writableImage, null);
+    /**
+     * Encodes the image into the specified file. The image is encoded
+     * asynchronously if an export is in progress.
+     *
+     * @param file  the file
+     * @param image the image, must not be changed anymore by the caller
+     * @param dpi    the dots per inch
+     * @param opaque whether all pixels of the image are opaque
+     * @throws IOException if writing fails
+     */
+    private void writeImage(@NonNull Path file, @NonNull WritableImage image, double dpi, boolean opaque) throws IOException {
+        EncoderQueue queue = encoderQueue.get();
+        if (queue != null) {
+            queue.submit(() -> doWriteImage(file, image, dpi, opaque));
+        } else {
+            doWriteImage(file, image, dpi, opaque);
+        }
+    }
+
+    private void doWriteImage(@NonNull Path file, @NonNull WritableImage writableImage, double dpi, boolean opaque) throws IOException {
+        int width = (int) writableImage.getWidth();
+        int height = (int) writableImage.getHeight();
+        BufferedImage image = fromFXImage(writableImage, pollBuffer(width, height, opaque), opaque);
+        if (image == null) {
+            throw new IOException("The pixels of the image can not be read.");
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            writeImage(out, image, dpi);
+        } finally {
+            if (buffers.size() <= maxPendingImages) {
+                buffers.add(image);
+            }
+        }
+    }
+
+    /**
+     * Removes a buffered image with the specified size from the pool of
+     * reusable buffers.
+     *
+     * @param width  the width
+     * @param height the height
+     * @param opaque whether the buffered image may be opaque
+     * @return a buffered image or null
+     */
+    private @Nullable BufferedImage pollBuffer(int width, int height, boolean opaque) {
+        for (BufferedImage b : buffers) {
+            if (b.getWidth() == width && b.getHeight() == height
+                    && (opaque || b.getType() != BufferedImage.TYPE_INT_RGB)
+                    && buffers.remove(b)) {
+                return b;
+            }
+        }
+        return null;
+    }
+
+    private void writeImage(@NonNull OutputStream out, @NonNull BufferedImage image, double dpi) throws IOException {
 
         for (Iterator<ImageWriter> iw = ImageIO.getImageWritersByFormatName("png"); iw.hasNext(); ) {
             ImageWriter writer = iw.next();
@@ -217,20 +466,106 @@ public class BitmapExportOutputFormat extends AbstractExportOutputFormat impleme
         double paperWidth = pw.getConvertedValue();
         final Bounds pageBounds = page.getPageBounds(internalPageNumber);
         double factor = paperWidth / pageBounds.getWidth();
-        WritableImage image = renderSlice(page, pageBounds, node, getNonNull(EXPORT_PAGES_DPI_KEY) * factor);
-        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
-            writeImage(out, image, getNonNull(EXPORT_PAGES_DPI_KEY));
+        double renderDpi = getNonNull(EXPORT_PAGES_DPI_KEY) * factor;
+        if (isTiled(pageBounds, renderDpi)) {
+            writeTiledImage(file, page, pageBounds, node, renderDpi, getNonNull(EXPORT_PAGES_DPI_KEY));
+            return;
         }
+        WritableImage image = renderSlice(page, pageBounds, node, renderDpi);
+        writeImage(file, image, getNonNull(EXPORT_PAGES_DPI_KEY), isOpaque(page));
     }
 
     protected boolean writeSlice(@NonNull Path file, @NonNull Slice slice, @NonNull Node node, double dpi) throws IOException {
-        WritableImage image = renderSlice(slice, slice.getLayoutBounds(), node, dpi);
-        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
-            writeImage(out, image, dpi);
+        Bounds bounds = slice.getLayoutBounds();
+        if (isTiled(bounds, dpi)) {
+            writeTiledImage(file, slice, bounds, node, dpi, dpi);
+            return false;
         }
+        WritableImage image = renderSlice(slice, bounds, node, dpi);
+        writeImage(file, image, dpi, isOpaque(slice));
         return false;
     }
 
+    /**
+     * Encodes images on the encoder executor while the caller takes the
+     * next snapshot.
+     * <p>
+     * An encoder queue is used by a single export. The first failure of an
+     * encoder is rethrown by the next invocation of {@link #submit} or
+     * {@link #await}.
+     */
+    static class EncoderQueue {
+        private final @NonNull Executor executor;
+        private final @NonNull Semaphore pending;
+        private final @NonNull List<CompletableFuture<Void>> futures = new ArrayList<>();
+        private volatile @Nullable Throwable failure;
+
+        EncoderQueue(@NonNull Executor executor, int maxPendingImages) {
+            this.executor = executor;
+            pending = new Semaphore(maxPendingImages);
+        }
+
+        /**
+         * Submits an encoder. The encoder is run on the calling thread if
+         * the maximal number of pending images has been reached.
+         *
+         * @param encoder the encoder
+         * @throws IOException if an encoder has failed
+         */
+        void submit(@NonNull Encoder encoder) throws IOException {
+            if (failure != null) {
+                await();
+            }
+            if (!pending.tryAcquire()) {
+                // Encode on the calling thread instead of blocking it. This
+                // bounds the memory usage, and does not deadlock if the
+                // caller is a worker thread of the encoder executor.
+                encoder.encode();
+                return;
+            }
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    encoder.encode();
+                } catch (IOException e) {
+                    failure = e;
+                    throw new UncheckedIOException(e);
+                } catch (RuntimeException | Error e) {
+                    failure = e;
+                    throw e;
+                } finally {
+                    pending.release();
+                }
+            }, executor));
+        }
+
+        /**
+         * Waits until all submitted images have been encoded.
+         *
+         * @throws IOException if encoding of an image failed
+         */
+        void await() throws IOException {
+            try {
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+            } catch (InterruptedException ex) {
+                throw new IOException(ex);
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) cause).getCause();
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    /**
+     * Encodes an image.
+     */
+    @FunctionalInterface
+    interface Encoder {
+        void encode() throws IOException;
+    }
+
     /**
      * Snapshots the specified JavaFX {@link Image} object and stores a
      * copy of its pixels into a {@link BufferedImage} object, creating
@@ -260,7 +595,28 @@ public class BitmapExportOutputFormat extends AbstractExportOutputFormat impleme
      * {@code Image}, or null if the {@code Image} is not readable.
      */
     public static BufferedImage fromFXImage(Image img, BufferedImage bimg) {
-        // This method has been copied from class SwingFXUtils.
+        return fromFXImage(img, bimg, false);
+    }
+
+    /**
+     * Snapshots the specified JavaFX {@link Image} object and stores a
+     * copy of its pixels into a {@link BufferedImage} object, creating
+     * a new object if needed.
+     * <p>
+     * The pixels are transferred directly into the backing array of the
+     * {@code BufferedImage}. If the caller knows that the image is opaque,
+     * a {@code TYPE_INT_RGB} image is created, and the pixels are not
+     * checked for opacity.
+     *
+     * @param img    the JavaFX {@code Image} to be converted
+     * @param bimg   an optional {@code BufferedImage} object that may be
+     *               used to store the returned pixel data
+     * @param opaque true if all pixels of the image are known to be opaque
+     * @return a {@code BufferedImage} containing a snapshot of the JavaFX
+     * {@code Image}, or null if the {@code Image} is not readable.
+     */
+    public static BufferedImage fromFXImage(Image img, @Nullable BufferedImage bimg, boolean opaque) {
+        // This method has been derived from class SwingFXUtils.
 
         PixelReader pr = img.getPixelReader();
         if (pr == null) {
@@ -269,8 +625,10 @@ public class BitmapExportOutputFormat extends AbstractExportOutputFormat impleme
         int iw = (int) img.getWidth();
         int ih = (int) img.getHeight();
         PixelFormat<?> fxFormat = pr.getPixelFormat();
-        boolean srcPixelsAreOpaque = isSrcPixelsAreOpaque(bimg, pr, iw, ih, fxFormat);
-        int prefBimgType = getBestBufferedImageType(pr.getPixelFormat(), bimg, srcPixelsAreOpaque);
+        boolean srcPixelsAreOpaque = opaque || isSrcPixelsAreOpaque(bimg, pr, iw, ih, fxFormat);
+        int prefBimgType = (opaque && bimg == null)
+                ? BufferedImage.TYPE_INT_RGB
+                : getBestBufferedImageType(pr.getPixelFormat(), bimg, srcPixelsAreOpaque);
         if (bimg != null) {
             int bw = bimg.getWidth();
             int bh = bimg.getHeight();
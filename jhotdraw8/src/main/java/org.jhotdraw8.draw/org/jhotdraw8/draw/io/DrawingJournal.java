@@ -0,0 +1,1064 @@
+/*
+ * @(#)DrawingJournal.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import javafx.application.Platform;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.app.DocumentJournal;
+import org.jhotdraw8.collection.MapAccessor;
+import org.jhotdraw8.concurrent.SimpleWorkState;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.io.SimpleBinaryFormat.ByteInput;
+import org.jhotdraw8.draw.io.SimpleBinaryFormat.ByteOutput;
+import org.jhotdraw8.draw.model.DrawingModel;
+import org.jhotdraw8.draw.model.DrawingModelEvent;
+import org.jhotdraw8.event.Listener;
+import org.jhotdraw8.io.IdFactory;
+import org.jhotdraw8.tree.TreeModelEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Records the changes of a drawing in an append-only journal file.
+ * <p>
+ * The journal listens to the events of a {@link DrawingModel}. When a
+ * figure has changed, the journal appends the current state of the figure
+ * to the journal file. When the children of a figure have changed, the
+ * journal appends the ids of the children. Changes that are made in the
+ * same event cycle are appended together as one batch. Therefore, the
+ * cost of journaling is proportional to the number of changed figures and
+ * not to the size of the drawing.
+ * <p>
+ * The journal starts from a base: either the document file, or a snapshot
+ * of the drawing that is stored in the journal file. When the batches have
+ * grown larger than the base, the journal is compacted into a new snapshot.
+ * The compaction runs in a background thread: it reconstructs the drawing
+ * from the journal file in the same way as {@link #recover} does, and
+ * writes the snapshot of the reconstructed drawing. The figures keep their
+ * ids. Only when the drawing of the model is replaced, the snapshot is
+ * taken from the drawing on the FX Application Thread.
+ * <p>
+ * The journal file has the following format. The primitive encodings are
+ * the same as in {@link SimpleBinaryFormat}.
+ * <pre>
+ * Journal   = magic:"JHDJ" version:byte Base Batch*
+ * Base      = DOCUMENT documentSize:varint documentLastModified:varint
+ *           | SNAPSHOT length:i32 xml:byte[length] idCount:varint IdMapping*
+ * IdMapping = snapshotId:string journalId:string
+ * Batch     = checksum:i32 length:i32 Record*
+ * Record    = FIGURE id:string elementName:string attributeCount:varint Attribute*
+ *           | CHILDREN parentId:string childCount:varint childId:string*
+ * Attribute = name:string ( VALUE value:string | REFERENCE id:string | NULL_REFERENCE )
+ * </pre>
+ * The checksum is the CRC-32 of the records of a batch. A batch that has
+ * been torn by a crash is ignored on recovery.
+ * <p>
+ * Figures do not fire events when they are reshaped or laid out, the
+ * model only fires layout events. Layout events are also fired when the
+ * model validates the drawing. Therefore, the journal keeps a hash of the
+ * attribute values of each figure, and only records figures of which the
+ * hash has changed.
+ * <p>
+ * The ids in the records are assigned by the journal in preorder when a
+ * document base is created. On recovery, the same ids are assigned to the
+ * figures of the document. A snapshot base maps the ids in the snapshot to
+ * the ids in the records, if they differ.
+ * <p>
+ * Values of node list keys are not journaled.
+ * <p>
+ * The journal must be used on the FX Application Thread, except for
+ * {@link #recover}.
+ *
+ * @author Werner Randelshofer
+ */
+public class DrawingJournal implements DocumentJournal {
+    private static final Logger LOGGER = Logger.getLogger(DrawingJournal.class.getName());
+    private static final byte[] MAGIC = {'J', 'H', 'D', 'J'};
+    private static final int VERSION = 2;
+    private static final int BASE_DOCUMENT = 0;
+    private static final int BASE_SNAPSHOT = 1;
+    private static final int RECORD_FIGURE = 0;
+    private static final int RECORD_CHILDREN = 1;
+    private static final int ATTRIBUTE_VALUE = 0;
+    private static final int ATTRIBUTE_REFERENCE = 1;
+    private static final int ATTRIBUTE_NULL_REFERENCE = 2;
+    /**
+     * The journal is not compacted before the batches have reached this
+     * length.
+     */
+    private static final long MIN_COMPACTION_LENGTH = 1L << 20;
+
+    private final @NonNull Path file;
+    private final @NonNull Supplier<? extends IdFactory> idFactorySupplier;
+    private final @NonNull Function<? super IdFactory, ? extends FigureFactory> figureFactoryFunction;
+    private final @NonNull IdFactory idFactory;
+    private final @NonNull FigureFactory figureFactory;
+    private final @Nullable String namespaceURI;
+    private @NonNull Executor flushExecutor = Platform::runLater;
+    private @NonNull Executor compactionExecutor = ForkJoinPool.commonPool();
+    private long minCompactionLength = MIN_COMPACTION_LENGTH;
+
+    private final @NonNull Listener<DrawingModelEvent> drawingModelListener = this::onDrawingModelEvent;
+    private final @NonNull Listener<TreeModelEvent<Figure>> treeModelListener = this::onTreeModelEvent;
+    private @Nullable DrawingModel model;
+    private @Nullable Path documentFile;
+    private @Nullable URI documentHome;
+
+    private final @NonNull Set<Figure> dirtyFigures = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final @NonNull Set<Figure> dirtyChildren = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * The hash of the attribute values of each figure, when the figure was
+     * recorded for the last time. Figures are removed from this map when
+     * they are removed from the drawing.
+     */
+    private final @NonNull Map<Figure, Long> stateHashes = new IdentityHashMap<>();
+    private final @NonNull ByteOutput attributesBuffer = new ByteOutput();
+    private boolean flushScheduled;
+    /**
+     * This is set to true, if the next flush must take a snapshot of the
+     * drawing, because the batches can not be applied to the base anymore.
+     */
+    private boolean rebaseRequested;
+    /**
+     * This is set to true, while the snapshot of a rebase is being written.
+     * The batches are only appended to the new journal file then.
+     */
+    private boolean rebasing;
+    private boolean discarded;
+
+    /**
+     * The header and the base, if they have not been written to the file
+     * yet. The file is created when the first batch is appended.
+     */
+    private @Nullable ByteOutput pendingBase;
+    private @Nullable FileChannel channel;
+    /**
+     * The length of the header and the base in the file.
+     */
+    private long baseLength;
+    /**
+     * The length of the file.
+     */
+    private long length;
+    /**
+     * The journal is compacted when the batches exceed this length.
+     */
+    private long compactionLength;
+    /**
+     * The batches that are appended while a compaction is in progress.
+     */
+    private @Nullable List<byte[]> pendingBatches;
+
+    /**
+     * Creates a new instance.
+     * <p>
+     * The journal creates an id factory and a figure factory for recording
+     * the changes, and another pair for each compaction, because the
+     * compaction runs in a background thread.
+     *
+     * @param file                  the journal file
+     * @param idFactorySupplier     creates a new id factory
+     * @param figureFactoryFunction creates a new figure factory that uses
+     *                              the specified id factory
+     * @param namespaceURI          the namespace of the snapshots
+     */
+    public DrawingJournal(@NonNull Path file, @NonNull Supplier<? extends IdFactory> idFactorySupplier,
+                          @NonNull Function<? super IdFactory, ? extends FigureFactory> figureFactoryFunction,
+                          @Nullable String namespaceURI) {
+        this.file = file;
+        this.idFactorySupplier = idFactorySupplier;
+        this.figureFactoryFunction = figureFactoryFunction;
+        this.idFactory = idFactorySupplier.get();
+        this.figureFactory = figureFactoryFunction.apply(idFactory);
+        this.namespaceURI = namespaceURI;
+    }
+
+    public @NonNull Path getFile() {
+        return file;
+    }
+
+    /**
+     * Sets the executor that flushes the changes. The executor must run
+     * the flush on the FX Application Thread.
+     * <p>
+     * The default value is {@link Platform#runLater}.
+     *
+     * @param flushExecutor the executor
+     */
+    public void setFlushExecutor(@NonNull Executor flushExecutor) {
+        this.flushExecutor = flushExecutor;
+    }
+
+    /**
+     * Sets the executor that writes compacted snapshots.
+     * <p>
+     * The default value is the common fork join pool.
+     *
+     * @param compactionExecutor the executor
+     */
+    public void setCompactionExecutor(@NonNull Executor compactionExecutor) {
+        this.compactionExecutor = compactionExecutor;
+    }
+
+    /**
+     * Sets the length that the batches must reach before the journal is
+     * compacted. The journal is never compacted before the batches are
+     * larger than the base.
+     *
+     * @param minCompactionLength the length in bytes
+     */
+    public void setMinCompactionLength(long minCompactionLength) {
+        this.minCompactionLength = minCompactionLength;
+    }
+
+    /**
+     * Returns the length of the journal file.
+     *
+     * @return the length in bytes
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Starts a new journal for a drawing that has just been read from the
+     * document file or has just been written to it.
+     * <p>
+     * An existing journal file is replaced when the first change is
+     * recorded.
+     *
+     * @param documentFile the document file
+     * @param model        the drawing model
+     * @throws IOException if the attributes of the document file can not
+     *                     be read
+     */
+    public void start(@NonNull Path documentFile, @NonNull DrawingModel model) throws IOException {
+        this.documentFile = documentFile;
+        documentHome = getDocumentHome(documentFile);
+        ByteOutput base = createHeader();
+        base.writeByte(BASE_DOCUMENT);
+        long documentSize = Files.size(documentFile);
+        base.writeVarint(documentSize);
+        base.writeVarint(Files.getLastModifiedTime(documentFile).toMillis());
+        pendingBase = base;
+        baseLength = length = base.size();
+        compactionLength = Math.max(minCompactionLength, documentSize);
+        new Replayer(figureFactory, idFactory, namespaceURI, documentHome, stateHashes).assignIds(model.getDrawing());
+        attach(model);
+    }
+
+    /**
+     * Recovers a drawing from the journal file.
+     * <p>
+     * This method can be called on a background thread. If this method
+     * returns a drawing, the journal must be attached to the model of the
+     * drawing with {@link #attach}.
+     *
+     * @param documentFile the document file
+     * @param document     the drawing that has been read from the document
+     *                     file
+     * @return the recovered drawing, or null if there is no journal file or
+     * if the journal file does not match the document file
+     * @throws IOException if the journal file can not be read or replayed
+     */
+    public @Nullable Drawing recover(@NonNull Path documentFile, @NonNull Drawing document) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        this.documentFile = documentFile;
+        documentHome = getDocumentHome(documentFile);
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        Replayer replayer = new Replayer(figureFactory, idFactory, namespaceURI, documentHome, stateHashes);
+        Drawing drawing = replayer.read(buffer, documentFile, document);
+        if (drawing != null) {
+            baseLength = replayer.baseLength;
+            length = replayer.length;
+            compactionLength = Math.max(minCompactionLength, replayer.baseSize);
+        }
+        return drawing;
+    }
+
+    /**
+     * Attaches the journal to a drawing model. From now on, the journal
+     * records the changes of the drawing.
+     *
+     * @param model the drawing model
+     */
+    public void attach(@NonNull DrawingModel model) {
+        this.model = model;
+        model.addDrawingModelListener(drawingModelListener);
+        model.addTreeModelListener(treeModelListener);
+    }
+
+    @Override
+    public void discard() throws IOException {
+        discarded = true;
+        if (model != null) {
+            model.removeDrawingModelListener(drawingModelListener);
+            model.removeTreeModelListener(treeModelListener);
+            model = null;
+        }
+        dirtyFigures.clear();
+        dirtyChildren.clear();
+        stateHashes.clear();
+        try {
+            closeChannel();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The snapshot of the drawing is taken with the next flush, or after
+     * a running compaction has finished.
+     */
+    @Override
+    public void rebase() {
+        rebaseRequested = true;
+        scheduleFlush();
+    }
+
+    private void onDrawingModelEvent(@NonNull DrawingModelEvent event) {
+        switch (event.getEventType()) {
+        case PROPERTY_VALUE_CHANGED:
+            if (!event.getKey().isTransient()) {
+                markDirty(event.getNode());
+            }
+            break;
+        case LAYOUT_CHANGED:
+        case TRANSFORM_CHANGED:
+            markDirty(event.getNode());
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void onTreeModelEvent(@NonNull TreeModelEvent<Figure> event) {
+        switch (event.getEventType()) {
+        case NODE_ADDED_TO_PARENT:
+            dirtyChildren.add(event.getParent());
+            for (Figure f : event.getChild().preorderIterable()) {
+                dirtyFigures.add(f);
+            }
+            scheduleFlush();
+            break;
+        case NODE_REMOVED_FROM_PARENT:
+            dirtyChildren.add(event.getParent());
+            // If the figures are added again, for example by an undo,
+            // they are recorded again.
+            for (Figure f : event.getChild().preorderIterable()) {
+                stateHashes.remove(f);
+            }
+            scheduleFlush();
+            break;
+        case ROOT_CHANGED:
+            rebaseRequested = true;
+            scheduleFlush();
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void markDirty(@NonNull Figure figure) {
+        dirtyFigures.add(figure);
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled && !discarded) {
+            flushScheduled = true;
+            flushExecutor.execute(() -> {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, e, () -> "Couldn't write journal " + file);
+                }
+            });
+        }
+    }
+
+    /**
+     * Appends the pending changes to the journal file, and starts a
+     * compaction if the journal has grown too large.
+     *
+     * @throws IOException if writing fails
+     */
+    public void flush() throws IOException {
+        flushScheduled = false;
+        DrawingModel m = model;
+        if (m == null || discarded) {
+            return;
+        }
+        Drawing drawing = m.getDrawing();
+        if (drawing == null) {
+            return;
+        }
+        if (pendingBatches == null) {
+            if (rebaseRequested) {
+                rebase(drawing);
+                return;
+            }
+            if (length - baseLength > compactionLength) {
+                compact();
+            }
+        }
+
+        ByteOutput batch = new ByteOutput();
+        int checksumPos = batch.reserveInt();
+        int lengthPos = batch.reserveInt();
+        for (Figure f : dirtyFigures) {
+            if (f.getRoot() == drawing) {
+                writeFigureRecord(batch, f);
+            }
+        }
+        for (Figure f : dirtyChildren) {
+            if (f.getRoot() == drawing) {
+                writeChildrenRecord(batch, f);
+            }
+        }
+        dirtyFigures.clear();
+        dirtyChildren.clear();
+        if (batch.size() == lengthPos + 4) {
+            return;
+        }
+        batch.patchLength(lengthPos);
+        CRC32 crc = new CRC32();
+        crc.update(batch.getBytes(), lengthPos + 4, batch.size() - lengthPos - 4);
+        batch.patchInt(checksumPos, (int) crc.getValue());
+
+        if (pendingBatches != null) {
+            pendingBatches.add(Arrays.copyOf(batch.getBytes(), batch.size()));
+        }
+        if (!rebasing) {
+            write(getChannel(), batch.getBytes(), batch.size());
+        }
+    }
+
+    private void writeFigureRecord(@NonNull ByteOutput out, @NonNull Figure figure) throws IOException {
+        String elementName = figureFactory.getElementNameByFigure(figure);
+        if (elementName == null) {
+            // => the figureFactory decided that we should skip the figure
+            return;
+        }
+        List<MapAccessor<Object>> keys = SimpleXmlWriter.getAttributeKeys(figureFactory, figure);
+        long hash = getStateHash(figure, keys);
+        Long oldHash = stateHashes.put(figure, hash);
+        if (oldHash != null && oldHash == hash) {
+            return;
+        }
+        int count = 0;
+        ByteOutput attributes = attributesBuffer;
+        for (MapAccessor<Object> k : keys) {
+            Object value = figure.get(k);
+            if (!figureFactory.isDefaultValue(figure, k, value)) {
+                count++;
+                attributes.writeString(figureFactory.getAttributeNameByKey(figure, k));
+                if (Figure.class.isAssignableFrom(k.getRawValueType())) {
+                    if (value == null) {
+                        attributes.writeByte(ATTRIBUTE_NULL_REFERENCE);
+                    } else {
+                        attributes.writeByte(ATTRIBUTE_REFERENCE);
+                        attributes.writeString(idFactory.createId(value));
+                    }
+                } else {
+                    attributes.writeByte(ATTRIBUTE_VALUE);
+                    attributes.writeString(figureFactory.valueToString(k, value));
+                }
+            }
+        }
+        out.writeByte(RECORD_FIGURE);
+        out.writeString(idFactory.createId(figure));
+        out.writeString(elementName);
+        out.writeVarint(count);
+        out.writeBytes(attributes.getBytes(), 0, attributes.size());
+        attributes.clear();
+    }
+
+    private void writeChildrenRecord(@NonNull ByteOutput out, @NonNull Figure parent) throws IOException {
+        if (figureFactory.getElementNameByFigure(parent) == null) {
+            return;
+        }
+        List<String> ids = new ArrayList<>();
+        for (Figure child : parent.getChildren()) {
+            if (figureFactory.getElementNameByFigure(child) != null) {
+                ids.add(idFactory.createId(child));
+            }
+        }
+        out.writeByte(RECORD_CHILDREN);
+        out.writeString(idFactory.createId(parent));
+        out.writeVarint(ids.size());
+        for (String id : ids) {
+            out.writeString(id);
+        }
+    }
+
+    /**
+     * Writes a new journal file with a snapshot as its base in a background
+     * thread.
+     * <p>
+     * The background thread reads the current journal file up to its
+     * current length, reconstructs the drawing from it, and writes the
+     * snapshot of the reconstructed drawing. The drawing of the model is
+     * not accessed.
+     * <p>
+     * Batches that are flushed while the snapshot is being written, are
+     * appended to the current journal file, and to the new journal file
+     * before it replaces the current journal file. If the snapshot can not
+     * be written, the current journal file is kept, and the journal is
+     * rebased with the next flush.
+     */
+    private void compact() {
+        long end = length;
+        Path docFile = documentFile;
+        URI home = documentHome;
+        runCompaction(false, tmp -> {
+            IdFactory journalIds = idFactorySupplier.get();
+            Replayer replayer = new Replayer(figureFactoryFunction.apply(journalIds), journalIds, namespaceURI, home, null);
+            Drawing drawing = replayer.read(ByteBuffer.wrap(readFile(end)), docFile, null);
+            if (drawing == null || replayer.length != end) {
+                throw new IOException("Couldn't reconstruct the drawing from the journal " + file + ".");
+            }
+
+            IdFactory snapshotIds = idFactorySupplier.get();
+            SimpleXmlWriter writer = new SimpleXmlWriter(figureFactoryFunction.apply(snapshotIds), snapshotIds, namespaceURI, null);
+            SimpleXmlWriter.Snapshot snapshot = writer.createSnapshot(home, drawing);
+            Map<String, String> idMap = new LinkedHashMap<>();
+            for (Figure f : drawing.preorderIterable()) {
+                String snapshotId = snapshotIds.getId(f);
+                String journalId = journalIds.getId(f);
+                if (snapshotId != null && journalId != null && !snapshotId.equals(journalId)) {
+                    idMap.put(snapshotId, journalId);
+                }
+            }
+            return writeSnapshotFile(tmp, writer, snapshot, idMap);
+        });
+    }
+
+    /**
+     * Takes a snapshot of the drawing with new ids for the figures, and
+     * writes a new journal file with the snapshot as its base in a
+     * background thread.
+     * <p>
+     * This is only needed when the batches can not be applied to the base
+     * anymore, for example because the drawing of the model has been
+     * replaced. Batches that are flushed while the snapshot is being
+     * written, are only appended to the new journal file.
+     */
+    private void rebase(@NonNull Drawing drawing) throws IOException {
+        rebaseRequested = false;
+        dirtyFigures.clear();
+        dirtyChildren.clear();
+        SimpleXmlWriter writer = new SimpleXmlWriter(figureFactory, idFactory, namespaceURI, null);
+        // the figures keep the ids that the writer has assigned to them in the snapshot
+        SimpleXmlWriter.Snapshot snapshot = writer.createSnapshot(documentHome, drawing);
+        stateHashes.clear();
+        for (Figure f : drawing.preorderIterable()) {
+            if (idFactory.getId(f) != null) {
+                stateHashes.put(f, getStateHash(f, SimpleXmlWriter.getAttributeKeys(figureFactory, f)));
+            }
+        }
+        runCompaction(true, tmp -> writeSnapshotFile(tmp, writer, snapshot, Collections.emptyMap()));
+    }
+
+    private void runCompaction(boolean rebase, @NonNull CompactionTask task) {
+        rebasing = rebase;
+        List<byte[]> batches = new ArrayList<>();
+        pendingBatches = batches;
+        compactionExecutor.execute(() -> {
+            Path tmp = null;
+            long newBaseLength = -1;
+            IOException error = null;
+            try {
+                tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+                newBaseLength = task.write(tmp);
+            } catch (IOException | RuntimeException e) {
+                error = e instanceof IOException ? (IOException) e : new IOException(e);
+            }
+            Path finalTmp = tmp;
+            long finalBaseLength = newBaseLength;
+            IOException finalError = error;
+            flushExecutor.execute(() -> {
+                finishCompaction(finalTmp, finalBaseLength, batches, finalError);
+                if (rebaseRequested) {
+                    scheduleFlush();
+                }
+            });
+        });
+    }
+
+    /**
+     * Writes a journal file with a snapshot base.
+     *
+     * @return the length of the header and the base
+     */
+    private long writeSnapshotFile(@NonNull Path tmp, @NonNull SimpleXmlWriter writer, @NonNull SimpleXmlWriter.Snapshot snapshot,
+                                   @NonNull Map<String, String> idMap) throws IOException {
+        ByteOutput header = createHeader();
+        header.writeByte(BASE_SNAPSHOT);
+        int snapshotLengthPos = header.reserveInt();
+        int snapshotPos = header.size();
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            write(ch, header.getBytes(), header.size());
+            OutputStream out = Channels.newOutputStream(ch);
+            writer.write(out, snapshot, new SimpleWorkState());
+            out.flush();
+            long snapshotLength = ch.position() - snapshotPos;
+            ch.write(ByteBuffer.allocate(4).putInt(0, (int) snapshotLength), snapshotLengthPos);
+            ByteOutput ids = new ByteOutput();
+            ids.writeVarint(idMap.size());
+            for (Map.Entry<String, String> entry : idMap.entrySet()) {
+                ids.writeString(entry.getKey());
+                ids.writeString(entry.getValue());
+            }
+            write(ch, ids.getBytes(), ids.size());
+            return ch.position();
+        }
+    }
+
+    private void finishCompaction(@Nullable Path tmp, long newBaseLength,
+                                  @NonNull List<byte[]> batches, @Nullable IOException error) {
+        pendingBatches = null;
+        rebasing = false;
+        try {
+            if (error != null || discarded) {
+                if (error != null) {
+                    LOGGER.log(Level.WARNING, error, () -> "Couldn't compact journal " + file);
+                    rebaseRequested = true;
+                }
+                if (tmp != null) {
+                    Files.deleteIfExists(tmp);
+                }
+                return;
+            }
+            long newLength = newBaseLength;
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ch.position(newLength);
+                for (byte[] batch : batches) {
+                    write(ch, batch, batch.length);
+                    newLength += batch.length;
+                }
+            }
+            closeChannel();
+            pendingBase = null;
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            baseLength = newBaseLength;
+            length = newLength;
+            compactionLength = Math.max(minCompactionLength, newBaseLength);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, e, () -> "Couldn't compact journal " + file);
+            rebaseRequested = true;
+        }
+    }
+
+    private @NonNull byte[] readFile(long end) throws IOException {
+        byte[] bytes = new byte[(int) end];
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buf.hasRemaining()) {
+                if (ch.read(buf, buf.position()) < 0) {
+                    throw new EOFException("The journal " + file + " is shorter than " + end + " bytes.");
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Computes a hash of the attribute values of a figure. This is much
+     * cheaper than converting the values into strings.
+     */
+    private static long getStateHash(@NonNull Figure figure, @NonNull List<MapAccessor<Object>> keys) {
+        long hash = 1;
+        for (MapAccessor<Object> k : keys) {
+            hash = 31 * hash + Objects.hashCode(figure.get(k));
+        }
+        return hash;
+    }
+
+    private @NonNull FileChannel getChannel() throws IOException {
+        if (channel == null) {
+            if (pendingBase != null) {
+                // the length of the base is already included in the length
+                FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                write(ch, pendingBase.getBytes(), pendingBase.size());
+                pendingBase = null;
+                channel = ch;
+            } else {
+                // drop a batch that has been torn by a crash
+                channel = FileChannel.open(file, StandardOpenOption.WRITE);
+                channel.truncate(length);
+                channel.position(length);
+            }
+        }
+        return channel;
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            FileChannel ch = channel;
+            channel = null;
+            ch.close();
+        }
+    }
+
+    private void write(@NonNull FileChannel ch, @NonNull byte[] bytes, int size) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(bytes, 0, size);
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+        if (ch == channel) {
+            length += size;
+        }
+    }
+
+    private static @NonNull ByteOutput createHeader() {
+        ByteOutput header = new ByteOutput();
+        header.writeBytes(MAGIC, 0, MAGIC.length);
+        header.writeByte(VERSION);
+        return header;
+    }
+
+    private static @NonNull URI getDocumentHome(@NonNull Path documentFile) {
+        return documentFile.toAbsolutePath().getParent().toUri();
+    }
+
+    /**
+     * Writes a new journal file in a background thread.
+     */
+    private interface CompactionTask {
+        /**
+         * Writes the journal file.
+         *
+         * @param tmp the file
+         * @return the length of the header and the base
+         * @throws IOException if writing fails
+         */
+        long write(@NonNull Path tmp) throws IOException;
+    }
+
+    /**
+     * Reconstructs a drawing from the base and the batches of a journal
+     * file.
+     * <p>
+     * Each instance uses its own figure factory and id factory, so that
+     * a compaction can reconstruct the drawing in a background thread
+     * while the journal records changes.
+     */
+    private static class Replayer {
+        private final @NonNull FigureFactory figureFactory;
+        private final @NonNull IdFactory idFactory;
+        private final @Nullable String namespaceURI;
+        private final @Nullable URI documentHome;
+        /**
+         * The state hashes of the figures, or null if they are not needed.
+         */
+        private final @Nullable Map<Figure, Long> stateHashes;
+        /**
+         * The size of the document file or of the snapshot.
+         */
+        long baseSize;
+        /**
+         * The length of the header and the base.
+         */
+        long baseLength;
+        /**
+         * The length of the header, the base and the complete batches.
+         */
+        long length;
+
+        Replayer(@NonNull FigureFactory figureFactory, @NonNull IdFactory idFactory, @Nullable String namespaceURI,
+                 @Nullable URI documentHome, @Nullable Map<Figure, Long> stateHashes) {
+            this.figureFactory = figureFactory;
+            this.idFactory = idFactory;
+            this.namespaceURI = namespaceURI;
+            this.documentHome = documentHome;
+            this.stateHashes = stateHashes;
+        }
+
+        /**
+         * Reads the base and replays all complete batches.
+         *
+         * @param buffer       the contents of the journal file
+         * @param documentFile the document file
+         * @param document     the drawing that has been read from the
+         *                     document file, or null if the replayer
+         *                     reads it
+         * @return the drawing, or null if the journal file does not match
+         * the document file
+         * @throws IOException if the batches can not be replayed
+         */
+        @Nullable Drawing read(@NonNull ByteBuffer buffer, @Nullable Path documentFile, @Nullable Drawing document) throws IOException {
+            ByteInput in = new ByteInput(buffer, 0, buffer.limit());
+            Drawing drawing;
+            try {
+                for (byte b : MAGIC) {
+                    if (in.readByte() != b) {
+                        return null;
+                    }
+                }
+                if (in.readByte() != VERSION) {
+                    return null;
+                }
+                switch (in.readByte()) {
+                case BASE_DOCUMENT:
+                    baseSize = in.readVarint();
+                    long lastModified = in.readVarint();
+                    if (documentFile == null
+                            || baseSize != Files.size(documentFile)
+                            || lastModified != Files.getLastModifiedTime(documentFile).toMillis()) {
+                        // the document has been changed after the journal was started
+                        return null;
+                    }
+                    drawing = document != null ? document
+                            : (Drawing) new SimpleXmlStaxReader(figureFactory, idFactory, namespaceURI)
+                            .read(documentFile, null, new SimpleWorkState());
+                    assignIds(drawing);
+                    break;
+                case BASE_SNAPSHOT:
+                    baseSize = in.readInt();
+                    int offset = in.position();
+                    in.skip((int) baseSize);
+                    drawing = (Drawing) new SimpleXmlStaxReader(figureFactory, idFactory, namespaceURI)
+                            .read(new ByteArrayInputStream(buffer.array(), offset, (int) baseSize),
+                                    null, documentHome, new SimpleWorkState());
+                    Map<String, String> idMap = new HashMap<>();
+                    for (int i = 0, n = in.readIntVarint(); i < n; i++) {
+                        idMap.put(in.readString(), in.readString());
+                    }
+                    adoptIds(drawing, idMap);
+                    break;
+                default:
+                    return null;
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, e, () -> "Ignoring journal with invalid base.");
+                return null;
+            }
+            baseLength = length = in.position();
+
+            // Replay all complete batches. A batch that has been torn by a crash
+            // can only be at the end of the file.
+            int limit = buffer.limit();
+            CRC32 crc = new CRC32();
+            while (length + 8 <= limit) {
+                int checksum = buffer.getInt((int) length);
+                int batchLength = buffer.getInt((int) length + 4);
+                int offset = (int) length + 8;
+                if (batchLength < 0 || batchLength > limit - offset) {
+                    break;
+                }
+                crc.reset();
+                crc.update(buffer.array(), offset, batchLength);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                replay(buffer, offset, batchLength);
+                length = offset + batchLength;
+            }
+            return drawing;
+        }
+
+        /**
+         * Assigns ids to all figures of the drawing in preorder, and computes
+         * their state hashes.
+         */
+        void assignIds(@NonNull Drawing drawing) throws IOException {
+            idFactory.reset();
+            idFactory.setDocumentHome(documentHome);
+            if (stateHashes != null) {
+                stateHashes.clear();
+            }
+            assignIdsRecursively(drawing, null);
+        }
+
+        /**
+         * Assigns the ids of the journal to the figures of a snapshot, and
+         * computes their state hashes.
+         *
+         * @param idMap maps the ids of the snapshot to the ids of the
+         *              journal, if they differ
+         */
+        private void adoptIds(@NonNull Drawing drawing, @NonNull Map<String, String> idMap) throws IOException {
+            idFactory.reset();
+            idFactory.setDocumentHome(documentHome);
+            if (stateHashes != null) {
+                stateHashes.clear();
+            }
+            assignIdsRecursively(drawing, idMap);
+        }
+
+        private void assignIdsRecursively(@NonNull Figure figure, @Nullable Map<String, String> idMap) throws IOException {
+            if (figureFactory.getElementNameByFigure(figure) != null) {
+                String snapshotId = idMap == null ? null : figure.getId();
+                if (snapshotId == null) {
+                    idFactory.createId(figure);
+                } else {
+                    idFactory.putIdAndObject(idMap.getOrDefault(snapshotId, snapshotId), figure);
+                }
+                if (stateHashes != null) {
+                    stateHashes.put(figure, getStateHash(figure, SimpleXmlWriter.getAttributeKeys(figureFactory, figure)));
+                }
+                for (Figure child : figure.getChildren()) {
+                    assignIdsRecursively(child, idMap);
+                }
+            }
+        }
+
+        /**
+         * Replays a batch.
+         * <p>
+         * First creates the new figures, then updates the children, and
+         * finally sets the attributes, so that references to figures that
+         * are created in the same batch can be resolved.
+         */
+        private void replay(@NonNull ByteBuffer buffer, int offset, int batchLength) throws IOException {
+            ByteInput in = new ByteInput(buffer, offset, offset + batchLength);
+            List<FigureRecord> figureRecords = new ArrayList<>();
+            Map<Figure, List<String>> childrenRecords = new HashMap<>();
+            while (in.position() < offset + batchLength) {
+                int type = in.readByte();
+                switch (type) {
+                case RECORD_FIGURE: {
+                    String id = in.readString();
+                    String elementName = in.readString();
+                    Figure figure = (Figure) idFactory.getObject(id);
+                    boolean created = figure == null;
+                    if (created) {
+                        figure = figureFactory.createFigureByElementName(elementName);
+                        idFactory.putIdAndObject(id, figure);
+                    }
+                    FigureRecord r = new FigureRecord(figure, created);
+                    for (int i = 0, n = in.readIntVarint(); i < n; i++) {
+                        r.names.add(in.readString());
+                        int kind = in.readByte();
+                        r.kinds.add(kind);
+                        r.values.add(kind == ATTRIBUTE_NULL_REFERENCE ? null : in.readString());
+                    }
+                    figureRecords.add(r);
+                    break;
+                }
+                case RECORD_CHILDREN: {
+                    Figure parent = getFigure(in.readString());
+                    List<String> ids = new ArrayList<>();
+                    for (int i = 0, n = in.readIntVarint(); i < n; i++) {
+                        ids.add(in.readString());
+                    }
+                    childrenRecords.put(parent, ids);
+                    break;
+                }
+                default:
+                    throw new IOException("Illegal record type " + type + " at position " + (in.position() - 1) + ".");
+                }
+            }
+
+            for (Map.Entry<Figure, List<String>> entry : childrenRecords.entrySet()) {
+                List<Figure> children = new ArrayList<>(entry.getValue().size());
+                for (String id : entry.getValue()) {
+                    children.add(getFigure(id));
+                }
+                Figure parent = entry.getKey();
+                parent.getChildren().clear();
+                parent.getChildren().addAll(children);
+            }
+
+            for (FigureRecord r : figureRecords) {
+                Figure figure = r.figure;
+                List<MapAccessor<Object>> keys = SimpleXmlWriter.getAttributeKeys(figureFactory, figure);
+                Map<MapAccessor<?>, Integer> indices = new HashMap<>();
+                for (int i = 0, n = r.names.size(); i < n; i++) {
+                    MapAccessor<?> key = figureFactory.getKeyByAttributeName(figure, r.names.get(i));
+                    if (key != null) {
+                        indices.put(key, i);
+                    }
+                }
+                for (MapAccessor<Object> key : keys) {
+                    Integer i = indices.get(key);
+                    if (i != null) {
+                        switch (r.kinds.get(i)) {
+                        case ATTRIBUTE_VALUE:
+                            figure.set(key, figureFactory.stringToValue(key, r.values.get(i)));
+                            break;
+                        case ATTRIBUTE_REFERENCE:
+                            figure.set(key, getFigure(r.values.get(i)));
+                            break;
+                        default:
+                            figure.set(key, null);
+                            break;
+                        }
+                    } else if (!r.created && !figureFactory.isDefaultValue(figure, key, figure.get(key))) {
+                        figure.set(key, figureFactory.getDefaultValue(figure, key));
+                    }
+                }
+                if (stateHashes != null) {
+                    stateHashes.put(figure, getStateHash(figure, keys));
+                }
+            }
+        }
+
+        private @NonNull Figure getFigure(@NonNull String id) throws IOException {
+            Object figure = idFactory.getObject(id);
+            if (!(figure instanceof Figure)) {
+                throw new IOException("Unknown figure id \"" + id + "\".");
+            }
+            return (Figure) figure;
+        }
+    }
+
+    /**
+     * The state of a figure in a batch.
+     */
+    private static class FigureRecord {
+        final @NonNull Figure figure;
+        final boolean created;
+        final @NonNull List<String> names = new ArrayList<>();
+        final @NonNull List<Integer> kinds = new ArrayList<>();
+        final @NonNull List<String> values = new ArrayList<>();
+
+        FigureRecord(@NonNull Figure figure, boolean created) {
+            this.figure = figure;
+            this.created = created;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * @(#)MappedBinaryReader.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.concurrent.WorkState;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.io.IdFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Reads a drawing in the binary format that is described in
+ * {@link SimpleBinaryFormat}, and materializes the children of layers
+ * lazily.
+ * <p>
+ * When the reader reads from a file, it maps the file into memory with
+ * {@link FileChannel#map}. The reader only creates the drawing and its
+ * layers up front. The children of a layer are created when the layer is
+ * materialized explicitly with
+ * {@link org.jhotdraw8.draw.model.DrawingModel#materializeChildren}.
+ * The drawing view materializes the visible layers before it renders the
+ * drawing, and the writers materialize all layers. Therefore, the time
+ * until a drawing can be shown does not depend on the number of figures in
+ * layers that are not visible.
+ * <p>
+ * If a figure references a figure in a layer that has not been
+ * materialized yet, the referenced layer is materialized as well.
+ * <p>
+ * The reader holds on to the id factory and to the buffer until all
+ * layers have been materialized. Therefore, a new instance of this reader
+ * should be used for each file.
+ *
+ * @author Werner Randelshofer
+ */
+public class MappedBinaryReader extends SimpleBinaryReader {
+    /**
+     * The layers with deferred children. All access must be synchronized
+     * on this map.
+     */
+    private final @NonNull Map<LayerFigure, DeferredChildren> deferred = new IdentityHashMap<>();
+    /**
+     * Maps the ids of deferred figures to their layers. This map is only
+     * created if a figure references a deferred figure.
+     */
+    private @Nullable Map<String, LayerFigure> deferredIds;
+
+    public MappedBinaryReader(@NonNull FigureFactory figureFactory, @NonNull IdFactory idFactory) {
+        super(figureFactory, idFactory);
+    }
+
+    @Override
+    public @Nullable Figure read(@NonNull Path file, @Nullable Drawing drawing, @NonNull WorkState workState) throws IOException {
+        URI documentHome = file.getParent() == null ? FileSystems.getDefault().getPath(System.getProperty("user.home")).toUri() : file.getParent().toUri();
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large for memory mapping: " + file + ".");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        return read(buffer, documentHome);
+    }
+
+    /**
+     * Returns the number of layers that have not been materialized yet.
+     *
+     * @return the number of deferred layers
+     */
+    public int getDeferredLayerCount() {
+        synchronized (deferred) {
+            return deferred.size();
+        }
+    }
+
+    @Override
+    boolean deferChildren(@NonNull Figure figure, @NonNull ByteBuffer buffer, @NonNull String[] strings, int offset, int childCount) {
+        if (!(figure instanceof LayerFigure)) {
+            return false;
+        }
+        LayerFigure layer = (LayerFigure) figure;
+        synchronized (deferred) {
+            deferred.put(layer, new DeferredChildren(buffer, strings, offset, childCount));
+            deferredIds = null;
+        }
+        layer.setDeferredChildren(this::materialize);
+        return true;
+    }
+
+    /**
+     * Materializes the children of the specified layer.
+     * <p>
+     * If the children reference a figure in another deferred layer, that
+     * layer is materialized as well. Invocations from other threads block
+     * until this method is done.
+     *
+     * @param layer a layer
+     */
+    private void materialize(@NonNull LayerFigure layer) {
+        synchronized (deferred) {
+            DeferredChildren d = deferred.remove(layer);
+            if (d == null) {
+                return;
+            }
+            try {
+                readChildren(layer, d.buffer, d.strings, d.offset, d.childCount);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                layer.setDeferredChildren(null);
+            }
+        }
+    }
+
+    @Override
+    @Nullable Object getFigure(@NonNull String id) {
+        Object figure = super.getFigure(id);
+        if (figure == null) {
+            LayerFigure layer = getDeferredLayer(id);
+            if (layer != null) {
+                materialize(layer);
+                figure = super.getFigure(id);
+            }
+        }
+        return figure;
+    }
+
+    private @Nullable LayerFigure getDeferredLayer(@NonNull String id) {
+        synchronized (deferred) {
+            if (deferredIds == null) {
+                Map<String, LayerFigure> ids = new HashMap<>();
+                for (Map.Entry<LayerFigure, DeferredChildren> entry : deferred.entrySet()) {
+                    DeferredChildren d = entry.getValue();
+                    try {
+                        readIds(d.buffer, d.strings, d.offset, d.childCount, figureId -> ids.put(figureId, entry.getKey()));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                deferredIds = ids;
+            }
+            LayerFigure layer = deferredIds.get(id);
+            return layer != null && deferred.containsKey(layer) ? layer : null;
+        }
+    }
+
+    /**
+     * The location of the deferred children of a layer in the buffer.
+     */
+    private static class DeferredChildren {
+        final @NonNull ByteBuffer buffer;
+        final @NonNull String[] strings;
+        final int offset;
+        final int childCount;
+
+        DeferredChildren(@NonNull ByteBuffer buffer, @NonNull String[] strings, int offset, int childCount) {
+            this.buffer = buffer;
+            this.strings = strings;
+            this.offset = offset;
+            this.childCount = childCount;
+        }
+    }
+}
@@ -19,6 +19,10 @@ import java.nio.file.Paths;
 
 /**
  * OutputFormat.
+ * <p>
+ * Implementations must materialize layers with deferred children before
+ * they traverse the drawing, see
+ * {@link org.jhotdraw8.draw.figure.LayerFigure#materializeDeferredChildren(org.jhotdraw8.draw.figure.Figure)}.
  *
  * @author Werner Randelshofer
  * @design.pattern Drawing Strategy, Strategy.
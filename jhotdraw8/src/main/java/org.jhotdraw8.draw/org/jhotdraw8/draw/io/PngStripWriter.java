@@ -0,0 +1,170 @@
+/*
+ * @(#)PngStripWriter.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a PNG image with 8-bit RGBA samples row by row.
+ * <p>
+ * The rows are deflated and written to the output stream as soon as they
+ * are passed to {@link #writeRows}, so that the whole image never has to be
+ * held in memory. However, each row spans the full width of the image.
+ * A caller that renders the image in tiles must therefore buffer at
+ * least one row of tiles, or a strip of rows, across the full width.
+ * <p>
+ * Closing this writer finishes the image, but does not close the
+ * underlying output stream.
+ *
+ * @author Werner Randelshofer
+ */
+class PngStripWriter implements Closeable {
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    private static final int COLOR_TYPE_RGBA = 6;
+    private static final int FILTER_SUB = 1;
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final int IDAT_LENGTH = 1 << 16;
+    private static final double INCH_2_METER = 0.0254;
+
+    private final @NonNull OutputStream out;
+    private final int width;
+    private final int height;
+    private final @NonNull Deflater deflater = new Deflater();
+    private final @NonNull CRC32 crc = new CRC32();
+    private final byte[] row;
+    private final byte[] deflated = new byte[IDAT_LENGTH];
+    private int rowCount;
+    private boolean closed;
+
+    /**
+     * Creates a new instance and writes the header of the image.
+     *
+     * @param out    the output stream
+     * @param width  the width of the image in pixels
+     * @param height the height of the image in pixels
+     * @param dpi    the resolution of the image in dots per inch
+     * @throws IOException if writing fails
+     */
+    PngStripWriter(@NonNull OutputStream out, int width, int height, double dpi) throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("width and height must be > 0, width=" + width + ", height=" + height);
+        }
+        this.out = out;
+        this.width = width;
+        this.height = height;
+        this.row = new byte[1 + width * BYTES_PER_PIXEL];
+
+        out.write(SIGNATURE);
+
+        byte[] ihdr = new byte[13];
+        putInt(ihdr, 0, width);
+        putInt(ihdr, 4, height);
+        ihdr[8] = 8;
+        ihdr[9] = COLOR_TYPE_RGBA;
+        writeChunk("IHDR", ihdr, ihdr.length);
+
+        byte[] phys = new byte[9];
+        int pixelsPerMeter = (int) Math.round(dpi / INCH_2_METER);
+        putInt(phys, 0, pixelsPerMeter);
+        putInt(phys, 4, pixelsPerMeter);
+        phys[8] = 1;
+        writeChunk("pHYs", phys, phys.length);
+    }
+
+    /**
+     * Writes the next rows of the image.
+     *
+     * @param argb     the pixels in non-premultiplied ARGB format, with a
+     *                 scanline stride that is equal to the image width
+     * @param numRows  the number of rows
+     * @throws IOException if writing fails
+     */
+    void writeRows(@NonNull int[] argb, int numRows) throws IOException {
+        if (rowCount + numRows > height) {
+            throw new IllegalArgumentException("too many rows, rowCount=" + rowCount + ", numRows=" + numRows + ", height=" + height);
+        }
+        for (int y = 0; y < numRows; y++) {
+            // The "sub" filter stores the difference to the pixel on the
+            // left, which compresses uniformly filled areas well.
+            row[0] = FILTER_SUB;
+            int prev = 0;
+            for (int x = 0, i = y * width, j = 1; x < width; x++, i++, j += BYTES_PER_PIXEL) {
+                int p = argb[i];
+                row[j] = (byte) ((p >>> 16) - (prev >>> 16));
+                row[j + 1] = (byte) ((p >>> 8) - (prev >>> 8));
+                row[j + 2] = (byte) (p - prev);
+                row[j + 3] = (byte) ((p >>> 24) - (prev >>> 24));
+                prev = p;
+            }
+            deflater.setInput(row);
+            while (!deflater.needsInput()) {
+                deflate();
+            }
+        }
+        rowCount += numRows;
+    }
+
+    /**
+     * Finishes the image.
+     *
+     * @throws IOException if writing fails or if not all rows have been
+     *                     written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (rowCount != height) {
+                throw new IOException("image is incomplete, rowCount=" + rowCount + ", height=" + height);
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate();
+            }
+            writeChunk("IEND", deflated, 0);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void deflate() throws IOException {
+        int length = deflater.deflate(deflated);
+        if (length > 0) {
+            writeChunk("IDAT", deflated, length);
+        }
+    }
+
+    private void writeChunk(@NonNull String type, @NonNull byte[] data, int length) throws IOException {
+        byte[] header = new byte[8];
+        putInt(header, 0, length);
+        for (int i = 0; i < 4; i++) {
+            header[4 + i] = (byte) type.charAt(i);
+        }
+        crc.reset();
+        crc.update(header, 4, 4);
+        crc.update(data, 0, length);
+        byte[] trailer = new byte[4];
+        putInt(trailer, 0, (int) crc.getValue());
+        out.write(header);
+        out.write(data, 0, length);
+        out.write(trailer);
+    }
+
+    private static void putInt(@NonNull byte[] b, int off, int value) {
+        b[off] = (byte) (value >>> 24);
+        b[off + 1] = (byte) (value >>> 16);
+        b[off + 2] = (byte) (value >>> 8);
+        b[off + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * @(#)SimpleBinaryFormat.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.annotation.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Constants and primitive encodings of the binary drawing format, which is
+ * written by {@link SimpleBinaryWriter} and read by {@link SimpleBinaryReader}.
+ * <p>
+ * The format represents the same information as {@link SimpleXmlWriter}:
+ * each figure is a record with an element name, and each figure property is
+ * stored under its attribute name.
+ * <pre>
+ * File       = magic:"JHDB" version:u8 stringCount:varint String* Body ;
+ * String     = length:varint utf8Bytes ;
+ * Body       = stylesheetCount:varint stylesheet:ref* Figure ;
+ * Figure     = elementName:ref id:Id
+ *              propertiesLength:varint Property*
+ *              childCount:varint [childrenLength:i32 Figure*] ;
+ * Property   = (name:ref &lt;&lt; 1 | isNodeList):varint tag:u8 value ;
+ * Id         = prefix:ref (suffix + 1 | 0):varint ;
+ * ref        = index into the string table:varint ;
+ * </pre>
+ * Ids usually consist of a prefix and a number, for example
+ * {@code rectangle12}. The prefix is stored in the string table and the
+ * number is stored in the record, so that the string table does not grow
+ * with the number of figures.
+ * The lengths of the properties and of the children allow a reader to
+ * decode the properties of each figure independently, and to skip subtrees.
+ * The length of the children is omitted if the figure has no children.
+ * <p>
+ * Numbers are stored as variable-length integers. Decimal numbers with up
+ * to two fractional digits are stored as scaled integers, all other numbers
+ * are stored as 8 byte IEEE 754 values.
+ *
+ * @author Werner Randelshofer
+ */
+final class SimpleBinaryFormat {
+    static final byte[] MAGIC = {'J', 'H', 'D', 'B'};
+    static final int VERSION = 1;
+    /**
+     * The maximal number of digits of the numeric suffix of an id.
+     */
+    static final int MAX_ID_SUFFIX_DIGITS = 18;
+
+    /**
+     * The value is null.
+     */
+    static final int TAG_NULL = 0;
+    /**
+     * The value is a string which must be converted with the
+     * {@link FigureFactory}.
+     */
+    static final int TAG_CONVERTED_STRING = 1;
+    /**
+     * The value is a {@link String}.
+     */
+    static final int TAG_STRING = 2;
+    static final int TAG_FALSE = 3;
+    static final int TAG_TRUE = 4;
+    /**
+     * The value is an {@link Integer}.
+     */
+    static final int TAG_INTEGER = 5;
+    /**
+     * The value is a {@link Double}.
+     */
+    static final int TAG_DOUBLE = 6;
+    /**
+     * The value is an enum constant of the value type of the key.
+     */
+    static final int TAG_ENUM = 7;
+    /**
+     * The value is a {@link org.jhotdraw8.css.CssSize}.
+     */
+    static final int TAG_CSS_SIZE = 8;
+    /**
+     * The value is a {@link org.jhotdraw8.css.CssPoint2D}.
+     */
+    static final int TAG_CSS_POINT_2D = 9;
+    /**
+     * The value is a {@link org.jhotdraw8.css.CssRectangle2D}.
+     */
+    static final int TAG_CSS_RECTANGLE_2D = 10;
+    /**
+     * The value is a reference to a figure.
+     */
+    static final int TAG_FIGURE = 11;
+    /**
+     * The value is an {@link org.jhotdraw8.collection.ImmutableSet} of
+     * strings, for example the style classes of a figure.
+     */
+    static final int TAG_WORD_SET = 12;
+    /**
+     * The value is a {@link javafx.geometry.Point2D}.
+     */
+    static final int TAG_POINT_2D = 13;
+    /**
+     * The value is an {@link org.jhotdraw8.collection.ImmutableList} of
+     * {@link javafx.geometry.Point2D}s.
+     */
+    static final int TAG_POINT_2D_LIST = 14;
+
+    /**
+     * Header of a number which is stored as an 8 byte IEEE 754 value.
+     */
+    private static final int RAW_DOUBLE = 3;
+    private static final double[] DECIMAL_SCALES = {1, 10, 100};
+    private static final long MAX_SCALED_NUMBER = 1L << 52;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private SimpleBinaryFormat() {
+    }
+
+    /**
+     * A growable byte array with methods for writing the primitive
+     * encodings of the format.
+     */
+    static class ByteOutput {
+        private byte[] bytes = new byte[1024];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        @NonNull byte[] getBytes() {
+            return bytes;
+        }
+
+        private void grow(int capacity) {
+            if (capacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+            }
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void writeByte(int b) {
+            grow(size + 1);
+            bytes[size++] = (byte) b;
+        }
+
+        void writeBytes(@NonNull byte[] b, int off, int len) {
+            grow(size + len);
+            System.arraycopy(b, off, bytes, size, len);
+            size += len;
+        }
+
+        void writeVarint(long v) {
+            grow(size + 10);
+            while ((v & ~0x7fL) != 0) {
+                bytes[size++] = (byte) ((v & 0x7f) | 0x80);
+                v >>>= 7;
+            }
+            bytes[size++] = (byte) v;
+        }
+
+        void writeSignedVarint(long v) {
+            writeVarint((v << 1) ^ (v >> 63));
+        }
+
+        /**
+         * Writes a placeholder for a 32 bit length and returns its position.
+         */
+        int reserveInt() {
+            grow(size + 4);
+            int pos = size;
+            size += 4;
+            return pos;
+        }
+
+        /**
+         * Writes the number of bytes that have been written after the
+         * placeholder into the placeholder.
+         */
+        void patchLength(int pos) {
+            patchInt(pos, size - pos - 4);
+        }
+
+        /**
+         * Writes a 32 bit value into a placeholder.
+         */
+        void patchInt(int pos, int v) {
+            bytes[pos] = (byte) (v >>> 24);
+            bytes[pos + 1] = (byte) (v >>> 16);
+            bytes[pos + 2] = (byte) (v >>> 8);
+            bytes[pos + 3] = (byte) v;
+        }
+
+        void writeNumber(double v) {
+            for (int k = 0; k < DECIMAL_SCALES.length; k++) {
+                double scaled = v * DECIMAL_SCALES[k];
+                long l = (long) scaled;
+                if (l == scaled && Math.abs(l) < MAX_SCALED_NUMBER
+                        && Double.compare(l / DECIMAL_SCALES[k], v) == 0) {
+                    writeVarint(((l << 1) ^ (l >> 63)) << 2 | k);
+                    return;
+                }
+            }
+            writeVarint(RAW_DOUBLE);
+            long bits = Double.doubleToRawLongBits(v);
+            grow(size + 8);
+            for (int i = 56; i >= 0; i -= 8) {
+                bytes[size++] = (byte) (bits >>> i);
+            }
+        }
+
+        void writeString(@NonNull String s) {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            writeVarint(b.length);
+            writeBytes(b, 0, b.length);
+        }
+    }
+
+    /**
+     * A cursor over a byte buffer with methods for reading the primitive
+     * encodings of the format.
+     * <p>
+     * The cursor only uses absolute get operations, so that several
+     * cursors can read from the same buffer concurrently.
+     */
+    static class ByteInput {
+        private final @NonNull ByteBuffer buffer;
+        private int pos;
+        private final int limit;
+
+        ByteInput(@NonNull ByteBuffer buffer, int pos, int limit) {
+            this.buffer = buffer;
+            this.pos = pos;
+            this.limit = limit;
+        }
+
+        int position() {
+            return pos;
+        }
+
+        @NonNull ByteBuffer getBuffer() {
+            return buffer;
+        }
+
+        void skip(int n) throws IOException {
+            if (n < 0 || pos + n > limit) {
+                throw new IOException("Unexpected end of data at position " + pos + ".");
+            }
+            pos += n;
+        }
+
+        int readByte() throws IOException {
+            if (pos >= limit) {
+                throw new IOException("Unexpected end of data at position " + pos + ".");
+            }
+            return buffer.get(pos++) & 0xff;
+        }
+
+        int readInt() throws IOException {
+            return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+        }
+
+        long readVarint() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                v |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return v;
+                }
+            }
+            throw new IOException("Malformed varint at position " + pos + ".");
+        }
+
+        int readIntVarint() throws IOException {
+            long v = readVarint();
+            if (v > Integer.MAX_VALUE) {
+                throw new IOException("Illegal value " + v + " at position " + pos + ".");
+            }
+            return (int) v;
+        }
+
+        long readSignedVarint() throws IOException {
+            long v = readVarint();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        double readNumber() throws IOException {
+            long header = readVarint();
+            int k = (int) (header & 3);
+            if (k == RAW_DOUBLE) {
+                long bits = 0;
+                for (int i = 0; i < 8; i++) {
+                    bits = (bits << 8) | readByte();
+                }
+                return Double.longBitsToDouble(bits);
+            }
+            long v = header >>> 2;
+            long l = (v >>> 1) ^ -(v & 1);
+            return k == 0 ? l : l / DECIMAL_SCALES[k];
+        }
+
+        @NonNull String readString() throws IOException {
+            int length = readIntVarint();
+            if (pos + length > limit) {
+                throw new IOException("Unexpected end of data at position " + pos + ".");
+            }
+            byte[] b = new byte[length];
+            for (int i = 0; i < length; i++) {
+                b[i] = buffer.get(pos + i);
+            }
+            pos += length;
+            return new String(b, StandardCharsets.UTF_8);
+        }
+    }
+}
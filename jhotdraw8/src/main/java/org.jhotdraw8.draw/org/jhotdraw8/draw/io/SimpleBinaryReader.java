@@ -0,0 +1,436 @@
+/*
+ * @(#)SimpleBinaryReader.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableMap;
+import javafx.geometry.Point2D;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.collection.ImmutableList;
+import org.jhotdraw8.collection.ImmutableLists;
+import org.jhotdraw8.collection.ImmutableSets;
+import org.jhotdraw8.collection.Key;
+import org.jhotdraw8.collection.MapAccessor;
+import org.jhotdraw8.concurrent.WorkState;
+import org.jhotdraw8.css.CssPoint2D;
+import org.jhotdraw8.css.CssRectangle2D;
+import org.jhotdraw8.css.CssSize;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.StyleableFigure;
+import org.jhotdraw8.io.IdFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.jhotdraw8.draw.io.SimpleBinaryFormat.*;
+
+/**
+ * Reads a drawing in the binary format that is described in
+ * {@link SimpleBinaryFormat}.
+ * <p>
+ * The reader first creates all figures and registers their ids. Then it
+ * decodes the properties of the figures in parallel, and finally sets the
+ * decoded values on the figures. Values that are stored as strings are
+ * converted with the {@link FigureFactory} when the values are set,
+ * because the converters are not required to be thread-safe.
+ *
+ * @author Werner Randelshofer
+ */
+public class SimpleBinaryReader implements InputFormat {
+    private final @NonNull ObservableMap<Key<?>, Object> properties = FXCollections.observableHashMap();
+    private final @NonNull IdFactory idFactory;
+    private @NonNull FigureFactory figureFactory;
+
+    public SimpleBinaryReader(@NonNull FigureFactory figureFactory, @NonNull IdFactory idFactory) {
+        this.idFactory = idFactory;
+        this.figureFactory = figureFactory;
+    }
+
+    public @NonNull IdFactory getIdFactory() {
+        return idFactory;
+    }
+
+    @Override
+    public @NonNull ObservableMap<Key<?>, Object> getProperties() {
+        return properties;
+    }
+
+    public void setFigureFactory(@NonNull FigureFactory figureFactory) {
+        this.figureFactory = figureFactory;
+    }
+
+    @Override
+    public @Nullable Figure read(@NonNull InputStream in, Drawing drawing, URI documentHome, @NonNull WorkState workState) throws IOException {
+        return read(ByteBuffer.wrap(in.readAllBytes()), documentHome);
+    }
+
+    /**
+     * Reads a figure from the specified buffer.
+     *
+     * @param buffer       the buffer, must contain the entire file
+     * @param documentHome the URI used to resolve external references from the document
+     * @return the figure
+     * @throws IOException if the buffer does not contain a valid file
+     */
+    public @Nullable Figure read(@NonNull ByteBuffer buffer, @Nullable URI documentHome) throws IOException {
+        idFactory.setDocumentHome(documentHome);
+        ByteInput in = new ByteInput(buffer, 0, buffer.limit());
+        String[] strings = readHeader(in);
+
+        int stylesheetCount = in.readIntVarint();
+        List<String> hrefs = new ArrayList<>(stylesheetCount);
+        for (int i = 0; i < stylesheetCount; i++) {
+            hrefs.add(string(strings, in.readIntVarint()));
+        }
+
+        List<PropertyBlock> blocks = new ArrayList<>();
+        Figure figure = readFigureRecursively(in, strings, null, blocks);
+        readProperties(buffer, strings, blocks);
+
+        MapAccessor<ImmutableList<URI>> stylesheetsKey = figureFactory.getStylesheetsKey();
+        if (stylesheetsKey != null && !hrefs.isEmpty()) {
+            List<URI> stylesheets = new ArrayList<>(hrefs.size());
+            for (String href : hrefs) {
+                stylesheets.add(idFactory.absolutize(URI.create(href)));
+            }
+            figure.set(stylesheetsKey, ImmutableLists.ofCollection(stylesheets));
+        }
+        if ((figure instanceof Drawing)) {
+            figure.set(Drawing.DOCUMENT_HOME, documentHome);
+        }
+        return figure;
+    }
+
+    /**
+     * Reads the magic number, the version and the string table.
+     *
+     * @param in the input
+     * @return the string table
+     * @throws IOException if the header is not valid
+     */
+    private @NonNull String[] readHeader(@NonNull ByteInput in) throws IOException {
+        for (byte b : MAGIC) {
+            if (in.readByte() != b) {
+                throw new IOException("Not a binary drawing file.");
+            }
+        }
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version + " of binary drawing file.");
+        }
+        String[] strings = new String[in.readIntVarint()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = in.readString();
+        }
+        return strings;
+    }
+
+    private @NonNull Figure readFigureRecursively(@NonNull ByteInput in, @NonNull String[] strings, @Nullable Figure parent,
+                                                  @NonNull List<PropertyBlock> blocks) throws IOException {
+        int position = in.position();
+        String elementName = string(strings, in.readIntVarint());
+        Figure figure;
+        try {
+            figure = figureFactory.createFigureByElementName(elementName);
+        } catch (IOException e) {
+            throw new IOException("Cannot create figure for element \"" + elementName + "\" at position " + position + ".", e);
+        }
+        if (parent != null) {
+            if (!figure.isSuitableParent(parent) || !parent.isSuitableChild(figure)) {
+                throw new IOException("Cannot add figure to parent in element \"" + elementName + "\" at position " + position + ".");
+            }
+            parent.getChildren().add(figure);
+        }
+        String id = readId(in, strings);
+        idFactory.putIdToObject(id, figure);
+        setId(figure, id);
+
+        int propertiesLength = in.readIntVarint();
+        blocks.add(new PropertyBlock(figure, in.position(), propertiesLength));
+        in.skip(propertiesLength);
+
+        int childCount = in.readIntVarint();
+        if (childCount > 0) {
+            int childrenLength = in.readInt();
+            if (deferChildren(figure, in.getBuffer(), strings, in.position(), childCount)) {
+                in.skip(childrenLength);
+            } else {
+                for (int i = 0; i < childCount; i++) {
+                    readFigureRecursively(in, strings, figure, blocks);
+                }
+            }
+        }
+        return figure;
+    }
+
+    /**
+     * This method is invoked when the reader encounters the children of
+     * a figure. If this method returns true, the reader skips the children.
+     * <p>
+     * The default implementation returns false.
+     *
+     * @param figure     the parent figure
+     * @param buffer     the buffer
+     * @param strings    the string table
+     * @param offset     the offset of the first child in the buffer
+     * @param childCount the number of children
+     * @return true if the reader shall skip the children
+     */
+    boolean deferChildren(@NonNull Figure figure, @NonNull ByteBuffer buffer, @NonNull String[] strings, int offset, int childCount) {
+        return false;
+    }
+
+    /**
+     * Reads children that have been skipped by {@link #deferChildren}, and
+     * adds them to the parent figure.
+     *
+     * @param parent     the parent figure
+     * @param buffer     the buffer
+     * @param strings    the string table
+     * @param offset     the offset of the first child in the buffer
+     * @param childCount the number of children
+     * @throws IOException if the buffer does not contain valid figures
+     */
+    void readChildren(@NonNull Figure parent, @NonNull ByteBuffer buffer, @NonNull String[] strings, int offset, int childCount) throws IOException {
+        ByteInput in = new ByteInput(buffer, offset, buffer.limit());
+        List<PropertyBlock> blocks = new ArrayList<>();
+        for (int i = 0; i < childCount; i++) {
+            readFigureRecursively(in, strings, parent, blocks);
+        }
+        readProperties(buffer, strings, blocks);
+    }
+
+    /**
+     * Reads the ids of figures without creating the figures.
+     *
+     * @param buffer   the buffer
+     * @param strings  the string table
+     * @param offset   the offset of the first figure in the buffer
+     * @param count    the number of figures
+     * @param consumer the consumer for the ids
+     * @throws IOException if the buffer does not contain valid figures
+     */
+    void readIds(@NonNull ByteBuffer buffer, @NonNull String[] strings, int offset, int count, @NonNull Consumer<String> consumer) throws IOException {
+        readIdsRecursively(new ByteInput(buffer, offset, buffer.limit()), strings, count, consumer);
+    }
+
+    private void readIdsRecursively(@NonNull ByteInput in, @NonNull String[] strings, int count, @NonNull Consumer<String> consumer) throws IOException {
+        for (int i = 0; i < count; i++) {
+            in.readIntVarint();// element name
+            consumer.accept(readId(in, strings));
+            in.skip(in.readIntVarint());
+            int childCount = in.readIntVarint();
+            if (childCount > 0) {
+                in.readInt();
+                readIdsRecursively(in, strings, childCount, consumer);
+            }
+        }
+    }
+
+    /**
+     * Gets the figure with the specified id.
+     *
+     * @param id the id
+     * @return the figure or null if there is no figure with this id
+     */
+    @Nullable Object getFigure(@NonNull String id) {
+        return idFactory.getObject(id);
+    }
+
+    /**
+     * Decodes the properties of the figures in parallel, and then sets
+     * them on the figures.
+     * <p>
+     * The values are set sequentially, because setting a property may
+     * affect other figures, for example when a connection is connected to
+     * a figure. References to figures are resolved, and strings are
+     * converted with the figure factory, when the values are set.
+     */
+    private void readProperties(@NonNull ByteBuffer buffer, @NonNull String[] strings, @NonNull List<PropertyBlock> blocks) throws IOException {
+        List<List<Map.Entry<MapAccessor<Object>, Object>>> values;
+        try {
+            values = blocks.parallelStream()
+                    .map(block -> {
+                        try {
+                            return decodeProperties(buffer, strings, block);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (int i = 0, n = blocks.size(); i < n; i++) {
+            Figure figure = blocks.get(i).figure;
+            for (Map.Entry<MapAccessor<Object>, Object> entry : values.get(i)) {
+                Object value = entry.getValue();
+                if (value instanceof FigureReference) {
+                    value = getFigure(((FigureReference) value).id);
+                } else if (value instanceof UnconvertedString) {
+                    value = figureFactory.stringToValue(entry.getKey(), ((UnconvertedString) value).string);
+                }
+                figure.set(entry.getKey(), value);
+            }
+        }
+    }
+
+    private @NonNull List<Map.Entry<MapAccessor<Object>, Object>> decodeProperties(
+            @NonNull ByteBuffer buffer, @NonNull String[] strings, @NonNull PropertyBlock block) throws IOException {
+        List<Map.Entry<MapAccessor<Object>, Object>> values = new ArrayList<>();
+        Figure figure = block.figure;
+        int end = block.offset + block.length;
+        ByteInput in = new ByteInput(buffer, block.offset, end);
+        while (in.position() < end) {
+            long header = in.readVarint();
+            String name = string(strings, (int) (header >>> 1));
+            boolean isNodeList = (header & 1) != 0;
+            @SuppressWarnings("unchecked")
+            MapAccessor<Object> key = (MapAccessor<Object>) (isNodeList
+                    ? figureFactory.getKeyByElementName(figure, name)
+                    : figureFactory.getKeyByAttributeName(figure, name));
+            if (key == null) {
+                throw new IOException("Unsupported attribute \"" + name + "\" at position " + in.position() + ".");
+            }
+            values.add(new AbstractMap.SimpleImmutableEntry<>(key, readValue(in, strings, key)));
+        }
+        return values;
+    }
+
+    private @Nullable Object readValue(@NonNull ByteInput in, @NonNull String[] strings, @NonNull MapAccessor<Object> key) throws IOException {
+        int tag = in.readByte();
+        switch (tag) {
+        case TAG_NULL:
+            return null;
+        case TAG_CONVERTED_STRING:
+            return new UnconvertedString(string(strings, in.readIntVarint()));
+        case TAG_STRING:
+            return string(strings, in.readIntVarint());
+        case TAG_FALSE:
+            return Boolean.FALSE;
+        case TAG_TRUE:
+            return Boolean.TRUE;
+        case TAG_INTEGER:
+            return (int) in.readSignedVarint();
+        case TAG_DOUBLE:
+            return in.readNumber();
+        case TAG_ENUM:
+            return readEnum(key.getRawValueType(), string(strings, in.readIntVarint()));
+        case TAG_POINT_2D:
+            return new Point2D(in.readNumber(), in.readNumber());
+        case TAG_POINT_2D_LIST: {
+            int size = in.readIntVarint();
+            List<Point2D> points = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                points.add(new Point2D(in.readNumber(), in.readNumber()));
+            }
+            return ImmutableLists.ofCollection(points);
+        }
+        case TAG_CSS_SIZE:
+            return readCssSize(in, strings);
+        case TAG_CSS_POINT_2D:
+            return new CssPoint2D(readCssSize(in, strings), readCssSize(in, strings));
+        case TAG_CSS_RECTANGLE_2D:
+            return new CssRectangle2D(readCssSize(in, strings), readCssSize(in, strings),
+                    readCssSize(in, strings), readCssSize(in, strings));
+        case TAG_FIGURE:
+            return new FigureReference(readId(in, strings));
+        case TAG_WORD_SET: {
+            int size = in.readIntVarint();
+            List<String> words = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                words.add(string(strings, in.readIntVarint()));
+            }
+            return ImmutableSets.ofCollection(words);
+        }
+        default:
+            throw new IOException("Unsupported value tag " + tag + " at position " + in.position() + ".");
+        }
+    }
+
+    private static @NonNull String readId(@NonNull ByteInput in, @NonNull String[] strings) throws IOException {
+        String prefix = string(strings, in.readIntVarint());
+        long suffix = in.readVarint();
+        return suffix == 0 ? prefix : prefix + (suffix - 1);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static @NonNull Object readEnum(@NonNull Class<?> enumClass, @NonNull String name) throws IOException {
+        if (!enumClass.isEnum()) {
+            throw new IOException("Not an enum type: " + enumClass + ".");
+        }
+        try {
+            return Enum.valueOf((Class) enumClass, name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unsupported enum constant \"" + name + "\" in " + enumClass + ".", e);
+        }
+    }
+
+    private static @NonNull CssSize readCssSize(@NonNull ByteInput in, @NonNull String[] strings) throws IOException {
+        double value = in.readNumber();
+        return CssSize.from(value, string(strings, in.readIntVarint()));
+    }
+
+    private static @NonNull String string(@NonNull String[] strings, int index) throws IOException {
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("Illegal string table index " + index + ".");
+        }
+        return strings[index];
+    }
+
+    protected void setId(@NonNull Figure figure, String id) {
+        figure.set(StyleableFigure.ID, id);
+    }
+
+    /**
+     * A reference to a figure, which is resolved after all properties have
+     * been decoded.
+     */
+    private static class FigureReference {
+        final @NonNull String id;
+
+        FigureReference(@NonNull String id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * A string that is converted into a value with the figure factory,
+     * when the values are set.
+     */
+    private static class UnconvertedString {
+        final @NonNull String string;
+
+        UnconvertedString(@NonNull String string) {
+            this.string = string;
+        }
+    }
+
+    /**
+     * The location of the properties of a figure in the buffer.
+     */
+    private static class PropertyBlock {
+        final @NonNull Figure figure;
+        final int offset;
+        final int length;
+
+        PropertyBlock(@NonNull Figure figure, int offset, int length) {
+            this.figure = figure;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ * @(#)SimpleBinaryWriter.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import javafx.css.StyleOrigin;
+import javafx.geometry.Point2D;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.beans.AbstractPropertyBean;
+import org.jhotdraw8.collection.CompositeMapAccessor;
+import org.jhotdraw8.collection.ImmutableList;
+import org.jhotdraw8.collection.ImmutableSet;
+import org.jhotdraw8.collection.MapAccessor;
+import org.jhotdraw8.concurrent.WorkState;
+import org.jhotdraw8.css.CssPoint2D;
+import org.jhotdraw8.css.CssRectangle2D;
+import org.jhotdraw8.css.CssSize;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.io.IdFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.jhotdraw8.draw.io.SimpleBinaryFormat.*;
+
+/**
+ * Writes a drawing in the binary format that is described in
+ * {@link SimpleBinaryFormat}.
+ * <p>
+ * This writer writes the same figures and properties as
+ * {@link SimpleXmlWriter}. Values of frequently used types, such as numbers,
+ * sizes, points, rectangles and figure references, are written in a binary
+ * encoding. All other values are converted into strings with the
+ * {@link FigureFactory}.
+ * <p>
+ * Element names, attribute names, ids and strings are stored in a string
+ * table, so that each distinct string is only stored once.
+ * <p>
+ * Layers with deferred children are materialized before they are written.
+ *
+ * @author Werner Randelshofer
+ */
+public class SimpleBinaryWriter extends AbstractPropertyBean implements OutputFormat {
+    public static final String BINARY_DRAWING_MIME_TYPE = "application/x-jhotdraw8-drawing";
+    protected @NonNull FigureFactory figureFactory;
+    protected @NonNull IdFactory idFactory;
+    private final @NonNull Map<String, Integer> stringTable = new HashMap<>();
+    private final @NonNull List<String> strings = new ArrayList<>();
+    /**
+     * Caches the attributes of each figure class during a write.
+     */
+    private final @NonNull Map<Class<?>, List<Attribute>> attributesByClass = new HashMap<>();
+    /**
+     * The properties of a figure are written into this buffer first,
+     * so that we can prefix them with their length.
+     */
+    private final @NonNull ByteOutput propertiesBuffer = new ByteOutput();
+
+    public SimpleBinaryWriter(@NonNull FigureFactory figureFactory, @NonNull IdFactory idFactory) {
+        this.figureFactory = figureFactory;
+        this.idFactory = idFactory;
+    }
+
+    public void setFigureFactory(@NonNull FigureFactory figureFactory) {
+        this.figureFactory = figureFactory;
+    }
+
+    @Override
+    public void write(@NonNull OutputStream out, @Nullable URI documentHome, @NonNull Drawing drawing, @NonNull WorkState workState) throws IOException {
+        LayerFigure.materializeDeferredChildren(drawing);
+        Drawing external = figureFactory.toExternalDrawing(drawing);
+        idFactory.reset();
+        idFactory.setDocumentHome(documentHome);
+        stringTable.clear();
+        strings.clear();
+        try {
+            ByteOutput body = new ByteOutput();
+            writeStylesheets(body, external);
+            writeFigureRecursively(body, external);
+
+            ByteOutput header = new ByteOutput();
+            header.writeBytes(MAGIC, 0, MAGIC.length);
+            header.writeByte(VERSION);
+            header.writeVarint(strings.size());
+            for (String s : strings) {
+                header.writeString(s);
+            }
+            out.write(header.getBytes(), 0, header.size());
+            out.write(body.getBytes(), 0, body.size());
+            out.flush();
+        } finally {
+            stringTable.clear();
+            strings.clear();
+            attributesByClass.clear();
+        }
+    }
+
+    private int ref(@NonNull String s) {
+        Integer index = stringTable.get(s);
+        if (index == null) {
+            index = strings.size();
+            strings.add(s);
+            stringTable.put(s, index);
+        }
+        return index;
+    }
+
+    private void writeStylesheets(@NonNull ByteOutput out, @NonNull Drawing external) {
+        List<String> hrefs = new ArrayList<>();
+        MapAccessor<ImmutableList<URI>> stylesheetsKey = figureFactory.getStylesheetsKey();
+        ImmutableList<URI> stylesheets = stylesheetsKey == null ? null : external.get(stylesheetsKey);
+        if (stylesheets != null) {
+            for (URI stylesheet : stylesheets) {
+                hrefs.add(idFactory.relativize(stylesheet).toString());
+            }
+        }
+        out.writeVarint(hrefs.size());
+        for (String href : hrefs) {
+            out.writeVarint(ref(href));
+        }
+    }
+
+    protected void writeFigureRecursively(@NonNull ByteOutput out, @NonNull Figure figure) throws IOException {
+        try {
+            String elementName = figureFactory.getElementNameByFigure(figure);
+            if (elementName == null) {
+                // => the figureFactory decided that we should skip the figure
+                return;
+            }
+            out.writeVarint(ref(elementName));
+            writeId(out, idFactory.createId(figure));
+
+            writeProperties(propertiesBuffer, figure);
+            out.writeVarint(propertiesBuffer.size());
+            out.writeBytes(propertiesBuffer.getBytes(), 0, propertiesBuffer.size());
+            propertiesBuffer.clear();
+
+            List<Figure> children = new ArrayList<>();
+            for (Figure child : figure.getChildren()) {
+                if (figureFactory.getElementNameByFigure(child) != null) {
+                    children.add(child);
+                }
+            }
+            out.writeVarint(children.size());
+            if (!children.isEmpty()) {
+                int childrenLength = out.reserveInt();
+                for (Figure child : children) {
+                    writeFigureRecursively(out, child);
+                }
+                out.patchLength(childrenLength);
+            }
+        } catch (IOException e) {
+            throw new IOException("Error writing figure " + figure, e);
+        }
+    }
+
+    private void writeProperties(@NonNull ByteOutput out, @NonNull Figure figure) throws IOException {
+        for (Attribute attribute : getAttributes(figure)) {
+            MapAccessor<Object> k = attribute.key;
+            Object value = figure.get(k);
+            if (!figureFactory.isDefaultValue(figure, k, value)) {
+                if (attribute.nameRef < 0) {
+                    attribute.nameRef = ref(attribute.name);
+                }
+                out.writeVarint((long) attribute.nameRef << 1);
+                writeValue(out, k, value);
+            }
+        }
+        for (MapAccessor<?> k : figureFactory.figureNodeListKeys(figure)) {
+            @SuppressWarnings("unchecked")
+            MapAccessor<Object> key = (MapAccessor<Object>) k;
+            Object value = figure.get(key);
+            if (!key.isTransient() && figure.containsMapAccessor(StyleOrigin.USER, key)
+                    && !figureFactory.isDefaultValue(figure, key, value)) {
+                out.writeVarint((long) ref(figureFactory.getElementNameByKey(figure, key)) << 1 | 1);
+                writeValue(out, key, value);
+            }
+        }
+    }
+
+    /**
+     * Returns the attributes of the specified figure in the order in which
+     * they are written. First all non-transient composite attributes, then
+     * the remaining non-transient non-composite attributes. The object id
+     * attribute is omitted, because the id is written with the figure.
+     * <p>
+     * The attributes only depend on the class of the figure, and are
+     * therefore only computed once per class.
+     *
+     * @param figure a figure
+     * @return the attributes
+     * @throws IOException if the figure factory has no name for an attribute
+     */
+    private @NonNull List<Attribute> getAttributes(@NonNull Figure figure) throws IOException {
+        List<Attribute> attributes = attributesByClass.get(figure.getClass());
+        if (attributes != null) {
+            return attributes;
+        }
+        final Set<MapAccessor<?>> keys = figureFactory.figureAttributeKeys(figure);
+        Set<MapAccessor<?>> done = new HashSet<>(keys.size());
+        List<MapAccessor<Object>> attributeKeys = new ArrayList<>(keys.size());
+        for (MapAccessor<?> k : keys) {
+            if (k instanceof CompositeMapAccessor) {
+                done.add(k);
+                if (!k.isTransient()) {
+                    @SuppressWarnings("unchecked") CompositeMapAccessor<Object> cmap = (CompositeMapAccessor<Object>) k;
+                    done.addAll(cmap.getSubAccessors());
+                    attributeKeys.add(cmap);
+                }
+            }
+        }
+        for (MapAccessor<?> k : keys) {
+            if (!k.isTransient() && !done.contains(k)) {
+                @SuppressWarnings("unchecked") MapAccessor<Object> cmap = (MapAccessor<Object>) k;
+                attributeKeys.add(cmap);
+            }
+        }
+
+        String objectIdAttribute = figureFactory.getObjectIdAttribute();
+        attributes = new ArrayList<>(attributeKeys.size());
+        for (MapAccessor<Object> k : attributeKeys) {
+            String name = figureFactory.getAttributeNameByKey(figure, k);
+            if (!objectIdAttribute.equals(name)) {
+                attributes.add(new Attribute(k, name));
+            }
+        }
+        attributesByClass.put(figure.getClass(), attributes);
+        return attributes;
+    }
+
+    private void writeValue(@NonNull ByteOutput out, @NonNull MapAccessor<Object> key, @Nullable Object value) throws IOException {
+        Class<?> rawValueType = key.getRawValueType();
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (Figure.class.isAssignableFrom(rawValueType)) {
+            out.writeByte(TAG_FIGURE);
+            writeId(out, idFactory.createId(value));
+        } else if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            out.writeVarint(ref((String) value));
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value.getClass() == Integer.class) {
+            out.writeByte(TAG_INTEGER);
+            out.writeSignedVarint((Integer) value);
+        } else if (value.getClass() == Double.class) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeNumber((Double) value);
+        } else if (value instanceof Enum<?> && ((Enum<?>) value).getDeclaringClass() == rawValueType) {
+            out.writeByte(TAG_ENUM);
+            out.writeVarint(ref(((Enum<?>) value).name()));
+        } else if (value.getClass() == Point2D.class) {
+            out.writeByte(TAG_POINT_2D);
+            writePoint2D(out, (Point2D) value);
+        } else if (value instanceof ImmutableList<?> && isListOf(key.getValueType(), Point2D.class)) {
+            @SuppressWarnings("unchecked")
+            ImmutableList<Point2D> points = (ImmutableList<Point2D>) value;
+            out.writeByte(TAG_POINT_2D_LIST);
+            out.writeVarint(points.size());
+            for (Point2D p : points) {
+                writePoint2D(out, p);
+            }
+        } else if (value.getClass() == CssSize.class) {
+            out.writeByte(TAG_CSS_SIZE);
+            writeCssSize(out, (CssSize) value);
+        } else if (value.getClass() == CssPoint2D.class) {
+            CssPoint2D p = (CssPoint2D) value;
+            out.writeByte(TAG_CSS_POINT_2D);
+            writeCssSize(out, p.getX());
+            writeCssSize(out, p.getY());
+        } else if (value.getClass() == CssRectangle2D.class) {
+            CssRectangle2D r = (CssRectangle2D) value;
+            out.writeByte(TAG_CSS_RECTANGLE_2D);
+            writeCssSize(out, r.getMinX());
+            writeCssSize(out, r.getMinY());
+            writeCssSize(out, r.getWidth());
+            writeCssSize(out, r.getHeight());
+        } else if (value instanceof ImmutableSet<?> && isCollectionOf(key.getValueType(), ImmutableSet.class, String.class)) {
+            @SuppressWarnings("unchecked")
+            ImmutableSet<String> words = (ImmutableSet<String>) value;
+            out.writeByte(TAG_WORD_SET);
+            out.writeVarint(words.size());
+            for (String word : words) {
+                out.writeVarint(ref(word));
+            }
+        } else {
+            out.writeByte(TAG_CONVERTED_STRING);
+            out.writeVarint(ref(figureFactory.valueToString(key, value)));
+        }
+    }
+
+    /**
+     * Writes an id as a prefix and an optional numeric suffix.
+     * The suffix is only split off, if it can be converted back into the
+     * same digits.
+     */
+    private void writeId(@NonNull ByteOutput out, @NonNull String id) {
+        int i = id.length();
+        while (i > 0 && i > id.length() - MAX_ID_SUFFIX_DIGITS) {
+            char c = id.charAt(i - 1);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            i--;
+        }
+        if (i < id.length() && (id.charAt(i) != '0' || i == id.length() - 1)) {
+            out.writeVarint(ref(id.substring(0, i)));
+            out.writeVarint(Long.parseLong(id.substring(i)) + 1);
+        } else {
+            out.writeVarint(ref(id));
+            out.writeVarint(0);
+        }
+    }
+
+    private void writePoint2D(@NonNull ByteOutput out, @NonNull Point2D p) {
+        out.writeNumber(p.getX());
+        out.writeNumber(p.getY());
+    }
+
+    private void writeCssSize(@NonNull ByteOutput out, @NonNull CssSize size) {
+        out.writeNumber(size.getValue());
+        out.writeVarint(ref(size.getUnits()));
+    }
+
+    private static boolean isListOf(@NonNull Type type, @NonNull Class<?> elementType) {
+        return isCollectionOf(type, ImmutableList.class, elementType);
+    }
+
+    private static boolean isCollectionOf(@NonNull Type type, @NonNull Class<?> collectionType, @NonNull Class<?> elementType) {
+        if (type instanceof ParameterizedType) {
+            ParameterizedType p = (ParameterizedType) type;
+            return p.getRawType() == collectionType
+                    && p.getActualTypeArguments().length == 1
+                    && p.getActualTypeArguments()[0] == elementType;
+        }
+        return false;
+    }
+
+    /**
+     * An attribute key and its name. The name is added to the string
+     * table when the attribute is written for the first time.
+     */
+    private static class Attribute {
+        final @NonNull MapAccessor<Object> key;
+        final @NonNull String name;
+        int nameRef = -1;
+
+        Attribute(@NonNull MapAccessor<Object> key, @NonNull String name) {
+            this.key = key;
+            this.name = name;
+        }
+    }
+}
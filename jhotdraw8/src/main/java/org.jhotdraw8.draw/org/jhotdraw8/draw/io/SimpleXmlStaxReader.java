@@ -29,21 +29,29 @@ import javax.xml.stream.Location;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.SequenceInputStream;
 import java.io.StringReader;
 import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * This reader does not support {@link FigureFactory#nodeListToValue(MapAccessor, List)}.
@@ -56,6 +64,16 @@ public class SimpleXmlStaxReader implements InputFormat, ClipboardInputFormat {
     private @NonNull FigureFactory figureFactory;
     private String idAttribute = "id";
     private Supplier<Layer> layerFactory;
+    /**
+     * Documents with at least this number of bytes are parsed in parallel
+     * chunks. On a single processor, parsing in chunks is slower than
+     * parsing sequentially.
+     */
+    private int minChunkedLength = ForkJoinPool.getCommonPoolParallelism() > 1 ? 1 << 16 : Integer.MAX_VALUE;
+    /**
+     * The minimal number of bytes in a chunk.
+     */
+    private static final int MIN_CHUNK_LENGTH = 1 << 12;
 
     public SimpleXmlStaxReader(@NonNull FigureFactory figureFactory, @NonNull IdFactory idFactory, @Nullable String namespaceURI) {
         this.idFactory = idFactory;
@@ -112,49 +130,49 @@ public class SimpleXmlStaxReader implements InputFormat, ClipboardInputFormat {
     @Override
     public @Nullable Figure read(@NonNull InputStream in, Drawing drawing, URI documentHome, @NonNull WorkState workState) throws IOException {
         idFactory.setDocumentHome(documentHome);
-        XMLInputFactory dbf = XMLInputFactory.newInstance();
-
-        // We do not want that the reader creates a socket connection,
-        // even if it would benefit the result!
-        dbf.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
-        dbf.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, false);
-        dbf.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-        dbf.setXMLResolver((publicID,
-                            systemID,
-                            baseURI,
-                            namespace) -> null
-        );
-        Deque<Figure> stack = new ArrayDeque<>();
+        XMLInputFactory dbf = createInputFactory();
+        Figure figure = null;
         List<Runnable> secondPass = new ArrayList<>();
         try {
-            for (XMLStreamReader r = dbf.createXMLStreamReader(in); r.hasNext(); ) {
-                readNode(r, r.next(), stack, secondPass);
+            if (minChunkedLength == Integer.MAX_VALUE) {
+                figure = readSequentially(dbf.createXMLStreamReader(in), secondPass);
+            } else {
+                byte[] bytes = in.readAllBytes();
+                if (bytes.length >= minChunkedLength) {
+                    figure = readChunked(dbf, bytes);
+                }
+                if (figure == null) {
+                    figure = readSequentially(dbf.createXMLStreamReader(new ByteArrayInputStream(bytes)), secondPass);
+                }
             }
-
         } catch (XMLStreamException e) {
             throw new IOException(e);
         }
-        if (stack.size() > 1) {
-            throw new IOException("Illegal stack size! " + stack);
+        runPass(secondPass);
+        if ((figure instanceof Drawing)) {
+            figure.set(Drawing.DOCUMENT_HOME, documentHome);
         }
+        return figure;
+    }
 
+    public @Nullable Figure read(@NonNull Reader in, Drawing drawing, URI documentHome, @NonNull WorkState workState) throws IOException {
+        idFactory.setDocumentHome(documentHome);
+        XMLInputFactory dbf = createInputFactory();
+        Figure figure;
+        List<Runnable> secondPass = new ArrayList<>();
         try {
-            secondPass.parallelStream().forEach(Runnable::run);
-        } catch (UncheckedIOException e) {
-            throw e.getCause();
-        } catch (Exception e) {
+            figure = readSequentially(dbf.createXMLStreamReader(in), secondPass);
+        } catch (XMLStreamException e) {
             throw new IOException(e);
         }
-
-        Figure figure = stack.isEmpty() ? null : stack.getFirst();
+        runPass(secondPass);
         if ((figure instanceof Drawing)) {
             figure.set(Drawing.DOCUMENT_HOME, documentHome);
         }
         return figure;
     }
 
-    public @Nullable Figure read(@NonNull Reader in, Drawing drawing, URI documentHome, @NonNull WorkState workState) throws IOException {
-        idFactory.setDocumentHome(documentHome);
+    private @NonNull XMLInputFactory createInputFactory() {
         XMLInputFactory dbf = XMLInputFactory.newInstance();
 
         // We do not want that the reader creates a socket connection,
@@ -167,33 +185,172 @@ public class SimpleXmlStaxReader implements InputFormat, ClipboardInputFormat {
                             baseURI,
                             namespace) -> null
         );
+        return dbf;
+    }
+
+    private @Nullable Figure readSequentially(@NonNull XMLStreamReader r, @NonNull List<Runnable> secondPass) throws IOException {
         Deque<Figure> stack = new ArrayDeque<>();
-        List<Runnable> secondPass = new ArrayList<>();
         try {
-            for (XMLStreamReader r = dbf.createXMLStreamReader(in); r.hasNext(); ) {
-                readNode(r, r.next(), stack, secondPass);
+            while (r.hasNext()) {
+                readNode(r, r.next(), stack, null, secondPass);
             }
-
         } catch (XMLStreamException e) {
             throw new IOException(e);
         }
         if (stack.size() > 1) {
             throw new IOException("Illegal stack size! " + stack);
         }
+        return stack.isEmpty() ? null : stack.getFirst();
+    }
 
+    /**
+     * Runs a pass on the calling thread, because the converters of the
+     * {@link FigureFactory} and the {@link IdFactory} are not thread-safe.
+     */
+    private void runPass(@NonNull List<Runnable> pass) throws IOException {
         try {
-            secondPass.parallelStream().forEach(Runnable::run);
+            for (Runnable r : pass) {
+                r.run();
+            }
         } catch (UncheckedIOException e) {
             throw e.getCause();
         } catch (Exception e) {
             throw new IOException(e);
         }
+    }
 
-        Figure figure = stack.isEmpty() ? null : stack.getFirst();
-        if ((figure instanceof Drawing)) {
-            figure.set(Drawing.DOCUMENT_HOME, documentHome);
+    /**
+     * Reads a document in chunks that are parsed in parallel.
+     * <p>
+     * The document is split into a skeleton and into chunks. The skeleton
+     * contains the root element and its child elements without their
+     * contents, for example the drawing and its layers. The chunks contain
+     * runs of grand-child elements of the root element, for example the
+     * figures in a layer.
+     * <p>
+     * The skeleton is parsed first. Then the chunks are parsed
+     * concurrently with separate stream readers into independent
+     * subtrees. Each chunk is streamed from the document bytes, wrapped
+     * into the start and end tags of its ancestors, so that namespace
+     * declarations remain in scope.
+     * <p>
+     * The chunk parsers only create figures. Ids are registered, and
+     * attribute values are converted, on the calling thread when the
+     * subtrees are added to their parents in document order. Therefore
+     * neither the {@link IdFactory} nor the {@link FigureFactory} are
+     * used concurrently.
+     *
+     * @param dbf   the input factory
+     * @param bytes the document
+     * @return the figure, or null if the document can not be split into chunks
+     * @throws IOException if the document is not valid
+     */
+    private @Nullable Figure readChunked(@NonNull XMLInputFactory dbf, @NonNull byte[] bytes) throws IOException {
+        String encoding;
+        try {
+            XMLStreamReader probe = dbf.createXMLStreamReader(new ByteArrayInputStream(bytes));
+            encoding = probe.getEncoding();
+            probe.close();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            if (!charset.equals(StandardCharsets.UTF_8) && !charset.equals(StandardCharsets.US_ASCII)
+                    && !charset.equals(StandardCharsets.ISO_8859_1)) {
+                // the scan requires an encoding in which markup characters are single bytes
+                return null;
+            }
+            encoding = charset.name();
+        } catch (XMLStreamException | IllegalArgumentException e) {
+            return null;
         }
-        return figure;
+        int offset = bytes.length >= 3 && bytes[0] == (byte) 0xef && bytes[1] == (byte) 0xbb && bytes[2] == (byte) 0xbf ? 3 : 0;
+        ChunkLayout layout = ChunkLayout.scan(bytes, offset,
+                Math.max(MIN_CHUNK_LENGTH, bytes.length / (4 * ForkJoinPool.getCommonPoolParallelism())));
+        if (layout == null || layout.chunks.size() < 2) {
+            return null;
+        }
+
+        Figure root;
+        List<Runnable> secondPass = new ArrayList<>();
+        try {
+            root = readSequentially(dbf.createXMLStreamReader(layout.getSkeleton(bytes)), secondPass);
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+        if (root == null || root.getChildren().size() != layout.parents.size()) {
+            return null;
+        }
+
+        final String finalEncoding = encoding;
+        List<ParsedChunk> parsed;
+        try {
+            parsed = layout.chunks.parallelStream()
+                    .map(chunk -> {
+                        try {
+                            return readChunk(dbf, layout.getWrappedChunk(bytes, chunk), finalEncoding);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        for (int i = 0, n = parsed.size(); i < n; i++) {
+            Figure parent = root.getChild(layout.chunks.get(i).parentIndex);
+            ParsedChunk chunk = parsed.get(i);
+            for (Figure figure : chunk.figures) {
+                if (!figure.isSuitableParent(parent) || !parent.isSuitableChild(figure)) {
+                    throw new IOException("Cannot add figure " + figure + " to parent " + parent + ".");
+                }
+                parent.getChildren().add(figure);
+            }
+            runPass(chunk.firstPass);
+            secondPass.addAll(chunk.secondPass);
+        }
+        runPass(secondPass);
+        return root;
+    }
+
+    /**
+     * Parses a chunk that has been wrapped into the start and end tags of
+     * the root element and of the parent element.
+     */
+    private @NonNull ParsedChunk readChunk(@NonNull XMLInputFactory dbf, @NonNull InputStream wrappedChunk, @NonNull String encoding) throws IOException {
+        ParsedChunk result = new ParsedChunk();
+        Deque<Figure> stack = new ArrayDeque<>();
+        try {
+            XMLStreamReader r;
+            synchronized (dbf) {
+                r = dbf.createXMLStreamReader(wrappedChunk, encoding);
+            }
+            int depth = 0;
+            while (r.hasNext()) {
+                int next = r.next();
+                switch (next) {
+                case XMLStreamReader.START_ELEMENT:
+                    if (++depth > 2) {
+                        readStartElement(r, stack, result.firstPass, result.secondPass);
+                    }
+                    break;
+                case XMLStreamReader.END_ELEMENT:
+                    if (--depth >= 2 && !stack.isEmpty()) {
+                        readEndElement(r, stack);
+                        if (depth == 2 && !stack.isEmpty()) {
+                            result.figures.add(stack.removeFirst());
+                        }
+                    }
+                    break;
+                default:
+                    if (depth > 2) {
+                        readNode(r, next, stack, result.firstPass, result.secondPass);
+                    }
+                    break;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+        return result;
     }
 
     @Override
@@ -230,7 +387,30 @@ public class SimpleXmlStaxReader implements InputFormat, ClipboardInputFormat {
 
     }
 
-    private void readAttributes(@NonNull XMLStreamReader r, @NonNull Figure figure, @NonNull List<Runnable> secondPass) throws IOException {
+    /**
+     * Sets the minimal length of a document in bytes, from which on the
+     * document is parsed in parallel chunks.
+     *
+     * @param minChunkedLength the minimal length
+     */
+    void setMinChunkedLength(int minChunkedLength) {
+        this.minChunkedLength = minChunkedLength;
+    }
+
+    /**
+     * Reads the attributes of a figure.
+     *
+     * @param r          the reader
+     * @param figure     the figure
+     * @param firstPass  if this list is non-null, the registration of the id
+     *                   and the conversion of the attribute values are
+     *                   added to this list instead of being performed
+     *                   immediately
+     * @param secondPass the conversions that need the id resolver are
+     *                   added to this list
+     * @throws IOException if an attribute is not supported
+     */
+    private void readAttributes(@NonNull XMLStreamReader r, @NonNull Figure figure, @Nullable List<Runnable> firstPass, @NonNull List<Runnable> secondPass) throws IOException {
         for (int i = 0, n = r.getAttributeCount(); i < n; i++) {
             String ns = r.getAttributeNamespace(i);
             if (namespaceURI != null && ns != null && !namespaceURI.equals(ns)) {
@@ -240,14 +420,21 @@ public class SimpleXmlStaxReader implements InputFormat, ClipboardInputFormat {
             String attributeValue = r.getAttributeValue(i);
             Location location = r.getLocation();
             if (idAttribute.equals(attributeLocalName)) {
-                idFactory.putIdToObject(attributeValue, figure);
-                /*
-                Object anotherObjWithSameId = idFactory.putIdToObject(attributeValue, figure);
-                if (anotherObjWithSameId != null) {
-                    // Note: it is okay if we have found a duplicate id when pasting!
-                    throw new IOException("Duplicate id " + attributeValue + " at line " + location.getLineNumber() + ", col " + location.getColumnNumber());
-                }*/
-                setId(figure, attributeValue);
+                if (firstPass != null) {
+                    firstPass.add(() -> {
+                        idFactory.putIdToObject(attributeValue, figure);
+                        setId(figure, attributeValue);
+                    });
+                } else {
+                    idFactory.putIdToObject(attributeValue, figure);
+                    /*
+                    Object anotherObjWithSameId = idFactory.putIdToObject(attributeValue, figure);
+                    if (anotherObjWithSameId != null) {
+                        // Note: it is okay if we have found a duplicate id when pasting!
+                        throw new IOException("Duplicate id " + attributeValue + " at line " + location.getLineNumber() + ", col " + location.getColumnNumber());
+                    }*/
+                    setId(figure, attributeValue);
+                }
             } else {
                 @SuppressWarnings("unchecked")
                 MapAccessor<Object> key =
@@ -263,6 +450,14 @@ public class SimpleXmlStaxReader implements InputFormat, ClipboardInputFormat {
                             throw new UncheckedIOException(e);
                         }
                     });
+                } else if (firstPass != null) {
+                    firstPass.add(() -> {
+                        try {
+                            figure.set(key, figureFactory.stringToValue(key, attributeValue));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
                 } else {
                     figure.set(key, figureFactory.stringToValue(key, attributeValue));
                 }
@@ -274,10 +469,10 @@ public class SimpleXmlStaxReader implements InputFormat, ClipboardInputFormat {
         stack.removeFirst();
     }
 
-    private void readNode(XMLStreamReader r, int next, @NonNull Deque<Figure> stack, @NonNull List<Runnable> secondPass) throws IOException {
+    private void readNode(XMLStreamReader r, int next, @NonNull Deque<Figure> stack, @Nullable List<Runnable> firstPass, @NonNull List<Runnable> secondPass) throws IOException {
         switch (next) {
         case XMLStreamReader.START_ELEMENT:
-            readStartElement(r, stack, secondPass);
+            readStartElement(r, stack, firstPass, secondPass);
             break;
         case XMLStreamReader.END_ELEMENT:
             readEndElement(r, stack);
@@ -331,13 +526,13 @@ public class SimpleXmlStaxReader implements InputFormat, ClipboardInputFormat {
         }
     }
 
-    private void readStartElement(@NonNull XMLStreamReader r, @NonNull Deque<Figure> stack, @NonNull List<Runnable> secondPass) throws IOException {
+    private void readStartElement(@NonNull XMLStreamReader r, @NonNull Deque<Figure> stack, @Nullable List<Runnable> firstPass, @NonNull List<Runnable> secondPass) throws IOException {
         if (namespaceURI != null && !namespaceURI.equals(r.getNamespaceURI())) {
             return;
         }
 
         Figure figure = createFigure(r, stack);
-        readAttributes(r, figure, secondPass);
+        readAttributes(r, figure, firstPass, secondPass);
     }
 
     public void setFigureFactory(@NonNull FigureFactory figureFactory) {
@@ -351,4 +546,237 @@ public class SimpleXmlStaxReader implements InputFormat, ClipboardInputFormat {
     public void setNamespaceURI(@Nullable String namespaceURI) {
         this.namespaceURI = namespaceURI;
     }
+
+    /**
+     * The figures, the first pass and the second pass of a parsed chunk.
+     * The first pass registers the ids and converts the attribute values.
+     */
+    private static class ParsedChunk {
+        final @NonNull List<Figure> figures = new ArrayList<>();
+        final @NonNull List<Runnable> firstPass = new ArrayList<>();
+        final @NonNull List<Runnable> secondPass = new ArrayList<>();
+    }
+
+    /**
+     * A run of sibling elements in the document.
+     */
+    private static class Chunk {
+        /**
+         * The index of the parent element among the child elements of
+         * the root element.
+         */
+        final int parentIndex;
+        final int start;
+        int end;
+
+        Chunk(int parentIndex, int start, int end) {
+            this.parentIndex = parentIndex;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * The locations of the skeleton and of the chunks in the bytes of a
+     * document.
+     * <p>
+     * The layout is determined by scanning the bytes for tags, without
+     * parsing attributes. This requires an encoding in which the markup
+     * characters are encoded as single bytes, and do not occur inside of
+     * multi-byte sequences, for example UTF-8.
+     * <p>
+     * The skeleton and the chunks are streamed from the bytes of the
+     * document, so that the document is not copied.
+     */
+    private static class ChunkLayout {
+        /**
+         * Start and end of the start tag of the root element.
+         */
+        int rootStart, rootContentStart;
+        /**
+         * Start and end of the end tag of the root element.
+         */
+        int rootEnd, rootEndTagEnd;
+        /**
+         * For each child element of the root element: start and end of its
+         * start tag, start and end of its end tag.
+         * An empty element has only a start tag.
+         */
+        final @NonNull List<int[]> parents = new ArrayList<>();
+        final @NonNull List<Chunk> chunks = new ArrayList<>();
+
+        /**
+         * Scans the specified bytes.
+         *
+         * @param b           the bytes
+         * @param offset      the offset of the first byte after the byte order mark
+         * @param chunkLength the desired length of a chunk
+         * @return the layout, or null if the bytes can not be split into chunks
+         */
+        static @Nullable ChunkLayout scan(@NonNull byte[] b, int offset, int chunkLength) {
+            ChunkLayout layout = new ChunkLayout();
+            int depth = 0;
+            int elementStart = -1;
+            int[] parent = null;
+            for (int i = offset, n = b.length; i < n; ) {
+                int lt = indexOf(b, '<', i);
+                if (lt < 0) {
+                    break;
+                }
+                int end;
+                if (startsWith(b, "<!--", lt)) {
+                    end = indexOf(b, "-->", lt + 4);
+                    i = end + 3;
+                } else if (startsWith(b, "<![CDATA[", lt)) {
+                    end = indexOf(b, "]]>", lt + 9);
+                    i = end + 3;
+                } else if (startsWith(b, "<!", lt)) {
+                    // a document type declaration may declare entities
+                    return null;
+                } else if (startsWith(b, "<?", lt)) {
+                    if (depth > 0) {
+                        return null;
+                    }
+                    end = indexOf(b, "?>", lt + 2);
+                    i = end + 2;
+                } else if (startsWith(b, "</", lt)) {
+                    end = indexOf(b, '>', lt + 2);
+                    i = end + 1;
+                    depth--;
+                    if (end < 0) {
+                        return null;
+                    } else if (depth == 0) {
+                        layout.rootEnd = lt;
+                        layout.rootEndTagEnd = i;
+                        return layout;
+                    } else if (depth == 1 && parent != null) {
+                        parent[2] = lt;
+                        parent[3] = i;
+                    } else if (depth == 2) {
+                        layout.addElement(layout.parents.size() - 1, elementStart, i, chunkLength);
+                    }
+                } else {
+                    end = findEndOfStartTag(b, lt + 1);
+                    if (end < 0) {
+                        return null;
+                    }
+                    i = end + 1;
+                    boolean isEmpty = b[end - 1] == '/';
+                    if (depth == 0) {
+                        if (isEmpty) {
+                            return null;
+                        }
+                        layout.rootStart = lt;
+                        layout.rootContentStart = i;
+                    } else if (depth == 1) {
+                        parent = new int[]{lt, i, -1, -1};
+                        layout.parents.add(parent);
+                    } else if (depth == 2) {
+                        elementStart = lt;
+                        if (isEmpty) {
+                            layout.addElement(layout.parents.size() - 1, lt, i, chunkLength);
+                        }
+                    }
+                    if (!isEmpty) {
+                        depth++;
+                    }
+                }
+                if (end < 0) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        private static int indexOf(@NonNull byte[] b, char c, int i) {
+            for (int n = b.length; i < n; i++) {
+                if (b[i] == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static int indexOf(@NonNull byte[] b, @NonNull String str, int i) {
+            for (i = indexOf(b, str.charAt(0), i); i >= 0; i = indexOf(b, str.charAt(0), i + 1)) {
+                if (startsWith(b, str, i)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static boolean startsWith(@NonNull byte[] b, @NonNull String str, int i) {
+            if (i + str.length() > b.length) {
+                return false;
+            }
+            for (int j = 0, n = str.length(); j < n; j++) {
+                if (b[i + j] != str.charAt(j)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int findEndOfStartTag(@NonNull byte[] b, int i) {
+            byte quote = 0;
+            for (int n = b.length; i < n; i++) {
+                byte c = b[i];
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '>') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Adds an element to the last chunk, or creates a new chunk if the
+         * last chunk has a different parent or is long enough.
+         */
+        private void addElement(int parentIndex, int start, int end, int chunkLength) {
+            Chunk last = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+            if (last != null && last.parentIndex == parentIndex && last.end - last.start < chunkLength) {
+                last.end = end;
+            } else {
+                chunks.add(new Chunk(parentIndex, start, end));
+            }
+        }
+
+        /**
+         * Returns a stream over the document without the contents of the
+         * child elements of the root element.
+         */
+        @NonNull InputStream getSkeleton(@NonNull byte[] b) {
+            List<InputStream> segments = new ArrayList<>();
+            segments.add(new ByteArrayInputStream(b, 0, rootContentStart));
+            for (int[] p : parents) {
+                segments.add(new ByteArrayInputStream(b, p[0], p[1] - p[0]));
+                if (p[2] >= 0) {
+                    segments.add(new ByteArrayInputStream(b, p[2], p[3] - p[2]));
+                }
+            }
+            segments.add(new ByteArrayInputStream(b, rootEnd, b.length - rootEnd));
+            return new SequenceInputStream(Collections.enumeration(segments));
+        }
+
+        /**
+         * Returns a stream over the chunk wrapped into the start and end
+         * tags of the root element and of the parent element.
+         */
+        @NonNull InputStream getWrappedChunk(@NonNull byte[] b, @NonNull Chunk chunk) {
+            int[] p = parents.get(chunk.parentIndex);
+            return new SequenceInputStream(Collections.enumeration(Arrays.asList(
+                    new ByteArrayInputStream(b, rootStart, rootContentStart - rootStart),
+                    new ByteArrayInputStream(b, p[0], p[1] - p[0]),
+                    new ByteArrayInputStream(b, chunk.start, chunk.end - chunk.start),
+                    new ByteArrayInputStream(b, p[2], p[3] - p[2]),
+                    new ByteArrayInputStream(b, rootEnd, rootEndTagEnd - rootEnd))));
+        }
+    }
 }
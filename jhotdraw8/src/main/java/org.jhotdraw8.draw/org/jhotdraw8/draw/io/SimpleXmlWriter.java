@@ -17,6 +17,7 @@ import org.jhotdraw8.draw.figure.Clipping;
 import org.jhotdraw8.draw.figure.ClippingFigure;
 import org.jhotdraw8.draw.figure.Drawing;
 import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.LayerFigure;
 import org.jhotdraw8.draw.input.ClipboardOutputFormat;
 import org.jhotdraw8.io.IdFactory;
 import org.jhotdraw8.xml.IndentingXMLStreamWriter;
@@ -42,11 +43,17 @@ import java.io.StringWriter;
 import java.io.Writer;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -183,15 +190,214 @@ public class SimpleXmlWriter extends AbstractPropertyBean implements OutputForma
     }
 
     protected void write(URI documentHome, Writer out, Drawing drawing, WorkState workState) throws IOException {
+        write(out, createSnapshot(documentHome, drawing), workState);
+    }
+
+    /**
+     * Creates an immutable snapshot of the drawing, which can be written
+     * on a background thread while the drawing is being edited.
+     * <p>
+     * This method must be called on the thread that owns the drawing.
+     * The snapshot holds the ids and the property values of the figures.
+     * The values are converted into strings when the snapshot is written.
+     * Layers with deferred children are materialized, see
+     * {@link LayerFigure#materializeDeferredChildren(Figure)}.
+     *
+     * @param documentHome the document home
+     * @param internal     the drawing
+     * @return the snapshot
+     * @throws IOException if the drawing can not be converted
+     */
+    public @NonNull Snapshot createSnapshot(@Nullable URI documentHome, @NonNull Drawing internal) throws IOException {
+        long start = System.nanoTime();
+        LayerFigure.materializeDeferredChildren(internal);
+        Drawing external = figureFactory.toExternalDrawing(internal);
+        idFactory.reset();
+        idFactory.setDocumentHome(documentHome);
+        List<String> stylesheets = new ArrayList<>();
+        if (figureFactory.getStylesheetsKey() != null) {
+            ImmutableList<URI> uris = external.get(figureFactory.getStylesheetsKey());
+            if (uris != null) {
+                for (Object stylesheet : uris) {
+                    if (stylesheet instanceof URI) {
+                        stylesheets.add(idFactory.relativize((URI) stylesheet).toString());
+                    }
+                }
+            }
+        }
+        int[] count = new int[1];
+        FigureSnapshot root = createFigureSnapshot(external, true, count);
+        if (root == null) {
+            throw new IOException("The figure factory does not support the drawing " + external + ".");
+        }
+        return new Snapshot(stylesheets, root, count[0], System.nanoTime() - start);
+    }
+
+    private @Nullable FigureSnapshot createFigureSnapshot(@NonNull Figure figure, boolean isRoot, @NonNull int[] count) throws IOException {
+        String elementName = figureFactory.getElementNameByFigure(figure);
+        if (elementName == null) {
+            // => the figureFactory decided that we should skip the figure
+            return null;
+        }
+        count[0]++;
+        FigureSnapshot snapshot = new FigureSnapshot(elementName, idFactory.createId(figure));
+        String objectIdAttribute = figureFactory.getObjectIdAttribute();
+        for (MapAccessor<Object> k : getAttributeKeys(figure)) {
+            Object value = figure.get(k);
+            if (!figureFactory.isDefaultValue(figure, k, value)) {
+                String name = figureFactory.getAttributeNameByKey(figure, k);
+                if (!objectIdAttribute.equals(name)) {
+                    snapshot.attributeNames.add(name);
+                    if (Figure.class.isAssignableFrom(k.getRawValueType())) {
+                        snapshot.attributeKeys.add(null);
+                        snapshot.attributeValues.add(idFactory.createId(value));
+                    } else {
+                        snapshot.attributeKeys.add(k);
+                        snapshot.attributeValues.add(value);
+                    }
+                }
+            }
+        }
+        if (!isRoot) {
+            for (MapAccessor<?> k : figureFactory.figureNodeListKeys(figure)) {
+                @SuppressWarnings("unchecked")
+                MapAccessor<Object> key = (MapAccessor<Object>) k;
+                Object value = figure.get(key);
+                if (!key.isTransient() && figure.containsMapAccessor(StyleOrigin.USER, key) && !figureFactory.isDefaultValue(figure, key, value)) {
+                    snapshot.nodeListKeys.add(key);
+                    snapshot.nodeListValues.add(value);
+                }
+            }
+        }
+        for (Figure child : figure.getChildren()) {
+            FigureSnapshot childSnapshot = createFigureSnapshot(child, false, count);
+            if (childSnapshot != null) {
+                snapshot.children.add(childSnapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Writes a snapshot into a file.
+     * <p>
+     * The snapshot is streamed into a temporary file in the same directory,
+     * which then replaces the file with an atomic move. Therefore, the file
+     * is never left in a partially written state.
+     * <p>
+     * This method can be called on a background thread. This writer must
+     * not be used for other drawings until this method returns.
+     *
+     * @param file      the file
+     * @param snapshot  a snapshot that has been created with the parent
+     *                  directory of the file as document home
+     * @param workState for progress monitoring and cancelling the operation
+     * @return statistics about the write operation
+     * @throws IOException if writing fails
+     */
+    public @NonNull WriteStatistics write(@NonNull Path file, @NonNull Snapshot snapshot, @NonNull WorkState workState) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        boolean success = false;
+        try {
+            long start = System.nanoTime();
+            try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                write(out, snapshot, workState);
+            }
+            long serializeNanos = System.nanoTime() - start;
+            long bytes = Files.size(tmp);
+
+            start = System.nanoTime();
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            success = true;
+            WriteStatistics statistics = new WriteStatistics(snapshot.getFigureCount(), bytes,
+                    snapshot.getSnapshotNanos(), serializeNanos, System.nanoTime() - start);
+            workState.updateMessage(statistics.toString());
+            return statistics;
+        } finally {
+            if (!success) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot into an output stream.
+     * <p>
+     * This method can be called on a background thread.
+     *
+     * @param out       the output stream
+     * @param snapshot  the snapshot
+     * @param workState for progress monitoring and cancelling the operation
+     * @throws IOException if writing fails
+     */
+    public void write(@NonNull OutputStream out, @NonNull Snapshot snapshot, @NonNull WorkState workState) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        write(w, snapshot, workState);
+        w.flush();
+    }
+
+    private void write(@NonNull Writer out, @NonNull Snapshot snapshot, @NonNull WorkState workState) throws IOException {
         IndentingXMLStreamWriter w = new IndentingXMLStreamWriter(out);
         try {
-            writeDocument(w, documentHome, drawing);
+            FigureSnapshot root = snapshot.root;
+            w.writeStartDocument();
+            w.setDefaultNamespace(namespaceURI);
+            for (String stylesheet : snapshot.stylesheets) {
+                writeStylesheetInstruction(w, stylesheet);
+            }
+            w.writeStartElement(root.elementName);
+            w.writeDefaultNamespace(namespaceURI);
+            writeSnapshotAttributes(w, root);
+            int[] count = {1};
+            for (FigureSnapshot child : root.children) {
+                writeSnapshotRecursively(w, child, snapshot.figureCount, count, workState);
+            }
+            w.writeEndElement();
+            w.writeEndDocument();
             w.flush();
         } catch (XMLStreamException e) {
             throw new IOException(e);
         }
     }
 
+    private void writeSnapshotAttributes(@NonNull XMLStreamWriter w, @NonNull FigureSnapshot figure) throws IOException, XMLStreamException {
+        w.writeAttribute(figureFactory.getObjectIdAttribute(), figure.id);
+        for (int i = 0, n = figure.attributeNames.size(); i < n; i++) {
+            MapAccessor<Object> key = figure.attributeKeys.get(i);
+            Object value = figure.attributeValues.get(i);
+            w.writeAttribute(figure.attributeNames.get(i),
+                    key == null ? (String) value : figureFactory.valueToString(key, value));
+        }
+    }
+
+    private void writeSnapshotRecursively(@NonNull XMLStreamWriter w, @NonNull FigureSnapshot figure,
+                                          int total, @NonNull int[] count, @NonNull WorkState workState) throws IOException {
+        if ((++count[0] & 1023) == 0) {
+            if (workState.isCancelled()) {
+                throw new CancellationException();
+            }
+            workState.updateProgress(count[0], total);
+        }
+        try {
+            w.writeStartElement(figure.elementName);
+            writeSnapshotAttributes(w, figure);
+            for (int i = 0, n = figure.nodeListKeys.size(); i < n; i++) {
+                figureFactory.valueToNodeList(figure.nodeListKeys.get(i), figure.nodeListValues.get(i), w);
+            }
+            for (FigureSnapshot child : figure.children) {
+                writeSnapshotRecursively(w, child, total, count, workState);
+            }
+            w.writeEndElement();
+        } catch (IOException | XMLStreamException e) {
+            throw new IOException("Error writing figure with id " + figure.id, e);
+        }
+    }
+
     @Override
     public void write(@NonNull Map<DataFormat, Object> out, Drawing drawing, Collection<Figure> selection) throws IOException {
         StringWriter sw = new StringWriter();
@@ -211,6 +417,7 @@ public class SimpleXmlWriter extends AbstractPropertyBean implements OutputForma
     }
 
     protected void writeClipping(@NonNull XMLStreamWriter w, @NonNull Drawing internal, @NonNull Collection<Figure> selection, URI documentHome) throws IOException, XMLStreamException {
+        LayerFigure.materializeDeferredChildren(internal);
         // bring selection in z-order
         Set<Figure> s = new HashSet<>(selection);
         ArrayList<Figure> ordered = new ArrayList<>(selection.size());
@@ -235,6 +442,7 @@ public class SimpleXmlWriter extends AbstractPropertyBean implements OutputForma
     }
 
     protected void writeDocument(@NonNull XMLStreamWriter w, @Nullable URI documentHome, @NonNull Drawing internal) throws XMLStreamException {
+        LayerFigure.materializeDeferredChildren(internal);
         try {
             Drawing external = figureFactory.toExternalDrawing(internal);
             idFactory.reset();
@@ -275,26 +483,43 @@ public class SimpleXmlWriter extends AbstractPropertyBean implements OutputForma
         String id = idFactory.createId(figure);
         String objectIdAttribute = figureFactory.getObjectIdAttribute();
         w.writeAttribute(objectIdAttribute, id);
+        for (MapAccessor<Object> k : getAttributeKeys(figure)) {
+            writeElementAttribute(w, figure, k);
+        }
+    }
+
+    /**
+     * Returns the non-transient attribute keys of the figure in the order
+     * in which they are written.
+     * <p>
+     * First come all composite attributes, then the remaining
+     * non-composite attributes.
+     */
+    private @NonNull List<MapAccessor<Object>> getAttributeKeys(@NonNull Figure figure) {
+        return getAttributeKeys(figureFactory, figure);
+    }
+
+    static @NonNull List<MapAccessor<Object>> getAttributeKeys(@NonNull FigureFactory figureFactory, @NonNull Figure figure) {
         final Set<MapAccessor<?>> keys = figureFactory.figureAttributeKeys(figure);
         Set<MapAccessor<?>> done = new HashSet<>(keys.size());
-
-        // First write all non-transient composite attributes, then write the remaining non-transient non-composite attributes
+        List<MapAccessor<Object>> result = new ArrayList<>(keys.size());
         for (MapAccessor<?> k : keys) {
             if (k instanceof CompositeMapAccessor) {
                 done.add(k);
                 if (!k.isTransient()) {
                     @SuppressWarnings("unchecked") CompositeMapAccessor<Object> cmap = (CompositeMapAccessor<Object>) k;
                     done.addAll(cmap.getSubAccessors());
-                    writeElementAttribute(w, figure, cmap);
+                    result.add(cmap);
                 }
             }
         }
         for (MapAccessor<?> k : keys) {
             if (!k.isTransient() && !done.contains(k)) {
                 @SuppressWarnings("unchecked") MapAccessor<Object> cmap = (MapAccessor<Object>) k;
-                writeElementAttribute(w, figure, cmap);
+                result.add(cmap);
             }
         }
+        return result;
     }
 
     private void writeElementNodeList(@NonNull XMLStreamWriter w, @NonNull Figure figure) throws IOException, XMLStreamException {
@@ -336,18 +561,74 @@ public class SimpleXmlWriter extends AbstractPropertyBean implements OutputForma
             if (stylesheets != null) {
                 for (Object stylesheet : stylesheets) {
                     if (stylesheet instanceof URI) {
-                        stylesheet = idFactory.relativize((URI) stylesheet);
-
-                        String stylesheetString = stylesheet.toString();
-                        String type = "text/" + stylesheetString.substring(stylesheetString.lastIndexOf('.') + 1);
-                        if ("text/".equals(type)) {
-                            type = "text/css";
-                        }
-                        w.writeProcessingInstruction("xml-stylesheet", //
-                                "type=\"" + type + "\" href=\"" + stylesheet + "\"");
+                        writeStylesheetInstruction(w, idFactory.relativize((URI) stylesheet).toString());
                     }
                 }
             }
         }
     }
+
+    private void writeStylesheetInstruction(@NonNull XMLStreamWriter w, @NonNull String stylesheet) throws XMLStreamException {
+        String type = "text/" + stylesheet.substring(stylesheet.lastIndexOf('.') + 1);
+        if ("text/".equals(type)) {
+            type = "text/css";
+        }
+        w.writeProcessingInstruction("xml-stylesheet", //
+                "type=\"" + type + "\" href=\"" + stylesheet + "\"");
+    }
+
+    /**
+     * An immutable snapshot of a drawing, which can be written on a
+     * background thread.
+     *
+     * @see #createSnapshot(URI, Drawing)
+     */
+    public static class Snapshot {
+        private final @NonNull List<String> stylesheets;
+        private final @NonNull FigureSnapshot root;
+        private final int figureCount;
+        private final long snapshotNanos;
+
+        private Snapshot(@NonNull List<String> stylesheets, @NonNull FigureSnapshot root, int figureCount, long snapshotNanos) {
+            this.stylesheets = stylesheets;
+            this.root = root;
+            this.figureCount = figureCount;
+            this.snapshotNanos = snapshotNanos;
+        }
+
+        /**
+         * Returns the number of figures in the snapshot.
+         */
+        public int getFigureCount() {
+            return figureCount;
+        }
+
+        /**
+         * Returns the time that was needed for creating the snapshot.
+         */
+        public long getSnapshotNanos() {
+            return snapshotNanos;
+        }
+    }
+
+    /**
+     * The element name, the id, and the property values of a figure.
+     * Attribute keys are null, if the attribute value has already been
+     * converted into a string.
+     */
+    private static class FigureSnapshot {
+        final @NonNull String elementName;
+        final @NonNull String id;
+        final @NonNull List<String> attributeNames = new ArrayList<>();
+        final @NonNull List<MapAccessor<Object>> attributeKeys = new ArrayList<>();
+        final @NonNull List<Object> attributeValues = new ArrayList<>();
+        final @NonNull List<MapAccessor<Object>> nodeListKeys = new ArrayList<>();
+        final @NonNull List<Object> nodeListValues = new ArrayList<>();
+        final @NonNull List<FigureSnapshot> children = new ArrayList<>();
+
+        FigureSnapshot(@NonNull String elementName, @NonNull String id) {
+            this.elementName = elementName;
+            this.id = id;
+        }
+    }
 }
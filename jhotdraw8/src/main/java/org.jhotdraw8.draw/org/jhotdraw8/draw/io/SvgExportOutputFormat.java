@@ -59,14 +59,19 @@ import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
 
 import static org.jhotdraw8.draw.render.SimpleDrawingRenderer.toNode;
 
 /**
  * Exports a JavaFX scene graph to SVG.
+ * <p>
+ * If the name of the file ends with {@code .svgz}, the file is compressed
+ * with gzip.
  *
  * @author Werner Randelshofer
  */
@@ -172,9 +177,10 @@ public class SvgExportOutputFormat extends AbstractExportOutputFormat
         if (isExportDrawing()) {
             Map<Key<?>, Object> hints = new HashMap<>();
             RenderContext.RENDERING_INTENT.put(hints, RenderingIntent.EXPORT);
-            try (OutputStream w = Files.newOutputStream(file)) {
+            try (OutputStream w = newOutputStream(file)) {
                 final AbstractFXSvgWriter exporter = createExporter();
                 exporter.setRelativizePaths(true);
+                exporter.setSharePaints(true);
                 javafx.scene.Node drawingNode = toNode(drawing, Collections.singletonList(drawing), hints);
                 exporter.write(w, drawingNode,
                         new CssDimension2D(drawing.getNonNull(Drawing.WIDTH), drawing.getNonNull(Drawing.HEIGHT)));
@@ -193,6 +199,19 @@ public class SvgExportOutputFormat extends AbstractExportOutputFormat
         }
     }
 
+    private static @NonNull OutputStream newOutputStream(@NonNull Path file) throws IOException {
+        OutputStream out = Files.newOutputStream(file);
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".svgz")) {
+            try {
+                return new GZIPOutputStream(out, 1 << 16);
+            } catch (IOException e) {
+                out.close();
+                throw e;
+            }
+        }
+        return out;
+    }
+
     @Override
     public void write(OutputStream out, URI documentHome, Drawing drawing, WorkState workState) throws IOException {
         IndentingXMLStreamWriter w = new IndentingXMLStreamWriter(out);
@@ -0,0 +1,76 @@
+/*
+ * @(#)WriteStatistics.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.annotation.NonNull;
+
+/**
+ * Statistics about writing a drawing into a file.
+ * <p>
+ * The time is broken down into the phases of the save pipeline:
+ * <dl>
+ *     <dt>snapshot</dt><dd>Creating an immutable snapshot of the drawing.</dd>
+ *     <dt>serialize</dt><dd>Streaming the snapshot into a temporary file.</dd>
+ *     <dt>commit</dt><dd>Moving the temporary file to the target file.</dd>
+ * </dl>
+ *
+ * @author Werner Randelshofer
+ */
+public class WriteStatistics {
+    private final int figureCount;
+    private final long bytes;
+    private final long snapshotNanos;
+    private final long serializeNanos;
+    private final long commitNanos;
+
+    public WriteStatistics(int figureCount, long bytes, long snapshotNanos, long serializeNanos, long commitNanos) {
+        this.figureCount = figureCount;
+        this.bytes = bytes;
+        this.snapshotNanos = snapshotNanos;
+        this.serializeNanos = serializeNanos;
+        this.commitNanos = commitNanos;
+    }
+
+    public int getFigureCount() {
+        return figureCount;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getSnapshotNanos() {
+        return snapshotNanos;
+    }
+
+    public long getSerializeNanos() {
+        return serializeNanos;
+    }
+
+    public long getCommitNanos() {
+        return commitNanos;
+    }
+
+    public long getTotalNanos() {
+        return snapshotNanos + serializeNanos + commitNanos;
+    }
+
+    /**
+     * Returns the number of bytes that have been serialized per second.
+     *
+     * @return bytes per second
+     */
+    public double getBytesPerSecond() {
+        return serializeNanos == 0 ? 0 : bytes * 1e9 / serializeNanos;
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return String.format("%d figures, %d bytes in %.1f ms (snapshot %.1f ms, serialize %.1f ms, commit %.1f ms), %.1f MB/s",
+                figureCount, bytes, getTotalNanos() / 1e6,
+                snapshotNanos / 1e6, serializeNanos / 1e6, commitNanos / 1e6,
+                getBytesPerSecond() / 1e6);
+    }
+}
@@ -8,6 +8,7 @@ import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.beans.AbstractPropertyBean;
 import org.jhotdraw8.concurrent.WorkState;
 import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.LayerFigure;
 
 import java.beans.XMLEncoder;
 import java.io.IOException;
@@ -24,6 +25,7 @@ public class XmlEncoderOutputFormat extends AbstractPropertyBean implements Outp
 
     @Override
     public void write(@NonNull OutputStream out, URI documentHome, Drawing drawing, WorkState workState) throws IOException {
+        LayerFigure.materializeDeferredChildren(drawing);
         try (XMLEncoder o = new XMLEncoder(out)) {
            /* final FigurePersistenceDelegate delegate = new FigurePersistenceDelegate();
             o.setPersistenceDelegate(Figure.class, delegate);
@@ -17,6 +17,7 @@ import org.jhotdraw8.css.CssPoint2D;
 import org.jhotdraw8.css.CssSize;
 import org.jhotdraw8.draw.figure.Drawing;
 import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.LayerFigure;
 import org.jhotdraw8.draw.render.RenderContext;
 import org.jhotdraw8.event.Listener;
 import org.jhotdraw8.tree.TreeModel;
@@ -207,6 +208,41 @@ public interface DrawingModel extends Observable, TreeModel<Figure> {
         insertChildAt(child, parent, getChildCount(parent));
     }
 
+    /**
+     * Materializes the deferred children of the specified layer and fires
+     * appropriate {@code DrawingModelEvent}s.
+     * <p>
+     * Materializing a layer may materialize other layers of the drawing
+     * as well, for example if a child references a figure in another
+     * layer. Events are fired for these layers too.
+     *
+     * @param layer the layer
+     * @see LayerFigure#setDeferredChildren
+     */
+    void materializeChildren(@NonNull LayerFigure layer);
+
+    /**
+     * Materializes the deferred children of the visible layers of the
+     * drawing. The children of hidden layers stay deferred.
+     * <p>
+     * This method is invoked by the drawing view before the drawing is
+     * rendered.
+     */
+    default void materializeVisibleLayers() {
+        Drawing drawing = getDrawing();
+        if (drawing == null) {
+            return;
+        }
+        for (Figure child : drawing.getChildren()) {
+            if (child instanceof LayerFigure) {
+                LayerFigure layer = (LayerFigure) child;
+                if (layer.hasDeferredChildren() && layer.isVisible()) {
+                    materializeChildren(layer);
+                }
+            }
+        }
+    }
+
     /**
      * Sets the specified property on the figure and fires appropriate
      * {@code DrawingModelEvent}s.
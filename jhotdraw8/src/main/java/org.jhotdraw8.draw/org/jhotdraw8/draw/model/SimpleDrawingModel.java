@@ -6,6 +6,7 @@ package org.jhotdraw8.draw.model;
 
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.scene.Node;
 import javafx.scene.transform.Transform;
 import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.annotation.Nullable;
@@ -15,9 +16,13 @@ import org.jhotdraw8.collection.MapAccessor;
 import org.jhotdraw8.collection.NonNullMapAccessor;
 import org.jhotdraw8.css.CssPoint2D;
 import org.jhotdraw8.css.CssSize;
+import org.jhotdraw8.draw.connector.ConnectorGeometryCache;
+import org.jhotdraw8.draw.figure.ConcurrentLayoutableFigure;
 import org.jhotdraw8.draw.figure.Drawing;
 import org.jhotdraw8.draw.figure.Figure;
 import org.jhotdraw8.draw.figure.FigurePropertyChangeEvent;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.draw.figure.OrthogonalConnectionRouter;
 import org.jhotdraw8.draw.figure.TransformableFigure;
 import org.jhotdraw8.draw.render.RenderContext;
 import org.jhotdraw8.draw.render.SimpleRenderContext;
@@ -28,6 +33,7 @@ import org.jhotdraw8.tree.TreeModelEvent;
 
 import java.util.*;
 import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
 /**
  * A DrawingModel for drawings which contains {@code TransformableFigure}s and
@@ -93,6 +99,11 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
 
     private @NonNull MapProxy mapProxy = new MapProxy();
 
+    /**
+     * Minimal number of figures in a layout batch, for which the layouts are
+     * prepared concurrently.
+     */
+    private static final int PARALLEL_LAYOUT_THRESHOLD = 64;
     private boolean isValidating = false;
     private boolean valid = true;
     /**
@@ -238,6 +249,44 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
         fireTreeModelEvent(TreeModelEvent.nodeChanged(this, parent));
     }
 
+    @Override
+    public void materializeChildren(@NonNull LayerFigure layer) {
+        Figure parent = layer.getParent();
+        List<LayerFigure> deferredLayers = new ArrayList<>();
+        if (parent != null) {
+            for (Figure f : parent.getChildren()) {
+                if (f instanceof LayerFigure && ((LayerFigure) f).hasDeferredChildren()) {
+                    deferredLayers.add((LayerFigure) f);
+                }
+            }
+        } else {
+            deferredLayers.add(layer);
+        }
+        if (!layer.materializeChildren()) {
+            return;
+        }
+        for (LayerFigure deferredLayer : deferredLayers) {
+            if (!deferredLayer.hasDeferredChildren()) {
+                fireChildrenMaterialized(deferredLayer);
+            }
+        }
+    }
+
+    private void fireChildrenMaterialized(@NonNull LayerFigure layer) {
+        Figure root = layer.getRoot();
+        List<Figure> children = layer.getChildren();
+        for (int i = 0, n = children.size(); i < n; i++) {
+            Figure child = children.get(i);
+            if (root == getRoot()) {
+                for (Figure f : child.preorderIterable()) {
+                    fireTreeModelEvent(TreeModelEvent.nodeAddedToTree(this, root, f));
+                }
+            }
+            fireTreeModelEvent(TreeModelEvent.nodeAddedToParent(this, child, layer, i));
+        }
+        fireTreeModelEvent(TreeModelEvent.nodeChanged(this, layer));
+    }
+
     @Override
     public @NonNull <T> T setNonNull(@NonNull Figure figure, @NonNull NonNullMapAccessor<T> key, @NonNull T newValue) {
         T v = set(figure, key, newValue);
@@ -518,17 +567,7 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
             }
             visited.clear();
             if (graphBuilder.getVertexCount() > 0) {
-                for (Figure f : GraphSearch.sortTopologically(graphBuilder)) {
-                    if (visited.add(f)) {
-                        if (!f.getLayoutSubjects().isEmpty()) {
-                            // The :leftToRight pseudo class may have changed,
-                            // if the layout subject of the label has changed its layout.
-                            f.stylesheetChanged(ctx);
-                        }
-                        f.layoutChanged(ctx);
-                        markDirty(f, DirtyBits.NODE);
-                    }
-                }
+                layoutInTopologicalOrder(GraphSearch.sortTopologically(graphBuilder), ctx, visited);
             }
 
             // For all figures with dirty flag Node
@@ -556,6 +595,136 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
         }
     }
 
+    /**
+     * Lays out the specified figures in the specified order.
+     * <p>
+     * Consecutive figures that implement {@link ConcurrentLayoutableFigure}
+     * and that do not depend on each other are laid out in a batch: the
+     * layouts of the batch are prepared concurrently, if the batch is large
+     * enough, and then applied in order. All connectors in a batch share
+     * a {@link ConnectorGeometryCache}, so that the geometry of a figure
+     * with many connections is only computed once.
+     *
+     * @param sorted  the figures in topological order
+     * @param ctx     the render context
+     * @param visited the set of visited figures
+     */
+    private void layoutInTopologicalOrder(@NonNull List<Figure> sorted, @NonNull RenderContext ctx, @NonNull Set<Figure> visited) {
+        ConnectorGeometryCache cache = new ConnectorGeometryCache();
+        RenderContext layoutCtx = new LayoutRenderContext(ctx, cache);
+        List<ConcurrentLayoutableFigure> batch = new ArrayList<>();
+        Set<Figure> batchSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Figure f : sorted) {
+            if (!visited.add(f)) {
+                continue;
+            }
+            boolean independent = f instanceof ConcurrentLayoutableFigure;
+            if (independent) {
+                for (Figure subject : f.getLayoutSubjects()) {
+                    if (batchSet.contains(subject)) {
+                        independent = false;
+                        break;
+                    }
+                }
+            }
+            if (!independent) {
+                layoutBatch(batch, layoutCtx, cache);
+                batchSet.clear();
+            }
+            if (!f.getLayoutSubjects().isEmpty()) {
+                // The :leftToRight pseudo class may have changed,
+                // if the layout subject of the label has changed its layout.
+                f.stylesheetChanged(ctx);
+            }
+            if (f instanceof ConcurrentLayoutableFigure) {
+                batch.add((ConcurrentLayoutableFigure) f);
+                batchSet.add(f);
+            } else {
+                f.layoutChanged(layoutCtx);
+                cache.invalidate(f);
+                markDirty(f, DirtyBits.NODE);
+            }
+        }
+        layoutBatch(batch, layoutCtx, cache);
+    }
+
+    /**
+     * Lays out a batch of figures that do not depend on each other, and
+     * clears the batch.
+     *
+     * @param batch the batch
+     * @param ctx   the render context
+     * @param cache the geometry cache
+     */
+    private void layoutBatch(@NonNull List<ConcurrentLayoutableFigure> batch, @NonNull RenderContext ctx, @NonNull ConnectorGeometryCache cache) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // The router reads the bounds of the obstacles here, on this thread,
+        // so that the layouts of the batch only read its spatial index.
+        OrthogonalConnectionRouter router = ctx.get(RenderContext.ORTHOGONAL_CONNECTION_ROUTER);
+        if (router != null) {
+            router.validate();
+        }
+        final List<Runnable> layouts;
+        if (batch.size() < PARALLEL_LAYOUT_THRESHOLD) {
+            layouts = new ArrayList<>(batch.size());
+            for (ConcurrentLayoutableFigure f : batch) {
+                layouts.add(f.prepareLayout(ctx));
+            }
+        } else {
+            // Performance: compute the cached transforms of all layout
+            // subjects here, so that the worker threads only read them.
+            for (ConcurrentLayoutableFigure f : batch) {
+                for (Figure subject : f.getLayoutSubjects()) {
+                    subject.getLocalToWorld();
+                    subject.getWorldToLocal();
+                }
+                f.getWorldToParent();
+            }
+            layouts = batch.parallelStream()
+                    .map(f -> f.prepareLayout(ctx))
+                    .collect(Collectors.toList());
+        }
+        for (int i = 0, n = batch.size(); i < n; i++) {
+            layouts.get(i).run();
+            ConcurrentLayoutableFigure f = batch.get(i);
+            cache.invalidate(f);
+            markDirty(f, DirtyBits.NODE);
+        }
+        batch.clear();
+    }
+
+    /**
+     * A render context that provides a {@link ConnectorGeometryCache} during
+     * a layout pass, and delegates everything else to another render context.
+     */
+    private static class LayoutRenderContext implements RenderContext {
+        private final @NonNull RenderContext delegate;
+        private final @NonNull ConnectorGeometryCache cache;
+
+        LayoutRenderContext(@NonNull RenderContext delegate, @NonNull ConnectorGeometryCache cache) {
+            this.delegate = delegate;
+            this.cache = cache;
+        }
+
+        @Override
+        public @Nullable Node getNode(Figure f) {
+            return delegate.getNode(f);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public @Nullable <T> T get(@NonNull MapAccessor<T> key) {
+            return key == CONNECTOR_GEOMETRY_CACHE ? (T) cache : delegate.get(key);
+        }
+
+        @Override
+        public @NonNull <T> T getNonNull(@NonNull NonNullMapAccessor<T> key) {
+            return delegate.getNonNull(key);
+        }
+    }
+
     @Override
     public void fireDrawingModelEvent(@NonNull DrawingModelEvent event) {
         super.fireDrawingModelEvent(event);
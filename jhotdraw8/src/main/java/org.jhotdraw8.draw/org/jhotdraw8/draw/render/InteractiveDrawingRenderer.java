@@ -22,11 +22,14 @@ import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.beans.AbstractPropertyBean;
 import org.jhotdraw8.beans.NonNullObjectProperty;
+import org.jhotdraw8.collection.MapAccessor;
+import org.jhotdraw8.collection.NonNullMapAccessor;
 import org.jhotdraw8.css.DefaultUnitConverter;
 import org.jhotdraw8.draw.DrawingEditor;
 import org.jhotdraw8.draw.DrawingView;
 import org.jhotdraw8.draw.figure.Drawing;
 import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.Layer;
 import org.jhotdraw8.draw.model.DrawingModel;
 import org.jhotdraw8.draw.model.SimpleDrawingModel;
 import org.jhotdraw8.event.Listener;
@@ -40,6 +43,22 @@ import static org.jhotdraw8.draw.render.InteractiveHandleRenderer.contains;
 
 
 public class InteractiveDrawingRenderer extends AbstractPropertyBean {
+    /**
+     * Figures are rendered with full detail at this zoom factor or above.
+     */
+    private static final double FULL_DETAIL_ZOOM_FACTOR = 0.5;
+    /**
+     * Below {@link #FULL_DETAIL_ZOOM_FACTOR}, figures that are smaller than
+     * this number of pixels on the screen are rendered with
+     * {@link LevelOfDetail#REDUCED}.
+     */
+    private static final double REDUCED_DETAIL_SCREEN_SIZE = 128;
+    /**
+     * Below {@link #FULL_DETAIL_ZOOM_FACTOR}, figures that are smaller than
+     * this number of pixels on the screen are rendered with
+     * {@link LevelOfDetail#MINIMAL}.
+     */
+    private static final double MINIMAL_DETAIL_SCREEN_SIZE = 4;
     public static final String RENDER_CONTEXT_PROPERTY = "renderContext";
     public static final String MODEL_PROPERTY = "model";
     public static final String DRAWING_VIEW_PROPERTY = "drawingView";
@@ -67,6 +86,14 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
     private final IntegerProperty updateLimit = new SimpleIntegerProperty(this, "updateLimit", 10_000);
     private final Map<Figure, Node> figureToNodeMap = new IdentityHashMap<>();
     private final Map<Node, Figure> nodeToFigureMap = new IdentityHashMap<>();
+    /**
+     * The level of detail with which the node of a figure was last updated.
+     */
+    private final Map<Figure, DetailEntry> figureToDetailMap = new IdentityHashMap<>();
+    /**
+     * Caches the rendering of locked layers in bitmap tiles.
+     */
+    private final @NonNull LayerTileCache layerTileCache = new LayerTileCache(this::onLayerTilesAvailable);
     private final @NonNull ObjectProperty<DrawingView> drawingView = new SimpleObjectProperty<>(this, DRAWING_VIEW_PROPERTY);
     private final @NonNull ObjectProperty<DrawingEditor> editor = new SimpleObjectProperty<>(this, DrawingView.EDITOR_PROPERTY, null);
     private @Nullable Runnable repainter = null;
@@ -76,6 +103,7 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         drawingPane.setManaged(false);
         model.addListener(this::onDrawingModelChanged);
         clipBounds.addListener(this::onClipBoundsChanged);
+        zoomFactor.addListener(this::onZoomFactorChanged);
     }
 
     public ObjectProperty<Bounds> clipBoundsProperty() {
@@ -439,6 +467,21 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         }
     }
 
+    /**
+     * Invalidates the cached tiles that intersect with the specified figure.
+     * The nodes of the layers of which tiles have been invalidated need to
+     * be updated.
+     *
+     * @return true if tiles have been invalidated
+     */
+    private boolean invalidateLayerTiles(@NonNull Figure f) {
+        Set<Layer> layers = layerTileCache.invalidate(f);
+        for (Layer layer : layers) {
+            invalidateFigureNode(layer);
+        }
+        return !layers.isEmpty();
+    }
+
     private void invalidateLayerNodes() {
         Drawing drawing = getDrawing();
         if (drawing != null) {
@@ -455,12 +498,33 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         repaint();
     }
 
+    /**
+     * Invalidates the nodes of all figures which need to be rendered with
+     * a different level of detail at the new zoom factor.
+     */
+    private void onZoomFactorChanged(Observable observable) {
+        double zoom = getZoomFactor();
+        boolean changed = false;
+        for (Map.Entry<Figure, DetailEntry> entry : figureToDetailMap.entrySet()) {
+            DetailEntry detail = entry.getValue();
+            if (computeLevelOfDetail(detail.sizeInWorld, zoom) != detail.levelOfDetail) {
+                dirtyFigureNodes.add(entry.getKey());
+                changed = true;
+            }
+        }
+        if (changed) {
+            repaint();
+        }
+    }
+
     private void onDrawingModelChanged(Observable o, @Nullable DrawingModel oldValue, @Nullable DrawingModel newValue) {
         if (oldValue != null) {
             oldValue.removeTreeModelListener(treeModelListener);
             dirtyFigureNodes.clear();
             figureToNodeMap.clear();
             nodeToFigureMap.clear();
+            figureToDetailMap.clear();
+            layerTileCache.clear();
         }
         if (newValue != null) {
             newValue.addTreeModelListener(treeModelListener);
@@ -472,6 +536,7 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         for (Figure f : figure.preorderIterable()) {
             invalidateFigureNode(f);
         }
+        invalidateLayerTiles(figure);
         repaint();
     }
 
@@ -479,6 +544,14 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         for (Figure f : figure.preorderIterable()) {
             removeNode(f);
         }
+        if (invalidateLayerTiles(figure)) {
+            repaint();
+        }
+    }
+
+    private void onLayerTilesAvailable(@NonNull Layer layer) {
+        invalidateFigureNode(layer);
+        repaint();
     }
 
     private void onFigureRemovedFromDrawing(@NonNull Figure figure) {
@@ -492,6 +565,7 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
 
     private void onNodeChanged(@NonNull Figure figure) {
         invalidateFigureNode(figure);
+        invalidateLayerTiles(figure);
         repaint();
     }
 
@@ -507,6 +581,8 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         ObservableList<Node> children = drawingPane.getChildren();
         nodeToFigureMap.clear();
         figureToNodeMap.clear();
+        figureToDetailMap.clear();
+        layerTileCache.clear();
         Node node = getNode(f);
         if (node == null) {
             children.clear();
@@ -527,6 +603,7 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         for (Figure f : figure.preorderIterable()) {
             dirtyFigureNodes.add(f);
         }
+        layerTileCache.clear();
         repaint();
     }
 
@@ -567,6 +644,7 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
 
     private void paint() {
         updateRenderContext();
+        getModel().materializeVisibleLayers();
         getModel().validate(getRenderContext());
         updateNodes();
 
@@ -574,11 +652,67 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
 
     private void updateRenderContext() {
         getRenderContext().set(RenderContext.CLIP_BOUNDS, getClipBounds());
-        DefaultUnitConverter units = new DefaultUnitConverter(90, 1.0, 1024.0 / getZoomFactor(), 768 / getZoomFactor());
+        // The viewport of the unit converter does not depend on the zoom factor,
+        // so that vw and vh units do not change with the level of detail.
+        DefaultUnitConverter units = new DefaultUnitConverter(90, 1.0, 1024.0, 768.0);
         getRenderContext().set(RenderContext.UNIT_CONVERTER_KEY, units);
+        getRenderContext().set(RenderContext.ZOOM_FACTOR, getZoomFactor());
+        getRenderContext().set(RenderContext.LAYER_TILE_CACHE, layerTileCache);
+    }
+
+    /**
+     * Computes the level of detail for a figure.
+     * <p>
+     * At zoom factors that are used for editing, all figures are rendered
+     * with full detail. At smaller zoom factors, the level of detail
+     * depends on the size of the figure on the screen.
+     *
+     * @param sizeInWorld the size of the figure in world coordinates
+     * @param zoom        the zoom factor
+     * @return the level of detail
+     */
+    private static @NonNull LevelOfDetail computeLevelOfDetail(double sizeInWorld, double zoom) {
+        if (zoom >= FULL_DETAIL_ZOOM_FACTOR) {
+            return LevelOfDetail.FULL;
+        }
+        double sizeOnScreen = sizeInWorld * zoom;
+        if (sizeOnScreen < MINIMAL_DETAIL_SCREEN_SIZE) {
+            return LevelOfDetail.MINIMAL;
+        }
+        if (sizeOnScreen < REDUCED_DETAIL_SCREEN_SIZE) {
+            return LevelOfDetail.REDUCED;
+        }
+        return LevelOfDetail.FULL;
+    }
+
+    /**
+     * Updates the node of a figure with the level of detail that is
+     * appropriate for the current zoom factor.
+     *
+     * @param contexts the render contexts for each level of detail
+     * @param f        the figure
+     * @param node     the node of the figure
+     */
+    private void updateFigureNode(@NonNull Map<LevelOfDetail, RenderContext> contexts, @NonNull Figure f, @NonNull Node node) {
+        Bounds b = f.getVisualBoundsInWorld();
+        double sizeInWorld = Math.max(b.getWidth(), b.getHeight());
+        LevelOfDetail levelOfDetail = computeLevelOfDetail(sizeInWorld, getZoomFactor());
+        figureToDetailMap.put(f, new DetailEntry(levelOfDetail, sizeInWorld));
+        f.updateNode(contexts.get(levelOfDetail), node);
+    }
+
+    private @NonNull Map<LevelOfDetail, RenderContext> createLevelOfDetailRenderContexts() {
+        Map<LevelOfDetail, RenderContext> contexts = new EnumMap<>(LevelOfDetail.class);
+        WritableRenderContext ctx = getRenderContext();
+        for (LevelOfDetail levelOfDetail : LevelOfDetail.values()) {
+            contexts.put(levelOfDetail, levelOfDetail == LevelOfDetail.FULL
+                    ? ctx : new LevelOfDetailRenderContext(ctx, levelOfDetail));
+        }
+        return contexts;
     }
 
     private void removeNode(Figure f) {
+        figureToDetailMap.remove(f);
         Node oldNode = figureToNodeMap.remove(f);
         if (oldNode != null) {
             Figure removedFigure = nodeToFigureMap.remove(oldNode);
@@ -602,6 +736,7 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
 
         // create copies of the lists to allow for concurrent modification
         Figure[] copyOfDirtyFigureNodes = dirtyFigureNodes.toArray(new Figure[0]);
+        Map<LevelOfDetail, RenderContext> contexts = createLevelOfDetailRenderContexts();
 
         // Determine how many nodes we will update in this batch
         int limit = Math.max(getUpdateLimit(), 0);
@@ -617,7 +752,7 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
                     count++;
                     Node node = getNode(f);// this may add the node again to the list of dirties!
                     if (node != null) {
-                        f.updateNode(getRenderContext(), node);
+                        updateFigureNode(contexts, f, node);
                         dirtyFigureNodes.remove(f);
                     }
                 }
@@ -639,7 +774,7 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
                 count++;
                 Node node = getNode(f);// this may add the node again to the list of dirties!
                 if (node != null) {
-                    f.updateNode(getRenderContext(), node);
+                    updateFigureNode(contexts, f, node);
                     dirtyFigureNodes.remove(f);
                 }
             }
@@ -677,4 +812,45 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
     public void setUpdateLimit(int updateLimit) {
         this.updateLimit.set(updateLimit);
     }
+
+    private static class DetailEntry {
+        final @NonNull LevelOfDetail levelOfDetail;
+        final double sizeInWorld;
+
+        DetailEntry(@NonNull LevelOfDetail levelOfDetail, double sizeInWorld) {
+            this.levelOfDetail = levelOfDetail;
+            this.sizeInWorld = sizeInWorld;
+        }
+    }
+
+    /**
+     * Provides the level of detail to the figures, and delegates everything
+     * else to the render context of the renderer.
+     */
+    private static class LevelOfDetailRenderContext implements RenderContext {
+        private final @NonNull RenderContext delegate;
+        private final @NonNull LevelOfDetail levelOfDetail;
+
+        LevelOfDetailRenderContext(@NonNull RenderContext delegate, @NonNull LevelOfDetail levelOfDetail) {
+            this.delegate = delegate;
+            this.levelOfDetail = levelOfDetail;
+        }
+
+        @Override
+        public @Nullable Node getNode(Figure f) {
+            return delegate.getNode(f);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public @Nullable <T> T get(@NonNull MapAccessor<T> key) {
+            return key == LEVEL_OF_DETAIL ? (T) levelOfDetail : delegate.get(key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public @NonNull <T> T getNonNull(@NonNull NonNullMapAccessor<T> key) {
+            return key == LEVEL_OF_DETAIL ? (T) levelOfDetail : delegate.getNonNull(key);
+        }
+    }
 }
@@ -0,0 +1,407 @@
+/*
+ * @(#)LayerTileCache.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.render;
+
+import javafx.application.Platform;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.Layer;
+import org.jhotdraw8.draw.figure.LockableFigure;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Caches the rendering of layers in bitmap tiles.
+ * <p>
+ * Layers that are not edited, for example locked layers, do not need to be
+ * rendered with live JavaFX nodes. This cache rasterizes such layers into
+ * tiles of a fixed size. There is a separate set of tiles for each zoom level.
+ * Zoom levels are powers of two, so that the tiles are displayed at a scale
+ * between 0.7 and 1.4.
+ * <p>
+ * A layer is displayed with tiles only when all its visible tiles are
+ * available. Missing tiles are rasterized in later pulses of the JavaFX
+ * application thread, because JavaFX can only take snapshots on that thread.
+ * When the tiles are ready, the cache notifies the renderer, so that it
+ * can update the node of the layer.
+ * <p>
+ * Each pass of the rasterizer renders a layer only once, and takes a
+ * snapshot of the rendered layer for each of its missing tiles.
+ * <p>
+ * The renderer reports all changed figures to the cache. The cache
+ * invalidates the tiles of the layer of a figure that intersect with the
+ * bounds of the figure before and after the change. The tiles of other
+ * layers are kept. Tiles are evicted in least-recently-used order when
+ * they exceed the memory limit of the cache.
+ * <p>
+ * This class must be used on the JavaFX application thread.
+ *
+ * @author Werner Randelshofer
+ */
+public class LayerTileCache {
+    /**
+     * The maximal number of tiles that may be visible at the same time.
+     * If more tiles would be needed, the layer is rendered with live nodes.
+     */
+    private static final int MAX_VISIBLE_TILES = 256;
+    /**
+     * The maximal time in nanoseconds that is spent rasterizing tiles in
+     * one pulse.
+     */
+    private static final long RASTERIZE_TIME_BUDGET_NANOS = 8_000_000L;
+
+    private final int tileSize;
+    private final long maxBytes;
+    private final @NonNull Predicate<Layer> layerPredicate;
+    private final @NonNull Consumer<Layer> tilesAvailableCallback;
+    /**
+     * Runs the rasterizer in a later pulse.
+     */
+    private final @NonNull Executor pulseExecutor;
+
+    /**
+     * Tiles in least-recently-used order.
+     */
+    private final @NonNull LinkedHashMap<TileKey, ImageView> tiles = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    /**
+     * Tiles that need to be rasterized, and the render contexts with which
+     * they have been requested.
+     */
+    private final @NonNull Map<TileKey, RenderContext> pendingTiles = new LinkedHashMap<>();
+    private boolean rasterizerScheduled;
+    /**
+     * The layers and the bounds in world coordinates of the figures at the
+     * time when they were rasterized into a tile.
+     */
+    private final @NonNull Map<Figure, RasterizedFigure> rasterizedFigures = new IdentityHashMap<>();
+
+    /**
+     * Creates a new instance that caches locked layers in tiles of
+     * 256 x 256 pixels, and that uses up to 128 MiB of memory.
+     *
+     * @param tilesAvailableCallback is invoked when the tiles of a layer
+     *                               have become available
+     */
+    public LayerTileCache(@NonNull Consumer<Layer> tilesAvailableCallback) {
+        this(256, 128L << 20, l -> Boolean.TRUE.equals(l.get(LockableFigure.LOCKED)), tilesAvailableCallback);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param tileSize               the width and height of a tile in pixels
+     * @param maxBytes               the maximal number of bytes used by the
+     *                               tiles
+     * @param layerPredicate         returns true for layers which shall be
+     *                               rendered with tiles
+     * @param tilesAvailableCallback is invoked when the tiles of a layer
+     *                               have become available
+     */
+    public LayerTileCache(int tileSize, long maxBytes, @NonNull Predicate<Layer> layerPredicate,
+                          @NonNull Consumer<Layer> tilesAvailableCallback) {
+        this(tileSize, maxBytes, layerPredicate, tilesAvailableCallback, Platform::runLater);
+    }
+
+    LayerTileCache(int tileSize, long maxBytes, @NonNull Predicate<Layer> layerPredicate,
+                   @NonNull Consumer<Layer> tilesAvailableCallback, @NonNull Executor pulseExecutor) {
+        this.tileSize = tileSize;
+        this.maxBytes = maxBytes;
+        this.layerPredicate = layerPredicate;
+        this.tilesAvailableCallback = tilesAvailableCallback;
+        this.pulseExecutor = pulseExecutor;
+    }
+
+    /**
+     * Returns the tile nodes for the visible part of the specified layer.
+     * <p>
+     * Returns null if the layer shall not be rendered with tiles, or if not
+     * all visible tiles are available yet. In the latter case, the missing
+     * tiles are scheduled for rasterization.
+     *
+     * @param ctx                the render context of the layer
+     * @param layer              the layer
+     * @param clipBoundsInWorld  the visible part of the drawing
+     * @param zoomFactor         the zoom factor
+     * @return the tile nodes in world coordinates, or null
+     */
+    public @Nullable List<Node> getTileNodes(@NonNull RenderContext ctx, @NonNull Layer layer,
+                                             @NonNull Bounds clipBoundsInWorld, double zoomFactor) {
+        if (!layerPredicate.test(layer) || !(zoomFactor > 0)) {
+            return null;
+        }
+        int level = (int) Math.round(Math.log(zoomFactor) / Math.log(2));
+        double tileSizeInWorld = tileSize / Math.pow(2, level);
+        int minTx = (int) Math.floor(clipBoundsInWorld.getMinX() / tileSizeInWorld);
+        int minTy = (int) Math.floor(clipBoundsInWorld.getMinY() / tileSizeInWorld);
+        int maxTx = (int) Math.floor(clipBoundsInWorld.getMaxX() / tileSizeInWorld);
+        int maxTy = (int) Math.floor(clipBoundsInWorld.getMaxY() / tileSizeInWorld);
+        if ((long) (maxTx - minTx + 1) * (maxTy - minTy + 1) > MAX_VISIBLE_TILES) {
+            return null;
+        }
+
+        List<Node> nodes = new ArrayList<>();
+        boolean complete = true;
+        for (int ty = minTy; ty <= maxTy; ty++) {
+            for (int tx = minTx; tx <= maxTx; tx++) {
+                TileKey key = new TileKey(layer, level, tx, ty);
+                ImageView tile = tiles.get(key);
+                if (tile == null) {
+                    complete = false;
+                    pendingTiles.put(key, ctx);
+                } else {
+                    nodes.add(tile);
+                }
+            }
+        }
+        if (!complete) {
+            scheduleRasterizer();
+            return null;
+        }
+        return nodes;
+    }
+
+    /**
+     * Invalidates the tiles of the layer of the specified figure that
+     * intersect with the figure before and after it has changed.
+     * <p>
+     * If the figure has been removed from its layer, or has been moved to
+     * another layer, the tiles of the layer in which it was rasterized
+     * are invalidated too.
+     *
+     * @param figure a figure that has changed, or that has been added or
+     *               removed
+     * @return the layers of which tiles have been invalidated
+     */
+    public @NonNull Set<Layer> invalidate(@NonNull Figure figure) {
+        Set<Layer> invalidatedLayers = new LinkedHashSet<>();
+        for (Figure f = figure; f != null; f = f.getParent()) {
+            RasterizedFigure rasterized = rasterizedFigures.remove(f);
+            if (rasterized != null && invalidate(rasterized.layer, rasterized.boundsInWorld)) {
+                invalidatedLayers.add(rasterized.layer);
+            }
+        }
+        Layer layer = figure.getLayer();
+        if (layer != null && invalidate(layer, figure.getVisualBoundsInWorld())) {
+            invalidatedLayers.add(layer);
+        }
+        return invalidatedLayers;
+    }
+
+    /**
+     * Invalidates the tiles of the specified layer that intersect with the
+     * specified bounds.
+     *
+     * @param layer         the layer
+     * @param boundsInWorld bounds in world coordinates
+     * @return true if tiles have been invalidated
+     */
+    public boolean invalidate(@NonNull Layer layer, @NonNull Bounds boundsInWorld) {
+        boolean invalidated = false;
+        for (Iterator<Map.Entry<TileKey, ImageView>> i = tiles.entrySet().iterator(); i.hasNext(); ) {
+            Map.Entry<TileKey, ImageView> entry = i.next();
+            TileKey key = entry.getKey();
+            if (key.layer == layer && key.getBoundsInWorld(tileSize).intersects(boundsInWorld)) {
+                bytes -= getBytes(entry.getValue());
+                i.remove();
+                invalidated = true;
+            }
+        }
+        return invalidated;
+    }
+
+    /**
+     * Removes all tiles.
+     */
+    public void clear() {
+        tiles.clear();
+        pendingTiles.clear();
+        rasterizedFigures.clear();
+        bytes = 0;
+    }
+
+    private void scheduleRasterizer() {
+        if (!rasterizerScheduled) {
+            rasterizerScheduled = true;
+            pulseExecutor.execute(this::rasterizePendingTiles);
+        }
+    }
+
+    private void rasterizePendingTiles() {
+        rasterizerScheduled = false;
+        long deadline = System.nanoTime() + RASTERIZE_TIME_BUDGET_NANOS;
+        Set<Layer> completedLayers = new LinkedHashSet<>();
+        Map<Layer, Node> renderedLayers = new IdentityHashMap<>();
+        for (Iterator<Map.Entry<TileKey, RenderContext>> i = pendingTiles.entrySet().iterator();
+             i.hasNext() && System.nanoTime() < deadline; ) {
+            Map.Entry<TileKey, RenderContext> entry = i.next();
+            TileKey key = entry.getKey();
+            if (!tiles.containsKey(key) && key.layer.getParent() != null) {
+                Node layerNode = renderedLayers.computeIfAbsent(key.layer,
+                        l -> renderLayer(entry.getValue(), l, getPendingBoundsInWorld(l)));
+                putTile(key, createTile(layerNode, key));
+            }
+            i.remove();
+            completedLayers.add(key.layer);
+        }
+        if (pendingTiles.isEmpty()) {
+            completedLayers.forEach(tilesAvailableCallback);
+        } else {
+            scheduleRasterizer();
+        }
+    }
+
+    private void putTile(@NonNull TileKey key, @NonNull ImageView tile) {
+        tiles.put(key, tile);
+        bytes += getBytes(tile);
+        for (Iterator<ImageView> i = tiles.values().iterator(); bytes > maxBytes && i.hasNext(); ) {
+            ImageView eldest = i.next();
+            bytes -= getBytes(eldest);
+            i.remove();
+        }
+    }
+
+    private static long getBytes(@NonNull ImageView tile) {
+        return tile.getImage() == null ? 0 : (long) tile.getImage().getWidth() * (long) tile.getImage().getHeight() * 4L;
+    }
+
+    /**
+     * Returns the union of the bounds of the pending tiles of the specified
+     * layer.
+     */
+    private @NonNull Bounds getPendingBoundsInWorld(@NonNull Layer layer) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (TileKey key : pendingTiles.keySet()) {
+            if (key.layer == layer) {
+                Bounds b = key.getBoundsInWorld(tileSize);
+                minX = Math.min(minX, b.getMinX());
+                minY = Math.min(minY, b.getMinY());
+                maxX = Math.max(maxX, b.getMaxX());
+                maxY = Math.max(maxY, b.getMaxY());
+            }
+        }
+        return new BoundingBox(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * Renders the children of the layer which intersect with the specified
+     * bounds.
+     *
+     * @param ctx           the render context of the layer
+     * @param layer         the layer
+     * @param boundsInWorld the bounds of the tiles that will be rasterized
+     * @return the rendered layer in world coordinates
+     */
+    @NonNull Node renderLayer(@NonNull RenderContext ctx, @NonNull Layer layer, @NonNull Bounds boundsInWorld) {
+        SimpleDrawingRenderer renderer = new SimpleDrawingRenderer();
+        renderer.set(RenderContext.UNIT_CONVERTER_KEY, ctx.getNonNull(RenderContext.UNIT_CONVERTER_KEY));
+        renderer.set(RenderContext.SYSTEM_COLOR_CONVERTER_KEY, ctx.getNonNull(RenderContext.SYSTEM_COLOR_CONVERTER_KEY));
+        renderer.set(RenderContext.DPI, ctx.getNonNull(RenderContext.DPI));
+        Group group = new Group();
+        for (Figure child : layer.getChildren()) {
+            Bounds b = child.getVisualBoundsInWorld();
+            if (b.intersects(boundsInWorld)) {
+                group.getChildren().add(renderer.render(child));
+                rasterizedFigures.put(child, new RasterizedFigure(layer, b));
+            }
+        }
+        return group;
+    }
+
+    /**
+     * Takes a snapshot of the rendered layer for the specified tile.
+     *
+     * @param layerNode the rendered layer
+     * @param key       the tile
+     * @return the tile node in world coordinates
+     */
+    @NonNull ImageView createTile(@NonNull Node layerNode, @NonNull TileKey key) {
+        double scale = Math.pow(2, key.level);
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        parameters.setTransform(Transform.scale(scale, scale));
+        parameters.setViewport(new Rectangle2D(key.tx * (double) tileSize, key.ty * (double) tileSize, tileSize, tileSize));
+        WritableImage image = layerNode.snapshot(parameters, new WritableImage(tileSize, tileSize));
+
+        Bounds tileBounds = key.getBoundsInWorld(tileSize);
+        ImageView tile = new ImageView(image);
+        tile.setX(tileBounds.getMinX());
+        tile.setY(tileBounds.getMinY());
+        tile.setFitWidth(tileBounds.getWidth());
+        tile.setFitHeight(tileBounds.getHeight());
+        tile.setSmooth(true);
+        tile.setMouseTransparent(true);
+        return tile;
+    }
+
+    private static class RasterizedFigure {
+        private final @NonNull Layer layer;
+        private final @NonNull Bounds boundsInWorld;
+
+        RasterizedFigure(@NonNull Layer layer, @NonNull Bounds boundsInWorld) {
+            this.layer = layer;
+            this.boundsInWorld = boundsInWorld;
+        }
+    }
+
+    static class TileKey {
+        private final @NonNull Layer layer;
+        private final int level;
+        private final int tx;
+        private final int ty;
+
+        TileKey(@NonNull Layer layer, int level, int tx, int ty) {
+            this.layer = layer;
+            this.level = level;
+            this.tx = tx;
+            this.ty = ty;
+        }
+
+        @NonNull Bounds getBoundsInWorld(int tileSize) {
+            double size = tileSize / Math.pow(2, level);
+            return new BoundingBox(tx * size, ty * size, size, size);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            TileKey that = (TileKey) o;
+            return layer == that.layer && level == that.level && tx == that.tx && ty == that.ty;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(layer), level, tx, ty);
+        }
+    }
+}
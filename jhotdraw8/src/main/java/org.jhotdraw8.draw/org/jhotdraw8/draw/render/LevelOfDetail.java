@@ -0,0 +1,32 @@
+/*
+ * @(#)LevelOfDetail.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.render;
+
+/**
+ * Specifies with how much detail a figure is rendered.
+ * <p>
+ * The interactive drawing renderer chooses the level of detail of a figure
+ * by the zoom factor of the drawing view and by the size of the figure on
+ * the screen.
+ *
+ * @author Werner Randelshofer
+ */
+public enum LevelOfDetail {
+    /**
+     * All details are rendered.
+     */
+    FULL,
+    /**
+     * Details that can hardly be seen are omitted. For example, markers and
+     * effects are dropped, text is drawn as a grey bar, and paths are
+     * simplified to the resolution of the screen.
+     */
+    REDUCED,
+    /**
+     * The figure is only a few pixels large on the screen. Only a coarse
+     * outline of the figure is rendered.
+     */
+    MINIMAL
+}
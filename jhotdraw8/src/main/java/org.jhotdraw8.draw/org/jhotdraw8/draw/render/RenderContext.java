@@ -17,7 +17,9 @@ import org.jhotdraw8.css.DefaultSystemColorConverter;
 import org.jhotdraw8.css.DefaultUnitConverter;
 import org.jhotdraw8.css.SystemColorConverter;
 import org.jhotdraw8.css.UnitConverter;
+import org.jhotdraw8.draw.connector.ConnectorGeometryCache;
 import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.OrthogonalConnectionRouter;
 import org.jhotdraw8.draw.figure.Page;
 
 import java.time.Instant;
@@ -57,6 +59,30 @@ public interface RenderContext extends ReadOnlyPropertyBean {
 
     NonNullObjectKey<UnitConverter> UNIT_CONVERTER_KEY = new NonNullObjectKey<>("unitConverter", UnitConverter.class, new DefaultUnitConverter());
     NonNullObjectKey<SystemColorConverter> SYSTEM_COLOR_CONVERTER_KEY = new NonNullObjectKey<>("colorConverter", SystemColorConverter.class, new DefaultSystemColorConverter());
+    /**
+     * Contains a non-null value during a layout pass of the drawing model.
+     * Connectors can use the cache to share the geometry of their target
+     * figures.
+     */
+    Key<ConnectorGeometryCache> CONNECTOR_GEOMETRY_CACHE = new SimpleNullableKey<>("connectorGeometryCache", ConnectorGeometryCache.class, null);
+    /**
+     * Contains a non-null value if elbow connections shall be routed around
+     * obstacle figures.
+     */
+    Key<OrthogonalConnectionRouter> ORTHOGONAL_CONNECTION_ROUTER = new SimpleNullableKey<>("orthogonalConnectionRouter", OrthogonalConnectionRouter.class, null);
+    /**
+     * The zoom factor with which the drawing is rendered on the screen.
+     */
+    NonNullObjectKey<Double> ZOOM_FACTOR = new NonNullObjectKey<>("zoomFactor", Double.class, 1.0);
+    /**
+     * The level of detail with which a figure is rendered.
+     */
+    NonNullObjectKey<LevelOfDetail> LEVEL_OF_DETAIL = new NonNullObjectKey<>("levelOfDetail", LevelOfDetail.class, LevelOfDetail.FULL);
+    /**
+     * Contains a non-null value if layers may be rendered with cached
+     * bitmap tiles.
+     */
+    Key<LayerTileCache> LAYER_TILE_CACHE = new SimpleNullableKey<>("layerTileCache", LayerTileCache.class, null);
     // ---
     // behavior
     // ---
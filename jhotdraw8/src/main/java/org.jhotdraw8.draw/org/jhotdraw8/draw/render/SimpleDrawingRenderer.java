@@ -15,6 +15,7 @@ import org.jhotdraw8.collection.MapAccessor;
 import org.jhotdraw8.collection.NonNullMapAccessor;
 import org.jhotdraw8.draw.figure.Drawing;
 import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.LayerFigure;
 
 import java.util.Collection;
 import java.util.HashMap;
@@ -72,6 +73,7 @@ public class SimpleDrawingRenderer extends AbstractPropertyBean implements Rende
     }
 
     public static Node toNode(@NonNull Drawing external, @NonNull Collection<Figure> selection, @Nullable Map<Key<?>, Object> renderingHints) {
+        LayerFigure.materializeDeferredChildren(external);
         SimpleDrawingRenderer r = new SimpleDrawingRenderer();
         if (renderingHints != null) {
             r.getProperties().putAll(renderingHints);
@@ -21,14 +21,13 @@ import org.jhotdraw8.draw.figure.LayerFigure;
 import org.jhotdraw8.draw.handle.HandleType;
 import org.jhotdraw8.draw.key.BezierNodeListStyleableKey;
 import org.jhotdraw8.draw.model.DrawingModel;
-import org.jhotdraw8.geom.BezierFit;
 import org.jhotdraw8.geom.BezierNode;
 import org.jhotdraw8.geom.BezierNodePathBuilder;
 import org.jhotdraw8.geom.FXTransforms;
+import org.jhotdraw8.geom.IncrementalBezierFit;
 import org.jhotdraw8.util.Resources;
 
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
 import java.util.function.Supplier;
 
@@ -56,6 +55,14 @@ public class BezierCreationTool extends AbstractCreationTool<Figure> {
      * The rubber band shows where the next point will be added.
      */
     private @NonNull Line rubberBand = new Line();
+    /**
+     * Fits a bezier path to the points while the mouse is being dragged.
+     */
+    private @Nullable IncrementalBezierFit fit;
+    /**
+     * The builder for the bezier path that is being fitted.
+     */
+    private @Nullable BezierNodePathBuilder fitBuilder;
 
     public BezierCreationTool(String name, Resources rsrc, BezierNodeListStyleableKey key, Supplier<Figure> factory) {
         this(name, rsrc, key, factory, LayerFigure::new);
@@ -118,9 +125,12 @@ public class BezierCreationTool extends AbstractCreationTool<Figure> {
             if (dragStartIndex == -1) {
                 points.add(new BezierNode(c2));
                 dragStartIndex = points.size() - 1;
+                fitBuilder = new BezierNodePathBuilder();
+                fit = new IncrementalBezierFit(fitBuilder, 5 / dv.getZoomFactor());
             } else {
                 points.add(new BezierNode(c2));
             }
+            fit.addPoint(c2.getX(), c2.getY());
             dm.set(createdFigure, key, ImmutableLists.ofCollection(points));
         }
         event.consume();
@@ -187,16 +197,10 @@ public class BezierCreationTool extends AbstractCreationTool<Figure> {
             return;
         }
         if (dragStartIndex != -1) {
-            List<Point2D> digitized = new ArrayList<>(points.size() - dragStartIndex);
-            List<java.awt.geom.Point2D.Double> digiti = new ArrayList<>();
-            for (int i = dragStartIndex, n = points.size(); i < n; i++) {
-                digitized.add(points.get(i).getC0());
-                digiti.add(new java.awt.geom.Point2D.Double(points.get(i).getC0().getX(), points.get(i).getC0().getY()));
-            }
-            BezierNodePathBuilder builder = new BezierNodePathBuilder();
-            double error = 5 / dv.getZoomFactor();
-            BezierFit.fitBezierPath(builder, digitized, error);
-            final ImmutableList<BezierNode> built = builder.build();
+            fit.finish();
+            final ImmutableList<BezierNode> built = fitBuilder.build();
+            fit = null;
+            fitBuilder = null;
             ArrayList<BezierNode> newList = new ArrayList<>(dragStartIndex + built.size());
             for (int i = 0; i < dragStartIndex; i++) {
                 newList.add(points.get(i));
@@ -225,6 +229,8 @@ public class BezierCreationTool extends AbstractCreationTool<Figure> {
 
             createdFigure = null;
             points = null;
+            fit = null;
+            fitBuilder = null;
         }
     }
 
@@ -6,14 +6,24 @@ package org.jhotdraw8.geom;
 
 import javafx.geometry.Point2D;
 import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.collection.DoubleArrayList;
 import org.jhotdraw8.collection.IntArrayList;
 import org.jhotdraw8.geom.intersect.IntersectLinePoint;
 
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
+ * Fits bezier curves to digitized points.
+ * <p>
+ * The digitized points are stored in primitive arrays, with the x and y
+ * coordinates of each point interleaved.
+ * <p>
  * References:
  * <pre>
  *     GraphicsGems.c
@@ -23,6 +33,10 @@ import java.util.List;
  * </pre>
  */
 public class BezierFit {
+    /**
+     * The minimal angle in radians for corner points.
+     */
+    static final double CORNER_ANGLE = 77 / 180d * Math.PI;
 
     /**
      * Prevent instance creation.
@@ -30,22 +44,6 @@ public class BezierFit {
     private BezierFit() {
     }
 
-    public static void main(String[] args) {
-        ArrayList<Point2D> d = new ArrayList<>();
-        d.add(new Point2D(0, 0));
-        d.add(new Point2D(5, 1));
-        d.add(new Point2D(10, 0));
-        d.add(new Point2D(10, 10));
-        d.add(new Point2D(0, 10));
-        d.add(new Point2D(0, 0));
-        ArrayList<ArrayList<Point2D>> segments = (splitAtCorners(d, 45 / 180d * Math.PI, 2d));
-        for (ArrayList<Point2D> seg : segments) {
-            for (int i = 0; i < 2; i++) {
-                seg = reduceNoise(seg, 0.8);
-            }
-        }
-    }
-
     /**
      * Fits a bezier path to the specified list of digitized points.
      * <p>
@@ -56,97 +54,187 @@ public class BezierFit {
      * @param error           the maximal allowed error between the bezier path and the
      *                        digitized points.
      */
-    public static void fitBezierPath(@NonNull PathBuilder builder, Point2D[] digitizedPoints, double error) {
+    public static void fitBezierPath(@NonNull PathBuilder<?> builder, Point2D[] digitizedPoints, double error) {
         fitBezierPath(builder, Arrays.asList(digitizedPoints), error);
     }
 
     /**
      * Fits a bezier path to the specified list of digitized points.
+     * <p>
+     * This is a convenience method for calling {@link #fitBezierPath}.
      *
      * @param builder         the builder for the bezier path
      * @param digitizedPoints digited points.
      * @param error           the maximal allowed error between the bezier path and the
      *                        digitized points.
      */
-    public static void fitBezierPath(@NonNull PathBuilder builder, @NonNull java.util.List<Point2D> digitizedPoints, double error) {
-        // Split into segments at corners
-        ArrayList<ArrayList<Point2D>> segments;
-        segments = splitAtCorners(digitizedPoints, 77 / 180d * Math.PI, error * error);
+    public static void fitBezierPath(@NonNull PathBuilder<?> builder, @NonNull java.util.List<Point2D> digitizedPoints, double error) {
+        fitBezierPath(builder, toArray(digitizedPoints), error);
+    }
 
-        // Clean up the data in the segments
-        for (int i = 0, n = segments.size(); i < n; i++) {
-            ArrayList<Point2D> seg = segments.get(i);
-            seg = removeClosePoints(seg, error * 2);
-            seg = reduceNoise(seg, 0.8);
+    /**
+     * Fits a bezier path to the specified list of digitized points.
+     * <p>
+     * This is a convenience method for calling {@link #fitBezierPath}.
+     *
+     * @param builder         the builder for the bezier path
+     * @param digitizedPoints digited points.
+     * @param error           the maximal allowed error between the bezier path and the
+     *                        digitized points.
+     */
+    public static void fitBezierPath(@NonNull PathBuilder<?> builder, @NonNull BezierNodePath digitizedPoints, double error) {
+        BezierNodeList nodes = digitizedPoints.getNodes();
+        double[] d = new double[nodes.size() * 2];
+        for (int i = 0, n = nodes.size(); i < n; i++) {
+            d[i * 2] = nodes.getX0(i);
+            d[i * 2 + 1] = nodes.getY0(i);
+        }
+        fitBezierPath(builder, d, error);
+    }
 
-            segments.set(i, seg);
+    /**
+     * Fits a bezier path to the specified digitized points.
+     *
+     * @param builder         the builder for the bezier path
+     * @param digitizedPoints digited points, with the x and y coordinates
+     *                        of each point interleaved
+     * @param error           the maximal allowed error between the bezier path and the
+     *                        digitized points.
+     */
+    public static void fitBezierPath(@NonNull PathBuilder<?> builder, @NonNull DoubleArrayList digitizedPoints, double error) {
+        fitBezierPath(builder, digitizedPoints.toArray(), error);
+    }
+
+    private static void fitBezierPath(@NonNull PathBuilder<?> builder, @NonNull double[] d, double error) {
+        int n = d.length / 2;
+        if (n == 0) {
+            return;
         }
+        IntArrayList cornerIndices = findCorners(d, n, CORNER_ANGLE, error * error);
+        int from = 0;
+        for (int i = 0, size = cornerIndices.size(); i < size; i++) {
+            int corner = cornerIndices.get(i);
+            fitSegment(builder, d, from, corner, error, from == 0);
+            from = corner;
+        }
+        fitSegment(builder, d, from, n - 1, error, from == 0);
+    }
 
-        // Quickly deal with empty dataset
-        boolean isEmpty = false;
-        for (ArrayList<Point2D> seg : segments) {
-            if (seg.isEmpty()) {
-                isEmpty = false;
-                break;
-            }
+    /**
+     * Fits a bezier path to the specified digitized points, and fits the
+     * segments between corner points concurrently.
+     * <p>
+     * The segments between corner points are independent of each other.
+     * This method fits each segment into a separate path, and then adds
+     * the paths to the builder in the order of the segments. The resulting
+     * path is the same as with {@link #fitBezierPath(PathBuilder, DoubleArrayList, double)}.
+     * <p>
+     * This method is intended for large sets of digitized points, for
+     * example for imported point clouds.
+     *
+     * @param builder         the builder for the bezier path
+     * @param digitizedPoints digited points, with the x and y coordinates
+     *                        of each point interleaved
+     * @param error           the maximal allowed error between the bezier path and the
+     *                        digitized points.
+     */
+    public static void parallelFitBezierPath(@NonNull PathBuilder<?> builder, @NonNull DoubleArrayList digitizedPoints, double error) {
+        double[] d = digitizedPoints.toArray();
+        int n = d.length / 2;
+        IntArrayList cornerIndices = n == 0 ? new IntArrayList() : findCorners(d, n, CORNER_ANGLE, error * error);
+        if (cornerIndices.isEmpty()) {
+            fitBezierPath(builder, d, error);
+            return;
         }
-        if (!isEmpty) {
-            // Process each segment of digitized points
-            double errorSquared = error * error;
-            boolean first = true;
-            for (ArrayList<Point2D> seg : segments) {
-                switch (seg.size()) {
-                case 0:
-                    break;
-                case 1:
-                    if (first) {
-                        builder.moveTo(seg.get(0).getX(),seg.get(0).getY());
-                        first = false;
-                    } else {
-                        builder.lineTo(seg.get(0).getX(),seg.get(0).getY());
+
+        int[] bounds = new int[cornerIndices.size() + 2];
+        for (int i = 0, size = cornerIndices.size(); i < size; i++) {
+            bounds[i + 1] = cornerIndices.get(i);
+        }
+        bounds[bounds.length - 1] = n - 1;
+
+        List<Path2D.Double> segments = IntStream.range(0, bounds.length - 1).parallel()
+                .mapToObj(i -> {
+                    AwtPathBuilder segmentBuilder = new AwtPathBuilder();
+                    if (i > 0) {
+                        // the segment starts at the end point of the previous segment
+                        segmentBuilder.moveTo(d[bounds[i] * 2], d[bounds[i] * 2 + 1]);
                     }
+                    fitSegment(segmentBuilder, d, bounds[i], bounds[i + 1], error, i == 0);
+                    return segmentBuilder.build();
+                })
+                .collect(Collectors.toList());
+
+        double[] coords = new double[6];
+        for (int i = 0, size = segments.size(); i < size; i++) {
+            PathIterator iter = segments.get(i).getPathIterator(null);
+            if (i > 0) {
+                iter.next();
+            }
+            for (; !iter.isDone(); iter.next()) {
+                switch (iter.currentSegment(coords)) {
+                case PathIterator.SEG_MOVETO:
+                    builder.moveTo(coords[0], coords[1]);
                     break;
-                case 2:
-                    if (first) {
-                        builder.moveTo(seg.get(0).getX(),seg.get(0).getY());
-                        first = false;
-                    }
-                    builder.lineTo(seg.get(1).getX(),seg.get(1).getY());
+                case PathIterator.SEG_LINETO:
+                    builder.lineTo(coords[0], coords[1]);
                     break;
-                default:
-                    if (first) {
-                        builder.moveTo(seg.get(0).getX(),seg.get(0).getY());
-                        first = false;
-                    }
-                    /*  Unit tangent vectors at endpoints */
-                    Point2D tHat1;
-                    Point2D tHat2;
-                    tHat1 = computeLeftTangent(seg, 0);
-                    tHat2 = computeRightTangent(seg, seg.size() - 1);
-
-                    fitCubic(builder, seg, 0, seg.size() - 1, tHat1, tHat2, errorSquared);
+                case PathIterator.SEG_CUBICTO:
+                    builder.curveTo(coords[0], coords[1], coords[2], coords[3], coords[4], coords[5]);
                     break;
+                default:
+                    throw new AssertionError("unexpected segment type");
                 }
             }
         }
     }
 
     /**
-     * Fits a bezier path to the specified list of digitized points.
+     * Fits the digitized points of a segment between two corner points.
      * <p>
-     * This is a convenience method for calling {@link #fitBezierPath}.
+     * The segment starts at the end point of the path in the builder,
+     * unless it is the first segment.
      *
-     * @param builder         the builder for the bezier path
-     * @param digitizedPoints digited points.
-     * @param error           the maximal allowed error between the bezier path and the
-     *                        digitized points.
-     */
-    public static void fitBezierPath(@NonNull PathBuilder builder, @NonNull BezierNodePath digitizedPoints, double error) {
-        List<Point2D> d = new ArrayList<>();
-        for (BezierNode n : digitizedPoints.getNodes()) {
-            d.add(new Point2D(n.getX0(), n.getY0()));
+     * @param builder the builder for the bezier path
+     * @param d       digitized points
+     * @param from    index of the first point of the segment
+     * @param to      index of the last point of the segment (inclusive)
+     * @param error   the maximal allowed error
+     * @param first   whether this is the first segment of the path
+     */
+    static void fitSegment(@NonNull PathBuilder<?> builder, @NonNull double[] d, int from, int to, double error, boolean first) {
+        // Clean up the data in the segment
+        double[] seg = removeClosePoints(d, from, to + 1, error * 2);
+        seg = reduceNoise(seg, 0.8);
+
+        int n = seg.length / 2;
+        switch (n) {
+        case 0:
+            break;
+        case 1:
+            if (first) {
+                builder.moveTo(seg[0], seg[1]);
+            } else {
+                builder.lineTo(seg[0], seg[1]);
+            }
+            break;
+        case 2:
+            if (first) {
+                builder.moveTo(seg[0], seg[1]);
+            }
+            builder.lineTo(seg[2], seg[3]);
+            break;
+        default:
+            if (first) {
+                builder.moveTo(seg[0], seg[1]);
+            }
+            /*  Unit tangent vectors at endpoints */
+            double[] tHat1 = computeLeftTangent(seg, 0);
+            double[] tHat2 = computeRightTangent(seg, n - 1);
+
+            fitCubic(builder, seg, 0, n - 1, tHat1[0], tHat1[1], tHat2[0], tHat2[1], error * error);
+            break;
         }
-        fitBezierPath(builder, d, error);
     }
 
     /**
@@ -170,27 +258,63 @@ public class BezierFit {
      * @return Digitized points with a minimal distance.
      */
     public static @NonNull ArrayList<Point2D> removeClosePoints(@NonNull java.util.List<Point2D> digitizedPoints, double minDistance) {
+        return toPoints(removeClosePoints(toArray(digitizedPoints), 0, digitizedPoints.size(), minDistance));
+    }
+
+    /**
+     * Removes points which are closer together than the specified minimal
+     * distance.
+     *
+     * @param digitizedPoints Digitized points, with the x and y coordinates
+     *                        of each point interleaved
+     * @param minDistance     minimal distance between two points. If minDistance is
+     *                        0, this method only removes sequences of coincident points.
+     * @return Digitized points with a minimal distance.
+     * @see #removeClosePoints(List, double)
+     */
+    public static @NonNull DoubleArrayList removeClosePoints(@NonNull DoubleArrayList digitizedPoints, double minDistance) {
+        return DoubleArrayList.of(removeClosePoints(digitizedPoints.toArray(), 0, digitizedPoints.size() / 2, minDistance));
+    }
+
+    /**
+     * Removes points which are closer together than the specified minimal
+     * distance.
+     *
+     * @param d           Digitized points
+     * @param from        index of the first point
+     * @param to          index after the last point
+     * @param minDistance minimal distance between two points
+     * @return Digitized points with a minimal distance.
+     */
+    private static @NonNull double[] removeClosePoints(@NonNull double[] d, int from, int to, double minDistance) {
         if (minDistance == 0) {
-            return removeCoincidentPoints(digitizedPoints);
-        } else {
+            return removeCoincidentPoints(d, from, to);
+        }
+        if (from == to) {
+            return new double[0];
+        }
 
-            double squaredDistance = minDistance * minDistance;
-            java.util.ArrayList<Point2D> cleaned = new ArrayList<>();
-            if (digitizedPoints.size() > 0) {
-                Point2D prev = digitizedPoints.get(0);
-                cleaned.add(prev);
-                for (Point2D p : digitizedPoints) {
-                    if (v2SquaredDistanceBetween2Points(prev, p) > squaredDistance) {
-                        cleaned.add(p);
-                        prev = p;
-                    }
-                }
-                if (!prev.equals(digitizedPoints.get(digitizedPoints.size() - 1))) {
-                    cleaned.set(cleaned.size() - 1, digitizedPoints.get(digitizedPoints.size() - 1));
-                }
+        double squaredDistance = minDistance * minDistance;
+        double[] cleaned = new double[(to - from) * 2];
+        double prevX = d[from * 2], prevY = d[from * 2 + 1];
+        cleaned[0] = prevX;
+        cleaned[1] = prevY;
+        int size = 2;
+        for (int i = from; i < to; i++) {
+            double x = d[i * 2], y = d[i * 2 + 1];
+            if (squaredDistance(prevX, prevY, x, y) > squaredDistance) {
+                cleaned[size++] = x;
+                cleaned[size++] = y;
+                prevX = x;
+                prevY = y;
             }
-            return cleaned;
         }
+        double lastX = d[to * 2 - 2], lastY = d[to * 2 - 1];
+        if (prevX != lastX || prevY != lastY) {
+            cleaned[size - 2] = lastX;
+            cleaned[size - 1] = lastY;
+        }
+        return Arrays.copyOf(cleaned, size);
     }
 
     /**
@@ -203,22 +327,30 @@ public class BezierFit {
      * quantization errors - which is never the case, unless you want to debug
      * the curve fitting algorithm of this class.
      *
-     * @param digitizedPoints Digitized points
+     * @param d    Digitized points
+     * @param from index of the first point
+     * @param to   index after the last point
      * @return Digitized points without subsequent duplicates.
      */
-    private static @NonNull ArrayList<Point2D> removeCoincidentPoints(@NonNull java.util.List<Point2D> digitizedPoints) {
-        java.util.ArrayList<Point2D> cleaned = new ArrayList<>();
-        if (digitizedPoints.size() > 0) {
-            Point2D prev = digitizedPoints.get(0);
-            cleaned.add(prev);
-            for (Point2D p : digitizedPoints) {
-                if (!prev.equals(p)) {
-                    cleaned.add(p);
-                    prev = p;
-                }
+    private static @NonNull double[] removeCoincidentPoints(@NonNull double[] d, int from, int to) {
+        if (from == to) {
+            return new double[0];
+        }
+        double[] cleaned = new double[(to - from) * 2];
+        double prevX = d[from * 2], prevY = d[from * 2 + 1];
+        cleaned[0] = prevX;
+        cleaned[1] = prevY;
+        int size = 2;
+        for (int i = from; i < to; i++) {
+            double x = d[i * 2], y = d[i * 2 + 1];
+            if (prevX != x || prevY != y) {
+                cleaned[size++] = x;
+                cleaned[size++] = y;
+                prevX = x;
+                prevY = y;
             }
         }
-        return cleaned;
+        return Arrays.copyOf(cleaned, size);
     }
 
     /**
@@ -262,58 +394,107 @@ public class BezierFit {
      * @return list of corner indices.
      */
     public static @NonNull IntArrayList findCorners(@NonNull java.util.List<Point2D> digitizedPoints, double minAngle, double minDistance) {
+        return findCorners(toArray(digitizedPoints), digitizedPoints.size(), minAngle, minDistance);
+    }
+
+    /**
+     * Finds corners in the provided points, and returns their indices.
+     *
+     * @param digitizedPoints Digitized points, with the x and y coordinates
+     *                        of each point interleaved
+     * @param minAngle        Minimal angle for corner points
+     * @param minDistance     Minimal distance between a point and adjacent points
+     *                        for corner detection
+     * @return list of corner indices.
+     */
+    public static @NonNull IntArrayList findCorners(@NonNull DoubleArrayList digitizedPoints, double minAngle, double minDistance) {
+        return findCorners(digitizedPoints.toArray(), digitizedPoints.size() / 2, minAngle, minDistance);
+    }
+
+    private static @NonNull IntArrayList findCorners(@NonNull double[] d, int n, double minAngle, double minDistance) {
         IntArrayList cornerIndices = new IntArrayList();
 
         double squaredDistance = minDistance * minDistance;
 
         int previousCorner = -1;
-        double previousCornerAngle = 0;
-
-        for (int i = 1, n = digitizedPoints.size(); i < n - 1; i++) {
-            Point2D p = digitizedPoints.get(i);
-
-            // search for a preceding point for corner detection
-            Point2D prev = null;
-            boolean intersectsPreviousCorner = false;
-            for (int j = i - 1; j >= 0; j--) {
-                if (j == previousCorner || v2SquaredDistanceBetween2Points(digitizedPoints.get(j), p) >= squaredDistance) {
-                    prev = digitizedPoints.get(j);
-                    intersectsPreviousCorner = j < previousCorner;
-                    break;
-                }
-            }
-            if (prev == null) {
-                continue;
-            }
 
-            // search for a succeeding point for corner detection
-            Point2D next = null;
-            for (int j = i + 1; j < n; j++) {
-                if (v2SquaredDistanceBetween2Points(digitizedPoints.get(j), p) >= squaredDistance) {
-                    next = digitizedPoints.get(j);
-                    break;
-                }
+        for (int i = 1; i < n - 1; i++) {
+            int prev = findCornerPredecessor(d, i, previousCorner, squaredDistance);
+            if (prev == -1) {
+                continue;
             }
-            if (next == null) {
+            int next = findCornerSuccessor(d, i, i + 1, n, squaredDistance);
+            if (next == -1) {
                 continue;
             }
-
-            double aPrev = Geom.atan2(prev.getY() - p.getY(), prev.getX() - p.getX());
-            double aNext = Geom.atan2(next.getY() - p.getY(), next.getX() - p.getX());
-            double angle = Math.abs(aPrev - aNext);
-            if (angle < Math.PI - minAngle || angle > Math.PI + minAngle) {
-                if (intersectsPreviousCorner) {
-                    cornerIndices.set(cornerIndices.size() - 1, i);
-                } else {
-                    cornerIndices.add(i);
-                }
+            if (isCorner(d, prev, i, next, minAngle)) {
+                cornerIndices.add(i);
                 previousCorner = i;
-                previousCornerAngle = angle;
             }
         }
         return cornerIndices;
     }
 
+    /**
+     * Searches for a preceding point for corner detection.
+     * <p>
+     * The search does not go past the previous corner.
+     *
+     * @param d               digitized points
+     * @param i               index of the current point
+     * @param previousCorner  index of the previous corner, -1 if there is none
+     * @param squaredDistance the squared minimal distance from the current point
+     * @return index of the preceding point, -1 if there is none
+     */
+    static int findCornerPredecessor(@NonNull double[] d, int i, int previousCorner, double squaredDistance) {
+        double x = d[i * 2], y = d[i * 2 + 1];
+        for (int j = i - 1; j >= 0; j--) {
+            if (j == previousCorner || squaredDistance(d[j * 2], d[j * 2 + 1], x, y) >= squaredDistance) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Searches for a succeeding point for corner detection.
+     *
+     * @param d               digitized points
+     * @param i               index of the current point
+     * @param start           index at which the search starts, must be greater than i
+     * @param n               number of points
+     * @param squaredDistance the squared minimal distance from the current point
+     * @return index of the succeeding point, -1 if there is none
+     */
+    static int findCornerSuccessor(@NonNull double[] d, int i, int start, int n, double squaredDistance) {
+        double x = d[i * 2], y = d[i * 2 + 1];
+        for (int j = start; j < n; j++) {
+            if (squaredDistance(d[j * 2], d[j * 2 + 1], x, y) >= squaredDistance) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns true if the angle at the current point between the preceding
+     * and the succeeding point makes the current point a corner.
+     *
+     * @param d        digitized points
+     * @param prev     index of the preceding point
+     * @param i        index of the current point
+     * @param next     index of the succeeding point
+     * @param minAngle Minimal angle for corner points
+     * @return true if the current point is a corner
+     */
+    static boolean isCorner(@NonNull double[] d, int prev, int i, int next, double minAngle) {
+        double x = d[i * 2], y = d[i * 2 + 1];
+        double aPrev = Geom.atan2(d[prev * 2 + 1] - y, d[prev * 2] - x);
+        double aNext = Geom.atan2(d[next * 2 + 1] - y, d[next * 2] - x);
+        double angle = Math.abs(aPrev - aNext);
+        return angle < Math.PI - minAngle || angle > Math.PI + minAngle;
+    }
+
     /**
      * Reduces noise from the digitized points, by applying an approximation of
      * a gaussian filter to the data.
@@ -328,21 +509,42 @@ public class BezierFit {
      * @return Digitized points with reduced noise.
      */
     public static @NonNull ArrayList<Point2D> reduceNoise(@NonNull java.util.List<Point2D> digitizedPoints, double weight) {
-        java.util.ArrayList<Point2D> cleaned = new ArrayList<>();
-        if (digitizedPoints.size() > 0) {
-            Point2D prev = digitizedPoints.get(0);
-            cleaned.add(prev);
+        return toPoints(reduceNoise(toArray(digitizedPoints), weight));
+    }
+
+    /**
+     * Reduces noise from the digitized points, by applying an approximation of
+     * a gaussian filter to the data.
+     *
+     * @param digitizedPoints Digitized points, with the x and y coordinates
+     *                        of each point interleaved
+     * @param weight          Weight of the current point
+     * @return Digitized points with reduced noise.
+     * @see #reduceNoise(List, double)
+     */
+    public static @NonNull DoubleArrayList reduceNoise(@NonNull DoubleArrayList digitizedPoints, double weight) {
+        return DoubleArrayList.of(reduceNoise(digitizedPoints.toArray(), weight));
+    }
+
+    private static @NonNull double[] reduceNoise(@NonNull double[] d, double weight) {
+        int n = d.length / 2;
+        double[] cleaned = new double[n * 2];
+        if (n > 0) {
+            double prevX = d[0], prevY = d[1];
+            cleaned[0] = prevX;
+            cleaned[1] = prevY;
             double pnWeight = (1d - weight) / 2d; // weight of previous and next
-            for (int i = 1, n = digitizedPoints.size() - 1; i < n; i++) {
-                Point2D cur = digitizedPoints.get(i);
-                Point2D next = digitizedPoints.get(i + 1);
-                cleaned.add(new Point2D(
-                        cur.getX() * weight + pnWeight * prev.getX() + pnWeight * next.getX(),
-                        cur.getY() * weight + pnWeight * prev.getY() + pnWeight * next.getY()));
-                prev = cur;
+            for (int i = 1; i < n - 1; i++) {
+                double curX = d[i * 2], curY = d[i * 2 + 1];
+                double nextX = d[i * 2 + 2], nextY = d[i * 2 + 3];
+                cleaned[i * 2] = curX * weight + pnWeight * prevX + pnWeight * nextX;
+                cleaned[i * 2 + 1] = curY * weight + pnWeight * prevY + pnWeight * nextY;
+                prevX = curX;
+                prevY = curY;
             }
-            if (digitizedPoints.size() > 1) {
-                cleaned.add(digitizedPoints.get(digitizedPoints.size() - 1));
+            if (n > 1) {
+                cleaned[n * 2 - 2] = d[n * 2 - 2];
+                cleaned[n * 2 - 1] = d[n * 2 - 1];
             }
         }
         return cleaned;
@@ -357,16 +559,18 @@ public class BezierFit {
      *                     coincident points.
      * @param first        Indice of first point in d.
      * @param last         Indice of last point in d.
-     * @param tHat1        Unit tangent vectors at start point.
-     * @param tHat2        Unit tangent vector at end point.
+     * @param tHat1x       Unit tangent vectors at start point.
+     * @param tHat1y       Unit tangent vectors at start point.
+     * @param tHat2x       Unit tangent vector at end point.
+     * @param tHat2y       Unit tangent vector at end point.
      * @param errorSquared User-defined errorSquared squared.
      * @param builder      Path to which the bezier curve segments are added.
      */
-    private static void fitCubic(@NonNull PathBuilder builder, @NonNull ArrayList<Point2D> d, int first, int last,
-                                 Point2D tHat1, Point2D tHat2,
+    private static void fitCubic(@NonNull PathBuilder<?> builder, @NonNull double[] d, int first, int last,
+                                 double tHat1x, double tHat1y, double tHat2x, double tHat2y,
                                  double errorSquared) {
 
-        Point2D[] bezCurve;
+        double[] bezCurve = new double[8];
         /*Control points of fitted BezierFit curve*/
         double[] u;
         /*  Parameter values for point  */
@@ -382,41 +586,27 @@ public class BezierFit {
         /* Error below which you try iterating  */
         int maxIterations = 4;
         /*  Max times to try iterating  */
-        Point2D tHatCenter;
-        /* Unit tangent vector at splitPoint */
         int i;
+        boolean connectsCorners = first == 0 && last == d.length / 2 - 1;
 
         iterationError = errorSquared * errorSquared;
         nPts = last - first + 1;
 
         /*  Use heuristic if region only has two points in it */
         if (nPts == 2) {
-            double dist = v2DistanceBetween2Points(d.get(last), d.get(first)) / 3.0;
-
-            Point2D bezCurve0 = d.get(first);
-            Point2D bezCurve3 = d.get(last);
-            Point2D bezCurve1 = v2Add(bezCurve0, tHat1 = v2Scale(tHat1, dist));
-            Point2D bezCurve2 = v2Add(bezCurve3, tHat2 = v2Scale(tHat2, dist));
-
-            builder.curveTo(
-                    bezCurve1.getX(),
-                    bezCurve1.getY(),
-                    bezCurve2.getX(),
-                    bezCurve2.getY(),
-                    bezCurve3.getX(),
-                    bezCurve3.getY()
-            );
+            generateBezier(d, first, last, tHat1x, tHat1y, tHat2x, tHat2y, bezCurve);
+            builder.curveTo(bezCurve[2], bezCurve[3], bezCurve[4], bezCurve[5], bezCurve[6], bezCurve[7]);
             return;
         }
 
         /*  Parameterize points, and attempt to fit curve */
         u = chordLengthParameterize(d, first, last);
-        bezCurve = generateBezier(d, first, last, u, tHat1, tHat2);
+        generateBezier(d, first, last, tHat1x, tHat1y, tHat2x, tHat2y, bezCurve);
 
         /*  Find max deviation of points to fitted curve */
         maxError = computeMaxError(d, first, last, bezCurve, u, splitPoint);
         if (maxError < errorSquared) {
-            addCurveTo(builder, bezCurve, errorSquared, first == 0 && last == d.size() - 1);
+            addCurveTo(builder, bezCurve, errorSquared, connectsCorners);
             return;
         }
 
@@ -428,10 +618,10 @@ public class BezierFit {
             /*  Improved parameter values */
             for (i = 0; i < maxIterations; i++) {
                 uPrime = reparameterize(d, first, last, u, bezCurve);
-                bezCurve = generateBezier(d, first, last, uPrime, tHat1, tHat2);
+                generateBezier(d, first, last, tHat1x, tHat1y, tHat2x, tHat2y, bezCurve);
                 maxError = computeMaxError(d, first, last, bezCurve, uPrime, splitPoint);
                 if (maxError < errorSquared) {
-                    addCurveTo(builder, bezCurve, errorSquared, first == 0 && last == d.size() - 1);
+                    addCurveTo(builder, bezCurve, errorSquared, connectsCorners);
                     return;
                 }
                 u = uPrime;
@@ -439,41 +629,41 @@ public class BezierFit {
         }
 
         /* Fitting failed -- split at max errorSquared point and fit recursively */
-        tHatCenter = computeCenterTangent(d, splitPoint[0]);
+        double[] tHatCenter = computeCenterTangent(d, splitPoint[0]);
         if (first < splitPoint[0]) {
-            fitCubic(builder, d, first, splitPoint[0], tHat1, tHatCenter, errorSquared);
+            fitCubic(builder, d, first, splitPoint[0], tHat1x, tHat1y, tHatCenter[0], tHatCenter[1], errorSquared);
         } else {
-            builder.lineTo(d.get(splitPoint[0]).getX(), d.get(splitPoint[0]).getY());
+            builder.lineTo(d[splitPoint[0] * 2], d[splitPoint[0] * 2 + 1]);
             //   System.err.println("Can't split any further " + first + ".." + splitPoint[0]);
         }
-        tHatCenter = v2Negate(tHatCenter);
         if (splitPoint[0] < last) {
-            fitCubic(builder, d, splitPoint[0], last, tHatCenter, tHat2, errorSquared);
+            fitCubic(builder, d, splitPoint[0], last, -tHatCenter[0], -tHatCenter[1], tHat2x, tHat2y, errorSquared);
         } else {
-            builder.lineTo(d.get(last).getX(), d.get(last).getY());
+            builder.lineTo(d[last * 2], d[last * 2 + 1]);
             //  System.err.println("Can't split any further " + splitPoint[0] + ".." + last);
         }
     }
 
     /**
      * Adds the curve to the bezier path.
+     * <p>
+     * The curve starts at the end point of the path in the builder.
      *
-     * @param bezCurve
-     * @param builder
+     * @param builder  Path to which the bezier curve is added.
+     * @param bezCurve The control points of the bezier curve.
      */
-    private static void addCurveTo(@NonNull PathBuilder builder, Point2D[] bezCurve, double errorSquared, boolean connectsCorners) {
-        java.awt.geom.Point2D.Double lastNode = builder.getLastPoint();
+    private static void addCurveTo(@NonNull PathBuilder<?> builder, @NonNull double[] bezCurve, double errorSquared, boolean connectsCorners) {
         double error = Math.sqrt(errorSquared);
-        if (connectsCorners && IntersectLinePoint.lineContainsPoint(lastNode.getX(), lastNode.getY(), bezCurve[3].getX(), bezCurve[3].getY(), bezCurve[1].getX(), bezCurve[1].getY(), error)
-                && IntersectLinePoint.lineContainsPoint(lastNode.getX(), lastNode.getY(), bezCurve[3].getX(), bezCurve[3].getY(), bezCurve[2].getX(), bezCurve[2].getY(), error)) {
+        if (connectsCorners && IntersectLinePoint.lineContainsPoint(bezCurve[0], bezCurve[1], bezCurve[6], bezCurve[7], bezCurve[2], bezCurve[3], error)
+                && IntersectLinePoint.lineContainsPoint(bezCurve[0], bezCurve[1], bezCurve[6], bezCurve[7], bezCurve[4], bezCurve[5], error)) {
             builder.lineTo(
-                    bezCurve[3].getX(), bezCurve[3].getY());
+                    bezCurve[6], bezCurve[7]);
 
         } else {
             builder.curveTo(
-                    bezCurve[1].getX(), bezCurve[1].getY(),
-                    bezCurve[2].getX(), bezCurve[2].getY(),
-                    bezCurve[3].getX(), bezCurve[3].getY());
+                    bezCurve[2], bezCurve[3],
+                    bezCurve[4], bezCurve[5],
+                    bezCurve[6], bezCurve[7]);
         }
     }
 
@@ -483,11 +673,8 @@ public class BezierFit {
      * @param d   Digitized points.
      * @param end Index to "left" end of region.
      */
-    private static Point2D computeLeftTangent(@NonNull ArrayList<Point2D> d, int end) {
-        Point2D tHat1;
-        tHat1 = v2SubII(d.get(end + 1), d.get(end));
-        tHat1 = v2Normalize(tHat1);
-        return tHat1;
+    private static @NonNull double[] computeLeftTangent(@NonNull double[] d, int end) {
+        return normalize(d[end * 2 + 2] - d[end * 2], d[end * 2 + 3] - d[end * 2 + 1]);
     }
 
     /**
@@ -496,11 +683,8 @@ public class BezierFit {
      * @param d   Digitized points.
      * @param end Index to "right" end of region.
      */
-    private static Point2D computeRightTangent(@NonNull ArrayList<Point2D> d, int end) {
-        Point2D tHat2;
-        tHat2 = v2SubII(d.get(end - 1), d.get(end));
-        tHat2 = v2Normalize(tHat2);
-        return tHat2;
+    private static @NonNull double[] computeRightTangent(@NonNull double[] d, int end) {
+        return normalize(d[end * 2 - 2] - d[end * 2], d[end * 2 - 1] - d[end * 2 + 1]);
     }
 
     /**
@@ -509,16 +693,12 @@ public class BezierFit {
      * @param d      Digitized points.
      * @param center Index to "center" end of region.
      */
-    private static Point2D computeCenterTangent(@NonNull ArrayList<Point2D> d, int center) {
-        Point2D V1, V2,
-                tHatCenter;
-
-        V1 = v2SubII(d.get(center - 1), d.get(center));
-        V2 = v2SubII(d.get(center), d.get(center + 1));
-        tHatCenter = new Point2D((V1.getX() + V2.getX()) / 2.0,
-                (V1.getY() + V2.getY()) / 2.0);
-        tHatCenter = v2Normalize(tHatCenter);
-        return tHatCenter;
+    private static @NonNull double[] computeCenterTangent(@NonNull double[] d, int center) {
+        double v1x = d[center * 2 - 2] - d[center * 2];
+        double v1y = d[center * 2 - 1] - d[center * 2 + 1];
+        double v2x = d[center * 2] - d[center * 2 + 2];
+        double v2y = d[center * 2 + 1] - d[center * 2 + 3];
+        return normalize((v1x + v2x) / 2.0, (v1y + v2y) / 2.0);
     }
 
     /**
@@ -529,7 +709,7 @@ public class BezierFit {
      * @param first Indice of first point of region in d.
      * @param last  Indice of last point of region in d.
      */
-    private static double[] chordLengthParameterize(@NonNull ArrayList<Point2D> d, int first, int last) {
+    private static @NonNull double[] chordLengthParameterize(@NonNull double[] d, int first, int last) {
         int i;
         double[] u;
         /*  Parameterization		*/
@@ -539,7 +719,7 @@ public class BezierFit {
         u[0] = 0.0;
         for (i = first + 1; i <= last; i++) {
             u[i - first] = u[i - first - 1]
-                    + v2DistanceBetween2Points(d.get(i), d.get(i - 1));
+                    + Math.sqrt(squaredDistance(d[i * 2], d[i * 2 + 1], d[i * 2 - 2], d[i * 2 - 1]));
         }
 
         for (i = first + 1; i <= last; i++) {
@@ -559,7 +739,7 @@ public class BezierFit {
      * @param u        Current parameter values.
      * @param bezCurve Current fitted curve.
      */
-    private static double[] reparameterize(@NonNull ArrayList<Point2D> d, int first, int last, double[] u, Point2D[] bezCurve) {
+    private static @NonNull double[] reparameterize(@NonNull double[] d, int first, int last, @NonNull double[] u, @NonNull double[] bezCurve) {
         int nPts = last - first + 1;
         int i;
         double[] uPrime;
@@ -567,7 +747,7 @@ public class BezierFit {
 
         uPrime = new double[nPts];
         for (i = first; i <= last; i++) {
-            uPrime[i - first] = newtonRaphsonRootFind(bezCurve, d.get(i), u[i - first]);
+            uPrime[i - first] = newtonRaphsonRootFind(bezCurve, d[i * 2], d[i * 2 + 1], u[i - first]);
         }
         return (uPrime);
     }
@@ -575,49 +755,38 @@ public class BezierFit {
     /**
      * Use Newton-Raphson iteration to find better root.
      *
-     * @param Q Current fitted bezier curve.
-     * @param P Digitized point.
-     * @param u Parameter value for P.
+     * @param q  Current fitted bezier curve.
+     * @param px Digitized point.
+     * @param py Digitized point.
+     * @param u  Parameter value for P.
      */
-    private static double newtonRaphsonRootFind(Point2D[] Q, @NonNull Point2D P, double u) {
+    private static double newtonRaphsonRootFind(@NonNull double[] q, double px, double py, double u) {
         double numerator, denominator;
-        Point2D[] Q1 = new Point2D[3], Q2 = new Point2D[2];
-        /*  Q' and Q''			*/
-        Point2D Q_u, Q1_u, Q2_u;
-        /*u evaluated at Q, Q', & Q''	*/
-        double uPrime;
-        /*  Improved u	*/
-        int i;
 
         /* Compute Q(u)	*/
-        Q_u = bezierII(3, Q, u);
+        double qux = bezier3(q[0], q[2], q[4], q[6], u);
+        double quy = bezier3(q[1], q[3], q[5], q[7], u);
 
         /* Generate control points for Q'	*/
-        for (i = 0; i <= 2; i++) {
-            Q1[i] = new Point2D(
-                    (Q[i + 1].getX() - Q[i].getX()) * 3.0,
-                    (Q[i + 1].getY() - Q[i].getY()) * 3.0);
-        }
+        double q10x = (q[2] - q[0]) * 3.0, q10y = (q[3] - q[1]) * 3.0;
+        double q11x = (q[4] - q[2]) * 3.0, q11y = (q[5] - q[3]) * 3.0;
+        double q12x = (q[6] - q[4]) * 3.0, q12y = (q[7] - q[5]) * 3.0;
 
         /* Generate control points for Q'' */
-        for (i = 0; i <= 1; i++) {
-            Q2[i] = new Point2D(
-                    (Q1[i + 1].getX() - Q1[i].getX()) * 2.0,
-                    (Q1[i + 1].getY() - Q1[i].getY()) * 2.0);
-        }
+        double q20x = (q11x - q10x) * 2.0, q20y = (q11y - q10y) * 2.0;
+        double q21x = (q12x - q11x) * 2.0, q21y = (q12y - q11y) * 2.0;
 
         /* Compute Q'(u) and Q''(u)	*/
-        Q1_u = bezierII(2, Q1, u);
-        Q2_u = bezierII(1, Q2, u);
+        double q1ux = bezier2(q10x, q11x, q12x, u), q1uy = bezier2(q10y, q11y, q12y, u);
+        double q2ux = bezier1(q20x, q21x, u), q2uy = bezier1(q20y, q21y, u);
 
         /* Compute f(u)/f'(u) */
-        numerator = (Q_u.getX() - P.getX()) * (Q1_u.getX()) + (Q_u.getY() - P.getY()) * (Q1_u.getY());
-        denominator = (Q1_u.getX()) * (Q1_u.getX()) + (Q1_u.getY()) * (Q1_u.getY())
-                + (Q_u.getX() - P.getX()) * (Q2_u.getX()) + (Q_u.getY() - P.getY()) * (Q2_u.getY());
+        numerator = (qux - px) * (q1ux) + (quy - py) * (q1uy);
+        denominator = (q1ux) * (q1ux) + (q1uy) * (q1uy)
+                + (qux - px) * (q2ux) + (quy - py) * (q2uy);
 
         /* u = u - f(u)/f'(u) */
-        uPrime = u - (numerator / denominator);
-        return (uPrime);
+        return u - (numerator / denominator);
     }
 
     /**
@@ -631,23 +800,20 @@ public class BezierFit {
      * @param splitPoint Point of maximum error (input/output parameter, must be
      *                   an array of 1)
      */
-    private static double computeMaxError(@NonNull ArrayList<Point2D> d, int first, int last, Point2D[] bezCurve, double[] u, int[] splitPoint) {
+    private static double computeMaxError(@NonNull double[] d, int first, int last, @NonNull double[] bezCurve, @NonNull double[] u, @NonNull int[] splitPoint) {
         int i;
         double maxDist;
         /*  Maximum error */
         double dist;
         /*  Current error */
-        Point2D P;
-        /*  Point on curve */
-        Point2D v;
-        /*  Vector from point to curve */
 
         splitPoint[0] = (last - first + 1) / 2;
         maxDist = 0.0;
         for (i = first + 1; i < last; i++) {
-            P = bezierII(3, bezCurve, u[i - first]);
-            v = v2SubII(P, d.get(i));
-            dist = v2SquaredLength(v);
+            double t = u[i - first];
+            double vx = bezier3(bezCurve[0], bezCurve[2], bezCurve[4], bezCurve[6], t) - d[i * 2];
+            double vy = bezier3(bezCurve[1], bezCurve[3], bezCurve[5], bezCurve[7], t) - d[i * 2 + 1];
+            dist = (vx * vx) + (vy * vy);
             if (dist >= maxDist) {
                 maxDist = dist;
                 splitPoint[0] = i;
@@ -657,196 +823,111 @@ public class BezierFit {
     }
 
     /**
-     * Use least-squares method to find BezierFit control points for region.
-     *
-     * @param d      Array of digitized points.
-     * @param first  Indice of first point in d.
-     * @param last   Indice of last point in d.
-     * @param uPrime Parameter values for region .
-     * @param tHat1  Unit tangent vectors at start point.
-     * @param tHat2  Unit tanget vector at end point.
-     * @return A cubic bezier curve consisting of 4 control points.
-     */
-    private static Point2D[] generateBezier(@NonNull ArrayList<Point2D> d, int first, int last, double[] uPrime, @NonNull Point2D tHat1, @NonNull Point2D tHat2) {
-        Point2D[] bezCurve;
-
-        bezCurve = new Point2D[4];
-        for (int i = 0; i < bezCurve.length; i++) {
-        }
-
-
-        /*  Use the Wu/Barsky heuristic*/
-        double dist = v2DistanceBetween2Points(d.get(last), d.get(first)) / 3.0;
-
-        bezCurve[0] = d.get(first);
-        bezCurve[3] = d.get(last);
-        bezCurve[1] = v2Add(bezCurve[0], v2Scale(tHat1, dist));
-        bezCurve[2] = v2Add(bezCurve[3], v2Scale(tHat2, dist));
-        return (bezCurve);
-    }
-
-    /**
-     * Evaluate a BezierFit curve at a particular parameter value.
+     * Uses the Wu/Barsky heuristic to find the BezierFit control points for
+     * region.
      *
-     * @param degree The degree of the bezier curve.
-     * @param V      Array of control points.
-     * @param t      Parametric value to find point for.
-     */
-    private static Point2D bezierII(int degree, Point2D[] V, double t) {
-        int i, j;
-        Point2D q;
-        /* Point on curve at parameter t	*/
-        Point2D[] vTemp;
-        /* Local copy of control points		*/
-
-        /* Copy array	*/
-        vTemp = new Point2D[degree + 1];
-        for (i = 0; i <= degree; i++) {
-            vTemp[i] = V[i];
-        }
-
-        /* Triangle computation	*/
-        for (i = 1; i <= degree; i++) {
-            for (j = 0; j <= degree - i; j++) {
-                vTemp[j] = new Point2D((1.0 - t) * vTemp[j].getX() + t * vTemp[j + 1].getX(),
-                        (1.0 - t) * vTemp[j].getY() + t * vTemp[j + 1].getY());
-            }
-        }
-
-        q = vTemp[0];
-        return q;
-    }
-
-
-    /**
-     * Return the distance between two points
-     */
-    private static double v2DistanceBetween2Points(@NonNull Point2D a, @NonNull Point2D b) {
-        return Math.sqrt(v2SquaredDistanceBetween2Points(a, b));
-    }
-
-    /**
-     * Return the distance between two points
-     */
-    private static double v2SquaredDistanceBetween2Points(@NonNull Point2D a, @NonNull Point2D b) {
-        double dx = a.getX() - b.getX();
-        double dy = a.getY() - b.getY();
-        return (dx * dx) + (dy * dy);
-    }
-
-    /**
-     * Scales the input vector to the new length and returns it.
-     */
-    private static @NonNull Point2D v2Scale(@NonNull Point2D v, double newlen) {
-        double len = v2Length(v);
-        double x = v.getX(), y = v.getY();
+     * @param d        Array of digitized points.
+     * @param first    Indice of first point in d.
+     * @param last     Indice of last point in d.
+     * @param tHat1x   Unit tangent vectors at start point.
+     * @param tHat1y   Unit tangent vectors at start point.
+     * @param tHat2x   Unit tanget vector at end point.
+     * @param tHat2y   Unit tanget vector at end point.
+     * @param bezCurve A cubic bezier curve consisting of 4 control points
+     *                 (output parameter, must be an array of 8).
+     */
+    private static void generateBezier(@NonNull double[] d, int first, int last,
+                                       double tHat1x, double tHat1y, double tHat2x, double tHat2y,
+                                       @NonNull double[] bezCurve) {
+        double x0 = d[first * 2], y0 = d[first * 2 + 1];
+        double x3 = d[last * 2], y3 = d[last * 2 + 1];
+        double dist = Math.sqrt(squaredDistance(x3, y3, x0, y0)) / 3.0;
+
+        bezCurve[0] = x0;
+        bezCurve[1] = y0;
+        bezCurve[6] = x3;
+        bezCurve[7] = y3;
+        addScaled(x0, y0, tHat1x, tHat1y, dist, bezCurve, 2);
+        addScaled(x3, y3, tHat2x, tHat2y, dist, bezCurve, 4);
+    }
+
+    /**
+     * Scales the vector v to the new length, adds it to point p, and stores
+     * the result in the specified output array.
+     */
+    private static void addScaled(double px, double py, double vx, double vy, double newlen, @NonNull double[] out, int offset) {
+        double len = Math.sqrt((vx * vx) + (vy * vy));
         if (len != 0.0) {
-            x *= newlen / len;
-            y *= newlen / len;
+            vx *= newlen / len;
+            vy *= newlen / len;
         }
-
-        return new Point2D(x, y);
-    }
-
-    /**
-     * Scales the input vector by the specified factor and returns it.
-     */
-    private static @NonNull Point2D v2ScaleIII(@NonNull Point2D v, double s) {
-        Point2D result = new Point2D(v.getX() * s, v.getY() * s);
-        return result;
-    }
-
-    /**
-     * Returns length of input vector.
-     */
-    private static double v2Length(@NonNull Point2D a) {
-        return Math.sqrt(v2SquaredLength(a));
+        out[offset] = px + vx;
+        out[offset + 1] = py + vy;
     }
 
     /**
-     * Returns squared length of input vector.
+     * Evaluate a cubic BezierFit curve at a particular parameter value.
      */
-    private static double v2SquaredLength(@NonNull Point2D a) {
-        return (a.getX() * a.getX()) + (a.getY() * a.getY());
+    private static double bezier3(double p0, double p1, double p2, double p3, double t) {
+        double s = 1.0 - t;
+        double a0 = s * p0 + t * p1;
+        double a1 = s * p1 + t * p2;
+        double a2 = s * p2 + t * p3;
+        return bezier2(a0, a1, a2, t);
     }
 
     /**
-     * Return vector sum c = a+b.
+     * Evaluate a quadratic BezierFit curve at a particular parameter value.
      */
-    private static @NonNull Point2D v2Add(@NonNull Point2D a, @NonNull Point2D b) {
-        return new Point2D(a.getX() + b.getX(),
-                a.getY() + b.getY());
+    private static double bezier2(double p0, double p1, double p2, double t) {
+        double s = 1.0 - t;
+        double a0 = s * p0 + t * p1;
+        double a1 = s * p1 + t * p2;
+        return bezier1(a0, a1, t);
     }
 
     /**
-     * Return vector sum = a+b.
+     * Evaluate a linear BezierFit curve at a particular parameter value.
      */
-    private static @NonNull Point2D v2AddII(@NonNull Point2D a, @NonNull Point2D b) {
-        return new Point2D(
-                a.getX() + b.getX(),
-                a.getY() + b.getY());
+    private static double bezier1(double p0, double p1, double t) {
+        return (1.0 - t) * p0 + t * p1;
     }
 
     /**
-     * Negates the input vector and returns it.
+     * Return the squared distance between two points
      */
-    private static @NonNull Point2D v2Negate(@NonNull Point2D v) {
-        return new Point2D(-v.getX(),
-                -v.getY());
-    }
-
-    /**
-     * Return the dot product of vectors a and b.
-     */
-    private static double v2Dot(@NonNull Point2D a, @NonNull Point2D b) {
-        return (a.getX() * b.getX()) + (a.getY() * b.getY());
+    private static double squaredDistance(double ax, double ay, double bx, double by) {
+        double dx = ax - bx;
+        double dy = ay - by;
+        return (dx * dx) + (dy * dy);
     }
 
     /**
      * Normalizes the input vector and returns it.
      */
-    private static @NonNull Point2D v2Normalize(@NonNull Point2D v) {
-        double len = v2Length(v);
+    private static @NonNull double[] normalize(double x, double y) {
+        double len = Math.sqrt((x * x) + (y * y));
         if (len != 0.0) {
-            return new Point2D(v.getX() / len,
-                    v.getY() / len);
+            return new double[]{x / len, y / len};
         }
-
-        return v;
+        return new double[]{x, y};
     }
 
-    /**
-     * Subtract Vector a from Vector b.
-     *
-     * @param a Vector a - the value is not changed by this method
-     * @param b Vector b - the value is not changed by this method
-     * @return Vector a subtracted by Vector v.
-     */
-    private static @NonNull Point2D v2SubII(@NonNull Point2D a, @NonNull Point2D b) {
-        Point2D c = new Point2D(a.getX() - b.getX(),
-                a.getY() - b.getY());
-        return (c);
-    }
-
-    /**
-     * B0, B1, B2, B3 : BezierFit multipliers
-     */
-    private static double b0(double u) {
-        double tmp = 1.0 - u;
-        return (tmp * tmp * tmp);
-    }
-
-    private static double b1(double u) {
-        double tmp = 1.0 - u;
-        return (3 * u * (tmp * tmp));
-    }
-
-    private static double b2(double u) {
-        double tmp = 1.0 - u;
-        return (3 * u * u * tmp);
+    private static @NonNull double[] toArray(@NonNull List<Point2D> points) {
+        double[] d = new double[points.size() * 2];
+        for (int i = 0, n = points.size(); i < n; i++) {
+            Point2D p = points.get(i);
+            d[i * 2] = p.getX();
+            d[i * 2 + 1] = p.getY();
+        }
+        return d;
     }
 
-    private static double b3(double u) {
-        return (u * u * u);
+    private static @NonNull ArrayList<Point2D> toPoints(@NonNull double[] d) {
+        ArrayList<Point2D> points = new ArrayList<>(d.length / 2);
+        for (int i = 0; i < d.length; i += 2) {
+            points.add(new Point2D(d[i], d[i + 1]));
+        }
+        return points;
     }
 }
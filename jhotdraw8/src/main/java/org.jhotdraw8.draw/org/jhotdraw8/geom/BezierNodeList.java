@@ -0,0 +1,412 @@
+/*
+ * @(#)BezierNodeList.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom;
+
+import javafx.scene.transform.Transform;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.collection.AbstractReadOnlyList;
+import org.jhotdraw8.collection.ImmutableList;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable list of {@link BezierNode}s, which stores the nodes in
+ * packed primitive arrays.
+ * <p>
+ * Each node takes six doubles for the coordinates of its control points
+ * C0, C1, C2 and one byte for its mask and its collinear and equidistant
+ * hints. {@link BezierNode} objects are only created when an element is
+ * retrieved with {@link #get}. Path iteration, bounds computation and
+ * serialization use the primitive accessors, such as {@link #getX0(int)}
+ * and {@link #getMask(int)}.
+ * <p>
+ * The nodes are stored in chunks of {@value #CHUNK_SIZE} nodes.
+ * The methods {@link #set}, {@link #add} and {@link #remove} return a new
+ * list that shares all unchanged chunks with this list. Setting a node
+ * copies one chunk. Inserting or removing a node copies the chunks from
+ * the affected chunk to the end of the list.
+ *
+ * @author Werner Randelshofer
+ */
+public class BezierNodeList extends AbstractReadOnlyList<BezierNode> implements ImmutableList<BezierNode> {
+    private static final int CHUNK_SHIFT = 8;
+    /**
+     * The number of nodes in a chunk.
+     */
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    /**
+     * The mask bits that are stored in the flags byte of a node.
+     */
+    private static final int MASK_BITS = BezierNode.C0C1C2_MASK | BezierNode.MOVE_MASK | BezierNode.CLOSE_MASK;
+    private static final int COLLINEAR_BIT = 0x20;
+    private static final int EQUIDISTANT_BIT = 0x40;
+    private static final @NonNull BezierNodeList EMPTY = new BezierNodeList(new double[0][], new byte[0][], 0);
+
+    /**
+     * Holds the coordinates x0, y0, x1, y1, x2, y2 of each node.
+     * All chunks except the last chunk hold {@value #CHUNK_SIZE} nodes.
+     */
+    private final @NonNull double[][] coords;
+    /**
+     * Holds the mask and the hints of each node.
+     */
+    private final @NonNull byte[][] flags;
+    private final int size;
+
+    private BezierNodeList(@NonNull double[][] coords, @NonNull byte[][] flags, int size) {
+        this.coords = coords;
+        this.flags = flags;
+        this.size = size;
+    }
+
+    /**
+     * Creates a new list from packed arrays.
+     *
+     * @param coords the coordinates x0, y0, x1, y1, x2, y2 of each node
+     * @param flags  the flags of each node, see {@link #toFlags}
+     * @param size   the number of nodes
+     */
+    BezierNodeList(@NonNull double[] coords, @NonNull byte[] flags, int size) {
+        this(new double[(size + CHUNK_MASK) >>> CHUNK_SHIFT][], new byte[(size + CHUNK_MASK) >>> CHUNK_SHIFT][], size);
+        for (int c = 0, from = 0; from < size; c++, from += CHUNK_SIZE) {
+            int to = Math.min(size, from + CHUNK_SIZE);
+            this.coords[c] = Arrays.copyOfRange(coords, from * 6, to * 6);
+            this.flags[c] = Arrays.copyOfRange(flags, from, to);
+        }
+    }
+
+    /**
+     * Returns an empty list.
+     *
+     * @return an empty list
+     */
+    public static @NonNull BezierNodeList of() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns a list with the specified nodes. If the specified nodes
+     * are already a {@code BezierNodeList}, they are returned as is.
+     *
+     * @param nodes the nodes
+     * @return a list
+     */
+    public static @NonNull BezierNodeList of(@NonNull Iterable<BezierNode> nodes) {
+        if (nodes instanceof BezierNodeList) {
+            return (BezierNodeList) nodes;
+        }
+        double[] c = new double[6 * 16];
+        byte[] f = new byte[16];
+        int n = 0;
+        for (BezierNode node : nodes) {
+            if (n == f.length) {
+                f = Arrays.copyOf(f, n * 2);
+                c = Arrays.copyOf(c, n * 12);
+            }
+            storeNode(c, f, n++, node);
+        }
+        return n == 0 ? EMPTY : new BezierNodeList(c, f, n);
+    }
+
+    static byte toFlags(int mask, boolean equidistant, boolean collinear) {
+        return (byte) ((mask & MASK_BITS) | (collinear ? COLLINEAR_BIT : 0) | (equidistant ? EQUIDISTANT_BIT : 0));
+    }
+
+    private static void storeNode(@NonNull double[] c, @NonNull byte[] f, int i, @NonNull BezierNode node) {
+        int j = i * 6;
+        c[j] = node.getX0();
+        c[j + 1] = node.getY0();
+        c[j + 2] = node.getX1();
+        c[j + 3] = node.getY1();
+        c[j + 4] = node.getX2();
+        c[j + 5] = node.getY2();
+        f[i] = toFlags(node.getMask(), node.isEquidistant(), node.isCollinear());
+    }
+
+    private void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+        }
+    }
+
+    private double coord(int index, int offset) {
+        checkIndex(index, size);
+        return coords[index >>> CHUNK_SHIFT][(index & CHUNK_MASK) * 6 + offset];
+    }
+
+    private int flags(int index) {
+        checkIndex(index, size);
+        return flags[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    @Override
+    public @NonNull BezierNode get(int index) {
+        checkIndex(index, size);
+        double[] c = coords[index >>> CHUNK_SHIFT];
+        int j = (index & CHUNK_MASK) * 6;
+        int f = flags[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+        return new BezierNode(f & MASK_BITS, (f & EQUIDISTANT_BIT) != 0, (f & COLLINEAR_BIT) != 0,
+                c[j], c[j + 1], c[j + 2], c[j + 3], c[j + 4], c[j + 5]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof BezierNode && indexOf((BezierNode) o) != -1;
+    }
+
+    @Override
+    public int indexOf(BezierNode node) {
+        for (int i = 0; i < size; i++) {
+            if (nodeEquals(i, node)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean nodeEquals(int i, @NonNull BezierNode node) {
+        double[] c = coords[i >>> CHUNK_SHIFT];
+        int j = (i & CHUNK_MASK) * 6;
+        return flags[i >>> CHUNK_SHIFT][i & CHUNK_MASK] == toFlags(node.getMask(), node.isEquidistant(), node.isCollinear())
+                && Double.doubleToLongBits(c[j]) == Double.doubleToLongBits(node.getX0())
+                && Double.doubleToLongBits(c[j + 1]) == Double.doubleToLongBits(node.getY0())
+                && Double.doubleToLongBits(c[j + 2]) == Double.doubleToLongBits(node.getX1())
+                && Double.doubleToLongBits(c[j + 3]) == Double.doubleToLongBits(node.getY1())
+                && Double.doubleToLongBits(c[j + 4]) == Double.doubleToLongBits(node.getX2())
+                && Double.doubleToLongBits(c[j + 5]) == Double.doubleToLongBits(node.getY2());
+    }
+
+    public int getMask(int index) {
+        return flags(index) & MASK_BITS;
+    }
+
+    public boolean isC1(int index) {
+        return (flags(index) & BezierNode.C1_MASK) != 0;
+    }
+
+    public boolean isC2(int index) {
+        return (flags(index) & BezierNode.C2_MASK) != 0;
+    }
+
+    public boolean isMoveTo(int index) {
+        return (flags(index) & BezierNode.MOVE_MASK) != 0;
+    }
+
+    public boolean isCollinear(int index) {
+        return (flags(index) & COLLINEAR_BIT) != 0;
+    }
+
+    public boolean isEquidistant(int index) {
+        return (flags(index) & EQUIDISTANT_BIT) != 0;
+    }
+
+    public double getX0(int index) {
+        return coord(index, 0);
+    }
+
+    public double getY0(int index) {
+        return coord(index, 1);
+    }
+
+    public double getX1(int index) {
+        return coord(index, 2);
+    }
+
+    public double getY1(int index) {
+        return coord(index, 3);
+    }
+
+    public double getX2(int index) {
+        return coord(index, 4);
+    }
+
+    public double getY2(int index) {
+        return coord(index, 5);
+    }
+
+    /**
+     * Returns a list in which the node at the specified index is replaced
+     * by the specified node.
+     *
+     * @param index the index
+     * @param node  the new node
+     * @return a new list
+     */
+    public @NonNull BezierNodeList set(int index, @NonNull BezierNode node) {
+        checkIndex(index, size);
+        int chunk = index >>> CHUNK_SHIFT;
+        double[][] newCoords = coords.clone();
+        byte[][] newFlags = flags.clone();
+        newCoords[chunk] = newCoords[chunk].clone();
+        newFlags[chunk] = newFlags[chunk].clone();
+        storeNode(newCoords[chunk], newFlags[chunk], index & CHUNK_MASK, node);
+        return new BezierNodeList(newCoords, newFlags, size);
+    }
+
+    /**
+     * Returns a list in which the specified node is appended.
+     *
+     * @param node the new node
+     * @return a new list
+     */
+    public @NonNull BezierNodeList add(@NonNull BezierNode node) {
+        return add(size, node);
+    }
+
+    /**
+     * Returns a list in which the specified node is inserted at the
+     * specified index.
+     *
+     * @param index the index
+     * @param node  the new node
+     * @return a new list
+     */
+    public @NonNull BezierNodeList add(int index, @NonNull BezierNode node) {
+        checkIndex(index, size + 1);
+        int chunk = index >>> CHUNK_SHIFT;
+        int from = chunk << CHUNK_SHIFT;
+        int n = size + 1 - from;
+        double[] c = new double[n * 6];
+        byte[] f = new byte[n];
+        copyTo(from, index, c, f, 0);
+        storeNode(c, f, index - from, node);
+        copyTo(index, size, c, f, index - from + 1);
+        return replaceTail(chunk, c, f, n);
+    }
+
+    /**
+     * Returns a list in which the node at the specified index is removed.
+     *
+     * @param index the index
+     * @return a new list
+     */
+    public @NonNull BezierNodeList remove(int index) {
+        checkIndex(index, size);
+        int chunk = index >>> CHUNK_SHIFT;
+        int from = chunk << CHUNK_SHIFT;
+        int n = size - 1 - from;
+        double[] c = new double[n * 6];
+        byte[] f = new byte[n];
+        copyTo(from, index, c, f, 0);
+        copyTo(index + 1, size, c, f, index - from);
+        return replaceTail(chunk, c, f, n);
+    }
+
+    /**
+     * Copies the nodes in the range [from, to) into the specified packed
+     * arrays.
+     */
+    private void copyTo(int from, int to, @NonNull double[] c, @NonNull byte[] f, int offset) {
+        while (from < to) {
+            int chunk = from >>> CHUNK_SHIFT;
+            int i = from & CHUNK_MASK;
+            int n = Math.min(to - from, flags[chunk].length - i);
+            System.arraycopy(coords[chunk], i * 6, c, offset * 6, n * 6);
+            System.arraycopy(flags[chunk], i, f, offset, n);
+            from += n;
+            offset += n;
+        }
+    }
+
+    /**
+     * Returns a list that shares the chunks before the specified chunk with
+     * this list, and that continues with the specified packed nodes.
+     */
+    private @NonNull BezierNodeList replaceTail(int chunk, @NonNull double[] c, @NonNull byte[] f, int n) {
+        BezierNodeList tail = new BezierNodeList(c, f, n);
+        int newSize = (chunk << CHUNK_SHIFT) + n;
+        if (chunk == 0) {
+            return tail;
+        }
+        double[][] newCoords = Arrays.copyOf(coords, chunk + tail.coords.length);
+        byte[][] newFlags = Arrays.copyOf(flags, chunk + tail.flags.length);
+        System.arraycopy(tail.coords, 0, newCoords, chunk, tail.coords.length);
+        System.arraycopy(tail.flags, 0, newFlags, chunk, tail.flags.length);
+        return new BezierNodeList(newCoords, newFlags, newSize);
+    }
+
+    /**
+     * Returns a list in which all control points are transformed with the
+     * specified transform.
+     *
+     * @param transform the transform
+     * @return a new list
+     */
+    public @NonNull BezierNodeList transform(@NonNull Transform transform) {
+        double[][] newCoords = new double[coords.length][];
+        for (int c = 0; c < coords.length; c++) {
+            newCoords[c] = new double[coords[c].length];
+            transform.transform2DPoints(coords[c], 0, newCoords[c], 0, coords[c].length / 2);
+        }
+        return new BezierNodeList(newCoords, flags, size);
+    }
+
+    @Override
+    public @NonNull ImmutableList<BezierNode> readOnlySubList(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+        int n = toIndex - fromIndex;
+        double[] c = new double[n * 6];
+        byte[] f = new byte[n];
+        copyTo(fromIndex, toIndex, c, f, 0);
+        return n == 0 ? EMPTY : new BezierNodeList(c, f, n);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof BezierNodeList)) {
+            return super.equals(o);
+        }
+        BezierNodeList that = (BezierNodeList) o;
+        if (size != that.size) {
+            return false;
+        }
+        for (int c = 0; c < coords.length; c++) {
+            if (coords[c] != that.coords[c] && !Arrays.equals(coords[c], that.coords[c])
+                    || flags[c] != that.flags[c] && !Arrays.equals(flags[c], that.flags[c])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the same hash code as {@link AbstractReadOnlyList#hashCode()},
+     * but without creating {@link BezierNode} objects.
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (int chunk = 0; chunk < coords.length; chunk++) {
+            double[] c = coords[chunk];
+            byte[] f = flags[chunk];
+            for (int i = 0, j = 0; i < f.length; i++, j += 6) {
+                // see BezierNode.hashCode()
+                int hash = 7;
+                hash = 59 * hash + (f[i] & MASK_BITS);
+                hash = 59 * hash + ((f[i] & COLLINEAR_BIT) != 0 ? 1 : 0);
+                hash = 59 * hash + ((f[i] & EQUIDISTANT_BIT) != 0 ? 1 : 0);
+                hash = 59 * hash + Double.hashCode(c[j]);
+                hash = 59 * hash + Double.hashCode(c[j + 2]);
+                hash = 59 * hash + Double.hashCode(c[j + 4]);
+                hash = 59 * hash + Double.hashCode(c[j + 1]);
+                hash = 59 * hash + Double.hashCode(c[j + 3]);
+                hash = 59 * hash + Double.hashCode(c[j + 5]);
+                hashCode = 31 * hashCode + hash;
+            }
+        }
+        return hashCode;
+    }
+}
@@ -16,8 +16,6 @@ import java.awt.geom.FlatteningPathIterator;
 import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * A BezierNodePath is defined by its nodes. Each node has three control points:
@@ -30,11 +28,11 @@ import java.util.List;
 public class BezierNodePath implements Shape {
 
     private boolean closed;
-    private List<BezierNode> nodes;
+    private @NonNull BezierNodeList nodes;
     private int windingRule;
 
     public BezierNodePath() {
-        this(new ArrayList<>(), false, PathIterator.WIND_EVEN_ODD);
+        this(BezierNodeList.of(), false, PathIterator.WIND_EVEN_ODD);
     }
 
     public BezierNodePath(@NonNull Iterable<BezierNode> nodes) {
@@ -47,10 +45,7 @@ public class BezierNodePath implements Shape {
     }
 
     public BezierNodePath(@NonNull Iterable<BezierNode> nodes, boolean closed, int windingRule) {
-        this.nodes = new ArrayList<>();
-        for (BezierNode n : nodes) {
-            this.nodes.add(n);
-        }
+        this.nodes = BezierNodeList.of(nodes);
         this.closed = closed;
         this.windingRule = windingRule;
     }
@@ -84,9 +79,9 @@ public class BezierNodePath implements Shape {
     public @NonNull Rectangle2D getBounds2D() {
         double x1 = Double.POSITIVE_INFINITY, y1 = Double.POSITIVE_INFINITY,
                 x2 = Double.NEGATIVE_INFINITY, y2 = Double.NEGATIVE_INFINITY;
-        for (BezierNode n : nodes) {
-            double y = n.getY0();
-            double x = n.getX0();
+        for (int i = 0, n = nodes.size(); i < n; i++) {
+            double y = nodes.getY0(i);
+            double x = nodes.getX0(i);
             if (x < x1) {
                 x1 = x;
             }
@@ -99,9 +94,9 @@ public class BezierNodePath implements Shape {
             if (y > y2) {
                 y2 = y;
             }
-            if (n.isC1()) {
-                y = n.getY1();
-                x = n.getX1();
+            if (nodes.isC1(i)) {
+                y = nodes.getY1(i);
+                x = nodes.getX1(i);
                 if (x < x1) {
                     x1 = x;
                 }
@@ -115,9 +110,9 @@ public class BezierNodePath implements Shape {
                     y2 = y;
                 }
             }
-            if (n.isC2()) {
-                y = n.getY2();
-                x = n.getX2();
+            if (nodes.isC2(i)) {
+                y = nodes.getY2(i);
+                x = nodes.getX2(i);
                 if (x < x1) {
                     x1 = x;
                 }
@@ -135,12 +130,12 @@ public class BezierNodePath implements Shape {
         return new Rectangle2D.Double(x1, y1, x2 - x1, y2 - y1);
     }
 
-    public List<BezierNode> getNodes() {
+    public @NonNull BezierNodeList getNodes() {
         return nodes;
     }
 
-    public void setNodes(List<BezierNode> nodes) {
-        this.nodes = nodes;
+    public void setNodes(@NonNull Iterable<BezierNode> nodes) {
+        this.nodes = BezierNodeList.of(nodes);
     }
 
     @Override
@@ -189,51 +184,51 @@ public class BezierNodePath implements Shape {
                 if (nc1) {
                     // cubic curve
                     middle = new BezierNode(BezierNode.C1C2_MASK, true, true, p.getX(), p.getY(), p.getX(), p.getY(), p.getX(), p.getY());
-                    nodes.add(segment, middle);
+                    nodes = nodes.add(segment, middle);
                     BezierCurves.splitCubicCurveTo(prev.getX0(), prev.getY0(), prev.getX2(), prev.getY2(),
                             next.getX1(), next.getY1(), next.getX0(), next.getY0(), t,
                             (x1, y1, x2, y2, x3, y3) -> {
-                                nodes.set(prevSegment, prev.setX2(x1).setY2(y1));
-                                nodes.set(segment, nodes.get(segment).setX1(x2).setY1(y2));
+                                nodes = nodes.set(prevSegment, prev.setX2(x1).setY2(y1));
+                                nodes = nodes.set(segment, nodes.get(segment).setX1(x2).setY1(y2));
                             },
                             (x1, y1, x2, y2, x3, y3) -> {
-                                nodes.set(segment, nodes.get(segment).setX2(x1).setY2(y1));
-                                nodes.set(segment + 1, next.setX1(x2).setY1(y2));
+                                nodes = nodes.set(segment, nodes.get(segment).setX2(x1).setY2(y1));
+                                nodes = nodes.set(segment + 1, next.setX1(x2).setY1(y2));
                             }
                     );
                 } else {
                     // quadratic curve controlled by prev
                     middle = new BezierNode(BezierNode.C2_MASK, true, true, p.getX(), p.getY(), p.getX(), p.getY(), p.getX(), p.getY());
                     prev.setCollinear(true);
-                    nodes.add(segment, middle);
+                    nodes = nodes.add(segment, middle);
                     BezierCurves.splitQuadCurveTo(prev.getX0(), prev.getY0(),
                             next.getX1(), next.getY1(), next.getX0(), next.getY0(), t,
                             (x1, y1, x2, y2) -> {
-                                nodes.set(prevSegment, middle.setX2(x1).setY2(y1));
-                                nodes.set(segment, nodes.get(segment).setX0(x2).setY0(y2));
+                                nodes = nodes.set(prevSegment, middle.setX2(x1).setY2(y1));
+                                nodes = nodes.set(segment, nodes.get(segment).setX0(x2).setY0(y2));
                             },
                             (x1, y1, x2, y2) -> {
-                                nodes.set(segment, nodes.get(segment).setX2(x1).setY2(y1));
+                                nodes = nodes.set(segment, nodes.get(segment).setX2(x1).setY2(y1));
                             }
                     );
                 }
             } else if (nc1) {
                 // quadratic curve controlled by next
                 middle = new BezierNode(BezierNode.C1_MASK, true, true, p.getX(), p.getY(), p.getX(), p.getY(), p.getX(), p.getY());
-                nodes.add(segment, middle);
+                nodes = nodes.add(segment, middle);
                 BezierCurves.splitQuadCurveTo(prev.getX0(), prev.getY0(),
                         next.getX1(), next.getY1(), next.getX0(), next.getY0(), t,
                         (x1, y1, x2, y2) -> {
-                            nodes.set(segment, middle.setX1(x1).setY1(y1).setX0(x2).setY0(y2));
+                            nodes = nodes.set(segment, middle.setX1(x1).setY1(y1).setX0(x2).setY0(y2));
                         },
                         (x1, y1, x2, y2) -> {
-                            nodes.set(segment + 1, next.setX1(x1).setY1(y1).setCollinear(true));
+                            nodes = nodes.set(segment + 1, next.setX1(x1).setY1(y1).setCollinear(true));
                         }
                 );
             } else {
                 // line
                 middle = new BezierNode(BezierNode.C0_MASK, true, true, p.getX(), p.getY(), p.getX(), p.getY(), p.getX(), p.getY());
-                nodes.add(segment, middle);
+                nodes = nodes.add(segment, middle);
             }
 
             return true;
@@ -256,25 +251,25 @@ public class BezierNodePath implements Shape {
                     prev.getX0(), prev.getY0(), middle.getX1(), middle.getY1(), middle.getX0(), middle.getY0(),
                     next.getX1(), next.getY1(), next.getX0(), next.getY0(), tolerance);
             if (p != null) {
-                nodes.set(nextSegment, next.setX1(p[2]).setY1(p[3]));
+                nodes = nodes.set(nextSegment, next.setX1(p[2]).setY1(p[3]));
             }
         } else if (pc2 && mc2 && !nc1) {
             double[] p = BezierCurves.mergeQuadCurve(
                     prev.getX0(), prev.getY0(), prev.getX2(), prev.getY2(), middle.getX0(), middle.getY0(),
                     middle.getX2(), middle.getY2(), next.getX0(), next.getY0(), tolerance);
             if (p != null) {
-                nodes.set(prevSegment, prev.setX2(p[2]).setY2(p[3]));
+                nodes = nodes.set(prevSegment, prev.setX2(p[2]).setY2(p[3]));
             }
         } else if (pc2 && mc1 && mc2 && nc1) {
             double[] p = BezierCurves.mergeCubicCurve(
                     prev.getX0(), prev.getY0(), prev.getX2(), prev.getY2(), middle.getX1(), middle.getY1(), middle.getX0(), middle.getY0(),
                     middle.getX2(), middle.getY2(), next.getX1(), next.getY1(), next.getX0(), next.getY0(), tolerance);
             if (p != null) {
-                nodes.set(prevSegment, prev.setX2(p[2]).setY2(p[3]));
-                nodes.set(nextSegment, next.setX1(p[4]).setY1(p[5]));
+                nodes = nodes.set(prevSegment, prev.setX2(p[2]).setY2(p[3]));
+                nodes = nodes.set(nextSegment, next.setX1(p[4]).setY1(p[5]));
             }
         }
-        nodes.remove(segment);
+        nodes = nodes.remove(segment);
 
     }
 }
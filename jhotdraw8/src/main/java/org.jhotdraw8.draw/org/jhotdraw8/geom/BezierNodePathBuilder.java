@@ -7,85 +7,113 @@ package org.jhotdraw8.geom;
 import javafx.util.Builder;
 import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.collection.ImmutableList;
-import org.jhotdraw8.collection.ImmutableLists;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * BezierNodePathBuilder.
  *
  * @author Werner Randelshofer
  */
-public class BezierNodePathBuilder extends AbstractPathBuilder implements Builder<ImmutableList<BezierNode>> {
-
-    private @NonNull List<BezierNode> nodes = new ArrayList<>();
-
-    private void add(BezierNode newValue) {
-        nodes.add(newValue);
+public class BezierNodePathBuilder extends AbstractPathBuilder<BezierNodeList> implements Builder<ImmutableList<BezierNode>> {
+
+    /**
+     * Holds the coordinates x0, y0, x1, y1, x2, y2 of each node.
+     */
+    private @NonNull double[] coords = new double[6 * 16];
+    /**
+     * Holds the flags of each node, see {@link BezierNodeList#toFlags}.
+     */
+    private @NonNull byte[] flags = new byte[16];
+    private int size;
+
+    private void add(int mask, double x0, double y0, double x1, double y1, double x2, double y2) {
+        if (size == flags.length) {
+            flags = Arrays.copyOf(flags, size * 2);
+            coords = Arrays.copyOf(coords, size * 12);
+        }
+        flags[size] = BezierNodeList.toFlags(mask, false, false);
+        int j = size * 6;
+        coords[j] = x0;
+        coords[j + 1] = y0;
+        coords[j + 2] = x1;
+        coords[j + 3] = y1;
+        coords[j + 4] = x2;
+        coords[j + 5] = y2;
+        size++;
     }
 
     @Override
     protected void doClosePath() {
-        BezierNode last = getLastNode();
-        if (last != null) {
-            last = new BezierNode(last.getMask() | BezierNode.CLOSE_MASK, last.isEquidistant(), last.isCollinear(), last.getX0(), last.getY0(), last.getX1(), last.getY1(),
-                    last.getX2(), last.getY2());
-            setLast(last);
+        if (size > 0) {
+            flags[size - 1] |= BezierNode.CLOSE_MASK;
         }
     }
 
     @Override
     protected void doCurveTo(double x1, double y1, double x2, double y2, double x, double y) {
-        BezierNode last = getLastNode();
-
-        last = new BezierNode(last.getMask() | BezierNode.C2_MASK, last.isEquidistant(), last.isCollinear(), last.getX0(), last.getY0(), last.getX1(), last.getY1(), x1, y1);
-        if (last.computeIsCollinear()) {
-            last = last.setCollinear(true);
+        setLastC2(x1, y1);
+        int last = size - 1;
+        if (isCollinear(flags[last], coords, last * 6)) {
+            flags[last] |= BezierNodeList.toFlags(0, false, true);
         }
-        setLast(last);
-        add(new BezierNode(BezierNode.C0C1_MASK, false, false, x, y, x2, y2, x - x2 + x, y - y2 + y));
+        add(BezierNode.C0C1_MASK, x, y, x2, y2, x - x2 + x, y - y2 + y);
     }
 
     @Override
     protected void doLineTo(double x, double y) {
-        add(new BezierNode(BezierNode.C0_MASK, false, false, x, y, x, y, x, y));
+        add(BezierNode.C0_MASK, x, y, x, y, x, y);
     }
 
     @Override
     protected void doMoveTo(double x, double y) {
-        add(new BezierNode(BezierNode.C0_MASK | BezierNode.MOVE_MASK, false, false, x, y, x, y, x, y));
+        add(BezierNode.C0_MASK | BezierNode.MOVE_MASK, x, y, x, y, x, y);
     }
 
     @Override
     protected void doQuadTo(double x1, double y1, double x, double y) {
-        add(new BezierNode(BezierNode.C0C1_MASK, false, false, x, y, x1, y1, x1, y1));
+        add(BezierNode.C0C1_MASK, x, y, x1, y1, x1, y1);
     }
 
     @Override
     protected void doSmoothCurveTo(double x1, double y1, double x2, double y2, double x, double y) {
-        BezierNode last = getLastNode();
-        setLast(new BezierNode(last.getMask() | BezierNode.C2_MASK, true, true, last.getX0(), last.getY0(), last.getX1(), last.getY1(), x1, y1));
-        add(new BezierNode(BezierNode.C0C1_MASK, false, false, x, y, x1, y1, x2, y2));
+        setLastC2(x1, y1);
+        flags[size - 1] |= BezierNodeList.toFlags(0, true, true);
+        add(BezierNode.C0C1_MASK, x, y, x1, y1, x2, y2);
     }
 
     @Override
     protected void doSmoothQuadTo(double x1, double y1, double x, double y) {
-        BezierNode last = getLastNode();
-        setLast(new BezierNode(last.getMask(), true, true, last.getX0(), last.getY0(), last.getX1(), last.getY1(), last.getX2(), last.getY2()));
-        add(new BezierNode(BezierNode.C0C1_MASK, false, false, x, y, x1, y1, x1, y1));
+        flags[size - 1] |= BezierNodeList.toFlags(0, true, true);
+        add(BezierNode.C0C1_MASK, x, y, x1, y1, x1, y1);
     }
 
-    private BezierNode getLastNode() {
-        return nodes.get(nodes.size() - 1);
+    private void setLastC2(double x2, double y2) {
+        int last = size - 1;
+        flags[last] |= BezierNode.C2_MASK;
+        coords[last * 6 + 4] = x2;
+        coords[last * 6 + 5] = y2;
     }
 
-    private void setLast(BezierNode newValue) {
-        nodes.set(nodes.size() - 1, newValue);
+    /**
+     * Computes the same value as {@link BezierNode#computeIsCollinear()}.
+     */
+    private static boolean isCollinear(int mask, @NonNull double[] c, int j) {
+        if ((mask & BezierNode.MOVE_MASK) != 0 || (mask & BezierNode.C1C2_MASK) != BezierNode.C1C2_MASK) {
+            return false;
+        }
+        double t1x = c[j + 2] - c[j], t1y = c[j + 3] - c[j + 1];
+        double t2x = c[j + 4] - c[j], t2y = c[j + 5] - c[j + 1];
+        double m1 = Math.sqrt(t1x * t1x + t1y * t1y);
+        double m2 = Math.sqrt(t2x * t2x + t2y * t2y);
+        if (m1 == 0.0 || m2 == 0.0) {
+            return false;
+        }
+        return 1 - Math.abs(t1x / m1 * (t2x / m2) + t1y / m1 * (t2y / m2)) < 1e-4;
     }
 
-    public @NonNull ImmutableList<BezierNode> build() {
-        return ImmutableLists.ofCollection(nodes);
+    public @NonNull BezierNodeList build() {
+        return new BezierNodeList(coords, flags, size);
     }
 
     @Override
@@ -8,7 +8,6 @@ import org.jhotdraw8.annotation.NonNull;
 
 import java.awt.geom.AffineTransform;
 import java.awt.geom.PathIterator;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -18,31 +17,35 @@ import java.util.List;
  */
 public class BezierNodePathIterator implements PathIterator {
 
-    private final @NonNull List<BezierNode> nodes;
+    private final @NonNull BezierNodeList nodes;
+    /**
+     * The index of the current node. If the path is closed, the index
+     * {@code nodes.size()} stands for the first node, which is repeated
+     * at the end of the path.
+     */
     private int index;
+    /**
+     * True if the current segment is a close segment that follows the
+     * current node.
+     */
+    private boolean close;
+    /**
+     * True if the previous segment was a close segment.
+     */
+    private boolean afterClose;
     private final AffineTransform affine;
     private final int size;
+    private final boolean closed;
     private int windingRule;
 
-    private final BezierNode CLOSE_PATH = new BezierNode(0, 0);
-
     public BezierNodePathIterator(@NonNull List<BezierNode> nodes, boolean closed, int windingRule, AffineTransform affine) {
-        this.nodes = new ArrayList<BezierNode>();
-        for (BezierNode n : nodes) {
-            this.nodes.add(n);
-            if ((n.getMask() & BezierNode.CLOSE_MASK) == BezierNode.CLOSE_MASK) {
-                this.nodes.add(CLOSE_PATH);
-            }
-        }
-        if (closed && !nodes.isEmpty()) {
-            BezierNode n0 = nodes.get(0);
-            if ((n0.getMask() & BezierNode.MOVE_MASK) != 0) {
-                n0 = n0.setMask(n0.getMask() ^ BezierNode.MOVE_MASK);
-            }
-            this.nodes.add(n0);
-            this.nodes.add(CLOSE_PATH);
-        }
-        size = this.nodes.size();
+        this(BezierNodeList.of(nodes), closed, windingRule, affine);
+    }
+
+    public BezierNodePathIterator(@NonNull BezierNodeList nodes, boolean closed, int windingRule, AffineTransform affine) {
+        this.nodes = nodes;
+        this.size = nodes.size();
+        this.closed = closed && size > 0;
         this.windingRule = windingRule;
         this.affine = affine;
     }
@@ -65,9 +68,8 @@ public class BezierNodePathIterator implements PathIterator {
      */
     @Override
     public boolean isDone() {
-        // open path: we need one additional segment for the initial moveTo
-        // closed path: we need two additional segments: one for the initial moveTo and one for the closePath
-        return index >= size;
+        // closed path: we need two additional segments: one for the first node and one for the closePath
+        return index > size || index == size && !closed;
     }
 
     /**
@@ -77,7 +79,17 @@ public class BezierNodePathIterator implements PathIterator {
      */
     @Override
     public void next() {
-        if (!isDone()) {
+        if (isDone()) {
+            return;
+        }
+        if (close) {
+            close = false;
+            afterClose = true;
+            index++;
+        } else if (index == size || (nodes.getMask(index) & BezierNode.CLOSE_MASK) != 0) {
+            close = true;
+        } else {
+            afterClose = false;
             index++;
         }
     }
@@ -128,60 +140,50 @@ public class BezierNodePathIterator implements PathIterator {
     @Override
     public int currentSegment(double[] coords) {
         int numCoords = 0;
-        int type = 0;
+        int type;
 
-        if (index == 0) {
-            BezierNode current = nodes.get(index);
-            coords[0] = current.getX0();
-            coords[1] = current.getY0();
+        if (close) {
+            type = SEG_CLOSE;
+        } else if (index == 0 || index < size && nodes.isMoveTo(index)) {
             numCoords = 1;
             type = SEG_MOVETO;
+            coords[0] = nodes.getX0(index);
+            coords[1] = nodes.getY0(index);
         } else {
-            BezierNode current = nodes.get((index) % size);
-            BezierNode previous = nodes.get((index + size - 1) % size);
+            int current = index == size ? 0 : index;
+            int previous = index - 1;
+            if (afterClose || !nodes.isC2(previous)) {
+                if (!nodes.isC1(current)) {
+                    numCoords = 1;
+                    type = SEG_LINETO;
+                    coords[0] = nodes.getX0(current);
+                    coords[1] = nodes.getY0(current);
 
-            if (current == CLOSE_PATH) {
-                type = SEG_CLOSE;
+                } else {
+                    numCoords = 2;
+                    type = SEG_QUADTO;
+                    coords[0] = nodes.getX1(current);
+                    coords[1] = nodes.getY1(current);
+                    coords[2] = nodes.getX0(current);
+                    coords[3] = nodes.getY0(current);
+                }
             } else {
-                if (current.isMoveTo()) {
-                    numCoords = 1;
-                    type = SEG_MOVETO;
-                    coords[0] = (float) current.getX0();
-                    coords[1] = (float) current.getY0();
-
-                } else if (!previous.isC2()) {
-                    if (!current.isC1()) {
-                        numCoords = 1;
-                        type = SEG_LINETO;
-                        coords[0] = current.getX0();
-                        coords[1] = current.getY0();
-
-                    } else {
-                        numCoords = 2;
-                        type = SEG_QUADTO;
-                        coords[0] = current.getX1();
-                        coords[1] = current.getY1();
-                        coords[2] = current.getX0();
-                        coords[3] = current.getY0();
-                    }
+                if (!nodes.isC1(current)) {
+                    numCoords = 2;
+                    type = SEG_QUADTO;
+                    coords[0] = nodes.getX2(previous);
+                    coords[1] = nodes.getY2(previous);
+                    coords[2] = nodes.getX0(current);
+                    coords[3] = nodes.getY0(current);
                 } else {
-                    if (!current.isC1()) {
-                        numCoords = 2;
-                        type = SEG_QUADTO;
-                        coords[0] = previous.getX2();
-                        coords[1] = previous.getY2();
-                        coords[2] = current.getX0();
-                        coords[3] = current.getY0();
-                    } else {
-                        numCoords = 3;
-                        type = SEG_CUBICTO;
-                        coords[0] = previous.getX2();
-                        coords[1] = previous.getY2();
-                        coords[2] = current.getX1();
-                        coords[3] = current.getY1();
-                        coords[4] = current.getX0();
-                        coords[5] = current.getY0();
-                    }
+                    numCoords = 3;
+                    type = SEG_CUBICTO;
+                    coords[0] = nodes.getX2(previous);
+                    coords[1] = nodes.getY2(previous);
+                    coords[2] = nodes.getX1(current);
+                    coords[3] = nodes.getY1(current);
+                    coords[4] = nodes.getX0(current);
+                    coords[5] = nodes.getY0(current);
                 }
             }
         }
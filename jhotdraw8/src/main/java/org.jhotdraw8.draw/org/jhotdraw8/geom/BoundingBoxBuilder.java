@@ -18,7 +18,7 @@ import static java.lang.Math.min;
  *
  * @author Werner Randelshofer
  */
-public class BoundingBoxBuilder extends AbstractPathBuilder
+public class BoundingBoxBuilder extends AbstractPathBuilder<BoundingBox>
         implements Builder<BoundingBox> {
 
     private double minx = Double.POSITIVE_INFINITY,
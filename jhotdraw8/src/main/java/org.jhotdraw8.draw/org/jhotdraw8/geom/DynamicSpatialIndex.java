@@ -0,0 +1,659 @@
+/*
+ * @(#)DynamicSpatialIndex.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.collection.IntArrayDeque;
+import org.jhotdraw8.collection.IntArrayList;
+import org.jhotdraw8.collection.IntPriorityQueue;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Spatial index for quickly finding elements that intersect a specified
+ * bounding box, or that are nearest to a specified point.
+ * <p>
+ * Unlike {@link org.jhotdraw8.geom.contour.StaticSpatialIndex}, this
+ * spatial index can be changed at any time: {@link #add} returns the
+ * index of a new element, {@link #update} changes the bounding box of
+ * an element, and {@link #remove} removes it. The index of a removed
+ * element is reused by subsequent calls to {@link #add}.
+ * <p>
+ * The spatial index is implemented as an R*-tree [1]: a new element is
+ * inserted into the node that needs the least overlap enlargement (at the
+ * leaf level) or the least area enlargement (above the leaf level), and
+ * overflowing nodes are split along the axis with the smallest margin.
+ * Forced reinsertion is not performed. Underflowing nodes are dissolved
+ * after a removal, and their elements are inserted again.
+ * <p>
+ * The nodes and the bounding boxes are stored in primitive arrays.
+ * <p>
+ * References:
+ * <dl>
+ *     <dt>[1] Norbert Beckmann, Hans-Peter Kriegel, Ralf Schneider, Bernhard Seeger.
+ *     The R*-tree: an efficient and robust access method for points and rectangles.
+ *     SIGMOD '90, 322–331.</dt>
+ *     <dd><a href="https://doi.org/10.1145/93597.98741">doi.org</a></dd>
+ * </dl>
+ *
+ * @author Werner Randelshofer
+ */
+public class DynamicSpatialIndex implements SpatialIndex {
+    /**
+     * Maximal number of entries per node.
+     */
+    private final int maxEntries;
+    /**
+     * Minimal number of entries per node (except for the root).
+     */
+    private final int minEntries;
+
+    /**
+     * Holds minX, minY, maxX, maxY for each element.
+     */
+    private @NonNull double[] itemBoxes;
+    /**
+     * Holds the leaf node that contains the element, or -1 if the
+     * element index is not in use.
+     */
+    private @NonNull int[] itemNodes;
+    private final @NonNull IntArrayList freeItems = new IntArrayList();
+    private int itemCount;
+    private int size;
+
+    /**
+     * Holds minX, minY, maxX, maxY for each node.
+     */
+    private @NonNull double[] nodeBoxes;
+    /**
+     * Holds the entries of each node, {@code maxEntries + 1} slots
+     * per node. Entries of leaf nodes are element indexes, entries of
+     * inner nodes are node indexes.
+     */
+    private @NonNull int[] nodeEntries;
+    private @NonNull int[] nodeSizes;
+    /**
+     * Holds the level of each node, leaf nodes have level 0.
+     */
+    private @NonNull int[] nodeLevels;
+    private @NonNull int[] nodeParents;
+    private final @NonNull IntArrayList freeNodes = new IntArrayList();
+    private int nodeCount;
+    private int root;
+
+    /**
+     * Creates a new instance with 16 entries per node.
+     */
+    public DynamicSpatialIndex() {
+        this(16);
+    }
+
+    /**
+     * Creates a new instance with the specified number of entries per node.
+     *
+     * @param maxEntries maximal number of entries per node
+     */
+    public DynamicSpatialIndex(int maxEntries) {
+        if (!(4 <= maxEntries && maxEntries <= 65535)) {
+            throw new IllegalArgumentException("max entries (" + maxEntries + ") must be between 4 and 65535");
+        }
+        this.maxEntries = maxEntries;
+        this.minEntries = Math.max(2, maxEntries * 2 / 5);
+        itemBoxes = new double[16 * 4];
+        itemNodes = new int[16];
+        nodeBoxes = new double[4 * 4];
+        nodeEntries = new int[4 * (maxEntries + 1)];
+        nodeSizes = new int[4];
+        nodeLevels = new int[4];
+        nodeParents = new int[4];
+        root = newNode(0, -1);
+    }
+
+    /**
+     * Adds an element with the specified bounding box.
+     *
+     * @param minX min x of the bounding box
+     * @param minY min y of the bounding box
+     * @param maxX max x of the bounding box
+     * @param maxY max y of the bounding box
+     * @return the index of the element
+     */
+    public int add(double minX, double minY, double maxX, double maxY) {
+        int index;
+        if (freeItems.isEmpty()) {
+            index = itemCount++;
+            if (itemCount > itemNodes.length) {
+                int capacity = itemNodes.length * 2;
+                itemNodes = Arrays.copyOf(itemNodes, capacity);
+                itemBoxes = Arrays.copyOf(itemBoxes, capacity * 4);
+            }
+        } else {
+            index = freeItems.removeLast();
+        }
+        setBox(itemBoxes, index, minX, minY, maxX, maxY);
+        insert(index, 0);
+        size++;
+        return index;
+    }
+
+    /**
+     * Removes the element with the specified index.
+     *
+     * @param index the index of the element
+     * @throws IllegalArgumentException if the index is not in use
+     */
+    public void remove(int index) {
+        checkIndex(index);
+        removeFromTree(index);
+        itemNodes[index] = -1;
+        freeItems.add(index);
+        size--;
+    }
+
+    /**
+     * Changes the bounding box of the element with the specified index.
+     *
+     * @param index the index of the element
+     * @param minX  min x of the new bounding box
+     * @param minY  min y of the new bounding box
+     * @param maxX  max x of the new bounding box
+     * @param maxY  max y of the new bounding box
+     * @throws IllegalArgumentException if the index is not in use
+     */
+    public void update(int index, double minX, double minY, double maxX, double maxY) {
+        checkIndex(index);
+        int leaf = itemNodes[index];
+        setBox(itemBoxes, index, minX, minY, maxX, maxY);
+        if (containsBox(nodeBoxes, leaf, itemBoxes, index)) {
+            // the element stays in its leaf, the leaf may shrink
+            adjustBoxes(leaf);
+        } else {
+            removeFromTree(index);
+            insert(index, 0);
+        }
+    }
+
+    /**
+     * Removes all elements.
+     */
+    public void clear() {
+        itemCount = 0;
+        size = 0;
+        freeItems.clear();
+        nodeCount = 0;
+        freeNodes.clear();
+        root = newNode(0, -1);
+    }
+
+    /**
+     * Returns true if the specified element index is in use.
+     *
+     * @param index an index
+     * @return true if the index is in use
+     */
+    public boolean contains(int index) {
+        return 0 <= index && index < itemCount && itemNodes[index] != -1;
+    }
+
+    public double getMinX(int index) {
+        checkIndex(index);
+        return itemBoxes[index * 4];
+    }
+
+    public double getMinY(int index) {
+        checkIndex(index);
+        return itemBoxes[index * 4 + 1];
+    }
+
+    public double getMaxX(int index) {
+        checkIndex(index);
+        return itemBoxes[index * 4 + 2];
+    }
+
+    public double getMaxY(int index) {
+        checkIndex(index);
+        return itemBoxes[index * 4 + 3];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void visitQuery(double minX, double minY, double maxX, double maxY, @NonNull IntPredicate visitor) {
+        visitQuery(minX, minY, maxX, maxY, visitor, new IntArrayDeque(16));
+    }
+
+    /**
+     * Queries the spatial index, invoking a visitor function for each index
+     * whose bounding box intersects the bounding box given. If the visitor
+     * returns false the query stops early, otherwise the query continues.
+     * This overload accepts an existing deque to use as a stack and takes
+     * care of clearing the stack before use.
+     */
+    public void visitQuery(double minX, double minY, double maxX, double maxY, @NonNull IntPredicate visitor,
+                           @NonNull IntArrayDeque stack) {
+        stack.clear();
+        int node = root;
+        while (true) {
+            boolean leaf = nodeLevels[node] == 0;
+            double[] boxes = leaf ? itemBoxes : nodeBoxes;
+            for (int e = node * (maxEntries + 1), end = e + nodeSizes[node]; e < end; e++) {
+                int entry = nodeEntries[e];
+                int pos = entry * 4;
+                if (maxX < boxes[pos] || maxY < boxes[pos + 1] || minX > boxes[pos + 2] ||
+                        minY > boxes[pos + 3]) {
+                    // no intersect
+                    continue;
+                }
+                if (leaf) {
+                    if (!visitor.test(entry)) {
+                        return;
+                    }
+                } else {
+                    stack.push(entry);
+                }
+            }
+            if (stack.isEmpty()) {
+                return;
+            }
+            node = stack.pop();
+        }
+    }
+
+    @Override
+    public void visitNearest(double x, double y, int k, double maxDistance, @NonNull DistanceVisitor visitor) {
+        if (k <= 0) {
+            return;
+        }
+
+        // best first search: the queue holds node indexes (>= 0) and item indexes (encoded as -index-1)
+        double maxDistSq = maxDistance * maxDistance;
+        IntPriorityQueue queue = new IntPriorityQueue(maxEntries * 2);
+        int node = root;
+        int count = 0;
+        while (true) {
+            boolean leaf = nodeLevels[node] == 0;
+            double[] boxes = leaf ? itemBoxes : nodeBoxes;
+            for (int e = node * (maxEntries + 1), end = e + nodeSizes[node]; e < end; e++) {
+                int entry = nodeEntries[e];
+                int pos = entry * 4;
+                double distSq = SpatialIndex.squaredDistanceToBox(x, y,
+                        boxes[pos], boxes[pos + 1], boxes[pos + 2], boxes[pos + 3]);
+                if (distSq <= maxDistSq) {
+                    queue.add(leaf ? -entry - 1 : entry, distSq);
+                }
+            }
+
+            // visit all items that are nearer than any remaining node
+            while (!queue.isEmpty() && queue.peek() < 0) {
+                double distSq = queue.peekPriority();
+                int index = -queue.remove() - 1;
+                if (!visitor.visit(index, distSq) || ++count == k) {
+                    return;
+                }
+            }
+            if (queue.isEmpty()) {
+                return;
+            }
+            node = queue.remove();
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (!contains(index)) {
+            throw new IllegalArgumentException("index (" + index + ") is not in use");
+        }
+    }
+
+    private int newNode(int level, int parent) {
+        int node;
+        if (freeNodes.isEmpty()) {
+            node = nodeCount++;
+            if (nodeCount > nodeSizes.length) {
+                int capacity = nodeSizes.length * 2;
+                nodeBoxes = Arrays.copyOf(nodeBoxes, capacity * 4);
+                nodeEntries = Arrays.copyOf(nodeEntries, capacity * (maxEntries + 1));
+                nodeSizes = Arrays.copyOf(nodeSizes, capacity);
+                nodeLevels = Arrays.copyOf(nodeLevels, capacity);
+                nodeParents = Arrays.copyOf(nodeParents, capacity);
+            }
+        } else {
+            node = freeNodes.removeLast();
+        }
+        nodeSizes[node] = 0;
+        nodeLevels[node] = level;
+        nodeParents[node] = parent;
+        setBox(nodeBoxes, node, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+        return node;
+    }
+
+    /**
+     * Inserts an entry into a node at the specified level.
+     *
+     * @param entry an element index if level is 0, a node index otherwise
+     * @param level the level of the node that receives the entry
+     */
+    private void insert(int entry, int level) {
+        double[] boxes = level == 0 ? itemBoxes : nodeBoxes;
+        int node = chooseSubtree(boxes, entry, level);
+        addEntry(node, entry);
+        while (nodeSizes[node] > maxEntries) {
+            int sibling = split(node);
+            if (node == root) {
+                root = newNode(nodeLevels[node] + 1, -1);
+                addEntry(root, node);
+                addEntry(root, sibling);
+                computeBox(root);
+                return;
+            }
+            node = nodeParents[node];
+            addEntry(node, sibling);
+        }
+        adjustBoxes(node);
+    }
+
+    private void addEntry(int node, int entry) {
+        nodeEntries[node * (maxEntries + 1) + nodeSizes[node]++] = entry;
+        if (nodeLevels[node] == 0) {
+            itemNodes[entry] = node;
+            includeBox(nodeBoxes, node, itemBoxes, entry);
+        } else {
+            nodeParents[entry] = node;
+            includeBox(nodeBoxes, node, nodeBoxes, entry);
+        }
+    }
+
+    private void removeEntry(int node, int entry) {
+        int offset = node * (maxEntries + 1);
+        int last = offset + nodeSizes[node] - 1;
+        for (int e = offset; e <= last; e++) {
+            if (nodeEntries[e] == entry) {
+                nodeEntries[e] = nodeEntries[last];
+                nodeSizes[node]--;
+                return;
+            }
+        }
+        throw new AssertionError("entry " + entry + " not in node " + node);
+    }
+
+    /**
+     * Removes an element from the tree, but keeps its index in use.
+     */
+    private void removeFromTree(int index) {
+        int node = itemNodes[index];
+        removeEntry(node, index);
+
+        // condense tree: dissolve underflowing nodes
+        IntArrayList orphans = null;
+        while (node != root) {
+            int parent = nodeParents[node];
+            if (nodeSizes[node] < minEntries) {
+                removeEntry(parent, node);
+                if (orphans == null) {
+                    orphans = new IntArrayList();
+                }
+                collectItems(node, orphans);
+            } else {
+                computeBox(node);
+            }
+            node = parent;
+        }
+        computeBox(root);
+
+        // shorten tree
+        while (nodeLevels[root] > 0 && nodeSizes[root] == 1) {
+            int child = nodeEntries[root * (maxEntries + 1)];
+            freeNodes.add(root);
+            root = child;
+            nodeParents[root] = -1;
+        }
+
+        if (orphans != null) {
+            for (int i = 0, n = orphans.size(); i < n; i++) {
+                insert(orphans.get(i), 0);
+            }
+        }
+    }
+
+    /**
+     * Adds all elements in the subtree of the specified node to the list,
+     * and frees all nodes of the subtree.
+     */
+    private void collectItems(int node, @NonNull IntArrayList items) {
+        int offset = node * (maxEntries + 1);
+        for (int e = offset, end = offset + nodeSizes[node]; e < end; e++) {
+            if (nodeLevels[node] == 0) {
+                items.add(nodeEntries[e]);
+            } else {
+                collectItems(nodeEntries[e], items);
+            }
+        }
+        freeNodes.add(node);
+    }
+
+    /**
+     * Descends from the root to a node at the specified level that is
+     * best suited for inserting the specified entry.
+     */
+    private int chooseSubtree(@NonNull double[] boxes, int entry, int level) {
+        int pos = entry * 4;
+        double minX = boxes[pos], minY = boxes[pos + 1], maxX = boxes[pos + 2], maxY = boxes[pos + 3];
+        int node = root;
+        while (nodeLevels[node] > level) {
+            int offset = node * (maxEntries + 1);
+            int n = nodeSizes[node];
+            boolean childrenAreLeaves = nodeLevels[node] == 1;
+            int best = nodeEntries[offset];
+            double bestOverlap = Double.POSITIVE_INFINITY;
+            double bestEnlargement = Double.POSITIVE_INFINITY;
+            double bestArea = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                int child = nodeEntries[offset + i];
+                int cpos = child * 4;
+                double cMinX = nodeBoxes[cpos], cMinY = nodeBoxes[cpos + 1];
+                double cMaxX = nodeBoxes[cpos + 2], cMaxY = nodeBoxes[cpos + 3];
+                double area = area(cMinX, cMinY, cMaxX, cMaxY);
+                double eMinX = Math.min(cMinX, minX), eMinY = Math.min(cMinY, minY);
+                double eMaxX = Math.max(cMaxX, maxX), eMaxY = Math.max(cMaxY, maxY);
+                double enlargement = area(eMinX, eMinY, eMaxX, eMaxY) - area;
+
+                double overlap = 0.0;
+                if (childrenAreLeaves && enlargement > 0.0) {
+                    // overlap enlargement with the siblings
+                    for (int j = 0; j < n; j++) {
+                        if (j != i) {
+                            int spos = nodeEntries[offset + j] * 4;
+                            overlap += overlap(eMinX, eMinY, eMaxX, eMaxY, nodeBoxes, spos)
+                                    - overlap(cMinX, cMinY, cMaxX, cMaxY, nodeBoxes, spos);
+                        }
+                    }
+                }
+                if (overlap < bestOverlap
+                        || overlap == bestOverlap && (enlargement < bestEnlargement
+                        || enlargement == bestEnlargement && area < bestArea)) {
+                    best = child;
+                    bestOverlap = overlap;
+                    bestEnlargement = enlargement;
+                    bestArea = area;
+                }
+            }
+            node = best;
+        }
+        return node;
+    }
+
+    /**
+     * Splits an overflowing node and returns the new sibling.
+     * <p>
+     * The split axis is the axis with the smallest sum of margins over all
+     * distributions. On this axis, the distribution with the smallest
+     * overlap (and then the smallest area) is chosen.
+     */
+    private int split(int node) {
+        boolean leaf = nodeLevels[node] == 0;
+        double[] boxes = leaf ? itemBoxes : nodeBoxes;
+        int offset = node * (maxEntries + 1);
+        int n = nodeSizes[node];
+        int[] entries = Arrays.copyOfRange(nodeEntries, offset, offset + n);
+        int[] sorted = new int[n];
+        double[] lower = new double[n * 4], upper = new double[n * 4];
+
+        // choose split axis
+        int bestAxis = 0;
+        double bestMargin = Double.POSITIVE_INFINITY;
+        for (int axis = 0; axis < 2; axis++) {
+            double margin = 0.0;
+            for (int byMax = 0; byMax < 2; byMax++) {
+                sortEntries(boxes, entries, sorted, axis + 2 * byMax);
+                computeDistributionBoxes(boxes, sorted, lower, upper);
+                for (int k = minEntries; k <= n - minEntries; k++) {
+                    margin += margin(lower, k - 1) + margin(upper, k);
+                }
+            }
+            if (margin < bestMargin) {
+                bestMargin = margin;
+                bestAxis = axis;
+            }
+        }
+
+        // choose split index
+        int bestSort = bestAxis;
+        int bestK = minEntries;
+        double bestOverlap = Double.POSITIVE_INFINITY;
+        double bestArea = Double.POSITIVE_INFINITY;
+        for (int byMax = 0; byMax < 2; byMax++) {
+            int sort = bestAxis + 2 * byMax;
+            sortEntries(boxes, entries, sorted, sort);
+            computeDistributionBoxes(boxes, sorted, lower, upper);
+            for (int k = minEntries; k <= n - minEntries; k++) {
+                int lp = (k - 1) * 4, up = k * 4;
+                double overlap = overlap(lower[lp], lower[lp + 1], lower[lp + 2], lower[lp + 3], upper, up);
+                double area = area(lower[lp], lower[lp + 1], lower[lp + 2], lower[lp + 3])
+                        + area(upper[up], upper[up + 1], upper[up + 2], upper[up + 3]);
+                if (overlap < bestOverlap || overlap == bestOverlap && area < bestArea) {
+                    bestOverlap = overlap;
+                    bestArea = area;
+                    bestSort = sort;
+                    bestK = k;
+                }
+            }
+        }
+
+        // distribute entries
+        sortEntries(boxes, entries, sorted, bestSort);
+        int sibling = newNode(nodeLevels[node], nodeParents[node]);
+        nodeSizes[node] = 0;
+        setBox(nodeBoxes, node, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+        for (int i = 0; i < n; i++) {
+            addEntry(i < bestK ? node : sibling, sorted[i]);
+        }
+        return sibling;
+    }
+
+    /**
+     * Sorts the entries by a coordinate of their boxes.
+     *
+     * @param key 0 = minX, 1 = minY, 2 = maxX, 3 = maxY
+     */
+    private static void sortEntries(@NonNull double[] boxes, @NonNull int[] entries, @NonNull int[] sorted, int key) {
+        // insertion sort, nodes are small
+        for (int i = 0; i < entries.length; i++) {
+            int entry = entries[i];
+            double value = boxes[entry * 4 + key];
+            int j = i - 1;
+            while (j >= 0 && boxes[sorted[j] * 4 + key] > value) {
+                sorted[j + 1] = sorted[j];
+                j--;
+            }
+            sorted[j + 1] = entry;
+        }
+    }
+
+    /**
+     * Computes the boxes of the first i+1 entries into lower[i], and the
+     * boxes of the entries from i to the end into upper[i].
+     */
+    private static void computeDistributionBoxes(@NonNull double[] boxes, @NonNull int[] sorted,
+                                                 @NonNull double[] lower, @NonNull double[] upper) {
+        int n = sorted.length;
+        for (int i = 0; i < n; i++) {
+            int pos = sorted[i] * 4;
+            int lp = i * 4;
+            lower[lp] = i == 0 ? boxes[pos] : Math.min(lower[lp - 4], boxes[pos]);
+            lower[lp + 1] = i == 0 ? boxes[pos + 1] : Math.min(lower[lp - 3], boxes[pos + 1]);
+            lower[lp + 2] = i == 0 ? boxes[pos + 2] : Math.max(lower[lp - 2], boxes[pos + 2]);
+            lower[lp + 3] = i == 0 ? boxes[pos + 3] : Math.max(lower[lp - 1], boxes[pos + 3]);
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            int pos = sorted[i] * 4;
+            int up = i * 4;
+            upper[up] = i == n - 1 ? boxes[pos] : Math.min(upper[up + 4], boxes[pos]);
+            upper[up + 1] = i == n - 1 ? boxes[pos + 1] : Math.min(upper[up + 5], boxes[pos + 1]);
+            upper[up + 2] = i == n - 1 ? boxes[pos + 2] : Math.max(upper[up + 6], boxes[pos + 2]);
+            upper[up + 3] = i == n - 1 ? boxes[pos + 3] : Math.max(upper[up + 7], boxes[pos + 3]);
+        }
+    }
+
+    /**
+     * Recomputes the boxes of the specified node and of its ancestors.
+     */
+    private void adjustBoxes(int node) {
+        for (; node != -1; node = nodeParents[node]) {
+            computeBox(node);
+        }
+    }
+
+    private void computeBox(int node) {
+        setBox(nodeBoxes, node, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+        double[] boxes = nodeLevels[node] == 0 ? itemBoxes : nodeBoxes;
+        int offset = node * (maxEntries + 1);
+        for (int e = offset, end = offset + nodeSizes[node]; e < end; e++) {
+            includeBox(nodeBoxes, node, boxes, nodeEntries[e]);
+        }
+    }
+
+    private static void setBox(@NonNull double[] boxes, int index, double minX, double minY, double maxX, double maxY) {
+        int pos = index * 4;
+        boxes[pos] = minX;
+        boxes[pos + 1] = minY;
+        boxes[pos + 2] = maxX;
+        boxes[pos + 3] = maxY;
+    }
+
+    private static void includeBox(@NonNull double[] boxes, int index, @NonNull double[] otherBoxes, int other) {
+        int pos = index * 4, opos = other * 4;
+        boxes[pos] = Math.min(boxes[pos], otherBoxes[opos]);
+        boxes[pos + 1] = Math.min(boxes[pos + 1], otherBoxes[opos + 1]);
+        boxes[pos + 2] = Math.max(boxes[pos + 2], otherBoxes[opos + 2]);
+        boxes[pos + 3] = Math.max(boxes[pos + 3], otherBoxes[opos + 3]);
+    }
+
+    private static boolean containsBox(@NonNull double[] boxes, int index, @NonNull double[] otherBoxes, int other) {
+        int pos = index * 4, opos = other * 4;
+        return boxes[pos] <= otherBoxes[opos] && boxes[pos + 1] <= otherBoxes[opos + 1]
+                && otherBoxes[opos + 2] <= boxes[pos + 2] && otherBoxes[opos + 3] <= boxes[pos + 3];
+    }
+
+    private static double area(double minX, double minY, double maxX, double maxY) {
+        return (maxX - minX) * (maxY - minY);
+    }
+
+    private static double margin(@NonNull double[] boxes, int index) {
+        int pos = index * 4;
+        return (boxes[pos + 2] - boxes[pos]) + (boxes[pos + 3] - boxes[pos + 1]);
+    }
+
+    private static double overlap(double minX, double minY, double maxX, double maxY, @NonNull double[] boxes, int pos) {
+        double w = Math.min(maxX, boxes[pos + 2]) - Math.max(minX, boxes[pos]);
+        double h = Math.min(maxY, boxes[pos + 3]) - Math.max(minY, boxes[pos + 1]);
+        return w > 0.0 && h > 0.0 ? w * h : 0.0;
+    }
+}
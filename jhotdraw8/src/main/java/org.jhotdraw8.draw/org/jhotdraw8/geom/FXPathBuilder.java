@@ -22,7 +22,7 @@ import java.util.List;
  *
  * @author Werner Randelshofer
  */
-public class FXPathBuilder extends AbstractPathBuilder {
+public class FXPathBuilder extends AbstractPathBuilder<Path> {
     public static final ClosePath CLOSE_PATH = new ClosePath();
 
     public FXPathBuilder() {
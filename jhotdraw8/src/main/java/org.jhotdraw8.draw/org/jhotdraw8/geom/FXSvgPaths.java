@@ -17,12 +17,9 @@ import javafx.scene.shape.PathElement;
 import javafx.scene.shape.QuadCurveTo;
 import javafx.scene.shape.VLineTo;
 import org.jhotdraw8.annotation.NonNull;
-import org.jhotdraw8.io.StreamPosTokenizer;
 import org.jhotdraw8.text.NumberConverter;
 import org.jhotdraw8.xml.text.XmlNumberConverter;
 
-import java.io.IOException;
-import java.io.StringReader;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
@@ -241,349 +238,274 @@ private FXSvgPaths() {
     }
 
     /**
-     * This parser preserves more of the semantics than {@link SvgPaths#buildFromSvgString(PathBuilder, String)},
+     * This parser preserves more of the semantics than {@link SvgPaths#buildFromSvgString(PathBuilder, CharSequence)},
      * because {@link PathBuilder} does not understand relative path commands
      * and horizontal and vertical lineto commands.
      */
     public static @NonNull List<PathElement> fxPathElementsFromSvgString(@NonNull String str) throws ParseException {
         List<PathElement> builder = new ArrayList<>();
-        try {
+        SvgPathScanner scanner = new SvgPathScanner(str);
+        char next = 'M';
+        char command = 'M';
+        double x = 0, y = 0; // current point
+        double cx1 = 0, cy1 = 0, cx2 = 0, cy2 = 0;// control points
+        double ix = 0, iy = 0; // initial point of subpath
+        Commands:
+        while (scanner.hasNext()) {
+            double px = x, py = y; // previous points
+            command = scanner.nextCommand(next);
 
-            StreamPosTokenizer tt = new StreamPosTokenizer(new StringReader(str));
-            tt.resetSyntax();
-            tt.parseNumbers();
-            tt.parseExponents();
-            tt.parsePlusAsNumber();
-            tt.whitespaceChars(0, ' ');
-            tt.whitespaceChars(',', ',');
+            switch (command) {
+                case 'M':
+                    x = scanner.nextNumber("x coordinate missing for 'M'");
+                    y = scanner.nextNumber("y coordinate missing for 'M'");
+                    builder.add(new MoveTo(x, y));
+                    next = 'L';
+                    ix = cx2 = cx1 = x;
+                    iy = cy2 = cy1 = y;
+                    break;
+                case 'm':
+                    // relative-moveto dx dy
+                    x = scanner.nextNumber("dx coordinate missing for 'm'");
+                    y = scanner.nextNumber("dy coordinate missing for 'm'");
+                    MoveTo moveTo = new MoveTo(x, y);
+                    moveTo.setAbsolute(false);
+                    builder.add(moveTo);
+                    next = 'l';
+                    ix = cx2 = cx1 = x += px;
+                    iy = cy2 = cy1 = y += px;
 
-            char next = 'M';
-            char command = 'M';
-            double x = 0, y = 0; // current point
-            double cx1 = 0, cy1 = 0, cx2 = 0, cy2 = 0;// control points
-            double ix = 0, iy = 0; // initial point of subpath
-            Commands:
-            while (tt.nextToken() != StreamPosTokenizer.TT_EOF) {
-                double px = x, py = y; // previous points
-                if (tt.ttype > 0) {
-                    command = (char) tt.ttype;
-                } else {
-                    command = next;
-                    tt.pushBack();
-                }
-
-                switch (command) {
-                    case 'M':
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'M'");
-                        x = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'M'");
-                        y = tt.nval;
-                        builder.add(new MoveTo(x, y));
-                        next = 'L';
-                        ix = cx2 = cx1 = x;
-                        iy = cy2 = cy1 = y;
-                        break;
-                    case 'm':
-                        // relative-moveto dx dy
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx coordinate missing for 'm'");
-                        x = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy coordinate missing for 'm'");
-                        y = tt.nval;
-                        MoveTo moveTo = new MoveTo(x, y);
-                        moveTo.setAbsolute(false);
-                        builder.add(moveTo);
-                        next = 'l';
-                        ix = cx2 = cx1 = x += px;
-                        iy = cy2 = cy1 = y += px;
-
-                        break;
-                    case 'Z':
-                        // close path
-                        builder.add(new ClosePath());
-                        next = 'Z';
-                        cx2 = cx1 = x = ix;
-                        cy2 = cy1 = y = iy;
-                        break;
-                    case 'z':
-                        // close path
-                        ClosePath closePath = new ClosePath();
-                        closePath.setAbsolute(false);
-                        builder.add(closePath);
-                        next = 'z';
-                        cx2 = cx1 = x = ix;
-                        cy2 = cy1 = y = iy;
-                        break;
-                    case 'L':
-                        // absolute-lineto x y
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'L'");
-                        x = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'L'");
-                        y = tt.nval;
-                        builder.add(new LineTo(x, y));
-                        next = 'L';
-                        cx2 = cx1 = x;
-                        cy2 = cy1 = y;
-                        break;
-                    case 'l':
-                        // relative-lineto dx dy
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx coordinate missing for 'l'");
-                        x = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy coordinate missing for 'l'");
-                        y = tt.nval;
-                        LineTo lineTo = new LineTo(x, y);
-                        lineTo.setAbsolute(false);
-                        builder.add(lineTo);
-                        next = 'l';
-                        cx2 = cx1 = x += px;
-                        cy2 = cy1 = y += px;
+                    break;
+                case 'Z':
+                    // close path
+                    builder.add(new ClosePath());
+                    next = 'Z';
+                    cx2 = cx1 = x = ix;
+                    cy2 = cy1 = y = iy;
+                    break;
+                case 'z':
+                    // close path
+                    ClosePath closePath = new ClosePath();
+                    closePath.setAbsolute(false);
+                    builder.add(closePath);
+                    next = 'z';
+                    cx2 = cx1 = x = ix;
+                    cy2 = cy1 = y = iy;
+                    break;
+                case 'L':
+                    // absolute-lineto x y
+                    x = scanner.nextNumber("x coordinate missing for 'L'");
+                    y = scanner.nextNumber("y coordinate missing for 'L'");
+                    builder.add(new LineTo(x, y));
+                    next = 'L';
+                    cx2 = cx1 = x;
+                    cy2 = cy1 = y;
+                    break;
+                case 'l':
+                    // relative-lineto dx dy
+                    x = scanner.nextNumber("dx coordinate missing for 'l'");
+                    y = scanner.nextNumber("dy coordinate missing for 'l'");
+                    LineTo lineTo = new LineTo(x, y);
+                    lineTo.setAbsolute(false);
+                    builder.add(lineTo);
+                    next = 'l';
+                    cx2 = cx1 = x += px;
+                    cy2 = cy1 = y += px;
 
-                        break;
-                    case 'H':
-                        // absolute-horizontal-lineto x
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'H'");
-                        x = tt.nval;
-                        builder.add(new HLineTo(x));
-                        next = 'H';
-                        cx2 = cx1 = x;
-                        cy2 = cy1 = y;
-                        break;
-                    case 'h':
-                        // relative-horizontal-lineto dx
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx coordinate missing for 'h'");
-                        x = tt.nval;
-                        HLineTo hLineTo = new HLineTo(x);
-                        hLineTo.setAbsolute(false);
-                        builder.add(hLineTo);
-                        next = 'h';
-                        cx2 = cy1 = x += px;
-                        cy2 = cy1 = y;
-                        break;
-                    case 'V':
-                        // absolute-vertical-lineto y
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'V'");
-                        y = tt.nval;
-                        builder.add(new VLineTo(y));
-                        next = 'V';
-                        cx2 = cx1 = x;
-                        cy2 = cy1 = y;
-                        break;
-                    case 'v':
-                        // relative-vertical-lineto dy
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy coordinate missing for 'v'");
-                        y = tt.nval;
-                        VLineTo vLineTo = new VLineTo(y);
-                        vLineTo.setAbsolute(false);
-                        builder.add(vLineTo);
-                        next = 'v';
-                        cx2 = cy1 = x;
-                        cy2 += cy1 = y += py;
-                        break;
-                    case 'C':
-                        // absolute-curveto x1 y1 x2 y2 x y
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x1 coordinate missing for 'C'");
-                        cx1 = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y1 coordinate missing for 'C'");
-                        cy1 = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x2 coordinate missing for 'C'");
-                        cx2 = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y2 coordinate missing for 'C'");
-                        cy2 = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'C'");
-                        x = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'C'");
-                        y = tt.nval;
-                        builder.add(new CubicCurveTo(cx1, cy1, cx2, cy2, x, y));
-                        next = 'C';
-                        break;
+                    break;
+                case 'H':
+                    // absolute-horizontal-lineto x
+                    x = scanner.nextNumber("x coordinate missing for 'H'");
+                    builder.add(new HLineTo(x));
+                    next = 'H';
+                    cx2 = cx1 = x;
+                    cy2 = cy1 = y;
+                    break;
+                case 'h':
+                    // relative-horizontal-lineto dx
+                    x = scanner.nextNumber("dx coordinate missing for 'h'");
+                    HLineTo hLineTo = new HLineTo(x);
+                    hLineTo.setAbsolute(false);
+                    builder.add(hLineTo);
+                    next = 'h';
+                    cx2 = cy1 = x += px;
+                    cy2 = cy1 = y;
+                    break;
+                case 'V':
+                    // absolute-vertical-lineto y
+                    y = scanner.nextNumber("y coordinate missing for 'V'");
+                    builder.add(new VLineTo(y));
+                    next = 'V';
+                    cx2 = cx1 = x;
+                    cy2 = cy1 = y;
+                    break;
+                case 'v':
+                    // relative-vertical-lineto dy
+                    y = scanner.nextNumber("dy coordinate missing for 'v'");
+                    VLineTo vLineTo = new VLineTo(y);
+                    vLineTo.setAbsolute(false);
+                    builder.add(vLineTo);
+                    next = 'v';
+                    cx2 = cy1 = x;
+                    cy2 += cy1 = y += py;
+                    break;
+                case 'C':
+                    // absolute-curveto x1 y1 x2 y2 x y
+                    cx1 = scanner.nextNumber("x1 coordinate missing for 'C'");
+                    cy1 = scanner.nextNumber("y1 coordinate missing for 'C'");
+                    cx2 = scanner.nextNumber("x2 coordinate missing for 'C'");
+                    cy2 = scanner.nextNumber("y2 coordinate missing for 'C'");
+                    x = scanner.nextNumber("x coordinate missing for 'C'");
+                    y = scanner.nextNumber("y coordinate missing for 'C'");
+                    builder.add(new CubicCurveTo(cx1, cy1, cx2, cy2, x, y));
+                    next = 'C';
+                    break;
 
-                    case 'c':
-                        // relative-curveto dx1 dy1 dx2 dy2 dx dy
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx1 coordinate missing for 'c'");
-                        cx1 = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy1 coordinate missing for 'c'");
-                        cy1 = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx2 coordinate missing for 'c'");
-                        cx2 = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy2 coordinate missing for 'c'");
-                        cy2 = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx coordinate missing for 'c'");
-                        x = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy coordinate missing for 'c'");
-                        y = tt.nval;
-                        CubicCurveTo cubi = new CubicCurveTo(cx1, cy1, cx2, cy2, x, y);
-                        cubi.setAbsolute(false);
-                        builder.add(cubi);
-                        next = 'c';
-                        cx1 += px;
-                        cy1 += py;
-                        cx2 += px;
-                        cy2 += py;
-                        x += py;
-                        y += py;
-                        break;
+                case 'c':
+                    // relative-curveto dx1 dy1 dx2 dy2 dx dy
+                    cx1 = scanner.nextNumber("dx1 coordinate missing for 'c'");
+                    cy1 = scanner.nextNumber("dy1 coordinate missing for 'c'");
+                    cx2 = scanner.nextNumber("dx2 coordinate missing for 'c'");
+                    cy2 = scanner.nextNumber("dy2 coordinate missing for 'c'");
+                    x = scanner.nextNumber("dx coordinate missing for 'c'");
+                    y = scanner.nextNumber("dy coordinate missing for 'c'");
+                    CubicCurveTo cubi = new CubicCurveTo(cx1, cy1, cx2, cy2, x, y);
+                    cubi.setAbsolute(false);
+                    builder.add(cubi);
+                    next = 'c';
+                    cx1 += px;
+                    cy1 += py;
+                    cx2 += px;
+                    cy2 += py;
+                    x += py;
+                    y += py;
+                    break;
 
-                    case 'S':
-                        // absolute-shorthand-curveto x2 y2 x y
-                        cx1 = x - cx2 + x;
-                        cy1 = x - cy2 + y;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x2 coordinate missing for 'S'");
-                        cx2 = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y2 coordinate missing for 'S'");
-                        cy2 = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'S'");
-                        x = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'S'");
-                        y = tt.nval;
-                        builder.add(new CubicCurveTo(cx1, cy1, cx2, cy2, x, y));
-                        next = 'S';
-                        break;
+                case 'S':
+                    // absolute-shorthand-curveto x2 y2 x y
+                    cx1 = x - cx2 + x;
+                    cy1 = x - cy2 + y;
+                    cx2 = scanner.nextNumber("x2 coordinate missing for 'S'");
+                    cy2 = scanner.nextNumber("y2 coordinate missing for 'S'");
+                    x = scanner.nextNumber("x coordinate missing for 'S'");
+                    y = scanner.nextNumber("y coordinate missing for 'S'");
+                    builder.add(new CubicCurveTo(cx1, cy1, cx2, cy2, x, y));
+                    next = 'S';
+                    break;
 
-                    case 's':
-                        // relative-shorthand-curveto dx2 dy2 dx dy
-                        cx1 = x - cx2;
-                        cy1 = x - cy2;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx2 coordinate missing for 's'");
-                        cx2 = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy2 coordinate missing for 's'");
-                        cy2 = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx coordinate missing for 's'");
-                        x += tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy coordinate missing for 's'");
-                        y += tt.nval;
-                        CubicCurveTo smoothCurveTo = new CubicCurveTo(cx1, cy1, cx2, cy2, x, y);
-                        smoothCurveTo.setAbsolute(false);
-                        builder.add(smoothCurveTo);
-                        next = 's';
-                        cx1 += px;
-                        cy1 += px;
-                        cx2 += px;
-                        cy2 += px;
-                        x += px;
-                        y += py;
-                        break;
+                case 's':
+                    // relative-shorthand-curveto dx2 dy2 dx dy
+                    cx1 = x - cx2;
+                    cy1 = x - cy2;
+                    cx2 = scanner.nextNumber("dx2 coordinate missing for 's'");
+                    cy2 = scanner.nextNumber("dy2 coordinate missing for 's'");
+                    x += scanner.nextNumber("dx coordinate missing for 's'");
+                    y += scanner.nextNumber("dy coordinate missing for 's'");
+                    CubicCurveTo smoothCurveTo = new CubicCurveTo(cx1, cy1, cx2, cy2, x, y);
+                    smoothCurveTo.setAbsolute(false);
+                    builder.add(smoothCurveTo);
+                    next = 's';
+                    cx1 += px;
+                    cy1 += px;
+                    cx2 += px;
+                    cy2 += px;
+                    x += px;
+                    y += py;
+                    break;
 
-                    case 'Q':
-                        // absolute-quadto x1 y1 x y
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x1 coordinate missing for 'Q'");
-                        cx1 = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y1 coordinate missing for 'Q'");
-                        cy1 = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'Q'");
-                        x = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'Q'");
-                        y = tt.nval;
-                        builder.add(new QuadCurveTo(cx1, cy1, x, y));
-                        next = 'Q';
-                        cx2 = x;
-                        cy2 = y;
-                        break;
+                case 'Q':
+                    // absolute-quadto x1 y1 x y
+                    cx1 = scanner.nextNumber("x1 coordinate missing for 'Q'");
+                    cy1 = scanner.nextNumber("y1 coordinate missing for 'Q'");
+                    x = scanner.nextNumber("x coordinate missing for 'Q'");
+                    y = scanner.nextNumber("y coordinate missing for 'Q'");
+                    builder.add(new QuadCurveTo(cx1, cy1, x, y));
+                    next = 'Q';
+                    cx2 = x;
+                    cy2 = y;
+                    break;
 
-                    case 'q':
-                        // relative-quadto dx1 dy1 dx dy
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx1 coordinate missing for 'q'");
-                        cx1 = x + tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy1 coordinate missing for 'q'");
-                        cy1 = y + tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx coordinate missing for 'q'");
-                        x = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy coordinate missing for 'q'");
-                        y = tt.nval;
-                        QuadCurveTo quadCurveTo = new QuadCurveTo(cx1, cy1, x, y);
-                        quadCurveTo.setAbsolute(false);
-                        builder.add(quadCurveTo);
-                        next = 'q';
-                        cx2 = x;
-                        cy2 = y;
-                        break;
-                    case 'T':
-                        // absolute-shorthand-quadto x y
-                        cx1 = x - cx1 + x;
-                        cy1 = x - cy1 + y;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'T'");
-                        x = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'T'");
-                        y = tt.nval;
-                        builder.add(new QuadCurveTo(cx1, cy1, x, y));
-                        next = 'T';
-                        cx2 = x;
-                        cy2 = y;
-                        break;
+                case 'q':
+                    // relative-quadto dx1 dy1 dx dy
+                    cx1 = x + scanner.nextNumber("dx1 coordinate missing for 'q'");
+                    cy1 = y + scanner.nextNumber("dy1 coordinate missing for 'q'");
+                    x = scanner.nextNumber("dx coordinate missing for 'q'");
+                    y = scanner.nextNumber("dy coordinate missing for 'q'");
+                    QuadCurveTo quadCurveTo = new QuadCurveTo(cx1, cy1, x, y);
+                    quadCurveTo.setAbsolute(false);
+                    builder.add(quadCurveTo);
+                    next = 'q';
+                    cx2 = x;
+                    cy2 = y;
+                    break;
+                case 'T':
+                    // absolute-shorthand-quadto x y
+                    cx1 = x - cx1 + x;
+                    cy1 = x - cy1 + y;
+                    x = scanner.nextNumber("x coordinate missing for 'T'");
+                    y = scanner.nextNumber("y coordinate missing for 'T'");
+                    builder.add(new QuadCurveTo(cx1, cy1, x, y));
+                    next = 'T';
+                    cx2 = x;
+                    cy2 = y;
+                    break;
 
-                    case 't':
-                        // relative-shorthand-quadto dx dy
-                        cx1 = x - cx1;
-                        cy1 = x - cy1;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx coordinate missing for 't'");
-                        x = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy coordinate missing for 't'");
-                        y = tt.nval;
-                        QuadCurveTo smoothQuadCurveTo = new QuadCurveTo(cx1, cy1, x, y);
-                        smoothQuadCurveTo.setAbsolute(false);
-                        builder.add(smoothQuadCurveTo);
-                        next = 's';
-                        cx1 += px;
-                        cy1 += px;
-                        cx2 = x += px;
-                        cy2 = y += px;
-                        break;
+                case 't':
+                    // relative-shorthand-quadto dx dy
+                    cx1 = x - cx1;
+                    cy1 = x - cy1;
+                    x = scanner.nextNumber("dx coordinate missing for 't'");
+                    y = scanner.nextNumber("dy coordinate missing for 't'");
+                    QuadCurveTo smoothQuadCurveTo = new QuadCurveTo(cx1, cy1, x, y);
+                    smoothQuadCurveTo.setAbsolute(false);
+                    builder.add(smoothQuadCurveTo);
+                    next = 't';
+                    cx1 += px;
+                    cy1 += px;
+                    cx2 = x += px;
+                    cy2 = y += px;
+                    break;
 
-                    case 'A': {
-                        // absolute-elliptical-arc rx ry x-axis-rotation large-arc-flag sweep-flag x y
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "rx coordinate missing for 'A'");
-                        // If rX or rY have negative signs, these are dropped;
-                        // the absolute value is used instead.
-                        double rx = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "ry coordinate missing for 'A'");
-                        double ry = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x-axis-rotation missing for 'A'");
-                        double xAxisRotation = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "large-arc-flag missing for 'A'");
-                        boolean largeArcFlag = tt.nval != 0;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "sweep-flag missing for 'A'");
-                        boolean sweepFlag = tt.nval != 0;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'A'");
-                        x = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'A'");
-                        y = tt.nval;
+                case 'A': {
+                    // absolute-elliptical-arc rx ry x-axis-rotation large-arc-flag sweep-flag x y
+                    // If rX or rY have negative signs, these are dropped;
+                    // the absolute value is used instead.
+                    double rx = scanner.nextNumber("rx coordinate missing for 'A'");
+                    double ry = scanner.nextNumber("ry coordinate missing for 'A'");
+                    double xAxisRotation = scanner.nextNumber("x-axis-rotation missing for 'A'");
+                    boolean largeArcFlag = scanner.nextFlag("large-arc-flag missing for 'A'");
+                    boolean sweepFlag = scanner.nextFlag("sweep-flag missing for 'A'");
+                    x = scanner.nextNumber("x coordinate missing for 'A'");
+                    y = scanner.nextNumber("y coordinate missing for 'A'");
 
-                        builder.add(new ArcTo(rx, ry, xAxisRotation, x, y, largeArcFlag, sweepFlag));
-                        next = 'A';
-                        cx2 = cx1 = x;
-                        cy2 = cy1 = y;
-                        break;
-                    }
-                    case 'a': {
-                        // relative-elliptical-arc rx ry x-axis-rotation large-arc-flag sweep-flag x y
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "rx coordinate missing for 'A'");
-                        // If rX or rY have negative signs, these are dropped;
-                        // the absolute value is used instead.
-                        double rx = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "ry coordinate missing for 'A'");
-                        double ry = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x-axis-rotation missing for 'A'");
-                        double xAxisRotation = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "large-arc-flag missing for 'A'");
-                        boolean largeArcFlag = tt.nval != 0;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "sweep-flag missing for 'A'");
-                        boolean sweepFlag = tt.nval != 0;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'A'");
-                        x = tt.nval;
-                        tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'A'");
-                        y = tt.nval;
-                        ArcTo arcTo = new ArcTo(rx, ry, xAxisRotation, x, y, largeArcFlag, sweepFlag);
-                        arcTo.setAbsolute(false);
-                        builder.add(arcTo);
-                        cx2 = cx1 = x += px;
-                        cy2 = cy1 = y += py;
-                        next = 'a';
-                        break;
-                    }
-                    default:
-                        throw tt.createException("Illegal command: " + command);
+                    builder.add(new ArcTo(rx, ry, xAxisRotation, x, y, largeArcFlag, sweepFlag));
+                    next = 'A';
+                    cx2 = cx1 = x;
+                    cy2 = cy1 = y;
+                    break;
+                }
+                case 'a': {
+                    // relative-elliptical-arc rx ry x-axis-rotation large-arc-flag sweep-flag x y
+                    // If rX or rY have negative signs, these are dropped;
+                    // the absolute value is used instead.
+                    double rx = scanner.nextNumber("rx coordinate missing for 'A'");
+                    double ry = scanner.nextNumber("ry coordinate missing for 'A'");
+                    double xAxisRotation = scanner.nextNumber("x-axis-rotation missing for 'A'");
+                    boolean largeArcFlag = scanner.nextFlag("large-arc-flag missing for 'A'");
+                    boolean sweepFlag = scanner.nextFlag("sweep-flag missing for 'A'");
+                    x = scanner.nextNumber("x coordinate missing for 'A'");
+                    y = scanner.nextNumber("y coordinate missing for 'A'");
+                    ArcTo arcTo = new ArcTo(rx, ry, xAxisRotation, x, y, largeArcFlag, sweepFlag);
+                    arcTo.setAbsolute(false);
+                    builder.add(arcTo);
+                    cx2 = cx1 = x += px;
+                    cy2 = cy1 = y += py;
+                    next = 'a';
+                    break;
                 }
+                default:
+                    throw scanner.createException("Illegal command: " + command);
             }
-        } catch (IOException e) {
-            // suppress exception
         }
 
         return builder;
@@ -602,7 +524,7 @@ private FXSvgPaths() {
         builder.pathDone();
     }
 
-    public static @NonNull <T extends PathBuilder> T buildFromFXPathElements(@NonNull T builder, @NonNull List<PathElement> pathElements) {
+    public static @NonNull <T extends PathBuilder<?>> T buildFromFXPathElements(@NonNull T builder, @NonNull List<PathElement> pathElements) {
         double x = 0;
         double y = 0;
         double ix = 0, iy = 0;
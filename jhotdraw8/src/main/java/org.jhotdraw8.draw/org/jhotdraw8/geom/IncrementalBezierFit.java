@@ -0,0 +1,163 @@
+/*
+ * @(#)IncrementalBezierFit.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom;
+
+import org.jhotdraw8.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Fits a bezier path to digitized points, while the points arrive one
+ * after the other, for example from a pointing device.
+ * <p>
+ * The digitized points are split into segments at corner points. As soon
+ * as a corner point is detected, the segment that ends at the corner point
+ * is fitted and added to the builder. Only the points of the current
+ * segment are kept. The remaining segment is fitted when {@link #finish()}
+ * is called.
+ * <p>
+ * The resulting path is the same as with
+ * {@link BezierFit#fitBezierPath(PathBuilder, org.jhotdraw8.collection.DoubleArrayList, double)}.
+ *
+ * @author Werner Randelshofer
+ */
+public class IncrementalBezierFit {
+    private final @NonNull PathBuilder<?> builder;
+    private final double error;
+    private final double squaredDistance;
+    /**
+     * The points of the current segment, with the x and y coordinates of
+     * each point interleaved. The first point is the corner point at which
+     * the segment starts, or the first digitized point.
+     */
+    private @NonNull double[] points = new double[64];
+    /**
+     * The number of points of the current segment.
+     */
+    private int size;
+    /**
+     * Index of the next point that has to be checked for a corner.
+     */
+    private int candidate = 1;
+    /**
+     * Index of the preceding point of the candidate, -2 if it has not been
+     * searched yet.
+     */
+    private int candidatePredecessor = -2;
+    /**
+     * Index at which the search for a succeeding point of the candidate
+     * continues.
+     */
+    private int successorSearch = 2;
+    /**
+     * Index of the previous corner, -1 if there is none.
+     */
+    private int previousCorner = -1;
+    private boolean finished;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param builder the builder for the bezier path
+     * @param error   the maximal allowed error between the bezier path and the
+     *                digitized points.
+     */
+    public IncrementalBezierFit(@NonNull PathBuilder<?> builder, double error) {
+        this.builder = builder;
+        this.error = error;
+        double minDistance = error * error;
+        this.squaredDistance = minDistance * minDistance;
+    }
+
+    /**
+     * Adds a digitized point.
+     * <p>
+     * If the point completes a corner point, then the segment that ends at
+     * the corner point is fitted and added to the builder.
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @throws IllegalStateException if {@link #finish()} has been called
+     */
+    public void addPoint(double x, double y) {
+        if (finished) {
+            throw new IllegalStateException("The fit is finished.");
+        }
+        if (size * 2 == points.length) {
+            points = Arrays.copyOf(points, points.length * 2);
+        }
+        points[size * 2] = x;
+        points[size * 2 + 1] = y;
+        size++;
+        findCorners(false);
+    }
+
+    /**
+     * Fits the remaining segment and adds it to the builder.
+     * <p>
+     * This method has no effect if it has already been called.
+     */
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        findCorners(true);
+        if (size > 0) {
+            BezierFit.fitSegment(builder, points, 0, size - 1, error, previousCorner == -1);
+        }
+    }
+
+    /**
+     * Returns the number of digitized points that have not been fitted yet.
+     *
+     * @return the number of points of the current segment
+     */
+    public int getPendingPointCount() {
+        return size;
+    }
+
+    /**
+     * Checks the points for corners in the same order as
+     * {@link BezierFit#findCorners}. A point can only be decided when a
+     * succeeding point far enough away has arrived, and all points after
+     * it have to wait until it is decided.
+     *
+     * @param done whether all points have arrived
+     */
+    private void findCorners(boolean done) {
+        while (candidate < size - 1) {
+            if (candidatePredecessor == -2) {
+                candidatePredecessor = BezierFit.findCornerPredecessor(points, candidate, previousCorner, squaredDistance);
+            }
+            if (candidatePredecessor != -1) {
+                int next = BezierFit.findCornerSuccessor(points, candidate, successorSearch, size, squaredDistance);
+                if (next == -1 && !done) {
+                    successorSearch = size;
+                    return;
+                }
+                if (next != -1 && BezierFit.isCorner(points, candidatePredecessor, candidate, next, BezierFit.CORNER_ANGLE)) {
+                    fitCornerSegment();
+                }
+            }
+            candidate++;
+            candidatePredecessor = -2;
+            successorSearch = candidate + 1;
+        }
+    }
+
+    /**
+     * Fits the segment that ends at the candidate, and removes its points
+     * except for the candidate, which becomes the start point of the next
+     * segment.
+     */
+    private void fitCornerSegment() {
+        BezierFit.fitSegment(builder, points, 0, candidate, error, previousCorner == -1);
+        System.arraycopy(points, candidate * 2, points, 0, (size - candidate) * 2);
+        size -= candidate;
+        candidate = 0;
+        previousCorner = 0;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * @(#)ShortSegmentsThinningPathBuilder.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.geom;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+
+/**
+ * Thins out runs of lineTo, quadTo and curveTo segments that are shorter
+ * than epsilon.
+ * <p>
+ * Unlike {@link ShortSegmentsSkipperPathBuilder}, the distance is measured
+ * from the end of the last segment that was not skipped, so that a run of
+ * short segments is reduced to segments of at least epsilon instead of
+ * being dropped entirely. If segments were skipped at the end of a
+ * subpath, a lineTo to the end of the subpath is added, so that the
+ * subpath keeps its extent.
+ *
+ * @author Werner Randelshofer
+ */
+public class ShortSegmentsThinningPathBuilder<T> extends AbstractPathBuilder<T> {
+
+    private final @NonNull PathBuilder<T> consumer;
+
+    /**
+     * Squared Epsilon for determining whether a segment is short.
+     */
+    private final double squaredEpsilon;
+    /**
+     * The end point of the last segment that was passed on to the consumer.
+     */
+    private double emittedX, emittedY;
+    /**
+     * Whether segments were skipped after the last segment that was passed
+     * on to the consumer.
+     */
+    private boolean skipped;
+
+    public ShortSegmentsThinningPathBuilder(@NonNull PathBuilder<T> consumer, double epsilon) {
+        this.consumer = consumer;
+        this.squaredEpsilon = epsilon * epsilon;
+    }
+
+    @Override
+    protected void doArcTo(double radiusX, double radiusY, double xAxisRotation, double x, double y, boolean largeArcFlag, boolean sweepFlag) {
+        if (shouldntSkip(x, y)) {
+            consumer.arcTo(radiusX, radiusY, xAxisRotation, x, y, largeArcFlag, sweepFlag);
+        }
+    }
+
+    @Override
+    protected void doClosePath() {
+        flushSkipped();
+        consumer.closePath();
+    }
+
+    @Override
+    protected void doPathDone() {
+        flushSkipped();
+        consumer.pathDone();
+    }
+
+    @Override
+    protected void doCurveTo(double x1, double y1, double x2, double y2, double x, double y) {
+        if (shouldntSkip(x, y)) {
+            consumer.curveTo(x1, y1, x2, y2, x, y);
+        }
+    }
+
+    @Override
+    protected void doLineTo(double x, double y) {
+        if (shouldntSkip(x, y)) {
+            consumer.lineTo(x, y);
+        }
+    }
+
+    @Override
+    protected void doMoveTo(double x, double y) {
+        flushSkipped();
+        consumer.moveTo(x, y);
+        emittedX = x;
+        emittedY = y;
+    }
+
+    @Override
+    protected void doQuadTo(double x1, double y1, double x, double y) {
+        if (shouldntSkip(x, y)) {
+            consumer.quadTo(x1, y1, x, y);
+        }
+    }
+
+    private boolean shouldntSkip(double x, double y) {
+        if (Geom.squaredDistance(emittedX, emittedY, x, y) >= squaredEpsilon) {
+            emittedX = x;
+            emittedY = y;
+            skipped = false;
+            return true;
+        }
+        skipped = true;
+        return false;
+    }
+
+    private void flushSkipped() {
+        if (skipped) {
+            skipped = false;
+            double x = getLastX(), y = getLastY();
+            if (x != emittedX || y != emittedY) {
+                consumer.lineTo(x, y);
+                emittedX = x;
+                emittedY = y;
+            }
+        }
+    }
+
+    @Override
+    public @Nullable T build() {
+        return consumer.build();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * @(#)SpatialIndex.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom;
+
+import org.jhotdraw8.annotation.NonNull;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Spatial index for quickly finding elements by their axis-aligned
+ * bounding boxes.
+ * <p>
+ * Elements are identified by an int index. The spatial index does not
+ * store the elements themselves, callers keep them in an array or a list
+ * and look them up by index.
+ * <p>
+ * Queries report their results to visitors which receive primitive
+ * values, so that a query does not allocate objects for its results.
+ *
+ * @author Werner Randelshofer
+ */
+public interface SpatialIndex {
+    /**
+     * Returns the number of elements in the spatial index.
+     *
+     * @return the number of elements
+     */
+    int size();
+
+    /**
+     * Queries the spatial index, invoking a visitor function for each index
+     * whose bounding box intersects the bounding box given. If the visitor
+     * returns false the query stops early, otherwise the query continues.
+     *
+     * @param minX    min x of the query box
+     * @param minY    min y of the query box
+     * @param maxX    max x of the query box
+     * @param maxY    max y of the query box
+     * @param visitor the visitor
+     */
+    void visitQuery(double minX, double minY, double maxX, double maxY, @NonNull IntPredicate visitor);
+
+    /**
+     * Queries the spatial index for the elements that are nearest to the
+     * given point, invoking a visitor function for each index in order of
+     * increasing distance. The distance is measured from the point to the
+     * bounding box of the element, it is 0 if the point is inside the box.
+     * <p>
+     * The query stops after {@code k} elements have been visited, or if the
+     * visitor returns false.
+     *
+     * @param x           x of the point
+     * @param y           y of the point
+     * @param k           the maximal number of elements to visit
+     * @param maxDistance elements that are farther away are not visited
+     * @param visitor     the visitor
+     */
+    void visitNearest(double x, double y, int k, double maxDistance, @NonNull DistanceVisitor visitor);
+
+    /**
+     * Returns the squared distance from point (x,y) to the box
+     * (minX,minY,maxX,maxY).
+     */
+    static double squaredDistanceToBox(double x, double y, double minX, double minY, double maxX, double maxY) {
+        double dx = x < minX ? minX - x : (x > maxX ? x - maxX : 0.0);
+        double dy = y < minY ? minY - y : (y > maxY ? y - maxY : 0.0);
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Visitor for {@link #visitNearest}.
+     */
+    @FunctionalInterface
+    interface DistanceVisitor {
+        /**
+         * Visits an element.
+         *
+         * @param index      the index of the element
+         * @param distanceSq the squared distance of the element
+         * @return true if the query shall continue
+         */
+        boolean visit(int index, double distanceSq);
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * @(#)SvgPathScanner.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom;
+
+import org.jhotdraw8.annotation.NonNull;
+
+import java.nio.CharBuffer;
+import java.text.ParseException;
+
+/**
+ * Scans the tokens of SVG path data.
+ * <p>
+ * The scanner reads directly from a {@link CharSequence}, and parses
+ * numbers without creating intermediate strings. It supports the compact
+ * number syntax of SVG path data, where numbers are not separated if the
+ * second number starts with a sign or a decimal point ({@code 1.5.5} is
+ * {@code 1.5 0.5}, {@code -1-2} is {@code -1 -2}), and flags of arc
+ * commands that are not separated ({@code 11} are two flags).
+ * <p>
+ * References:
+ * <dl>
+ *     <dt>SVG 1.1, Paths, The grammar for path data</dt>
+ *     <dd><a href="https://www.w3.org/TR/SVG11/paths.html#PathDataBNF">w3.org</a></dd>
+ * </dl>
+ *
+ * @author Werner Randelshofer
+ */
+public class SvgPathScanner {
+    /**
+     * Powers of ten that can be represented exactly by a double.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    /**
+     * Maximal number of significant decimal digits that fit exactly into
+     * the 53 bits of the significand of a double.
+     */
+    private static final int MAX_FAST_DIGITS = 15;
+
+    private final @NonNull CharSequence seq;
+    private final int end;
+    private int pos;
+    private int startPos;
+
+    /**
+     * Creates a new instance that scans the specified character sequence.
+     *
+     * @param seq the SVG path data
+     */
+    public SvgPathScanner(@NonNull CharSequence seq) {
+        this.seq = seq;
+        this.end = seq.length();
+    }
+
+    /**
+     * Creates a new instance that scans the specified characters.
+     *
+     * @param chars  the SVG path data
+     * @param offset the offset of the path data in the array
+     * @param length the length of the path data
+     */
+    public SvgPathScanner(@NonNull char[] chars, int offset, int length) {
+        this(CharBuffer.wrap(chars, offset, length));
+    }
+
+    /**
+     * Skips whitespace and commas, and returns true if there are more
+     * tokens.
+     *
+     * @return true if there are more tokens
+     */
+    public boolean hasNext() {
+        skipWhitespaceAndCommas();
+        return pos < end;
+    }
+
+    /**
+     * Returns the next command. If the next token is a number, then the
+     * specified implicit command is returned, and the number is not consumed.
+     *
+     * @param implicitCommand the command that is implied by the previous command
+     * @return the command
+     * @throws ParseException if there are no more tokens
+     */
+    public char nextCommand(char implicitCommand) throws ParseException {
+        skipWhitespaceAndCommas();
+        startPos = pos;
+        if (pos >= end) {
+            throw createException("command expected");
+        }
+        char c = seq.charAt(pos);
+        if (isNumberStart(c)) {
+            return implicitCommand;
+        }
+        pos++;
+        return c;
+    }
+
+    /**
+     * Parses the next number.
+     *
+     * @param errorMessage the error message if the next token is not a number
+     * @return the number
+     * @throws ParseException if the next token is not a number
+     */
+    public double nextNumber(@NonNull String errorMessage) throws ParseException {
+        skipWhitespaceAndCommas();
+        startPos = pos;
+        boolean negative = false;
+        if (pos < end) {
+            char c = seq.charAt(pos);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                pos++;
+            }
+        }
+
+        // significand
+        long significand = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean hasDigits = false;
+        char c;
+        for (; pos < end && isDigit(c = seq.charAt(pos)); pos++) {
+            hasDigits = true;
+            if (significantDigits <= MAX_FAST_DIGITS) {
+                significand = significand * 10 + (c - '0');
+                if (significand != 0) {
+                    significantDigits++;
+                }
+            } else {
+                exponent++;
+            }
+        }
+        if (pos < end && seq.charAt(pos) == '.') {
+            pos++;
+            for (; pos < end && isDigit(c = seq.charAt(pos)); pos++) {
+                hasDigits = true;
+                if (significantDigits <= MAX_FAST_DIGITS) {
+                    significand = significand * 10 + (c - '0');
+                    if (significand != 0) {
+                        significantDigits++;
+                    }
+                    exponent--;
+                }
+            }
+        }
+        if (!hasDigits) {
+            pos = startPos;
+            throw createException(errorMessage);
+        }
+
+        // exponent
+        if (pos < end && ((c = seq.charAt(pos)) == 'e' || c == 'E')) {
+            int p = pos + 1;
+            boolean negativeExponent = false;
+            if (p < end && ((c = seq.charAt(p)) == '-' || c == '+')) {
+                negativeExponent = c == '-';
+                p++;
+            }
+            if (p < end && isDigit(seq.charAt(p))) {
+                int exp = 0;
+                for (; p < end && isDigit(c = seq.charAt(p)); p++) {
+                    if (exp < 100_000) {
+                        exp = exp * 10 + (c - '0');
+                    }
+                }
+                exponent += negativeExponent ? -exp : exp;
+                pos = p;
+            }
+        }
+
+        double value;
+        if (significand == 0) {
+            value = 0.0;
+        } else if (significantDigits <= MAX_FAST_DIGITS && -22 <= exponent && exponent <= 22) {
+            // the significand and the power of ten are exact, so a single
+            // multiplication or division yields a correctly rounded result
+            value = exponent >= 0
+                    ? significand * POWERS_OF_TEN[exponent]
+                    : significand / POWERS_OF_TEN[-exponent];
+        } else {
+            try {
+                return Double.parseDouble(seq.subSequence(startPos, pos).toString());
+            } catch (NumberFormatException e) {
+                throw createException(errorMessage);
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses the next flag. A flag is a single '0' or '1' character.
+     *
+     * @param errorMessage the error message if the next token is not a flag
+     * @return the flag
+     * @throws ParseException if the next token is not a flag
+     */
+    public boolean nextFlag(@NonNull String errorMessage) throws ParseException {
+        skipWhitespaceAndCommas();
+        startPos = pos;
+        char c = pos < end ? seq.charAt(pos) : 0;
+        if (c != '0' && c != '1') {
+            throw createException(errorMessage);
+        }
+        pos++;
+        return c == '1';
+    }
+
+    /**
+     * Returns the start position of the current token.
+     *
+     * @return the start position
+     */
+    public int getStartPosition() {
+        return startPos;
+    }
+
+    public @NonNull ParseException createException(@NonNull String errorMessage) {
+        return new ParseException(errorMessage, startPos);
+    }
+
+    private void skipWhitespaceAndCommas() {
+        char c;
+        while (pos < end && ((c = seq.charAt(pos)) <= ' ' || c == ',')) {
+            pos++;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return '0' <= c && c <= '9';
+    }
+
+    private static boolean isNumberStart(char c) {
+        return isDigit(c) || c == '-' || c == '+' || c == '.';
+    }
+}
@@ -10,7 +10,6 @@ import javafx.scene.transform.Transform;
 import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.geom.intersect.IntersectLinePoint;
-import org.jhotdraw8.io.StreamPosTokenizer;
 import org.jhotdraw8.text.NumberConverter;
 import org.jhotdraw8.xml.text.XmlNumberConverter;
 
@@ -21,8 +20,6 @@ import java.awt.geom.IllegalPathStateException;
 import java.awt.geom.Path2D;
 import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
-import java.io.IOException;
-import java.io.StringReader;
 import java.text.ParseException;
 import java.util.List;
 import java.util.logging.Logger;
@@ -43,46 +40,29 @@ public class SvgPaths {
      * @return the path builder
      * @throws ParseException if the String is not a valid path
      */
-    public static <T> @NonNull PathBuilder<T> buildFromSvgString(@NonNull PathBuilder<T> builder, @NonNull String str) throws ParseException {
-        StreamPosTokenizer tt = new StreamPosTokenizer(new StringReader(str));
+    public static <T> @NonNull PathBuilder<T> buildFromSvgString(@NonNull PathBuilder<T> builder, @NonNull CharSequence str) throws ParseException {
+        SvgPathScanner scanner = new SvgPathScanner(str);
         try {
-
-            tt.resetSyntax();
-            tt.parseNumbers();
-            tt.parseExponents();
-            tt.parsePlusAsNumber();
-            tt.whitespaceChars(0, ' ');
-            tt.whitespaceChars(',', ',');
-
             char next = 'M';
             char command = 'M';
             double x = 0, y = 0; // current point
             double cx1 = 0, cy1 = 0, cx2 = 0, cy2 = 0;// control points
             double ix = 0, iy = 0; // initial point of subpath
             Commands:
-            while (tt.nextToken() != StreamPosTokenizer.TT_EOF) {
-                if (tt.ttype > 0) {
-                    command = (char) tt.ttype;
-                } else {
-                    command = next;
-                    tt.pushBack();
-                }
+            while (scanner.hasNext()) {
+                command = scanner.nextCommand(next);
 
                 switch (command) {
                 case 'M':
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'M'");
-                    ix = x = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'M'");
-                    iy = y = tt.nval;
+                    ix = x = scanner.nextNumber("x coordinate missing for 'M'");
+                    iy = y = scanner.nextNumber("y coordinate missing for 'M'");
                     builder.moveTo(x, y);
                     next = 'L';
                     break;
                 case 'm':
                     // relative-moveto dx dy
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx coordinate missing for 'm'");
-                    ix = x += tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy coordinate missing for 'm'");
-                    iy = y += tt.nval;
+                    ix = x += scanner.nextNumber("dx coordinate missing for 'm'");
+                    iy = y += scanner.nextNumber("dy coordinate missing for 'm'");
                     builder.moveTo(x, y);
                     next = 'l';
 
@@ -96,130 +76,98 @@ public class SvgPaths {
                     break;
                 case 'L':
                     // absolute-lineto x y
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'L'");
-                    x = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'L'");
-                    y = tt.nval;
+                    x = scanner.nextNumber("x coordinate missing for 'L'");
+                    y = scanner.nextNumber("y coordinate missing for 'L'");
                     builder.lineTo(x, y);
                     next = 'L';
 
                     break;
                 case 'l':
                     // relative-lineto dx dy
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx coordinate missing for 'l'");
-                    x += tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy coordinate missing for 'l'");
-                    y += tt.nval;
+                    x += scanner.nextNumber("dx coordinate missing for 'l'");
+                    y += scanner.nextNumber("dy coordinate missing for 'l'");
                     builder.lineTo(x, y);
                     next = 'l';
 
                     break;
                 case 'H':
                     // absolute-horizontal-lineto x
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'H'");
-                    x = tt.nval;
+                    x = scanner.nextNumber("x coordinate missing for 'H'");
                     builder.lineTo(x, y);
                     next = 'H';
 
                     break;
                 case 'h':
                     // relative-horizontal-lineto dx
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx coordinate missing for 'h'");
-                    x += tt.nval;
+                    x += scanner.nextNumber("dx coordinate missing for 'h'");
                     builder.lineTo(x, y);
                     next = 'h';
 
                     break;
                 case 'V':
                     // absolute-vertical-lineto y
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'V'");
-                    y = tt.nval;
+                    y = scanner.nextNumber("y coordinate missing for 'V'");
                     builder.lineTo(x, y);
                     next = 'V';
 
                     break;
                 case 'v':
                     // relative-vertical-lineto dy
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy coordinate missing for 'v'");
-                    y += tt.nval;
+                    y += scanner.nextNumber("dy coordinate missing for 'v'");
                     builder.lineTo(x, y);
                     next = 'v';
 
                     break;
                 case 'C':
                     // absolute-curveto x1 y1 x2 y2 x y
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x1 coordinate missing for 'C'");
-                    cx1 = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y1 coordinate missing for 'C'");
-                    cy1 = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x2 coordinate missing for 'C'");
-                    cx2 = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y2 coordinate missing for 'C'");
-                    cy2 = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'C'");
-                    x = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'C'");
-                    y = tt.nval;
+                    cx1 = scanner.nextNumber("x1 coordinate missing for 'C'");
+                    cy1 = scanner.nextNumber("y1 coordinate missing for 'C'");
+                    cx2 = scanner.nextNumber("x2 coordinate missing for 'C'");
+                    cy2 = scanner.nextNumber("y2 coordinate missing for 'C'");
+                    x = scanner.nextNumber("x coordinate missing for 'C'");
+                    y = scanner.nextNumber("y coordinate missing for 'C'");
                     builder.curveTo(cx1, cy1, cx2, cy2, x, y);
                     next = 'C';
                     break;
 
                 case 'c':
                     // relative-curveto dx1 dy1 dx2 dy2 dx dy
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx1 coordinate missing for 'c'");
-                    cx1 = x + tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy1 coordinate missing for 'c'");
-                    cy1 = y + tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx2 coordinate missing for 'c'");
-                    cx2 = x + tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy2 coordinate missing for 'c'");
-                    cy2 = y + tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx coordinate missing for 'c'");
-                    x += tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy coordinate missing for 'c'");
-                    y += tt.nval;
+                    cx1 = x + scanner.nextNumber("dx1 coordinate missing for 'c'");
+                    cy1 = y + scanner.nextNumber("dy1 coordinate missing for 'c'");
+                    cx2 = x + scanner.nextNumber("dx2 coordinate missing for 'c'");
+                    cy2 = y + scanner.nextNumber("dy2 coordinate missing for 'c'");
+                    x += scanner.nextNumber("dx coordinate missing for 'c'");
+                    y += scanner.nextNumber("dy coordinate missing for 'c'");
                     builder.curveTo(cx1, cy1, cx2, cy2, x, y);
                     next = 'c';
                     break;
 
                 case 'S':
                     // absolute-shorthand-curveto x2 y2 x y
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x2 coordinate missing for 'S'");
-                    cx2 = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y2 coordinate missing for 'S'");
-                    cy2 = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'S'");
-                    x = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'S'");
-                    y = tt.nval;
+                    cx2 = scanner.nextNumber("x2 coordinate missing for 'S'");
+                    cy2 = scanner.nextNumber("y2 coordinate missing for 'S'");
+                    x = scanner.nextNumber("x coordinate missing for 'S'");
+                    y = scanner.nextNumber("y coordinate missing for 'S'");
                     builder.smoothCurveTo(cx2, cy2, x, y);
                     next = 'S';
                     break;
 
                 case 's':
                     // relative-shorthand-curveto dx2 dy2 dx dy
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx2 coordinate missing for 's'");
-                    cx2 = x + tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy2 coordinate missing for 's'");
-                    cy2 = y + tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx coordinate missing for 's'");
-                    x += tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy coordinate missing for 's'");
-                    y += tt.nval;
+                    cx2 = x + scanner.nextNumber("dx2 coordinate missing for 's'");
+                    cy2 = y + scanner.nextNumber("dy2 coordinate missing for 's'");
+                    x += scanner.nextNumber("dx coordinate missing for 's'");
+                    y += scanner.nextNumber("dy coordinate missing for 's'");
                     builder.smoothCurveTo(cx2, cy2, x, y);
                     next = 's';
                     break;
 
                 case 'Q':
                     // absolute-quadto x1 y1 x y
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x1 coordinate missing for 'Q'");
-                    cx1 = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y1 coordinate missing for 'Q'");
-                    cy1 = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'Q'");
-                    x = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'Q'");
-                    y = tt.nval;
+                    cx1 = scanner.nextNumber("x1 coordinate missing for 'Q'");
+                    cy1 = scanner.nextNumber("y1 coordinate missing for 'Q'");
+                    x = scanner.nextNumber("x coordinate missing for 'Q'");
+                    y = scanner.nextNumber("y coordinate missing for 'Q'");
                     builder.quadTo(cx1, cy1, x, y);
                     next = 'Q';
 
@@ -227,24 +175,18 @@ public class SvgPaths {
 
                 case 'q':
                     // relative-quadto dx1 dy1 dx dy
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx1 coordinate missing for 'q'");
-                    cx1 = x + tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy1 coordinate missing for 'q'");
-                    cy1 = y + tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx coordinate missing for 'q'");
-                    x += tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy coordinate missing for 'q'");
-                    y += tt.nval;
+                    cx1 = x + scanner.nextNumber("dx1 coordinate missing for 'q'");
+                    cy1 = y + scanner.nextNumber("dy1 coordinate missing for 'q'");
+                    x += scanner.nextNumber("dx coordinate missing for 'q'");
+                    y += scanner.nextNumber("dy coordinate missing for 'q'");
                     builder.quadTo(cx1, cy1, x, y);
                     next = 'q';
 
                     break;
                 case 'T':
                     // absolute-shorthand-quadto x y
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'T'");
-                    x = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'T'");
-                    y = tt.nval;
+                    x = scanner.nextNumber("x coordinate missing for 'T'");
+                    y = scanner.nextNumber("y coordinate missing for 'T'");
                     builder.smoothQuadTo(x, y);
                     next = 'T';
 
@@ -252,33 +194,24 @@ public class SvgPaths {
 
                 case 't':
                     // relative-shorthand-quadto dx dy
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dx coordinate missing for 't'");
-                    x += tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "dy coordinate missing for 't'");
-                    y += tt.nval;
+                    x += scanner.nextNumber("dx coordinate missing for 't'");
+                    y += scanner.nextNumber("dy coordinate missing for 't'");
                     builder.smoothQuadTo(x, y);
-                    next = 's';
+                    next = 't';
 
                     break;
 
                 case 'A': {
                     // absolute-elliptical-arc rx ry x-axis-rotation large-arc-flag sweep-flag x y
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "rx coordinate missing for 'A'");
                     // If rX or rY have negative signs, these are dropped;
                     // the absolute value is used instead.
-                    double rx = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "ry coordinate missing for 'A'");
-                    double ry = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x-axis-rotation missing for 'A'");
-                    double xAxisRotation = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "large-arc-flag missing for 'A'");
-                    boolean largeArcFlag = tt.nval != 0;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "sweep-flag missing for 'A'");
-                    boolean sweepFlag = tt.nval != 0;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'A'");
-                    x = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'A'");
-                    y = tt.nval;
+                    double rx = scanner.nextNumber("rx coordinate missing for 'A'");
+                    double ry = scanner.nextNumber("ry coordinate missing for 'A'");
+                    double xAxisRotation = scanner.nextNumber("x-axis-rotation missing for 'A'");
+                    boolean largeArcFlag = scanner.nextFlag("large-arc-flag missing for 'A'");
+                    boolean sweepFlag = scanner.nextFlag("sweep-flag missing for 'A'");
+                    x = scanner.nextNumber("x coordinate missing for 'A'");
+                    y = scanner.nextNumber("y coordinate missing for 'A'");
 
                     builder.arcTo(rx, ry, xAxisRotation, x, y, largeArcFlag, sweepFlag);
                     next = 'A';
@@ -286,36 +219,29 @@ public class SvgPaths {
                 }
                 case 'a': {
                     // relative-elliptical-arc rx ry x-axis-rotation large-arc-flag sweep-flag x y
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "rx coordinate missing for 'A'");
                     // If rX or rY have negative signs, these are dropped;
                     // the absolute value is used instead.
-                    double rx = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "ry coordinate missing for 'A'");
-                    double ry = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x-axis-rotation missing for 'A'");
-                    double xAxisRotation = tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "large-arc-flag missing for 'A'");
-                    boolean largeArcFlag = tt.nval != 0;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "sweep-flag missing for 'A'");
-                    boolean sweepFlag = tt.nval != 0;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing for 'A'");
-                    x = x + tt.nval;
-                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing for 'A'");
-                    y = y + tt.nval;
+                    double rx = scanner.nextNumber("rx coordinate missing for 'A'");
+                    double ry = scanner.nextNumber("ry coordinate missing for 'A'");
+                    double xAxisRotation = scanner.nextNumber("x-axis-rotation missing for 'A'");
+                    boolean largeArcFlag = scanner.nextFlag("large-arc-flag missing for 'A'");
+                    boolean sweepFlag = scanner.nextFlag("sweep-flag missing for 'A'");
+                    x = x + scanner.nextNumber("x coordinate missing for 'A'");
+                    y = y + scanner.nextNumber("y coordinate missing for 'A'");
                     builder.arcTo(rx, ry, xAxisRotation, x, y, largeArcFlag, sweepFlag);
 
                     next = 'a';
                     break;
                 }
                 default:
-                    throw new ParseException("Illegal command: " + command + ".", tt.getStartPosition());
+                    throw scanner.createException("Illegal command: " + command + ".");
                 }
             }
         } catch (ParseException e) {
             // We must build the path up to the illegal path element!
             // https://www.w3.org/TR/SVG/paths.html#PathDataErrorHandling
-        } catch (IllegalPathStateException | IOException e) {
-            throw new ParseException(e.getMessage(), tt.getStartPosition());
+        } catch (IllegalPathStateException e) {
+            throw new ParseException(e.getMessage(), scanner.getStartPosition());
         }
 
         builder.pathDone();
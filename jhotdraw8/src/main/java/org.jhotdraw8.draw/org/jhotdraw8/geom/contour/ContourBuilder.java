@@ -30,6 +30,7 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.IntPredicate;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import static org.jhotdraw8.geom.contour.BulgeConversionFunctions.arcRadiusAndCenter;
 import static org.jhotdraw8.geom.contour.ContourIntersections.allSelfIntersects;
@@ -38,8 +39,8 @@ import static org.jhotdraw8.geom.contour.ContourIntersections.intrCircle2Circle2
 import static org.jhotdraw8.geom.contour.ContourIntersections.intrLineSeg2Circle2;
 import static org.jhotdraw8.geom.contour.ContourIntersections.intrLineSeg2LineSeg2;
 import static org.jhotdraw8.geom.contour.ContourIntersections.intrPlineSegs;
-import static org.jhotdraw8.geom.contour.PlineVertex.closestPointOnSeg;
 import static org.jhotdraw8.geom.contour.PlineVertex.createFastApproxBoundingBox;
+import static org.jhotdraw8.geom.contour.PlineVertex.distanceSqToSeg;
 import static org.jhotdraw8.geom.contour.PlineVertex.segMidpoint;
 import static org.jhotdraw8.geom.contour.PlineVertex.splitAtPoint;
 import static org.jhotdraw8.geom.contour.PolyArcPath.createApproxSpatialIndex;
@@ -83,10 +84,11 @@ public class ContourBuilder {
 
         boolean[] pointValid = {true};
 
+        final double px = point.getX(), py = point.getY();
         IntPredicate visitor = (int i) -> {
             int j = Utils.nextWrappingIndex(i, pline);
-            Point2D.Double closestPoint = closestPointOnSeg(pline.get(i), pline.get(j), point);
-            double distSq = closestPoint.distanceSq(point);
+            double distSq = distanceSqToSeg(pline.getX(i), pline.getY(i), pline.getBulge(i),
+                    pline.getX(j), pline.getY(j), px, py);
             pointValid[0] = distSq > minDistSq;
             return pointValid[0];
         };
@@ -108,7 +110,7 @@ public class ContourBuilder {
         }
 
         if (Geom.almostEqual(pline.lastVertex().pos(), vertex.pos(), epsilon)) {
-            pline.lastVertex().bulge(vertex.bulge());
+            pline.setBulge(pline.size() - 1, vertex.bulge());
             return;
         }
 
@@ -154,7 +156,7 @@ public class ContourBuilder {
                     // ensure the sign matches (may get flipped if intersect is at the very end of the arc, in
                     // which case we do not want to update the bulge)
                     if ((updatedPrevTheta > 0.0) == prevVertex.bulgeIsPos()) {
-                        result.lastVertex().bulge(Math.tan(updatedPrevTheta / 4.0));
+                        result.setBulge(result.size() - 1, Math.tan(updatedPrevTheta / 4.0));
                     }
                 }
 
@@ -241,7 +243,7 @@ public class ContourBuilder {
                     // ensure the sign matches (may get flipped if intersect is at the very end of the arc, in
                     // which case we do not want to update the bulge)
                     if ((updatedPrevTheta > 0.0) == prevVertex.bulgeIsPos()) {
-                        result.lastVertex().bulge(Math.tan(updatedPrevTheta / 4.0));
+                        result.setBulge(result.size() - 1, Math.tan(updatedPrevTheta / 4.0));
                     }
                 }
 
@@ -473,13 +475,22 @@ public class ContourBuilder {
     List<OpenPolylineSlice> dualSliceAtIntersectsForOffset(final PolyArcPath originalPline,
                                                            final PolyArcPath rawOffsetPline,
                                                            final PolyArcPath dualRawOffsetPline, double offset) {
+        if (rawOffsetPline.size() < 2) {
+            return new ArrayList<>();
+        }
+        return dualSliceAtIntersectsForOffset(originalPline, createApproxSpatialIndex(originalPline),
+                rawOffsetPline, dualRawOffsetPline, offset);
+    }
+
+    List<OpenPolylineSlice> dualSliceAtIntersectsForOffset(final PolyArcPath originalPline,
+                                                           final StaticSpatialIndex origPlineSpatialIndex,
+                                                           final PolyArcPath rawOffsetPline,
+                                                           final PolyArcPath dualRawOffsetPline, double offset) {
         List<OpenPolylineSlice> result = new ArrayList<>();
         if (rawOffsetPline.size() < 2) {
             return result;
         }
 
-        StaticSpatialIndex origPlineSpatialIndex = createApproxSpatialIndex(originalPline);
-
         Map<Integer, List<Point2D.Double>> intersectsLookup = computeIntersectionsOfRawWithSelfWithDualRawAndAtEndPoints(originalPline, rawOffsetPline, dualRawOffsetPline, offset);
 
         IntArrayDeque queryStack = new IntArrayDeque(8);
@@ -493,7 +504,7 @@ public class ContourBuilder {
             back.pline.isClosed(false);
             if (originalPline.isClosed()) {
                 back.pline.addVertex(rawOffsetPline.get(0));
-                back.pline.lastVertex().bulge(0.0);
+                back.pline.setBulge(back.pline.size() - 1, 0.0);
             }
             result.add(back);
             return result;
@@ -1017,19 +1028,69 @@ public class ContourBuilder {
         if (pline.size() < 2) {
             return new ArrayList<>();
         }
+        return parallelOffset(pline, createApproxSpatialIndex(pline), offset, mayHaveSelfIntersects);
+    }
+
+    /**
+     * Creates the parallel offset polylines to the polyline given.
+     *
+     * @param pline                 input polyline with at least 2 vertices
+     * @param plineSpatialIndex     spatial index of the input polyline
+     * @param offset                offset
+     * @param mayHaveSelfIntersects true if the polyline may have self-intersects
+     * @return list of offset polylines
+     */
+    private @NonNull List<PolyArcPath> parallelOffset(@NonNull PolyArcPath pline,
+                                                      @NonNull StaticSpatialIndex plineSpatialIndex,
+                                                      double offset, boolean mayHaveSelfIntersects) {
         PolyArcPath rawOffset = createRawOffsetPline(pline, offset);
         if (pline.isClosed() && !mayHaveSelfIntersects) {
-            List<OpenPolylineSlice> slices = slicesFromRawOffset(pline, rawOffset, offset);
+            List<OpenPolylineSlice> slices = slicesFromRawOffset(pline, plineSpatialIndex, rawOffset, offset);
             return stitchOffsetSlicesTogether(slices, pline.isClosed(), rawOffset.size() - 1);
         }
 
         // not closed polyline or has self intersects, must apply dual clipping
         PolyArcPath dualRawOffset = createRawOffsetPline(pline, -offset);
-        List<OpenPolylineSlice> slices = dualSliceAtIntersectsForOffset(pline, rawOffset, dualRawOffset, offset);
+        List<OpenPolylineSlice> slices = dualSliceAtIntersectsForOffset(pline, plineSpatialIndex, rawOffset, dualRawOffset, offset);
         return stitchOffsetSlicesTogether(slices, pline.isClosed(), rawOffset.size() - 1);
     }
 
+    /**
+     * Creates the parallel offset polylines to the polyline given for
+     * each of the specified offsets.
+     * <p>
+     * The offsets are computed concurrently. The spatial index of the
+     * input polyline does not depend on the offset, it is created only once
+     * and is shared by all computations.
+     * <p>
+     * The returned stream is lazy. The input polyline must not be changed
+     * until the stream has been consumed.
+     *
+     * @param pline   input polyline
+     * @param offsets the offsets
+     * @return a stream with the list of offset polylines for each offset,
+     * in the order of the offsets
+     */
+    public @NonNull Stream<List<PolyArcPath>> parallelOffsets(@NonNull PolyArcPath pline, @NonNull double... offsets) {
+        if (pline.size() < 2) {
+            return Arrays.stream(offsets).mapToObj(offset -> new ArrayList<>());
+        }
+        StaticSpatialIndex plineSpatialIndex = createApproxSpatialIndex(pline);
+        return Arrays.stream(offsets).parallel()
+                .mapToObj(offset -> parallelOffset(pline, plineSpatialIndex, offset, true));
+    }
+
+    List<OpenPolylineSlice> slicesFromRawOffset(final PolyArcPath originalPline,
+                                                final PolyArcPath rawOffsetPline,
+                                                double offset) {
+        if (rawOffsetPline.size() < 2) {
+            return new ArrayList<>();
+        }
+        return slicesFromRawOffset(originalPline, createApproxSpatialIndex(originalPline), rawOffsetPline, offset);
+    }
+
     List<OpenPolylineSlice> slicesFromRawOffset(final PolyArcPath originalPline,
+                                                final StaticSpatialIndex origPlineSpatialIndex,
                                                 final PolyArcPath rawOffsetPline,
                                                 double offset) {
         assert originalPline.isClosed() : "use dual slice at intersects for open polylines";
@@ -1039,7 +1100,6 @@ public class ContourBuilder {
             return result;
         }
 
-        StaticSpatialIndex origPlineSpatialIndex = createApproxSpatialIndex(originalPline);
         StaticSpatialIndex rawOffsetPlineSpatialIndex = createApproxSpatialIndex(rawOffsetPline);
 
         List<PlineIntersect> selfIntersects = new ArrayList<>();
@@ -1056,7 +1116,7 @@ public class ContourBuilder {
             result.add(back);
             back.pline.isClosed(false);
             back.pline.addVertex(rawOffsetPline.get(0));
-            back.pline.lastVertex().bulge(0.0);
+            back.pline.setBulge(back.pline.size() - 1, 0.0);
             return result;
         }
 
@@ -9,7 +9,6 @@ import org.jhotdraw8.collection.IntArrayDeque;
 import org.jhotdraw8.collection.IntArrayList;
 import org.jhotdraw8.collection.OrderedPair;
 import org.jhotdraw8.collection.OrderedPairNonNull;
-import org.jhotdraw8.geom.AABB;
 import org.jhotdraw8.geom.Geom;
 import org.jhotdraw8.geom.intersect.IntersectCircleCircle;
 import org.jhotdraw8.geom.intersect.IntersectCircleLine;
@@ -33,7 +32,6 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import static org.jhotdraw8.geom.contour.BulgeConversionFunctions.arcRadiusAndCenter;
-import static org.jhotdraw8.geom.contour.PlineVertex.createFastApproxBoundingBox;
 import static org.jhotdraw8.geom.contour.PlineVertex.splitAtPoint;
 import static org.jhotdraw8.geom.contour.Utils.pointFromParametric;
 import static org.jhotdraw8.geom.contour.Utils.pointWithinArcSweepAngle;
@@ -317,6 +315,8 @@ public class ContourIntersections {
                 visitedSegmentPairs = new HashSet<>(pline.size());
 
         IntArrayDeque queryStack = new IntArrayDeque(8);
+        final PolyArcPath.VertexView u1 = pline.view();
+        final PolyArcPath.VertexView u2 = pline.view();
 
         StaticSpatialIndex.Visitor visitor = (int i, double minX, double minY, double maxX, double maxY) -> {
             int j = Utils.nextWrappingIndex(i, pline);
@@ -337,8 +337,8 @@ public class ContourIntersections {
                 // add the segment pair we're visiting now
                 visitedSegmentPairs.add(new OrderedPair<>(i, hitIndexStart));
 
-                final PlineVertex u1 = pline.get(hitIndexStart);
-                final PlineVertex u2 = pline.get(hitIndexEnd);
+                u1.at(hitIndexStart);
+                u2.at(hitIndexEnd);
 
                 Predicate<Point2D.Double> intrAtStartPt = (final Point2D.Double intr) ->
                         Geom.almostEqual(v1.pos(), intr) || Geom.almostEqual(u1.pos(), intr);
@@ -402,17 +402,20 @@ public class ContourIntersections {
         final List<PlineIntersect> intrs = output.intersects;
         final List<PlineCoincidentIntersect> coincidentIntrs = output.coincidentIntersects;
 
+        double[] bounds = new double[4];
+        final PolyArcPath.VertexView p1v1 = pline1.view();
+        final PolyArcPath.VertexView p1v2 = pline1.view();
         BiPredicate<Integer, Integer> pline2SegVisitor = (Integer i2, Integer j2) -> {
             final PlineVertex p2v1 = pline2.get(i2);
             final PlineVertex p2v2 = pline2.get(j2);
 
             queryResults.clear();
-            AABB bb = createFastApproxBoundingBox(p2v1, p2v2);
-            pline1SpatialIndex.query(bb.getMinX(), bb.getMinY(), bb.getMaxX(), bb.getMaxY(), queryResults, queryStack);
+            pline2.getApproxSegmentBounds(i2, bounds);
+            pline1SpatialIndex.query(bounds[0], bounds[1], bounds[2], bounds[3], queryResults, queryStack);
             for (int i1 : queryResults) {
                 int j1 = Utils.nextWrappingIndex(i1, pline1);
-                final PlineVertex p1v1 = pline1.get(i1);
-                final PlineVertex p1v2 = pline1.get(j1);
+                p1v1.at(i1);
+                p1v2.at(j1);
 
                 Predicate<Point2D.Double> intrAtStartPt = (final Point2D.Double intr) ->
                         Geom.almostEqual(p1v1.pos(), intr) || Geom.almostEqual(p2v1.pos(), intr);
@@ -0,0 +1,37 @@
+/*
+ * @(#)PlineCombineMode.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom.contour;
+
+/**
+ * Enumerates the boolean operations that {@link PolyArcPathCombiner}
+ * can perform on two closed {@link PolyArcPath}s 'a' and 'b'.
+ * <p>
+ * This code has been derived from Cavalier Contours [1].
+ * <p>
+ * References:
+ * <dl>
+ *     <dt>[1] Cavalier Contours</dt>
+ *     <dd>Cavalier Contours, Copyright (c) 2019 Jedidiah Buck McCready, MIT License.
+ *     <a href="https://github.com/jbuckmccready/CavalierContours">github.com</a></dd>
+ * </dl>
+ */
+public enum PlineCombineMode {
+    /**
+     * The area that is covered by 'a' or by 'b'.
+     */
+    Union,
+    /**
+     * The area that is covered by 'a' but not by 'b'.
+     */
+    Exclude,
+    /**
+     * The area that is covered by 'a' and by 'b'.
+     */
+    Intersect,
+    /**
+     * The area that is covered either by 'a' or by 'b', but not by both.
+     */
+    XOR
+}
@@ -60,11 +60,11 @@ public class PlineVertex implements Cloneable {
     }
 
     public boolean bulgeIsNeg() {
-        return bulge < 0;
+        return bulge() < 0;
     }
 
     public boolean bulgeIsPos() {
-        return bulge > 0;
+        return bulge() > 0;
     }
 
     public boolean bulgeIsZero() {
@@ -72,7 +72,7 @@ public class PlineVertex implements Cloneable {
     }
 
     public boolean bulgeIsZero(double epsilon) {
-        return Math.abs(bulge) < epsilon;
+        return Math.abs(bulge()) < epsilon;
     }
 
     public double getX() {
@@ -92,7 +92,7 @@ public class PlineVertex implements Cloneable {
     }
 
     public Point2D.Double pos() {
-        return new Point2D.Double(x, y);
+        return new Point2D.Double(getX(), getY());
     }
 
     @Override
@@ -100,18 +100,18 @@ public class PlineVertex implements Cloneable {
         if (this == o) {
             return true;
         }
-        if (o == null || getClass() != o.getClass()) {
+        if (!(o instanceof PlineVertex)) {
             return false;
         }
         PlineVertex that = (PlineVertex) o;
-        return Double.compare(that.x, x) == 0 &&
-                Double.compare(that.y, y) == 0 &&
-                Double.compare(that.bulge, bulge) == 0;
+        return Double.compare(that.getX(), getX()) == 0 &&
+                Double.compare(that.getY(), getY()) == 0 &&
+                Double.compare(that.bulge(), bulge()) == 0;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(x, y, bulge);
+        return Objects.hash(getX(), getY(), bulge());
     }
 
     /**
@@ -119,68 +119,42 @@ public class PlineVertex implements Cloneable {
      * than the true bounding box for the segment
      */
     static @NonNull AABB createFastApproxBoundingBox(final @NonNull PlineVertex v1, final @NonNull PlineVertex v2) {
-        if (v1.bulgeIsZero()) {
-            return new AABB(
-                    min(v1.getX(), v2.getX()),
-                    min(v1.getY(), v2.getY()),
-                    max(v1.getX(), v2.getX()),
-                    max(v1.getY(), v2.getY()));
+        double[] bounds = new double[4];
+        fastApproxBoundingBox(v1.getX(), v1.getY(), v1.bulge(), v2.getX(), v2.getY(), bounds);
+        return new AABB(bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+
+    /**
+     * Computes a fast approximate AABB of a segment described by (x1,y1,bulge) to (x2,y2)
+     * without allocating objects.
+     *
+     * @param bounds on output contains minX, minY, maxX, maxY
+     */
+    static void fastApproxBoundingBox(double x1, double y1, double bulge, double x2, double y2,
+                                      final @NonNull double[] bounds) {
+        if (Math.abs(bulge) < Utils.realPrecision) {
+            bounds[0] = min(x1, x2);
+            bounds[1] = min(y1, y2);
+            bounds[2] = max(x1, x2);
+            bounds[3] = max(y1, y2);
+            return;
         }
 
         // For arcs we don't compute the actual extents which is slower, instead we create an approximate
         // bounding box from the rectangle formed by extending the chord by the sagitta, NOTE: this
         // approximate bounding box is always equal to or bigger than the true bounding box
-        double b = v1.bulge();
-        double offsX = b * (v2.getY() - v1.getY()) / 2.0;
-        double offsY = -b * (v2.getX() - v1.getX()) / 2.0;
-
-        double pt1X = v1.getX() + offsX;
-        double pt2X = v2.getX() + offsX;
-        double pt1Y = v1.getY() + offsY;
-        double pt2Y = v2.getY() + offsY;
-
-        double endPointXMin, endPointXMax;
-        if (v1.getX() < v2.getX()) {
-            endPointXMin = v1.getX();
-            endPointXMax = v2.getX();
-        } else {
-            endPointXMin = v2.getX();
-            endPointXMax = v1.getX();
-        }
-
-        double ptXMin, ptXMax;
-        if (pt1X < pt2X) {
-            ptXMin = pt1X;
-            ptXMax = pt2X;
-        } else {
-            ptXMin = pt2X;
-            ptXMax = pt1X;
-        }
-
-        double endPointYMin, endPointYMax;
-        if (v1.getY() < v2.getY()) {
-            endPointYMin = v1.getY();
-            endPointYMax = v2.getY();
-        } else {
-            endPointYMin = v2.getY();
-            endPointYMax = v1.getY();
-        }
-
-        double ptYMin, ptYMax;
-        if (pt1Y < pt2Y) {
-            ptYMin = pt1Y;
-            ptYMax = pt2Y;
-        } else {
-            ptYMin = pt2Y;
-            ptYMax = pt1Y;
-        }
-
-        return new AABB(
-                min(endPointXMin, ptXMin),
-                min(endPointYMin, ptYMin),
-                max(endPointXMax, ptXMax),
-                max(endPointYMax, ptYMax)
-        );
+        double offsX = bulge * (y2 - y1) / 2.0;
+        double offsY = -bulge * (x2 - x1) / 2.0;
+
+        double pt1X = x1 + offsX;
+        double pt2X = x2 + offsX;
+        double pt1Y = y1 + offsY;
+        double pt2Y = y2 + offsY;
+
+        bounds[0] = min(min(x1, x2), min(pt1X, pt2X));
+        bounds[1] = min(min(y1, y2), min(pt1Y, pt2Y));
+        bounds[2] = max(max(x1, x2), max(pt1X, pt2X));
+        bounds[3] = max(max(y1, y2), max(pt1Y, pt2Y));
     }
 
     /**
@@ -290,6 +264,68 @@ public class PlineVertex implements Cloneable {
         return v2.pos();
     }
 
+    /**
+     * Computes the squared distance from point (px,py) to the segment
+     * described by (x1,y1,bulge) to (x2,y2) without allocating objects.
+     * <p>
+     * The result is the same as the squared distance from the point to
+     * {@link #closestPointOnSeg}.
+     */
+    static double distanceSqToSeg(double x1, double y1, double bulge, double x2, double y2,
+                                  double px, double py) {
+        if (Math.abs(bulge) < Utils.realPrecision) {
+            // see Utils.closestPointOnLineSeg
+            double vx = x2 - x1, vy = y2 - y1;
+            double c1 = (px - x1) * vx + (py - y1) * vy;
+            if (c1 < Geom.REAL_THRESHOLD) {
+                return Geom.squaredDistance(x1, y1, px, py);
+            }
+            double c2 = vx * vx + vy * vy;
+            if (c2 < c1 + Geom.REAL_THRESHOLD) {
+                return Geom.squaredDistance(x2, y2, px, py);
+            }
+            double b = c1 / c2;
+            return Geom.squaredDistance(x1 + vx * b, y1 + vy * b, px, py);
+        }
+
+        // see BulgeConversionFunctions.arcRadiusAndCenter
+        double absBulge = Math.abs(bulge);
+        double vx = x2 - x1, vy = y2 - y1;
+        double d = Math.sqrt(vx * vx + vy * vy);
+        double r = d * (absBulge * absBulge + 1.0) / (4.0 * absBulge);
+        double m = r - absBulge * d / 2.0;
+        double offsX = -m * vy / d;
+        double offsY = m * vx / d;
+        if (bulge < 0) {
+            offsX = -offsX;
+            offsY = -offsY;
+        }
+        double cx = x1 + vx * 0.5 + offsX;
+        double cy = y1 + vy * 0.5 + offsY;
+
+        double dist1 = Geom.squaredDistance(x1, y1, px, py);
+        if (Geom.almostEqual(px, py, cx, cy)) {
+            // point is at center, the start point is returned by closestPointOnSeg
+            return dist1;
+        }
+
+        // see Utils.pointWithinArcSweepAngle
+        double startSide = (x1 - cx) * (py - cy) - (y1 - cy) * (px - cx);
+        double endSide = (x2 - cx) * (py - cy) - (y2 - cy) * (px - cx);
+        boolean withinSweep = bulge > 0.0
+                ? startSide > -Geom.REAL_THRESHOLD && endSide < Geom.REAL_THRESHOLD
+                : startSide < Geom.REAL_THRESHOLD && endSide > -Geom.REAL_THRESHOLD;
+        if (withinSweep) {
+            // closest point is on the arc
+            double distToCenter = Math.sqrt(Geom.squaredDistance(cx, cy, px, py));
+            double distToArc = distToCenter - r;
+            return distToArc * distToArc;
+        }
+
+        // else closest point is one of the ends
+        return Math.min(dist1, Geom.squaredDistance(x2, y2, px, py));
+    }
+
     IntrPlineSegsResult intrPlineSegs(PlineVertex v1, PlineVertex v2,
                                       PlineVertex u1, PlineVertex u2) {
         IntrPlineSegsResult result = new IntrPlineSegsResult();
@@ -486,18 +522,19 @@ public class PlineVertex implements Cloneable {
     @Override
     public String toString() {
         return "PlineVertex{" +
-                "x=" + x +
-                ", y=" + y +
-                ", bulge=" + bulge +
+                "x=" + getX() +
+                ", y=" + getY() +
+                ", bulge=" + bulge() +
                 '}';
     }
 
+    /**
+     * Returns a detached copy of this vertex. If this vertex is a view
+     * of a vertex in a {@link PolyArcPath}, then the copy does not
+     * change when the path changes.
+     */
     @Override
     protected PlineVertex clone() {
-        try {
-            return (PlineVertex) super.clone();
-        } catch (CloneNotSupportedException e) {
-            throw new RuntimeException(e);
-        }
+        return new PlineVertex(getX(), getY(), bulge());
     }
 }
@@ -4,16 +4,20 @@
  */
 package org.jhotdraw8.geom.contour;
 
-import org.jhotdraw8.geom.AABB;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.geom.Geom;
 import org.jhotdraw8.geom.PathIteratorPathBuilder;
 
 import java.awt.geom.AffineTransform;
 import java.awt.geom.PathIterator;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.function.BiPredicate;
 
-import static org.jhotdraw8.geom.contour.PlineVertex.createFastApproxBoundingBox;
+import static org.jhotdraw8.geom.contour.PlineVertex.fastApproxBoundingBox;
 import static org.jhotdraw8.geom.contour.PlineVertex.segLength;
 
 /**
@@ -34,6 +38,25 @@ import static org.jhotdraw8.geom.contour.PlineVertex.segLength;
  * See {@link BulgeConversionFunctions} for more details regarding bulge
  * calculations.
  * <p>
+ * The vertexes are stored in a single {@code double} array with the
+ * layout {@code x, y, bulge} for each vertex. Therefore, this class is a
+ * {@link java.util.List} of {@link PlineVertex} objects, but not an
+ * {@link java.util.ArrayList}, and it does not hold on to vertex objects:
+ * <ul>
+ *     <li>{@link #get}, {@link #set}, {@link #remove} and the iterators
+ *     return detached copies of the vertexes. Changing the bulge of a
+ *     returned vertex does not change the path.</li>
+ *     <li>{@link #set}, {@link #add} and {@link #addVertex} copy the values
+ *     of the given vertex into the path.</li>
+ *     <li>{@link #setBulge} changes the bulge of a vertex in the path.</li>
+ *     <li>{@link #view()} returns a {@link VertexView}, which reads and
+ *     writes the vertex at its current index. A view does not follow a
+ *     vertex when vertexes are inserted or removed before it.</li>
+ * </ul>
+ * Algorithms on hot paths should use the primitive accessors
+ * {@link #getX}, {@link #getY} and {@link #getBulge}, or a view, instead
+ * of {@link #get}.
+ * <p>
  * This code has been derived from Cavalier Contours [1].
  * <p>
  * References:
@@ -43,23 +66,131 @@ import static org.jhotdraw8.geom.contour.PlineVertex.segLength;
  *     <a href="https://github.com/jbuckmccready/CavalierContours">github.com</a></dd>
  * </dl>
  */
-public class PolyArcPath extends ArrayList<PlineVertex> implements Cloneable {
+public class PolyArcPath extends AbstractList<PlineVertex> implements RandomAccess, Cloneable, Serializable {
     private static final long serialVersionUID = 1L;
+    private static final int X = 0, Y = 1, BULGE = 2, STRIDE = 3;
 
-    @Override
-    public PolyArcPath clone() {
-        return (PolyArcPath) super.clone();
-    }
-
+    /**
+     * Holds x, y, bulge of each vertex.
+     */
+    private @NonNull double[] coords;
+    private int size;
     private boolean closed;
     private int windingRule = PathIterator.WIND_EVEN_ODD;
 
     public PolyArcPath() {
-        super();
+        this(8);
     }
 
     public PolyArcPath(int initialCapacity) {
-        super(initialCapacity);
+        coords = new double[Math.max(initialCapacity, 1) * STRIDE];
+    }
+
+    @Override
+    public PolyArcPath clone() {
+        try {
+            PolyArcPath that = (PolyArcPath) super.clone();
+            that.coords = coords.clone();
+            return that;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a detached copy of the vertex at the specified index.
+     * <p>
+     * Use {@link #setBulge} to change the bulge of the vertex in this path.
+     */
+    @Override
+    public @NonNull PlineVertex get(int index) {
+        Objects.checkIndex(index, size);
+        return new PlineVertex(getX(index), getY(index), getBulge(index));
+    }
+
+    public double getX(int index) {
+        return coords[index * STRIDE + X];
+    }
+
+    public double getY(int index) {
+        return coords[index * STRIDE + Y];
+    }
+
+    public double getBulge(int index) {
+        return coords[index * STRIDE + BULGE];
+    }
+
+    public void setBulge(int index, double bulge) {
+        coords[index * STRIDE + BULGE] = bulge;
+    }
+
+    /**
+     * Replaces the vertex at the specified index with the values
+     * of the given vertex.
+     *
+     * @return a detached copy of the previous vertex
+     */
+    @Override
+    public @NonNull PlineVertex set(int index, @NonNull PlineVertex v) {
+        Objects.checkIndex(index, size);
+        double x = v.getX(), y = v.getY(), bulge = v.bulge();
+        PlineVertex old = new PlineVertex(getX(index), getY(index), getBulge(index));
+        setVertex(index, x, y, bulge);
+        return old;
+    }
+
+    private void setVertex(int index, double x, double y, double bulge) {
+        int offset = index * STRIDE;
+        coords[offset + X] = x;
+        coords[offset + Y] = y;
+        coords[offset + BULGE] = bulge;
+    }
+
+    /**
+     * Inserts a vertex with the values of the given vertex at the
+     * specified index.
+     */
+    @Override
+    public void add(int index, @NonNull PlineVertex v) {
+        Objects.checkIndex(index, size + 1);
+        double x = v.getX(), y = v.getY(), bulge = v.bulge();
+        ensureCapacity(size + 1);
+        System.arraycopy(coords, index * STRIDE, coords, (index + 1) * STRIDE, (size - index) * STRIDE);
+        setVertex(index, x, y, bulge);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Removes the vertex at the specified index.
+     *
+     * @return a detached copy of the removed vertex
+     */
+    @Override
+    public @NonNull PlineVertex remove(int index) {
+        Objects.checkIndex(index, size);
+        PlineVertex old = new PlineVertex(getX(index), getY(index), getBulge(index));
+        System.arraycopy(coords, (index + 1) * STRIDE, coords, index * STRIDE, (size - index - 1) * STRIDE);
+        size--;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity * STRIDE > coords.length) {
+            coords = Arrays.copyOf(coords, Math.max(capacity, size + size / 2) * STRIDE);
+        }
     }
 
     public void addVertex(PlineVertex v) {
@@ -71,7 +202,10 @@ public class PolyArcPath extends ArrayList<PlineVertex> implements Cloneable {
     }
 
     public void addVertex(double x, double y, double bulge) {
-        add(new PlineVertex(x, y, bulge));
+        ensureCapacity(size + 1);
+        setVertex(size, x, y, bulge);
+        size++;
+        modCount++;
     }
 
     public boolean isClosed() {
@@ -128,8 +262,10 @@ public class PolyArcPath extends ArrayList<PlineVertex> implements Cloneable {
     public PathIterator getPathIterator(AffineTransform at) {
         PathIteratorPathBuilder b = new PathIteratorPathBuilder(getWindingRule());
         if (size() > 0) {
-            PlineVertex prev = PolyArcPath.this.get(PolyArcPath.this.size() - 1);
-            for (PlineVertex vertex : PolyArcPath.this) {
+            VertexView prev = view().at(size() - 1);
+            VertexView vertex = view();
+            for (int i = 0, n = size(); i < n; i++) {
+                vertex.at(i);
                 if (prev.bulgeIsZero()) {
                     if (b.isEmpty()) {
                         b.moveTo(vertex.getX(), vertex.getY());
@@ -148,9 +284,9 @@ public class PolyArcPath extends ArrayList<PlineVertex> implements Cloneable {
                     b.arcTo(circle.getRadius(), circle.getRadius(), 0,
                             vertex.getX(), vertex.getY(), false, bulge > 0);
                 }
-                prev = vertex;
+                prev.at(i);
             }
-            if (PolyArcPath.this.isClosed()) {
+            if (isClosed()) {
                 b.closePath();
             }
         }
@@ -167,39 +303,56 @@ public class PolyArcPath extends ArrayList<PlineVertex> implements Cloneable {
         int segmentCount = pline.isClosed() ? pline.size() : pline.size() - 1;
         StaticSpatialIndex result = new StaticSpatialIndex(segmentCount);
 
-        for (int i = 0; i < pline.size() - 1; ++i) {
-            AABB approxBB = createFastApproxBoundingBox(pline.get(i), pline.get(i + 1));
-            result.add(approxBB.getMinX(), approxBB.getMinY(),
-                    approxBB.getMaxX(), approxBB.getMaxY());
-        }
-
-        if (pline.isClosed()) {
-            // add final segment from last to first
-            AABB approxBB = createFastApproxBoundingBox(pline.lastVertex(), pline.get(0));
-            result.add(approxBB.getMinX(), approxBB.getMinY(),
-                    approxBB.getMaxX(), approxBB.getMaxY());
+        double[] bounds = new double[4];
+        for (int i = 0; i < segmentCount; ++i) {
+            // the final segment of a closed path goes from last to first
+            pline.getApproxSegmentBounds(i, bounds);
+            result.add(bounds[0], bounds[1], bounds[2], bounds[3]);
         }
 
         result.finish();
         return result;
     }
 
+    /**
+     * Computes a fast approximate bounding box of the segment that starts
+     * at vertex i, without allocating objects. The bounding box may be
+     * larger than the true bounding box of the segment.
+     *
+     * @param i      the index of the start vertex of the segment,
+     *               the segment ends at the next vertex (wrapping around)
+     * @param bounds on output contains minX, minY, maxX, maxY
+     */
+    void getApproxSegmentBounds(int i, @NonNull double[] bounds) {
+        int j = i == size - 1 ? 0 : i + 1;
+        fastApproxBoundingBox(getX(i), getY(i), getBulge(i), getX(j), getY(j), bounds);
+    }
+
     /// becomes the end vertex and the end vertex becomes the starting vertex.
     public static void invertDirection(PolyArcPath pline) {
-        if (pline.size() < 2) {
+        int n = pline.size();
+        if (n < 2) {
             return;
         }
 
-        Collections.reverse(pline);
-
-        // shift and negate bulge (to maintain same geometric path)
-        double firstBulge = pline.get(0).bulge();
-
-        for (int i = 1; i < pline.size(); ++i) {
-            pline.get(i - 1).bulge(-pline.get(i).bulge());
+        // reverse the vertexes, shift and negate bulge (to maintain same geometric path)
+        double[] c = pline.coords;
+        double firstBulge = c[(n - 1) * STRIDE + BULGE];
+        for (int i = 0, j = n - 1; i < j; i++, j--) {
+            int oi = i * STRIDE, oj = j * STRIDE;
+            double x = c[oi + X], y = c[oi + Y], b = c[oi + BULGE];
+            c[oi + X] = c[oj + X];
+            c[oi + Y] = c[oj + Y];
+            c[oi + BULGE] = c[oj + BULGE];
+            c[oj + X] = x;
+            c[oj + Y] = y;
+            c[oj + BULGE] = b;
         }
-
-        pline.lastVertex().bulge(-firstBulge);
+        for (int i = 1; i < n; ++i) {
+            c[(i - 1) * STRIDE + BULGE] = -c[i * STRIDE + BULGE];
+        }
+        c[(n - 1) * STRIDE + BULGE] = -firstBulge;
+        pline.modCount++;
     }
 
 
@@ -219,6 +372,99 @@ public class PolyArcPath extends ArrayList<PlineVertex> implements Cloneable {
         return result[0];
     }
 
+    /// Compute the signed area of a closed polyline. The area is positive
+    /// if the polyline is counter clockwise, and negative if it is clockwise.
+    /// Returns 0 if the polyline is open.
+    ///
+    /// Uses the shoelace formula, to which the area of each circular segment
+    /// defined by an arc is added (counter clockwise arc) or subtracted
+    /// (clockwise arc).
+    public double getArea() {
+        if (!isClosed() || size() < 2) {
+            return 0.0;
+        }
+        double doubleAreaTotal = 0.0;
+        for (int i = size() - 1, j = 0; j < size(); i = j, j++) {
+            double x1 = getX(i), y1 = getY(i), bulge = getBulge(i);
+            double x2 = getX(j), y2 = getY(j);
+            double doubleArea = x1 * y2 - y1 * x2;
+            if (Math.abs(bulge) >= Utils.realPrecision) {
+                double b = Math.abs(bulge);
+                double sweepAngle = 4.0 * Math.atan(b);
+                double triangleBase = Geom.distance(x1, y1, x2, y2);
+                double radius = triangleBase * ((b * b + 1.0) / (4.0 * b));
+                double sagitta = b * triangleBase / 2.0;
+                double triangleHeight = radius - sagitta;
+                double doubleSectorArea = sweepAngle * radius * radius;
+                double doubleTriangleArea = triangleBase * triangleHeight;
+                double doubleArcSegArea = doubleSectorArea - doubleTriangleArea;
+                doubleArea += bulge < 0 ? -doubleArcSegArea : doubleArcSegArea;
+            }
+            doubleAreaTotal += doubleArea;
+        }
+        return doubleAreaTotal / 2.0;
+    }
+
+    /**
+     * Creates a view on the vertexes of this path. The view is at index 0
+     * and can be moved with {@link VertexView#at(int)}.
+     * <p>
+     * Inner loops can use a single view instead of calling {@link #get}
+     * for each vertex.
+     *
+     * @return a new view
+     */
+    public @NonNull VertexView view() {
+        return new VertexView(this, 0);
+    }
 
-}
+    /**
+     * A view on the vertex at an index of a {@link PolyArcPath}.
+     * <p>
+     * The view reads the vertex that is currently stored at its index, and
+     * {@link #bulge(double)} writes through to the path. The index is not
+     * adjusted when vertexes are inserted into or removed from the path.
+     */
+    public static class VertexView extends PlineVertex {
+        private final @NonNull PolyArcPath path;
+        private int index;
+
+        VertexView(@NonNull PolyArcPath path, int index) {
+            super(0.0, 0.0, 0.0);
+            this.path = path;
+            this.index = index;
+        }
 
+        /**
+         * Moves this view to the vertex at the specified index.
+         *
+         * @param index the index
+         * @return this view
+         */
+        public @NonNull VertexView at(int index) {
+            Objects.checkIndex(index, path.size);
+            this.index = index;
+            return this;
+        }
+
+        @Override
+        public double getX() {
+            return path.getX(index);
+        }
+
+        @Override
+        public double getY() {
+            return path.getY(index);
+        }
+
+        @Override
+        public double bulge() {
+            return path.getBulge(index);
+        }
+
+        @Override
+        public void bulge(double bulge) {
+            path.setBulge(index, bulge);
+        }
+    }
+}
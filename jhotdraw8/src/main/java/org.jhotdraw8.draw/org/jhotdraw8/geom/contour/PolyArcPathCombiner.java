@@ -0,0 +1,678 @@
+/*
+ * @(#)PolyArcPathCombiner.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom.contour;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.collection.IntArrayDeque;
+import org.jhotdraw8.collection.IntArrayList;
+import org.jhotdraw8.geom.AABB;
+import org.jhotdraw8.geom.Geom;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.jhotdraw8.geom.contour.BulgeConversionFunctions.arcRadiusAndCenter;
+import static org.jhotdraw8.geom.contour.PlineVertex.createFastApproxBoundingBox;
+import static org.jhotdraw8.geom.contour.PlineVertex.segMidpoint;
+import static org.jhotdraw8.geom.contour.PlineVertex.splitAtPoint;
+
+/**
+ * Performs boolean operations on regions that are bounded by closed
+ * {@link PolyArcPath}s.
+ * <p>
+ * A region is given by a list of polylines. The polylines are treated as
+ * closed, and they must not intersect each other. A polyline that is
+ * contained in an odd number of other polylines of the same region
+ * bounds a hole.
+ * <p>
+ * The polylines of both regions are sliced at their intersection points.
+ * The slices that lie on the boundary of the result are kept and stitched
+ * together into closed polylines again. Intersection points are found with
+ * {@link ContourIntersections#findIntersects}, which only tests segments
+ * whose bounding boxes overlap in a {@link StaticSpatialIndex}. The
+ * point-in-region tests use the same spatial indices.
+ * <p>
+ * A slice is classified by testing whether a point slightly on its left
+ * side and a point slightly on its right side of its midpoint are inside the
+ * other region. This also classifies slices that coincide with a slice of
+ * the other region.
+ * <p>
+ * The resulting polylines are oriented counter clockwise, the polylines
+ * that bound holes are oriented clockwise. Therefore, the result can be
+ * filled with the even-odd and with the non-zero winding rule.
+ * <p>
+ * This code has been derived from Cavalier Contours [1].
+ * <p>
+ * References:
+ * <dl>
+ *     <dt>[1] Cavalier Contours</dt>
+ *     <dd>Cavalier Contours, Copyright (c) 2019 Jedidiah Buck McCready, MIT License.
+ *     <a href="https://github.com/jbuckmccready/CavalierContours">github.com</a></dd>
+ * </dl>
+ *
+ * @author Werner Randelshofer
+ */
+public class PolyArcPathCombiner {
+    /**
+     * Distance from the midpoint of a slice at which we test whether the
+     * slice is inside or outside the other region.
+     */
+    private static final double SAMPLE_OFFSET = Utils.sliceJoinThreshold;
+
+    private static final int OUTSIDE = 0;
+    private static final int INSIDE = 1;
+    /**
+     * The slice coincides with the boundary of the other region, and
+     * the other region is on the same side of the slice.
+     */
+    private static final int COINCIDENT_SAME = 2;
+    /**
+     * The slice coincides with the boundary of the other region, and
+     * the other region is on the opposite side of the slice.
+     */
+    private static final int COINCIDENT_OPPOSITE = 3;
+
+    private PolyArcPathCombiner() {
+    }
+
+    /**
+     * Combines region 'a' with region 'b'.
+     *
+     * @param a    the polylines of region 'a'
+     * @param b    the polylines of region 'b'
+     * @param mode the boolean operation
+     * @return the polylines of the resulting region
+     */
+    public static @NonNull List<PolyArcPath> combine(@NonNull List<PolyArcPath> a, @NonNull List<PolyArcPath> b,
+                                                     @NonNull PlineCombineMode mode) {
+        return combine(new Region(a), new Region(b), mode);
+    }
+
+    /**
+     * Combines all regions from left to right.
+     * <p>
+     * {@link PlineCombineMode#Union} and {@link PlineCombineMode#XOR} are
+     * associative and commutative. For these operations, the regions are
+     * partitioned into groups with overlapping bounds, and the groups are
+     * combined in parallel.
+     *
+     * @param regions the regions, each given by a list of polylines
+     * @param mode    the boolean operation
+     * @return the polylines of the resulting region
+     */
+    public static @NonNull List<PolyArcPath> combineAll(@NonNull List<? extends List<PolyArcPath>> regions,
+                                                        @NonNull PlineCombineMode mode) {
+        List<Region> rs = regions.parallelStream().map(Region::new).collect(Collectors.toList());
+        switch (mode) {
+        case Union:
+        case XOR:
+            return groupByOverlappingBounds(rs).parallelStream()
+                    .map(group -> combineSequentially(group, mode))
+                    .flatMap(List::stream)
+                    .collect(Collectors.toList());
+        default:
+            return combineSequentially(rs, mode);
+        }
+    }
+
+    private static @NonNull List<PolyArcPath> combineSequentially(@NonNull List<Region> regions, @NonNull PlineCombineMode mode) {
+        if (regions.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Region acc = regions.get(0);
+        List<PolyArcPath> result = acc.paths;
+        for (int i = 1, n = regions.size(); i < n; i++) {
+            result = combine(acc, regions.get(i), mode);
+            if (i < n - 1) {
+                acc = new Region(result, true);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Partitions the regions into groups, so that the bounds of the regions
+     * in different groups do not overlap.
+     */
+    private static @NonNull List<List<Region>> groupByOverlappingBounds(@NonNull List<Region> regions) {
+        int n = regions.size();
+        int[] parent = IntStream.range(0, n).toArray();
+        if (n > 1) {
+            StaticSpatialIndex index = new StaticSpatialIndex(n);
+            for (Region r : regions) {
+                index.add(r.minX, r.minY, r.maxX, r.maxY);
+            }
+            index.finish();
+            IntArrayDeque stack = new IntArrayDeque(16);
+            for (int i = 0; i < n; i++) {
+                Region r = regions.get(i);
+                if (r.isEmpty()) {
+                    continue;
+                }
+                final int ii = i;
+                index.visitQuery(r.minX, r.minY, r.maxX, r.maxY, j -> {
+                    if (!regions.get(j).isEmpty()) {
+                        parent[find(parent, ii)] = find(parent, j);
+                    }
+                    return true;
+                }, stack);
+            }
+        }
+        Map<Integer, List<Region>> groups = new HashMap<>();
+        List<List<Region>> result = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            List<Region> group = groups.computeIfAbsent(find(parent, i), k -> new ArrayList<>());
+            if (group.isEmpty()) {
+                result.add(group);
+            }
+            group.add(regions.get(i));
+        }
+        return result;
+    }
+
+    private static int find(@NonNull int[] parent, int i) {
+        while (parent[i] != i) {
+            i = parent[i] = parent[parent[i]];
+        }
+        return i;
+    }
+
+    private static @NonNull List<PolyArcPath> combine(@NonNull Region a, @NonNull Region b, @NonNull PlineCombineMode mode) {
+        List<PolyArcPath> result = new ArrayList<>();
+        if (!a.intersectsBounds(b)) {
+            switch (mode) {
+            case Union:
+            case XOR:
+                result.addAll(a.paths);
+                result.addAll(b.paths);
+                break;
+            case Exclude:
+                result.addAll(a.paths);
+                break;
+            case Intersect:
+            default:
+                break;
+            }
+            return result;
+        }
+
+        // find all intersects between the polylines of 'a' and 'b'
+        List<Map<Integer, List<Point2D.Double>>> splitsA = new ArrayList<>();
+        List<Map<Integer, List<Point2D.Double>>> splitsB = new ArrayList<>();
+        for (int i = 0; i < a.paths.size(); i++) {
+            splitsA.add(new HashMap<>());
+        }
+        for (int j = 0; j < b.paths.size(); j++) {
+            splitsB.add(new HashMap<>());
+        }
+        for (int i = 0; i < a.paths.size(); i++) {
+            for (int j = 0; j < b.paths.size(); j++) {
+                if (!a.intersectsBounds(i, b, j)) {
+                    continue;
+                }
+                PlineIntersectsResult intrs = new PlineIntersectsResult();
+                ContourIntersections.findIntersects(a.paths.get(i), b.paths.get(j), a.indices.get(i), intrs);
+                for (PlineIntersect intr : intrs.intersects) {
+                    splitsA.get(i).computeIfAbsent(intr.sIndex1, k -> new ArrayList<>()).add(intr.pos);
+                    splitsB.get(j).computeIfAbsent(intr.sIndex2, k -> new ArrayList<>()).add(intr.pos);
+                }
+                for (PlineCoincidentIntersect intr : intrs.coincidentIntersects) {
+                    List<Point2D.Double> sa = splitsA.get(i).computeIfAbsent(intr.sIndex1, k -> new ArrayList<>());
+                    sa.add(intr.point1);
+                    sa.add(intr.point2);
+                    List<Point2D.Double> sb = splitsB.get(j).computeIfAbsent(intr.sIndex2, k -> new ArrayList<>());
+                    sb.add(intr.point1);
+                    sb.add(intr.point2);
+                }
+            }
+        }
+
+        // slice the polylines and keep the slices that bound the result
+        List<PolyArcPath> kept = new ArrayList<>();
+        for (int i = 0; i < a.paths.size(); i++) {
+            for (PolyArcPath slice : slice(a.paths.get(i), splitsA.get(i))) {
+                int c = classify(slice, b);
+                switch (mode) {
+                case Union:
+                    addIf(c == OUTSIDE || c == COINCIDENT_SAME, false, slice, kept);
+                    break;
+                case Exclude:
+                    addIf(c == OUTSIDE || c == COINCIDENT_OPPOSITE, false, slice, kept);
+                    break;
+                case Intersect:
+                    addIf(c == INSIDE || c == COINCIDENT_SAME, false, slice, kept);
+                    break;
+                case XOR:
+                default:
+                    addIf(c == OUTSIDE || c == INSIDE, c == INSIDE, slice, kept);
+                    break;
+                }
+            }
+        }
+        for (int j = 0; j < b.paths.size(); j++) {
+            for (PolyArcPath slice : slice(b.paths.get(j), splitsB.get(j))) {
+                int c = classify(slice, a);
+                switch (mode) {
+                case Union:
+                    addIf(c == OUTSIDE, false, slice, kept);
+                    break;
+                case Exclude:
+                    addIf(c == INSIDE, true, slice, kept);
+                    break;
+                case Intersect:
+                    addIf(c == INSIDE, false, slice, kept);
+                    break;
+                case XOR:
+                default:
+                    addIf(c == OUTSIDE || c == INSIDE, c == INSIDE, slice, kept);
+                    break;
+                }
+            }
+        }
+
+        stitchSlicesTogether(kept, result);
+        return result;
+    }
+
+    private static void addIf(boolean keep, boolean reverse, @NonNull PolyArcPath slice, @NonNull List<PolyArcPath> kept) {
+        if (keep) {
+            kept.add(reverse ? reversedCopy(slice) : slice);
+        }
+    }
+
+    private static @NonNull PolyArcPath reversedCopy(@NonNull PolyArcPath pline) {
+        PolyArcPath copy = new PolyArcPath(pline.size());
+        for (PlineVertex v : pline) {
+            copy.add(new PlineVertex(v.getX(), v.getY(), v.bulge()));
+        }
+        copy.isClosed(pline.isClosed());
+        PolyArcPath.invertDirection(copy);
+        return copy;
+    }
+
+    /**
+     * Slices a closed polyline at the specified points.
+     * <p>
+     * Returns the polyline itself if there are no points, otherwise returns
+     * open slices. The last vertex of each slice has a bulge of 0 and is
+     * at the same position as the first vertex of the next slice.
+     *
+     * @param pline  a closed polyline
+     * @param splits map from segment start index to points on the segment
+     * @return the slices
+     */
+    private static @NonNull List<PolyArcPath> slice(@NonNull PolyArcPath pline, @NonNull Map<Integer, List<Point2D.Double>> splits) {
+        List<PolyArcPath> slices = new ArrayList<>();
+        if (splits.isEmpty()) {
+            slices.add(pline);
+            return slices;
+        }
+
+        // points that are at a vertex cut the polyline at the vertex,
+        // the other points are sorted by distance from the segment start
+        int n = pline.size();
+        boolean[] cutAtVertex = new boolean[n];
+        Map<Integer, List<Point2D.Double>> interior = new HashMap<>();
+        for (Map.Entry<Integer, List<Point2D.Double>> entry : splits.entrySet()) {
+            int i = entry.getKey();
+            int j = Utils.nextWrappingIndex(i, pline);
+            Point2D.Double startPos = pline.get(i).pos();
+            Point2D.Double endPos = pline.get(j).pos();
+            List<Point2D.Double> points = entry.getValue();
+            points.sort(Comparator.comparingDouble(p -> p.distanceSq(startPos)));
+            List<Point2D.Double> interiorPoints = new ArrayList<>();
+            for (Point2D.Double p : points) {
+                if (Geom.almostEqual(p, startPos, Utils.realPrecision)) {
+                    cutAtVertex[i] = true;
+                } else if (Geom.almostEqual(p, endPos, Utils.realPrecision)) {
+                    cutAtVertex[j] = true;
+                } else if (interiorPoints.isEmpty()
+                        || !Geom.almostEqual(p, interiorPoints.get(interiorPoints.size() - 1), Utils.realPrecision)) {
+                    interiorPoints.add(p);
+                }
+            }
+            if (!interiorPoints.isEmpty()) {
+                interior.put(i, interiorPoints);
+            }
+        }
+
+        PolyArcPath current = new PolyArcPath();
+        for (int i = 0; i < n; i++) {
+            PlineVertex v1 = pline.get(i);
+            PlineVertex v2 = pline.get(Utils.nextWrappingIndex(i, pline));
+            if (cutAtVertex[i]) {
+                current = finishSlice(current, v1.pos(), slices);
+            }
+            PlineVertex start = v1;
+            List<Point2D.Double> points = interior.get(i);
+            if (points != null) {
+                for (Point2D.Double p : points) {
+                    SplitResult split = splitAtPoint(start, v2, p);
+                    current.add(new PlineVertex(split.updatedStart.pos(), split.updatedStart.bulge()));
+                    current = finishSlice(current, p, slices);
+                    start = split.splitVertex;
+                }
+            }
+            current.add(new PlineVertex(start.pos(), start.bulge()));
+        }
+        current.add(new PlineVertex(pline.get(0).pos(), 0.0));
+
+        if (!cutAtVertex[0] && !slices.isEmpty()) {
+            // the last slice continues with the first slice
+            current.removeLast();
+            current.addAll(slices.get(0));
+            slices.set(0, current);
+        } else {
+            slices.add(current);
+        }
+
+        slices.removeIf(s -> s.getPathLength() < Utils.realPrecision);
+        return slices;
+    }
+
+    private static @NonNull PolyArcPath finishSlice(@NonNull PolyArcPath current, @NonNull Point2D.Double endPoint,
+                                                    @NonNull List<PolyArcPath> slices) {
+        if (current.isEmpty()) {
+            return current;
+        }
+        current.add(new PlineVertex(endPoint, 0.0));
+        slices.add(current);
+        return new PolyArcPath();
+    }
+
+    /**
+     * Classifies a slice by testing a point on the left and a point on the
+     * right of the midpoint of its longest segment.
+     */
+    private static int classify(@NonNull PolyArcPath slice, @NonNull Region other) {
+        int n = slice.isClosed() ? slice.size() : slice.size() - 1;
+        int longest = 0;
+        double longestLengthSq = -1;
+        for (int i = 0; i < n; i++) {
+            double lengthSq = slice.get(i).pos().distanceSq(slice.get(Utils.nextWrappingIndex(i, slice)).pos());
+            if (lengthSq > longestLengthSq) {
+                longest = i;
+                longestLengthSq = lengthSq;
+            }
+        }
+        PlineVertex v1 = slice.get(longest);
+        PlineVertex v2 = slice.get(Utils.nextWrappingIndex(longest, slice));
+
+        // at the midpoint of an arc, the tangent is parallel to the chord
+        Point2D.Double mid = segMidpoint(v1, v2);
+        double length = Math.sqrt(longestLengthSq);
+        double nx = -(v2.getY() - v1.getY()) / length * SAMPLE_OFFSET;
+        double ny = (v2.getX() - v1.getX()) / length * SAMPLE_OFFSET;
+        boolean left = other.contains(mid.getX() + nx, mid.getY() + ny);
+        boolean right = other.contains(mid.getX() - nx, mid.getY() - ny);
+        if (left == right) {
+            return left ? INSIDE : OUTSIDE;
+        }
+        return left ? COINCIDENT_SAME : COINCIDENT_OPPOSITE;
+    }
+
+    /**
+     * Joins the slices into closed polylines. Slices are joined where the
+     * end point of a slice matches the start point of another slice.
+     * Slices that are already closed are added to the result as they are.
+     */
+    private static void stitchSlicesTogether(@NonNull List<PolyArcPath> slices, @NonNull List<PolyArcPath> result) {
+        final double joinThreshold = Utils.sliceJoinThreshold;
+        List<PolyArcPath> open = new ArrayList<>();
+        for (PolyArcPath slice : slices) {
+            if (slice.isClosed()) {
+                result.add(slice);
+            } else {
+                open.add(slice);
+            }
+        }
+        if (open.isEmpty()) {
+            return;
+        }
+
+        StaticSpatialIndex spatialIndex = new StaticSpatialIndex(open.size());
+        for (PolyArcPath slice : open) {
+            Point2D.Double p = slice.get(0).pos();
+            spatialIndex.add(p.getX() - joinThreshold, p.getY() - joinThreshold,
+                    p.getX() + joinThreshold, p.getY() + joinThreshold);
+        }
+        spatialIndex.finish();
+
+        boolean[] visited = new boolean[open.size()];
+        IntArrayList queryResults = new IntArrayList();
+        IntArrayDeque queryStack = new IntArrayDeque(8);
+        for (int i = 0; i < open.size(); i++) {
+            if (visited[i]) {
+                continue;
+            }
+            visited[i] = true;
+            PolyArcPath loop = new PolyArcPath();
+            loop.addAll(open.get(i));
+            Point2D.Double startPos = loop.get(0).pos();
+            Point2D.Double endPos = loop.lastVertex().pos();
+            while (!Geom.almostEqual(startPos, endPos, joinThreshold)) {
+                queryResults.clear();
+                spatialIndex.query(endPos.getX() - joinThreshold, endPos.getY() - joinThreshold,
+                        endPos.getX() + joinThreshold, endPos.getY() + joinThreshold, queryResults, queryStack);
+                queryResults.sort();
+                // if more than one slice starts at the end point, take the
+                // sharpest left turn, so that the loop does not cross itself
+                int next = -1;
+                double nextTurn = Double.NEGATIVE_INFINITY;
+                double endAngle = tangentAngle(loop.get(loop.size() - 2), loop.lastVertex(), false);
+                for (int k = 0, m = queryResults.size(); k < m; k++) {
+                    int j = queryResults.get(k);
+                    PolyArcPath candidate = open.get(j);
+                    if (!visited[j] && Geom.almostEqual(endPos, candidate.get(0).pos(), joinThreshold)) {
+                        double turn = Utils.deltaAngle(endAngle, tangentAngle(candidate.get(0), candidate.get(1), true));
+                        if (turn > nextTurn) {
+                            next = j;
+                            nextTurn = turn;
+                        }
+                    }
+                }
+                if (next < 0) {
+                    // the slices do not form a closed loop: close it with a line segment
+                    break;
+                }
+                visited[next] = true;
+                loop.removeLast();
+                loop.addAll(open.get(next));
+                endPos = loop.lastVertex().pos();
+            }
+            if (Geom.almostEqual(startPos, endPos, joinThreshold)) {
+                loop.removeLast();
+            }
+            loop.isClosed(true);
+            if (loop.size() > 1 && Math.abs(loop.getArea()) > Utils.realPrecision) {
+                result.add(loop);
+            }
+        }
+    }
+
+    /**
+     * Computes the angle of the tangent at the start or at the end of a
+     * segment. The tangent of an arc is rotated by half of its sweep angle
+     * with respect to its chord.
+     */
+    private static double tangentAngle(@NonNull PlineVertex v1, @NonNull PlineVertex v2, boolean atStart) {
+        double chordAngle = Utils.angle(v1.pos(), v2.pos());
+        double halfSweep = 2 * Math.atan(v1.bulge());
+        return atStart ? chordAngle - halfSweep : chordAngle + halfSweep;
+    }
+
+    /**
+     * A region bounded by closed polylines, with a spatial index
+     * for each polyline.
+     */
+    private static class Region {
+        final @NonNull List<PolyArcPath> paths = new ArrayList<>();
+        final @NonNull List<StaticSpatialIndex> indices = new ArrayList<>();
+        final @NonNull List<AABB> bounds = new ArrayList<>();
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY,
+                maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        private final @NonNull IntArrayDeque queryStack = new IntArrayDeque(8);
+
+        Region(@NonNull List<PolyArcPath> plines) {
+            this(plines, false);
+        }
+
+        /**
+         * Creates a new region.
+         *
+         * @param plines   the polylines
+         * @param oriented whether the polylines are already oriented,
+         *                 this is the case for polylines that have been
+         *                 created by the combiner
+         */
+        Region(@NonNull List<PolyArcPath> plines, boolean oriented) {
+            for (PolyArcPath pline : plines) {
+                PolyArcPath copy = normalizedCopy(pline);
+                if (copy != null) {
+                    paths.add(copy);
+                    indices.add(PolyArcPath.createApproxSpatialIndex(copy));
+                }
+            }
+
+            // orient outer polylines counter clockwise and holes clockwise
+            boolean[] invert = new boolean[paths.size()];
+            for (int i = 0; i < paths.size() && !oriented; i++) {
+                PolyArcPath pline = paths.get(i);
+                PlineVertex v = pline.get(0);
+                int depth = 0;
+                for (int j = 0; j < paths.size(); j++) {
+                    if (i != j && winding(paths.get(j), indices.get(j), v.getX(), v.getY()) != 0) {
+                        depth++;
+                    }
+                }
+                double area = pline.getArea();
+                invert[i] = (depth & 1) == 0 ? area < 0 : area > 0;
+            }
+            for (int i = 0; i < paths.size(); i++) {
+                PolyArcPath pline = paths.get(i);
+                if (invert[i]) {
+                    PolyArcPath.invertDirection(pline);
+                    indices.set(i, PolyArcPath.createApproxSpatialIndex(pline));
+                }
+                AABB b = computeBounds(pline);
+                bounds.add(b);
+                minX = Math.min(minX, b.getMinX());
+                minY = Math.min(minY, b.getMinY());
+                maxX = Math.max(maxX, b.getMaxX());
+                maxY = Math.max(maxY, b.getMaxY());
+            }
+        }
+
+        boolean isEmpty() {
+            return paths.isEmpty();
+        }
+
+        boolean intersectsBounds(@NonNull Region that) {
+            return !isEmpty() && !that.isEmpty()
+                    && minX <= that.maxX && that.minX <= maxX
+                    && minY <= that.maxY && that.minY <= maxY;
+        }
+
+        boolean intersectsBounds(int i, @NonNull Region that, int j) {
+            AABB a = bounds.get(i);
+            AABB b = that.bounds.get(j);
+            return a.getMinX() <= b.getMaxX() && b.getMinX() <= a.getMaxX()
+                    && a.getMinY() <= b.getMaxY() && b.getMinY() <= a.getMaxY();
+        }
+
+        /**
+         * Returns true if the point is inside the region, using the
+         * non-zero winding rule.
+         */
+        boolean contains(double x, double y) {
+            if (!(minX <= x && x <= maxX && minY <= y && y <= maxY)) {
+                return false;
+            }
+            int winding = 0;
+            for (int i = 0; i < paths.size(); i++) {
+                AABB b = bounds.get(i);
+                if (b.getMinX() <= x && x <= b.getMaxX() && b.getMinY() <= y && y <= b.getMaxY()) {
+                    winding += winding(paths.get(i), indices.get(i), x, y);
+                }
+            }
+            return winding != 0;
+        }
+
+        /**
+         * Computes the winding number of a closed polyline around a point.
+         * <p>
+         * Only the segments that may cross a ray from the point to the right
+         * are visited. An arc segment winds around the points between its chord
+         * and the arc once more than its chord does.
+         */
+        private int winding(@NonNull PolyArcPath pline, @NonNull StaticSpatialIndex index, double x, double y) {
+            int[] winding = new int[1];
+            index.visitQuery(x, y, Double.MAX_VALUE, y, i -> {
+                PlineVertex v1 = pline.get(i);
+                PlineVertex v2 = pline.get(Utils.nextWrappingIndex(i, pline));
+                double x1 = v1.getX(), y1 = v1.getY(), x2 = v2.getX(), y2 = v2.getY();
+                double isLeft = (x2 - x1) * (y - y1) - (x - x1) * (y2 - y1);
+                if (y1 <= y) {
+                    if (y2 > y && isLeft > 0) {
+                        winding[0]++;
+                    }
+                } else if (y2 <= y && isLeft < 0) {
+                    winding[0]--;
+                }
+                if (!v1.bulgeIsZero() && isLeft * v1.bulge() < 0) {
+                    BulgeConversionFunctions.ArcRadiusAndCenter arc = arcRadiusAndCenter(v1, v2);
+                    if (arc.center.distanceSq(x, y) < arc.radius * arc.radius) {
+                        winding[0] += v1.bulgeIsPos() ? 1 : -1;
+                    }
+                }
+                return true;
+            }, queryStack);
+            return winding[0];
+        }
+
+        private static @NonNull AABB computeBounds(@NonNull PolyArcPath pline) {
+            double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY,
+                    maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            for (int i = 0, n = pline.size(); i < n; i++) {
+                AABB b = createFastApproxBoundingBox(pline.get(i), pline.get(Utils.nextWrappingIndex(i, pline)));
+                minX = Math.min(minX, b.getMinX());
+                minY = Math.min(minY, b.getMinY());
+                maxX = Math.max(maxX, b.getMaxX());
+                maxY = Math.max(maxY, b.getMaxY());
+            }
+            return new AABB(minX, minY, maxX, maxY);
+        }
+
+        /**
+         * Creates a closed copy of the polyline without repeated vertices.
+         * Returns null if the polyline does not enclose an area.
+         */
+        private static @Nullable PolyArcPath normalizedCopy(@NonNull PolyArcPath pline) {
+            PolyArcPath copy = new PolyArcPath(pline.size());
+            for (PlineVertex v : pline) {
+                if (!copy.isEmpty() && Geom.almostEqual(copy.lastVertex().pos(), v.pos(), Utils.realPrecision)) {
+                    copy.setBulge(copy.size() - 1, v.bulge());
+                } else {
+                    copy.add(new PlineVertex(v.getX(), v.getY(), v.bulge()));
+                }
+            }
+            while (copy.size() > 1 && Geom.almostEqual(copy.lastVertex().pos(), copy.get(0).pos(), Utils.realPrecision)) {
+                copy.removeLast();
+            }
+            copy.isClosed(true);
+            if (copy.size() < 2 || Math.abs(copy.getArea()) <= Utils.realPrecision) {
+                return null;
+            }
+            return copy;
+        }
+    }
+}
@@ -7,6 +7,8 @@ package org.jhotdraw8.geom.contour;
 import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.collection.IntArrayDeque;
 import org.jhotdraw8.collection.IntArrayList;
+import org.jhotdraw8.collection.IntPriorityQueue;
+import org.jhotdraw8.geom.SpatialIndex;
 
 import java.util.function.IntPredicate;
 
@@ -21,6 +23,7 @@ import static java.lang.Math.min;
  * <p>
  * The spatial index is static, which means that you can not add, remove
  * or change elements after you have called the {@link #finish()} method.
+ * Use {@link org.jhotdraw8.geom.DynamicSpatialIndex} if elements change.
  * <p>
  * The spatial index is implemented using a Hilbert R-tree [1].
  * <p>
@@ -37,7 +40,7 @@ import static java.lang.Math.min;
  *     <a href="https://github.com/jbuckmccready/CavalierContours">github.com</a></dd>
  * </dl>
  */
-public class StaticSpatialIndex {
+public class StaticSpatialIndex implements SpatialIndex {
     /**
      * Points for each added element to the first element in the m_boxes
      * array that describes the bounding box of the element.
@@ -466,7 +469,13 @@ public class StaticSpatialIndex {
         visitQuery(minX, minY, maxX, maxY, visitor, stack);
     }
 
-    void visitQuery(double minX, double minY, double maxX, double maxY, IntPredicate visitor) {
+    /**
+     * Query the spatial index, invoking a visitor function for each index that overlaps the bounding
+     * box given. Visitor function has the signature boolean(int index), if visitor returns false
+     * the query stops early, otherwise the query continues.
+     */
+    @Override
+    public void visitQuery(double minX, double minY, double maxX, double maxY, @NonNull IntPredicate visitor) {
         IntArrayDeque stack = new IntArrayDeque(16);
         visitQuery(minX, minY, maxX, maxY, visitor, stack);
     }
@@ -524,6 +533,58 @@ public class StaticSpatialIndex {
         }
     }
 
+    @Override
+    public void visitNearest(double x, double y, int k, double maxDistance, @NonNull DistanceVisitor visitor) {
+        if (m_pos != 4 * m_numNodes) {
+            throw new IllegalStateException("data not yet indexed - call Finish() before querying");
+        }
+        if (k <= 0) {
+            return;
+        }
+
+        // best first search: the queue holds node positions (>= 0) and item indexes (encoded as -index-1)
+        double maxDistSq = maxDistance * maxDistance;
+        IntPriorityQueue queue = new IntPriorityQueue(nodeSize * 2);
+        int nodeIndex = 4 * m_numNodes - 4;
+        int level = m_numLevels - 1;
+        int count = 0;
+
+        while (true) {
+            int end = min(nodeIndex + nodeSize * 4, m_levelBounds[level]);
+            for (int pos = nodeIndex; pos < end; pos += 4) {
+                int index = m_indices[pos >> 2];
+                double distSq = SpatialIndex.squaredDistanceToBox(x, y,
+                        m_boxes[pos], m_boxes[pos + 1], m_boxes[pos + 2], m_boxes[pos + 3]);
+                if (distSq <= maxDistSq) {
+                    queue.add(nodeIndex < m_numItems * 4 ? -index - 1 : index, distSq);
+                }
+            }
+
+            // visit all items that are nearer than any remaining node
+            while (!queue.isEmpty() && queue.peek() < 0) {
+                double distSq = queue.peekPriority();
+                int index = -queue.remove() - 1;
+                if (!visitor.visit(index, distSq) || ++count == k) {
+                    return;
+                }
+            }
+            if (queue.isEmpty()) {
+                return;
+            }
+
+            nodeIndex = queue.remove();
+            level = 0;
+            while (nodeIndex >= m_levelBounds[level]) {
+                level++;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return m_numItems;
+    }
+
     /**
      * Quicksort that partially sorts the bounding box data alongside the Hilbert values.
      */
@@ -63,7 +63,15 @@ public class IntersectCircleCubicCurve {
 
     public static IntersectionResultEx intersectCubicCurveCircleEx(double x0, double y0, double x1, double y1, double x2, double y2, double x3, double y3,
                                                                    double cx, double cy, double r, double epsilon) {
-        IntersectionResult result = intersectCubicCurveCircle(x0, y0, x1, y1, x2, y2, x3, y3, cx, cy, r, epsilon);
+        return intersectCubicCurveCircleEx(x0, y0, x1, y1, x2, y2, x3, y3, cx, cy, r, epsilon, new IntersectionScratch());
+    }
+
+    public static IntersectionResultEx intersectCubicCurveCircleEx(double x0, double y0, double x1, double y1, double x2, double y2, double x3, double y3,
+                                                                   double cx, double cy, double r, double epsilon,
+                                                                   @NonNull IntersectionScratch scratch) {
+        IntersectionResult result = IntersectCubicCurveEllipse.intersectCubicCurveEllipse(
+                new Point2D.Double(x0, y0), new Point2D.Double(x1, y1), new Point2D.Double(x2, y2), new Point2D.Double(x3, y3),
+                new Point2D.Double(cx, cy), r, r, epsilon, scratch);
         @NonNull List<IntersectionPointEx> list = new ArrayList<>();
         for (IntersectionPoint ip : result) {
             double x = ip.getX();
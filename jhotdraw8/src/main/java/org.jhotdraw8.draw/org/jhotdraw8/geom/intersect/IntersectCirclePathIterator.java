@@ -5,6 +5,7 @@
 package org.jhotdraw8.geom.intersect;
 
 import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.geom.Geom;
 
 import java.awt.geom.PathIterator;
 import java.util.ArrayList;
@@ -28,6 +29,7 @@ public class IntersectCirclePathIterator {
         List<IntersectionPointEx> result = new ArrayList<>();
         IntersectionStatus status = IntersectionStatus.NO_INTERSECTION;
         final double[] seg = new double[6];
+        final IntersectionScratch scratch = new IntersectionScratch();
         double firstx = 0, firsty = 0;
         double lastx = 0, lasty = 0;
         double x, y;
@@ -42,7 +44,7 @@ public class IntersectCirclePathIterator {
             case PathIterator.SEG_CUBICTO:
                 x = seg[4];
                 y = seg[5];
-                inter = IntersectCircleCubicCurve.intersectCubicCurveCircleEx(lastx, lasty, seg[0], seg[1], seg[2], seg[3], x, y, cx, cy, r);
+                inter = IntersectCircleCubicCurve.intersectCubicCurveCircleEx(lastx, lasty, seg[0], seg[1], seg[2], seg[3], x, y, cx, cy, r, Geom.REAL_THRESHOLD, scratch);
                 // FIXME add segment number to t
                 result.addAll(inter.asList());
                 lastx = x;
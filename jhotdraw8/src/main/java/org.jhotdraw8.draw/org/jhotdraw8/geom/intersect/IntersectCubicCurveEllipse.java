@@ -5,7 +5,6 @@
 package org.jhotdraw8.geom.intersect;
 
 import org.jhotdraw8.annotation.NonNull;
-import org.jhotdraw8.collection.DoubleArrayList;
 import org.jhotdraw8.geom.BezierCurves;
 import org.jhotdraw8.geom.Geom;
 import org.jhotdraw8.geom.Points2D;
@@ -112,6 +111,27 @@ public class IntersectCubicCurveEllipse {
     public static @NonNull IntersectionResult intersectCubicCurveEllipse(
             @NonNull Point2D p0, @NonNull Point2D p1, @NonNull Point2D p2, @NonNull Point2D p3,
             @NonNull Point2D ec, double rx, double ry, double epsilon) {
+        return intersectCubicCurveEllipse(p0, p1, p2, p3, ec, rx, ry, epsilon, new IntersectionScratch());
+    }
+
+    /**
+     * Computes the intersection between cubic bezier curve 'p' and the given
+     * ellipse. Does not allocate arrays.
+     *
+     * @param p0      control point P0 of 'p'
+     * @param p1      control point P1 of 'p'
+     * @param p2      control point P2 of 'p'
+     * @param p3      control point P3 of 'p'
+     * @param ec      the center of the ellipse
+     * @param rx      the x-radius of the ellipse
+     * @param ry      the y-radius of the ellipse
+     * @param epsilon the tolerance
+     * @param scratch the arrays for finding the roots
+     * @return the computed result
+     */
+    public static @NonNull IntersectionResult intersectCubicCurveEllipse(
+            @NonNull Point2D p0, @NonNull Point2D p1, @NonNull Point2D p2, @NonNull Point2D p3,
+            @NonNull Point2D ec, double rx, double ry, double epsilon, @NonNull IntersectionScratch scratch) {
         Point2D.Double a, b, c, d;       // temporary variables
         List<IntersectionPoint> result = new ArrayList<>();
 
@@ -136,22 +156,22 @@ public class IntersectCubicCurveEllipse {
         c0y = c0.getY();
         ecy = ec.getY();
 
-        Polynomial poly = new Polynomial(
-                c3x * c3x * ryry + c3y * c3y * rxrx,
-                2 * (c3x * c2x * ryry + c3y * c2y * rxrx),
-                2 * (c3x * c1x * ryry + c3y * c1y * rxrx) + c2x * c2x * ryry + c2y * c2y * rxrx,
-                2 * c3x * ryry * (c0x - ecx) + 2 * c3y * rxrx * (c0y - ecy)
-                        + 2 * (c2x * c1x * ryry + c2y * c1y * rxrx),
-                2 * c2x * ryry * (c0x - ecx) + 2 * c2y * rxrx * (c0y - ecy)
-                        + c1x * c1x * ryry + c1y * c1y * rxrx,
-                2 * c1x * ryry * (c0x - ecx) + 2 * c1y * rxrx * (c0y - ecy),
-                c0x * c0x * ryry - 2 * c0y * ecy * rxrx - 2 * c0x * ecx * ryry
-                        + c0y * c0y * rxrx + ecx * ecx * ryry + ecy * ecy * rxrx - rxrx * ryry
-        );
-        DoubleArrayList roots = poly.getRootsInInterval(-epsilon, 1 + epsilon);
-
-        for (int i = 0; i < roots.size(); i++) {
-            double t = Geom.clamp(roots.get(i), 0, 1);
+        final double[] coefs = scratch.coefs;
+        coefs[6] = c3x * c3x * ryry + c3y * c3y * rxrx;
+        coefs[5] = 2 * (c3x * c2x * ryry + c3y * c2y * rxrx);
+        coefs[4] = 2 * (c3x * c1x * ryry + c3y * c1y * rxrx) + c2x * c2x * ryry + c2y * c2y * rxrx;
+        coefs[3] = 2 * c3x * ryry * (c0x - ecx) + 2 * c3y * rxrx * (c0y - ecy)
+                        + 2 * (c2x * c1x * ryry + c2y * c1y * rxrx);
+        coefs[2] = 2 * c2x * ryry * (c0x - ecx) + 2 * c2y * rxrx * (c0y - ecy)
+                        + c1x * c1x * ryry + c1y * c1y * rxrx;
+        coefs[1] = 2 * c1x * ryry * (c0x - ecx) + 2 * c1y * rxrx * (c0y - ecy);
+        coefs[0] = c0x * c0x * ryry - 2 * c0y * ecy * rxrx - 2 * c0x * ecx * ryry
+                        + c0y * c0y * rxrx + ecx * ecx * ryry + ecy * ecy * rxrx - rxrx * ryry;
+        final double[] roots = scratch.roots;
+        final int numRoots = Polynomial.getRootsInInterval(coefs, 7, -epsilon, 1 + epsilon, roots, scratch.scratch);
+
+        for (int i = 0; i < numRoots; i++) {
+            double t = Geom.clamp(roots[i], 0, 1);
 
             result.add(new IntersectionPoint(
                     Points2D.sum(Points2D.multiply(c3, t * t * t), Points2D.multiply(c2, t * t), Points2D.multiply(c1, t), c0), t));
@@ -303,6 +303,84 @@ public class IntersectCubicCurveLine {
         return intersectLineCubicCurveEx(a0x, a0y, a1x, a1y, lastx, lasty, v, v1, v2, v3, x, y, Geom.REAL_THRESHOLD);
     }
 
+    /**
+     * Computes the intersection between line 'a' and cubic bezier curve
+     * 'p' and passes the intersection points to the specified collector.
+     * <p>
+     * This method produces the same intersection points as
+     * {@link #intersectLineCubicCurveEx(double, double, double, double, double, double, double, double, double, double, double, double, double)},
+     * but does not allocate objects.
+     *
+     * @param a0x       start x coordinate of line 'a'
+     * @param a0y       start y coordinate of line 'a'
+     * @param a1x       end x coordinate of line 'a'
+     * @param a1y       end y coordinate of line 'a'
+     * @param p0x       control point P0 of 'p'
+     * @param p0y       control point P0 of 'p'
+     * @param p1x       control point P1 of 'p'
+     * @param p1y       control point P1 of 'p'
+     * @param p2x       control point P2 of 'p'
+     * @param p2y       control point P2 of 'p'
+     * @param p3x       control point P3 of 'p'
+     * @param p3y       control point P3 of 'p'
+     * @param epsilon   the tolerance
+     * @param scratch   an array for the coefficients of the polynomial,
+     *                  must have a length of at least 4
+     * @param roots     an array for the roots of the polynomial,
+     *                  must have a length of at least 4
+     * @param collector the collector
+     * @return false if the collector has stopped the search
+     */
+    public static boolean intersectLineCubicCurve(double a0x, double a0y, double a1x, double a1y,
+                                                  double p0x, double p0y, double p1x, double p1y, double p2x, double p2y, double p3x, double p3y,
+                                                  double epsilon, @NonNull double[] scratch, @NonNull double[] roots,
+                                                  @NonNull IntersectionCollector collector) {
+        // Bezier curve:
+        //     (-P0+3P1-3P2+P3)t^3 + (3P0-6P1+3P2)t^2 + (-3P0+3P1)t + P0
+        //     c3·t³ + c2·t² + c1·t + c0
+        final double c3x = -p0x + 3 * p1x - 3 * p2x + p3x, c3y = -p0y + 3 * p1y - 3 * p2y + p3y;
+        final double c2x = 3 * p0x - 6 * p1x + 3 * p2x, c2y = 3 * p0y - 6 * p1y + 3 * p2y;
+        final double c1x = -3 * p0x + 3 * p1x, c1y = -3 * p0y + 3 * p1y;
+
+        // Normal form of the line: nx·x + ny·y + cl = 0
+        final double nx = a0y - a1y, ny = a1x - a0x;
+        final double cl = a0x * a1y - a1x * a0y;
+
+        // The roots of the rotated curve are the intersections with the line.
+        scratch[0] = nx * p0x + ny * p0y + cl;
+        scratch[1] = nx * c1x + ny * c1y;
+        scratch[2] = nx * c2x + ny * c2y;
+        scratch[3] = nx * c3x + ny * c3y;
+        final int numRoots = Polynomial.getRoots(scratch, 4, roots);
+
+        final double minX = Math.min(a0x, a1x), maxX = Math.max(a0x, a1x);
+        final double minY = Math.min(a0y, a1y), maxY = Math.max(a0y, a1y);
+        for (int i = 0; i < numRoots; i++) {
+            final double t = roots[i];
+            if (0 <= t && t <= 1) {
+                final double x01 = lerp(p0x, p1x, t), y01 = lerp(p0y, p1y, t);
+                final double x12 = lerp(p1x, p2x, t), y12 = lerp(p1y, p2y, t);
+                final double x23 = lerp(p2x, p3x, t), y23 = lerp(p2y, p3y, t);
+                final double x012 = lerp(x01, x12, t), y012 = lerp(y01, y12, t);
+                final double x123 = lerp(x12, x23, t), y123 = lerp(y12, y23, t);
+                final double x = lerp(x012, x123, t), y = lerp(y012, y123, t);
+                final boolean onLine;
+                if (Geom.almostEqual(a0x, a1x, epsilon)) {
+                    onLine = minY <= y && y <= maxY;
+                } else if (Geom.almostEqual(a0y, a1y, epsilon)) {
+                    onLine = minX <= x && x <= maxX;
+                } else {
+                    onLine = minX <= x && x <= maxX && minY <= y && y <= maxY;
+                }
+                if (onLine && !collector.addIntersection(argumentOnLine(a0x, a0y, a1x, a1y, x, y), x, y,
+                        t, x123 - x012, y123 - y012)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     public static IntersectionResultEx intersectCubicCurveLineEx(
             double a0x, double a0y, double a1x, double a1y, double a2x, double a2y, double a3x, double a3y,
             double b0x, double b0y, double b1x, double b1y,
@@ -5,7 +5,6 @@
 package org.jhotdraw8.geom.intersect;
 
 import org.jhotdraw8.annotation.NonNull;
-import org.jhotdraw8.collection.DoubleArrayList;
 import org.jhotdraw8.geom.BezierCurves;
 import org.jhotdraw8.geom.Geom;
 import org.jhotdraw8.geom.Points2D;
@@ -40,7 +39,13 @@ public class IntersectCubicCurvePoint {
     public static @NonNull IntersectionResultEx intersectCubicCurvePointEx(
             double a0x, double a0y, double a1x, double a1y, double a2x, double a2y, double a3x, double a3y,
             double cx, double cy, double epsilon) {
-        IntersectionResult result = intersectCubicCurvePoint(a0x, a0y, a1x, a1y, a2x, a2y, a3x, a3y, cx, cy, epsilon);
+        return intersectCubicCurvePointEx(a0x, a0y, a1x, a1y, a2x, a2y, a3x, a3y, cx, cy, epsilon, new IntersectionScratch());
+    }
+
+    public static @NonNull IntersectionResultEx intersectCubicCurvePointEx(
+            double a0x, double a0y, double a1x, double a1y, double a2x, double a2y, double a3x, double a3y,
+            double cx, double cy, double epsilon, @NonNull IntersectionScratch scratch) {
+        IntersectionResult result = intersectCubicCurvePoint(a0x, a0y, a1x, a1y, a2x, a2y, a3x, a3y, cx, cy, epsilon, scratch);
 
         ArrayList<IntersectionPointEx> list = new ArrayList<>();
         for (IntersectionPoint ip : result) {
@@ -120,6 +125,30 @@ public class IntersectCubicCurvePoint {
     public static @NonNull IntersectionResult intersectCubicCurvePoint(
             double x0, double y0, double x1, double y1, double x2, double y2, double x3, double y3,
             double cx, double cy, double epsilon) {
+        return intersectCubicCurvePoint(x0, y0, x1, y1, x2, y2, x3, y3, cx, cy, epsilon, new IntersectionScratch());
+    }
+
+    /**
+     * Computes the intersection between a cubic bezier curve and a point
+     * with a tolerance radius. Does not allocate arrays.
+     *
+     * @param x0      x-coordinate of control point P0 of the bezier curve
+     * @param y0      y-coordinate of control point P0 of the bezier curve
+     * @param x1      x-coordinate of control point P1 of the bezier curve
+     * @param y1      y-coordinate of control point P1 of the bezier curve
+     * @param x2      x-coordinate of control point P2 of the bezier curve
+     * @param y2      y-coordinate of control point P2 of the bezier curve
+     * @param x3      x-coordinate of control point P3 of the bezier curve
+     * @param y3      y-coordinate of control point P3 of the bezier curve
+     * @param cx      x-coordinate of the point
+     * @param cy      y-coordinate of the point
+     * @param epsilon the tolerance radius
+     * @param scratch the arrays for finding the roots
+     * @return the intersection
+     */
+    public static @NonNull IntersectionResult intersectCubicCurvePoint(
+            double x0, double y0, double x1, double y1, double x2, double y2, double x3, double y3,
+            double cx, double cy, double epsilon, @NonNull IntersectionScratch scratch) {
         // Build polynomial
         final double c3x, c3y, c2x, c2y, c1x, c1y, c0x, c0y;
         c3x = -(x0 - 3 * x1 + 3 * x2 - x3);
@@ -140,12 +169,18 @@ public class IntersectCubicCurvePoint {
         f = 2 * (c0x * c1x + c0y * c1y - c1x * cx - c1y * cy);
 
         // Solve for roots in derivative
-        final DoubleArrayList clampedRoots = new Polynomial(6 * a, 5 * b, 4 * c, 3 * d, 2 * e, f).getRootsInInterval(0, 1);
+        final double[] coefs = scratch.coefs;
+        coefs[0] = f;
+        coefs[1] = 2 * e;
+        coefs[2] = 3 * d;
+        coefs[3] = 4 * c;
+        coefs[4] = 5 * b;
+        coefs[5] = 6 * a;
+        final double[] roots = scratch.roots;
+        int numRoots = Polynomial.getRootsInInterval(coefs, 6, 0, 1, roots, scratch.scratch);
         // Add zero and one, because we have clamped the roots
-        final DoubleArrayList roots = new DoubleArrayList();
-        roots.addAll(clampedRoots);
-        roots.add(0.0);
-        roots.add(1.0);
+        roots[numRoots++] = 0.0;
+        roots[numRoots++] = 1.0;
 
         // Select roots with closest distance to point
         final List<IntersectionPoint> result = new ArrayList<>();
@@ -156,7 +191,8 @@ public class IntersectCubicCurvePoint {
         p3 = new Point2D.Double(x3, y3);
         final double rr = epsilon * epsilon;
         double bestDistance = Double.POSITIVE_INFINITY;
-        for (double t : roots) {
+        for (int i = 0; i < numRoots; i++) {
+            final double t = roots[i];
             final Point2D.Double p;
             p = Points2D.sum(Points2D.multiply(p0, (1 - t) * (1 - t) * (1 - t)),
                     Points2D.multiply(p1, 3 * (1 - t) * (1 - t) * t),
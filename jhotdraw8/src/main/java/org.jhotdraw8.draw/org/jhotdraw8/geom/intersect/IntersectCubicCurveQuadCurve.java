@@ -5,7 +5,6 @@
 package org.jhotdraw8.geom.intersect;
 
 import org.jhotdraw8.annotation.NonNull;
-import org.jhotdraw8.collection.DoubleArrayList;
 import org.jhotdraw8.geom.BezierCurves;
 import org.jhotdraw8.geom.Geom;
 import org.jhotdraw8.geom.Points2D;
@@ -87,6 +86,27 @@ public class IntersectCubicCurveQuadCurve {
      */
     public static IntersectionResult intersectQuadCurveCubicCurve(@NonNull Point2D a0, @NonNull Point2D a1, @NonNull Point2D a2,
                                                                   @NonNull Point2D b0, @NonNull Point2D b1, @NonNull Point2D b2, @NonNull Point2D b3, double epsilon) {
+        return intersectQuadCurveCubicCurve(a0, a1, a2, b0, b1, b2, b3, epsilon, new IntersectionScratch());
+    }
+
+    /**
+     * Computes the intersection between a quadratic bezier curve 'a' and cubic
+     * bezier curve 'b'. Does not allocate arrays.
+     *
+     * @param a0      control point P0 of 'a'
+     * @param a1      control point P1 of 'a'
+     * @param a2      control point P2 of 'a'
+     * @param b0      control point P0 of 'b'
+     * @param b1      control point P1 of 'b'
+     * @param b2      control point P2 of 'b'
+     * @param b3      control point P3 of 'b'
+     * @param epsilon the tolerance
+     * @param scratch the arrays for finding the roots
+     * @return the computed result
+     */
+    public static IntersectionResult intersectQuadCurveCubicCurve(@NonNull Point2D a0, @NonNull Point2D a1, @NonNull Point2D a2,
+                                                                  @NonNull Point2D b0, @NonNull Point2D b1, @NonNull Point2D b2, @NonNull Point2D b3, double epsilon,
+                                                                  @NonNull IntersectionScratch scratch) {
         final Point2D c12, c11, c10;
         final Point2D c23, c22, c21, c20;
         c12 = Points2D.add(a0, Points2D.add(Points2D.multiply(a1, -2), a2));
@@ -130,55 +150,59 @@ public class IntersectCubicCurveQuadCurve {
         c23x2 = c23x * c23x;
         c23y2 = c23y * c23y;
 
-        Polynomial poly = new Polynomial(
-                -2 * c12x * c12y * c23x * c23y + c12x2 * c23y2 + c12y2 * c23x2,
-                -2 * c12x * c12y * c22x * c23y - 2 * c12x * c12y * c22y * c23x + 2 * c12y2 * c22x * c23x
-                        + 2 * c12x2 * c22y * c23y,
-                -2 * c12x * c21x * c12y * c23y - 2 * c12x * c12y * c21y * c23x - 2 * c12x * c12y * c22x * c22y
-                        + 2 * c21x * c12y2 * c23x + c12y2 * c22x2 + c12x2 * (2 * c21y * c23y + c22y2),
-                2 * c10x * c12x * c12y * c23y + 2 * c10y * c12x * c12y * c23x + c11x * c11y * c12x * c23y
+        final double[] coefs = scratch.coefs;
+        coefs[6] = -2 * c12x * c12y * c23x * c23y + c12x2 * c23y2 + c12y2 * c23x2;
+        coefs[5] = -2 * c12x * c12y * c22x * c23y - 2 * c12x * c12y * c22y * c23x + 2 * c12y2 * c22x * c23x
+                        + 2 * c12x2 * c22y * c23y;
+        coefs[4] = -2 * c12x * c21x * c12y * c23y - 2 * c12x * c12y * c21y * c23x - 2 * c12x * c12y * c22x * c22y
+                        + 2 * c21x * c12y2 * c23x + c12y2 * c22x2 + c12x2 * (2 * c21y * c23y + c22y2);
+        coefs[3] = 2 * c10x * c12x * c12y * c23y + 2 * c10y * c12x * c12y * c23x + c11x * c11y * c12x * c23y
                         + c11x * c11y * c12y * c23x - 2 * c20x * c12x * c12y * c23y - 2 * c12x * c20y * c12y * c23x
                         - 2 * c12x * c21x * c12y * c22y - 2 * c12x * c12y * c21y * c22x - 2 * c10x * c12y2 * c23x
                         - 2 * c10y * c12x2 * c23y + 2 * c20x * c12y2 * c23x + 2 * c21x * c12y2 * c22x
-                        - c11y2 * c12x * c23x - c11x2 * c12y * c23y + c12x2 * (2 * c20y * c23y + 2 * c21y * c22y),
-                2 * c10x * c12x * c12y * c22y + 2 * c10y * c12x * c12y * c22x + c11x * c11y * c12x * c22y
+                        - c11y2 * c12x * c23x - c11x2 * c12y * c23y + c12x2 * (2 * c20y * c23y + 2 * c21y * c22y);
+        coefs[2] = 2 * c10x * c12x * c12y * c22y + 2 * c10y * c12x * c12y * c22x + c11x * c11y * c12x * c22y
                         + c11x * c11y * c12y * c22x - 2 * c20x * c12x * c12y * c22y - 2 * c12x * c20y * c12y * c22x
                         - 2 * c12x * c21x * c12y * c21y - 2 * c10x * c12y2 * c22x - 2 * c10y * c12x2 * c22y
                         + 2 * c20x * c12y2 * c22x - c11y2 * c12x * c22x - c11x2 * c12y * c22y + c21x2 * c12y2
-                        + c12x2 * (2 * c20y * c22y + c21y2),
-                2 * c10x * c12x * c12y * c21y + 2 * c10y * c12x * c21x * c12y + c11x * c11y * c12x * c21y
+                        + c12x2 * (2 * c20y * c22y + c21y2);
+        coefs[1] = 2 * c10x * c12x * c12y * c21y + 2 * c10y * c12x * c21x * c12y + c11x * c11y * c12x * c21y
                         + c11x * c11y * c21x * c12y - 2 * c20x * c12x * c12y * c21y - 2 * c12x * c20y * c21x * c12y
                         - 2 * c10x * c21x * c12y2 - 2 * c10y * c12x2 * c21y + 2 * c20x * c21x * c12y2
-                        - c11y2 * c12x * c21x - c11x2 * c12y * c21y + 2 * c12x2 * c20y * c21y,
-                -2 * c10x * c10y * c12x * c12y - c10x * c11x * c11y * c12y - c10y * c11x * c11y * c12x
+                        - c11y2 * c12x * c21x - c11x2 * c12y * c21y + 2 * c12x2 * c20y * c21y;
+        coefs[0] = -2 * c10x * c10y * c12x * c12y - c10x * c11x * c11y * c12y - c10y * c11x * c11y * c12x
                         + 2 * c10x * c12x * c20y * c12y + 2 * c10y * c20x * c12x * c12y + c11x * c20x * c11y * c12y
                         + c11x * c11y * c12x * c20y - 2 * c20x * c12x * c20y * c12y - 2 * c10x * c20x * c12y2
                         + c10x * c11y2 * c12x + c10y * c11x2 * c12y - 2 * c10y * c12x2 * c20y
                         - c20x * c11y2 * c12x - c11x2 * c20y * c12y + c10x2 * c12y2 + c10y2 * c12x2
-                        + c20x2 * c12y2 + c12x2 * c20y2
-        );
-        final DoubleArrayList roots = poly.getRootsInInterval(0, 1);
+                        + c20x2 * c12y2 + c12x2 * c20y2;
+        final double[] roots = scratch.roots;
+        final int numRoots = Polynomial.getRootsInInterval(coefs, 7, 0, 1, roots, scratch.scratch);
 
         List<IntersectionPoint> result = new ArrayList<>();
-        for (int i = 0; i < roots.size(); i++) {
-            double s = roots.get(i);
-            double[] xRoots = new Polynomial(
-                    c12x, c11x,
-                    c10x - c20x - s * c21x - s * s * c22x - s * s * s * c23x
-            ).getRoots();
-            double[] yRoots = new Polynomial(
-                    c12y, c11y,
-                    c10y - c20y - s * c21y - s * s * c22y - s * s * s * c23y
-            ).getRoots();
+        final double[] xCoefs = scratch.xCoefs;
+        final double[] yCoefs = scratch.yCoefs;
+        final double[] xRoots = scratch.xRoots;
+        final double[] yRoots = scratch.yRoots;
+        for (int i = 0; i < numRoots; i++) {
+            double s = roots[i];
+            xCoefs[0] = c10x - c20x - s * c21x - s * s * c22x - s * s * s * c23x;
+            xCoefs[1] = c11x;
+            xCoefs[2] = c12x;
+            final int numXRoots = Polynomial.getRoots(xCoefs, 3, xRoots);
+            yCoefs[0] = c10y - c20y - s * c21y - s * s * c22y - s * s * s * c23y;
+            yCoefs[1] = c11y;
+            yCoefs[2] = c12y;
+            final int numYRoots = Polynomial.getRoots(yCoefs, 3, yRoots);
 
-            if (xRoots.length > 0 && yRoots.length > 0) {
+            if (numXRoots > 0 && numYRoots > 0) {
 
                 checkRoots:
-                for (int j = 0; j < xRoots.length; j++) {
+                for (int j = 0; j < numXRoots; j++) {
                     double xRoot = xRoots[j];
 
                     if (0 <= xRoot && xRoot <= 1) {
-                        for (int k = 0; k < yRoots.length; k++) {
+                        for (int k = 0; k < numYRoots; k++) {
                             if (Math.abs(xRoot - yRoots[k]) < ROOT_X_Y_TOLERANCE) {
                                 result.add(
                                         new IntersectionPoint(
@@ -207,15 +231,16 @@ public class IntersectCubicCurveQuadCurve {
     public static @NonNull IntersectionResult intersectCubicCurveQuadCurve(
             double a0x, double a0y, double a1x, double a1y, double a2x, double a2y, double a3x, double a3y,
             double b0x, double b0y, double b1x, double b1y, double b2x, double b2y, double epsilon) {
+        IntersectionScratch scratch = new IntersectionScratch();
         IntersectionResult resultB = intersectQuadCurveCubicCurve(
                 new Point2D.Double(b0x, b0y), new Point2D.Double(b1x, b1y), new Point2D.Double(b2x, b2y),
                 new Point2D.Double(a0x, a0y), new Point2D.Double(a1x, a1y), new Point2D.Double(a2x, a2y),
-                new Point2D.Double(a3x, a3y), epsilon);
+                new Point2D.Double(a3x, a3y), epsilon, scratch);
         List<IntersectionPoint> list = new ArrayList<>();
         for (IntersectionPoint ip : resultB) {
             double x = ip.getX();
             double y = ip.getY();
-            IntersectionResult resultA = IntersectCubicCurvePoint.intersectCubicCurvePoint(a0x, a0y, a1x, a1y, a2x, a2y, a3x, a3y, x, y, epsilon);
+            IntersectionResult resultA = IntersectCubicCurvePoint.intersectCubicCurvePoint(a0x, a0y, a1x, a1y, a2x, a2y, a3x, a3y, x, y, epsilon, scratch);
             list.add(new IntersectionPoint(x, y, resultA.getFirst().getArgumentA()));
         }
 
@@ -231,15 +256,23 @@ public class IntersectCubicCurveQuadCurve {
     public static @NonNull IntersectionResultEx intersectCubicCurveQuadCurveEx(
             double a0x, double a0y, double a1x, double a1y, double a2x, double a2y, double a3x, double a3y,
             double b0x, double b0y, double b1x, double b1y, double b2x, double b2y, double epsilon) {
+        return intersectCubicCurveQuadCurveEx(a0x, a0y, a1x, a1y, a2x, a2y, a3x, a3y, b0x, b0y, b1x, b1y, b2x, b2y, epsilon,
+                new IntersectionScratch());
+    }
+
+    public static @NonNull IntersectionResultEx intersectCubicCurveQuadCurveEx(
+            double a0x, double a0y, double a1x, double a1y, double a2x, double a2y, double a3x, double a3y,
+            double b0x, double b0y, double b1x, double b1y, double b2x, double b2y, double epsilon,
+            @NonNull IntersectionScratch scratch) {
         IntersectionResult resultB = intersectQuadCurveCubicCurve(
                 new Point2D.Double(b0x, b0y), new Point2D.Double(b1x, b1y), new Point2D.Double(b2x, b2y),
                 new Point2D.Double(a0x, a0y), new Point2D.Double(a1x, a1y), new Point2D.Double(a2x, a2y),
-                new Point2D.Double(a3x, a3y), epsilon);
+                new Point2D.Double(a3x, a3y), epsilon, scratch);
         List<IntersectionPointEx> list = new ArrayList<>();
         for (IntersectionPoint ip : resultB) {
             double x = ip.getX();
             double y = ip.getY();
-            IntersectionResultEx resultA = IntersectCubicCurvePoint.intersectCubicCurvePointEx(a0x, a0y, a1x, a1y, a2x, a2y, a3x, a3y, x, y, CURVE_A_B_TOLERANCE);
+            IntersectionResultEx resultA = IntersectCubicCurvePoint.intersectCubicCurvePointEx(a0x, a0y, a1x, a1y, a2x, a2y, a3x, a3y, x, y, CURVE_A_B_TOLERANCE, scratch);
             // resultA should never by empty, but if this happen we rather have no intersection than a crash.
             if (!resultA.isEmpty()) {
                 IntersectionPointEx firstA = resultA.getFirst();
@@ -255,15 +288,23 @@ public class IntersectCubicCurveQuadCurve {
     public static @NonNull IntersectionResultEx intersectQuadCurveCubicCurveEx(
             double a0x, double a0y, double a1x, double a1y, double a2x, double a2y,
             double b0x, double b0y, double b1x, double b1y, double b2x, double b2y, double b3x, double b3y, double epsilon) {
+        return intersectQuadCurveCubicCurveEx(a0x, a0y, a1x, a1y, a2x, a2y, b0x, b0y, b1x, b1y, b2x, b2y, b3x, b3y, epsilon,
+                new IntersectionScratch());
+    }
+
+    public static @NonNull IntersectionResultEx intersectQuadCurveCubicCurveEx(
+            double a0x, double a0y, double a1x, double a1y, double a2x, double a2y,
+            double b0x, double b0y, double b1x, double b1y, double b2x, double b2y, double b3x, double b3y, double epsilon,
+            @NonNull IntersectionScratch scratch) {
         IntersectionResult resultA = intersectQuadCurveCubicCurve(
                 new Point2D.Double(a0x, a0y), new Point2D.Double(a1x, a1y), new Point2D.Double(a2x, a2y),
                 new Point2D.Double(b0x, b0y), new Point2D.Double(b1x, b1y), new Point2D.Double(b2x, b2y),
-                new Point2D.Double(b3x, b3y), epsilon);
+                new Point2D.Double(b3x, b3y), epsilon, scratch);
         List<IntersectionPointEx> list = new ArrayList<>();
         for (IntersectionPoint ip : resultA) {
             double x = ip.getX();
             double y = ip.getY();
-            IntersectionResultEx resultB = IntersectCubicCurvePoint.intersectCubicCurvePointEx(b0x, b0y, b1x, b1y, b2x, b2y, b3x, b3y, x, y, epsilon);
+            IntersectionResultEx resultB = IntersectCubicCurvePoint.intersectCubicCurvePointEx(b0x, b0y, b1x, b1y, b2x, b2y, b3x, b3y, x, y, epsilon, scratch);
             IntersectionPointEx firstB = resultB.getFirst();
             list.add(new IntersectionPointEx(ip,
                     ip.getArgumentA(), BezierCurves.evalQuadCurveTangent(b0x, b0y, b1x, b1y, b2x, b2y, ip.getArgumentA()),
@@ -5,6 +5,7 @@
 package org.jhotdraw8.geom.intersect;
 
 import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.geom.Geom;
 
 import java.awt.geom.Point2D;
 
@@ -109,6 +110,62 @@ public class IntersectLineLine {
         );
     }
 
+    /**
+     * Intersects line segment 'a' with line segment 'b' and passes the
+     * intersection point to the specified collector.
+     * <p>
+     * This method produces the same intersection points as
+     * {@link #intersectLineLineEx(double, double, double, double, double, double, double, double, double)}
+     * with status {@link IntersectionStatus#INTERSECTION}, but does not
+     * allocate objects unless one of the line segments is degenerated to
+     * a point.
+     *
+     * @param a0x       start x coordinate of line segment 'a'
+     * @param a0y       start y coordinate of line segment 'a'
+     * @param a1x       end x coordinate of line segment 'a'
+     * @param a1y       end y coordinate of line segment 'a'
+     * @param b0x       start x coordinate of line segment 'b'
+     * @param b0y       start y coordinate of line segment 'b'
+     * @param b1x       end x coordinate of line segment 'b'
+     * @param b1y       end y coordinate of line segment 'b'
+     * @param epsilon   the tolerance
+     * @param collector the collector
+     * @return false if the collector has stopped the search
+     */
+    public static boolean intersectLineLine(
+            double a0x, double a0y, double a1x, double a1y,
+            double b0x, double b0y, double b1x, double b1y, double epsilon,
+            @NonNull IntersectionCollector collector) {
+        double adx = a1x - a0x, ady = a1y - a0y;
+        double bdx = b1x - b0x, bdy = b1y - b0y;
+        double doy = a0y - b0y;
+        double dox = a0x - b0x;
+        double ua_t = bdx * doy - bdy * dox;
+        double ub_t = adx * doy - ady * dox;
+        double u_b = bdy * adx - bdx * ady;
+        if (!Geom.almostZero(u_b, epsilon)) {
+            double ua = ua_t / u_b;
+            double ub = ub_t / u_b;
+            if (-epsilon <= ua && ua <= 1 && -epsilon <= ub && ub <= 1) {
+                return collector.addIntersection(ua, a0x + ua * adx, a0y + ua * ady, ub, bdx, bdy);
+            }
+            return true;
+        }
+
+        // The lines are parallel, coincident or degenerated to points.
+        // These cases are rare, so we can afford to allocate here.
+        IntersectionResultEx result = intersectLineLineEx(a0x, a0y, a1x, a1y, b0x, b0y, b1x, b1y, epsilon);
+        if (result.getStatus() == IntersectionStatus.INTERSECTION) {
+            for (IntersectionPointEx ip : result) {
+                if (!collector.addIntersection(ip.getArgumentA(), ip.getX(), ip.getY(),
+                        ip.getArgumentB(), ip.getTangentB().getX(), ip.getTangentB().getY())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     public static IntersectionResult intersectLineLine(
             double a0x, double a0y, double a1x, double a1y,
             double b0x, double b0y, double b1x, double b1y) {
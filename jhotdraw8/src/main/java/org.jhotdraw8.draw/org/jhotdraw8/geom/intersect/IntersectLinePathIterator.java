@@ -5,6 +5,7 @@
 package org.jhotdraw8.geom.intersect;
 
 import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.geom.Geom;
 
 import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
@@ -97,6 +98,115 @@ public class IntersectLinePathIterator {
     }
 
 
+    /**
+     * Intersects line 'a' with the path 'b' and passes the intersection
+     * points to the specified collector.
+     * <p>
+     * This method produces the same intersection points in the same order
+     * as {@link #intersectLinePathIteratorEx(double, double, double, double, PathIterator)},
+     * but it does not allocate objects for them. The collector receives the
+     * parameter and the tangent of the path segment at each intersection
+     * point.
+     *
+     * @param a0x       start x coordinate of line 'a'
+     * @param a0y       start y coordinate of line 'a'
+     * @param a1x       end x coordinate of line 'a'
+     * @param a1y       end y coordinate of line 'a'
+     * @param pit       the path 'b'
+     * @param collector the collector
+     * @return false if the collector has stopped the search
+     */
+    public static boolean intersectLinePathIterator(double a0x, double a0y, double a1x, double a1y, @NonNull PathIterator pit,
+                                                    @NonNull IntersectionCollector collector) {
+        final double[] seg = new double[6];
+        final double[] scratch = new double[4];
+        final double[] roots = new double[4];
+        double firstx = 0, firsty = 0;
+        double lastx = 0, lasty = 0;
+        double x, y;
+        boolean proceed = true;
+        for (; proceed && !pit.isDone(); pit.next()) {
+            switch (pit.currentSegment(seg)) {
+            case PathIterator.SEG_CLOSE:
+                proceed = IntersectLineLine.intersectLineLine(a0x, a0y, a1x, a1y, lastx, lasty, firstx, firsty,
+                        Geom.REAL_THRESHOLD, collector);
+                break;
+            case PathIterator.SEG_CUBICTO:
+                x = seg[4];
+                y = seg[5];
+                proceed = IntersectCubicCurveLine.intersectLineCubicCurve(a0x, a0y, a1x, a1y, lastx, lasty, seg[0], seg[1], seg[2], seg[3], x, y,
+                        Geom.REAL_THRESHOLD, scratch, roots, collector);
+                lastx = x;
+                lasty = y;
+                break;
+            case PathIterator.SEG_LINETO:
+                x = seg[0];
+                y = seg[1];
+                proceed = IntersectLineLine.intersectLineLine(a0x, a0y, a1x, a1y, lastx, lasty, x, y,
+                        Geom.REAL_THRESHOLD, collector);
+                lastx = x;
+                lasty = y;
+                break;
+            case PathIterator.SEG_MOVETO:
+                lastx = firstx = seg[0];
+                lasty = firsty = seg[1];
+                break;
+            case PathIterator.SEG_QUADTO:
+                x = seg[2];
+                y = seg[3];
+                proceed = IntersectLineQuadCurve.intersectLineQuadCurve(a0x, a0y, a1x, a1y, lastx, lasty, seg[0], seg[1], x, y,
+                        Geom.REAL_THRESHOLD, scratch, roots, collector);
+                lastx = x;
+                lasty = y;
+                break;
+            default:
+                break;
+            }
+        }
+        return proceed;
+    }
+
+    /**
+     * Returns true if line 'a' intersects with the path 'b'.
+     * <p>
+     * Stops at the first intersection point that is found and does not
+     * allocate objects for intersection points.
+     *
+     * @param a0x start x coordinate of line 'a'
+     * @param a0y start y coordinate of line 'a'
+     * @param a1x end x coordinate of line 'a'
+     * @param a1y end y coordinate of line 'a'
+     * @param pit the path 'b'
+     * @return true if there is an intersection
+     */
+    public static boolean anyIntersectionLinePathIterator(double a0x, double a0y, double a1x, double a1y, @NonNull PathIterator pit) {
+        return !intersectLinePathIterator(a0x, a0y, a1x, a1y, pit, (t, x, y) -> false);
+    }
+
+    /**
+     * Returns the parameter of line 'a' at the first intersection point
+     * with the path 'b', in the order of the path segments.
+     * <p>
+     * Stops at the first intersection point that is found and does not
+     * allocate objects for intersection points.
+     *
+     * @param a0x start x coordinate of line 'a'
+     * @param a0y start y coordinate of line 'a'
+     * @param a1x end x coordinate of line 'a'
+     * @param a1y end y coordinate of line 'a'
+     * @param pit the path 'b'
+     * @return the parameter of line 'a' at the first intersection point,
+     * or {@link Double#NaN} if there is no intersection
+     */
+    public static double firstIntersectionLinePathIterator(double a0x, double a0y, double a1x, double a1y, @NonNull PathIterator pit) {
+        final double[] first = {Double.NaN};
+        intersectLinePathIterator(a0x, a0y, a1x, a1y, pit, (t, x, y) -> {
+            first[0] = t;
+            return false;
+        });
+        return first[0];
+    }
+
     public static @NonNull IntersectionResultEx intersectLinePathIteratorEx(@NonNull Point2D a0, @NonNull Point2D a1, @NonNull PathIterator pit) {
         IntersectionResultEx i = intersectLinePathIteratorEx(a0, a1, pit, 1.0);
         if (i.getStatus() == IntersectionStatus.INTERSECTION && i.getFirst().getArgumentA() > 1) {
@@ -294,6 +294,77 @@ public class IntersectLineQuadCurve {
 
     }
 
+    /**
+     * Computes the intersection between line 'a' and quadratic bezier curve
+     * 'p' and passes the intersection points to the specified collector.
+     * <p>
+     * This method produces the same intersection points as
+     * {@link #intersectLineQuadCurveEx(double, double, double, double, double, double, double, double, double, double, double)},
+     * but does not allocate objects.
+     *
+     * @param a0x       start x coordinate of line 'a'
+     * @param a0y       start y coordinate of line 'a'
+     * @param a1x       end x coordinate of line 'a'
+     * @param a1y       end y coordinate of line 'a'
+     * @param p0x       control point P0 of 'p'
+     * @param p0y       control point P0 of 'p'
+     * @param p1x       control point P1 of 'p'
+     * @param p1y       control point P1 of 'p'
+     * @param p2x       control point P2 of 'p'
+     * @param p2y       control point P2 of 'p'
+     * @param epsilon   the tolerance
+     * @param scratch   an array for the coefficients of the polynomial,
+     *                  must have a length of at least 3
+     * @param roots     an array for the roots of the polynomial,
+     *                  must have a length of at least 4
+     * @param collector the collector
+     * @return false if the collector has stopped the search
+     */
+    public static boolean intersectLineQuadCurve(double a0x, double a0y, double a1x, double a1y,
+                                                 double p0x, double p0y, double p1x, double p1y, double p2x, double p2y,
+                                                 double epsilon, @NonNull double[] scratch, @NonNull double[] roots,
+                                                 @NonNull IntersectionCollector collector) {
+        // Bezier curve:
+        //   (p0 - 2·p1 + p2)·t² - 2·(p0 - p1)·t + p0
+        //   c2·t² + c1·t + c0
+        final double c2x = p0x - 2 * p1x + p2x, c2y = p0y - 2 * p1y + p2y;
+        final double c1x = -2 * (p0x - p1x), c1y = -2 * (p0y - p1y);
+
+        // Normal form of the line: nx·x + ny·y + cl = 0
+        final double nx = a0y - a1y, ny = a1x - a0x;
+        final double cl = a0x * a1y - a1x * a0y;
+
+        // The roots of the rotated curve are the intersections with the line.
+        scratch[0] = nx * p0x + ny * p0y + cl;
+        scratch[1] = nx * c1x + ny * c1y;
+        scratch[2] = nx * c2x + ny * c2y;
+        final int numRoots = Polynomial.getRoots(scratch, 3, roots);
+
+        final double minX = Math.min(a0x, a1x), maxX = Math.max(a0x, a1x);
+        final double minY = Math.min(a0y, a1y), maxY = Math.max(a0y, a1y);
+        for (int i = 0; i < numRoots; i++) {
+            final double t = roots[i];
+            if (-epsilon <= t && t <= 1 + epsilon) {
+                final double x01 = lerp(p0x, p1x, t), y01 = lerp(p0y, p1y, t);
+                final double x12 = lerp(p1x, p2x, t), y12 = lerp(p1y, p2y, t);
+                final double x = lerp(x01, x12, t), y = lerp(y01, y12, t);
+                final boolean onLine;
+                if (a0x == a1x) {
+                    onLine = minY <= y && y <= maxY;
+                } else if (a0y == a1y) {
+                    onLine = minX <= x && x <= maxX;
+                } else {
+                    onLine = minX <= x && x <= maxX && minY <= y && y <= maxY;
+                }
+                if (onLine && !collector.addIntersection(argumentOnLine(a0x, a0y, a1x, a1y, x, y), x, y,
+                        t, x12 - x01, y12 - y01)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     public static IntersectionResultEx intersectQuadCurveLineEx(
             double p0x, double p0y, double p1x, double p1y, double p2x, double p2y,
             double a0x, double a0y, double a1x, double a1y
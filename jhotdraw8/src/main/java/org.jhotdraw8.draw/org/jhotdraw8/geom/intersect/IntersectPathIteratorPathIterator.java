@@ -0,0 +1,255 @@
+/*
+ * @(#)IntersectPathIteratorPathIterator.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom.intersect;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.collection.IntArrayList;
+import org.jhotdraw8.geom.Geom;
+import org.jhotdraw8.geom.contour.StaticSpatialIndex;
+
+import java.awt.geom.PathIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Intersects two paths with each other.
+ * <p>
+ * Instead of intersecting every segment of path 'a' with every segment of
+ * path 'b', the segments of path 'b' are stored in a
+ * {@link StaticSpatialIndex}. Each segment of path 'a' is only intersected
+ * with the segments of path 'b' whose bounding boxes overlap with its own
+ * bounding box. This reduces the running time from {@code O(n·m)} to
+ * roughly {@code O((n + m)·log(m) + k)}, where {@code k} is the number of
+ * segment pairs with overlapping bounding boxes.
+ * <p>
+ * The bounding box of a segment is the bounding box of its control points.
+ * Since a bézier curve lies within the convex hull of its control points,
+ * no intersections are lost.
+ *
+ * @author Werner Randelshofer
+ */
+public class IntersectPathIteratorPathIterator {
+    private IntersectPathIteratorPathIterator() {
+    }
+
+    /**
+     * Computes the intersections of path 'a' with path 'b'.
+     *
+     * @param a path 'a'
+     * @param b path 'b'
+     * @return computed intersection
+     * @see #intersectPathIteratorPathIteratorEx(PathIterator, PathIterator, double)
+     */
+    public static @NonNull IntersectionResultEx intersectPathIteratorPathIteratorEx(@NonNull PathIterator a, @NonNull PathIterator b) {
+        return intersectPathIteratorPathIteratorEx(a, b, Geom.REAL_THRESHOLD);
+    }
+
+    /**
+     * Computes the intersections of path 'a' with path 'b'.
+     * <p>
+     * The intersection points are ordered by the segments of path 'a' and
+     * then by the segments of path 'b'. This is the same order, in which a
+     * nested loop over all segment pairs would find them.
+     * <p>
+     * {@link IntersectionPointEx#getSegmentA()} and
+     * {@link IntersectionPointEx#getSegmentB()} give the index of the
+     * segment in path 'a' and in path 'b'. Move-to segments are not
+     * counted, a close-path segment is counted as a line segment.
+     * The arguments of the intersection points are the parameters
+     * {@code t} in the range [0,1] of the respective segments.
+     *
+     * @param a       path 'a'
+     * @param b       path 'b'
+     * @param epsilon the tolerance
+     * @return computed intersection
+     */
+    public static @NonNull IntersectionResultEx intersectPathIteratorPathIteratorEx(@NonNull PathIterator a, @NonNull PathIterator b, double epsilon) {
+        Segments segmentsA = new Segments(a);
+        Segments segmentsB = new Segments(b);
+        List<IntersectionPointEx> result = new ArrayList<>();
+        if (segmentsA.size() == 0 || segmentsB.size() == 0) {
+            return new IntersectionResultEx(result);
+        }
+
+        StaticSpatialIndex index = new StaticSpatialIndex(segmentsB.size());
+        double[] bounds = new double[4];
+        for (int j = 0, n = segmentsB.size(); j < n; j++) {
+            segmentsB.getBounds(j, epsilon, bounds);
+            index.add(bounds[0], bounds[1], bounds[2], bounds[3]);
+        }
+        index.finish();
+
+        IntersectionScratch scratch = new IntersectionScratch();
+        IntArrayList candidates = new IntArrayList();
+        IntPredicate collectCandidate = j -> {
+            candidates.add(j);
+            return true;
+        };
+        for (int i = 0, n = segmentsA.size(); i < n; i++) {
+            segmentsA.getBounds(i, epsilon, bounds);
+            candidates.clear();
+            index.visitQuery(bounds[0], bounds[1], bounds[2], bounds[3], collectCandidate);
+            candidates.sort();
+            for (int k = 0, m = candidates.size(); k < m; k++) {
+                int j = candidates.get(k);
+                IntersectionResultEx inter = intersectSegmentSegmentEx(segmentsA, i, segmentsB, j, epsilon, scratch);
+                if (inter.getStatus() == IntersectionStatus.INTERSECTION) {
+                    for (IntersectionPointEx ip : inter) {
+                        result.add(new IntersectionPointEx(ip.getX(), ip.getY(),
+                                ip.getArgumentA(), ip.getTangentA().getX(), ip.getTangentA().getY(), i,
+                                ip.getArgumentB(), ip.getTangentB().getX(), ip.getTangentB().getY(), j));
+                    }
+                }
+            }
+        }
+        return new IntersectionResultEx(result);
+    }
+
+    private static @NonNull IntersectionResultEx intersectSegmentSegmentEx(@NonNull Segments sa, int i, @NonNull Segments sb, int j, double epsilon,
+                                                                    @NonNull IntersectionScratch scratch) {
+        final double[] a = sa.coords, b = sb.coords;
+        final int ai = i * 8, bj = j * 8;
+        switch (sa.degrees[i] * 4 + sb.degrees[j]) {
+        case 1 * 4 + 1:
+            return IntersectLineLine.intersectLineLineEx(
+                    a[ai], a[ai + 1], a[ai + 2], a[ai + 3],
+                    b[bj], b[bj + 1], b[bj + 2], b[bj + 3], epsilon);
+        case 1 * 4 + 2:
+            return IntersectLineQuadCurve.intersectLineQuadCurveEx(
+                    a[ai], a[ai + 1], a[ai + 2], a[ai + 3],
+                    b[bj], b[bj + 1], b[bj + 2], b[bj + 3], b[bj + 4], b[bj + 5], epsilon);
+        case 1 * 4 + 3:
+            return IntersectCubicCurveLine.intersectLineCubicCurveEx(
+                    a[ai], a[ai + 1], a[ai + 2], a[ai + 3],
+                    b[bj], b[bj + 1], b[bj + 2], b[bj + 3], b[bj + 4], b[bj + 5], b[bj + 6], b[bj + 7], epsilon);
+        case 2 * 4 + 1:
+            return IntersectLineQuadCurve.intersectQuadCurveLineEx(
+                    a[ai], a[ai + 1], a[ai + 2], a[ai + 3], a[ai + 4], a[ai + 5],
+                    b[bj], b[bj + 1], b[bj + 2], b[bj + 3], epsilon);
+        case 2 * 4 + 2:
+            return IntersectQuadCurveQuadCurve.intersectQuadCurveQuadCurveEx(
+                    a[ai], a[ai + 1], a[ai + 2], a[ai + 3], a[ai + 4], a[ai + 5],
+                    b[bj], b[bj + 1], b[bj + 2], b[bj + 3], b[bj + 4], b[bj + 5], epsilon);
+        case 2 * 4 + 3:
+            return IntersectCubicCurveQuadCurve.intersectQuadCurveCubicCurveEx(
+                    a[ai], a[ai + 1], a[ai + 2], a[ai + 3], a[ai + 4], a[ai + 5],
+                    b[bj], b[bj + 1], b[bj + 2], b[bj + 3], b[bj + 4], b[bj + 5], b[bj + 6], b[bj + 7], epsilon, scratch);
+        case 3 * 4 + 1:
+            return IntersectCubicCurveLine.intersectCubicCurveLineEx(
+                    a[ai], a[ai + 1], a[ai + 2], a[ai + 3], a[ai + 4], a[ai + 5], a[ai + 6], a[ai + 7],
+                    b[bj], b[bj + 1], b[bj + 2], b[bj + 3], epsilon);
+        case 3 * 4 + 2:
+            return IntersectCubicCurveQuadCurve.intersectCubicCurveQuadCurveEx(
+                    a[ai], a[ai + 1], a[ai + 2], a[ai + 3], a[ai + 4], a[ai + 5], a[ai + 6], a[ai + 7],
+                    b[bj], b[bj + 1], b[bj + 2], b[bj + 3], b[bj + 4], b[bj + 5], epsilon, scratch);
+        case 3 * 4 + 3:
+            return IntersectCubicCurveCubicCurve.intersectCubicCurveCubicCurveEx(
+                    a[ai], a[ai + 1], a[ai + 2], a[ai + 3], a[ai + 4], a[ai + 5], a[ai + 6], a[ai + 7],
+                    b[bj], b[bj + 1], b[bj + 2], b[bj + 3], b[bj + 4], b[bj + 5], b[bj + 6], b[bj + 7], epsilon, scratch);
+        default:
+            throw new AssertionError("illegal degrees: " + sa.degrees[i] + ", " + sb.degrees[j]);
+        }
+    }
+
+    /**
+     * Stores the segments of a path in flat arrays.
+     * <p>
+     * Each segment has 8 entries in the coordinates array. A segment
+     * of degree {@code d} uses the first {@code (d + 1) * 2} entries
+     * for the coordinates of its control points, including the start point.
+     */
+    private static class Segments {
+        private @NonNull double[] coords = new double[8 * 16];
+        private @NonNull int[] degrees = new int[16];
+        private int size;
+
+        Segments(@NonNull PathIterator pit) {
+            final double[] seg = new double[6];
+            double firstx = 0, firsty = 0;
+            double lastx = 0, lasty = 0;
+            for (; !pit.isDone(); pit.next()) {
+                switch (pit.currentSegment(seg)) {
+                case PathIterator.SEG_CLOSE:
+                    add(1, lastx, lasty, firstx, firsty, 0, 0, 0, 0);
+                    lastx = firstx;
+                    lasty = firsty;
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    add(3, lastx, lasty, seg[0], seg[1], seg[2], seg[3], seg[4], seg[5]);
+                    lastx = seg[4];
+                    lasty = seg[5];
+                    break;
+                case PathIterator.SEG_LINETO:
+                    add(1, lastx, lasty, seg[0], seg[1], 0, 0, 0, 0);
+                    lastx = seg[0];
+                    lasty = seg[1];
+                    break;
+                case PathIterator.SEG_MOVETO:
+                    lastx = firstx = seg[0];
+                    lasty = firsty = seg[1];
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    add(2, lastx, lasty, seg[0], seg[1], seg[2], seg[3], 0, 0);
+                    lastx = seg[2];
+                    lasty = seg[3];
+                    break;
+                default:
+                    break;
+                }
+            }
+        }
+
+        private void add(int degree, double x0, double y0, double x1, double y1, double x2, double y2, double x3, double y3) {
+            if (size == degrees.length) {
+                degrees = Arrays.copyOf(degrees, size * 2);
+                coords = Arrays.copyOf(coords, size * 2 * 8);
+            }
+            degrees[size] = degree;
+            int k = size * 8;
+            coords[k] = x0;
+            coords[k + 1] = y0;
+            coords[k + 2] = x1;
+            coords[k + 3] = y1;
+            coords[k + 4] = x2;
+            coords[k + 5] = y2;
+            coords[k + 6] = x3;
+            coords[k + 7] = y3;
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Gets the bounding box of the control points of the specified
+         * segment, grown by a small margin, so that intersections that
+         * are accepted within the tolerance are not lost.
+         *
+         * @param i       the index of the segment
+         * @param epsilon the tolerance
+         * @param bounds  on return contains minX, minY, maxX, maxY
+         */
+        void getBounds(int i, double epsilon, @NonNull double[] bounds) {
+            int k = i * 8;
+            double minX = coords[k], minY = coords[k + 1];
+            double maxX = minX, maxY = minY;
+            for (int end = k + (degrees[i] + 1) * 2; k < end; k += 2) {
+                double x = coords[k], y = coords[k + 1];
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+            }
+            double margin = epsilon * (1 + Math.max(maxX - minX, maxY - minY));
+            bounds[0] = minX - margin;
+            bounds[1] = minY - margin;
+            bounds[2] = maxX + margin;
+            bounds[3] = maxY + margin;
+        }
+    }
+}
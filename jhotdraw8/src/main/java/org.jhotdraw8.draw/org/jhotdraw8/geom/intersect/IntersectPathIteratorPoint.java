@@ -55,6 +55,7 @@ public class IntersectPathIteratorPoint {
     public static @NonNull IntersectionResult intersectPathIteratorPoint(@NonNull PathIterator pit, double px, double py, double tolerance) {
         List<IntersectionPoint> result = new ArrayList<>();
         final double[] seg = new double[6];
+        final IntersectionScratch scratch = new IntersectionScratch();
         double firstx = 0, firsty = 0;
         double lastx = 0, lasty = 0;
         double x, y;
@@ -80,7 +81,7 @@ public class IntersectPathIteratorPoint {
             case PathIterator.SEG_CUBICTO:
                 x = seg[4];
                 y = seg[5];
-                boundaryCheck = IntersectCubicCurvePoint.intersectCubicCurvePoint(lastx, lasty, seg[0], seg[1], seg[2], seg[3], x, y, px, py, tolerance);
+                boundaryCheck = IntersectCubicCurvePoint.intersectCubicCurvePoint(lastx, lasty, seg[0], seg[1], seg[2], seg[3], x, y, px, py, tolerance, scratch);
                 rayCheck = IntersectCubicCurveRay.intersectRayCubicCurveEx(px, py, 1, 0, Double.MAX_VALUE, lastx, lasty, seg[0], seg[1], seg[2], seg[3], x, y, Geom.REAL_THRESHOLD);
                 //IntersectCubicCurveRa
                 lastx = x;
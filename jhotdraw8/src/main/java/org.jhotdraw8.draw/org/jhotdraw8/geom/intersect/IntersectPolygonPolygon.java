@@ -6,8 +6,8 @@ package org.jhotdraw8.geom.intersect;
 
 import org.jhotdraw8.annotation.NonNull;
 
+import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -26,25 +26,37 @@ public class IntersectPolygonPolygon {
 
     /**
      * Computes the intersection between two polygons.
+     * <p>
+     * The edges of the second polygon are stored in a spatial index, so
+     * that this method can be used for polygons with many points.
+     * See {@link IntersectPathIteratorPathIterator}.
+     * <p>
+     * {@link IntersectionPointEx#getSegmentA()} and
+     * {@link IntersectionPointEx#getSegmentB()} give the index of the start
+     * point of the intersecting edges.
      *
      * @param points1 the points of the first polygon
      * @param points2 the points of the second polygon
      * @return computed intersection
      */
     public static @NonNull IntersectionResultEx intersectPolygonPolygonEx(@NonNull List<Point2D.Double> points1, @NonNull List<Point2D.Double> points2) {
-        List<IntersectionPointEx> result = new ArrayList<>();
-        IntersectionStatus status = IntersectionStatus.NO_INTERSECTION;
-        int length = points1.size();
-
-        for (int i = 0; i < length; i++) {
-            Point2D.Double a1 = points1.get(i);
-            Point2D.Double a2 = points1.get((i + 1) % length);
-            IntersectionResultEx inter = IntersectLinePolygon.intersectLinePolygonEx(a1, a2, points2);
+        return IntersectPathIteratorPathIterator.intersectPathIteratorPathIteratorEx(
+                toPath(points1).getPathIterator(null), toPath(points2).getPathIterator(null));
+    }
 
-            result.addAll(inter.asList());
+    private static @NonNull Path2D.Double toPath(@NonNull List<Point2D.Double> points) {
+        Path2D.Double path = new Path2D.Double(Path2D.WIND_EVEN_ODD, points.size() + 1);
+        for (int i = 0, n = points.size(); i < n; i++) {
+            Point2D.Double p = points.get(i);
+            if (i == 0) {
+                path.moveTo(p.getX(), p.getY());
+            } else {
+                path.lineTo(p.getX(), p.getY());
+            }
         }
-
-        return new IntersectionResultEx(result);
-
+        if (!points.isEmpty()) {
+            path.closePath();
+        }
+        return path;
     }
 }
@@ -0,0 +1,52 @@
+/*
+ * @(#)IntersectionCollector.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom.intersect;
+
+/**
+ * Receives the intersection points that are found by an intersection
+ * method, without allocating an {@link IntersectionResult}.
+ * <p>
+ * An intersection method calls {@link #addIntersection} once for each
+ * intersection point in the order in which it finds them. The collector
+ * can stop the search by returning {@code false}. This allows to answer
+ * queries like "is there any intersection?" without visiting all segments
+ * of a path.
+ * <p>
+ * Implementations are typically reused for many intersection tests.
+ *
+ * @author Werner Randelshofer
+ */
+@FunctionalInterface
+public interface IntersectionCollector {
+    /**
+     * Adds an intersection point.
+     *
+     * @param t the parameter of shape 'a' at the intersection point
+     * @param x the x coordinate of the intersection point
+     * @param y the y coordinate of the intersection point
+     * @return true if the search shall continue, false if it shall stop
+     */
+    boolean addIntersection(double t, double x, double y);
+
+    /**
+     * Adds an intersection point together with the parameter and the
+     * tangent of shape 'b' at the intersection point.
+     * <p>
+     * Intersection methods that know the tangent of shape 'b' call this
+     * method. The default implementation ignores the additional values
+     * and calls {@link #addIntersection(double, double, double)}.
+     *
+     * @param t        the parameter of shape 'a' at the intersection point
+     * @param x        the x coordinate of the intersection point
+     * @param y        the y coordinate of the intersection point
+     * @param tb       the parameter of shape 'b' at the intersection point
+     * @param tangentX the x component of the tangent of shape 'b'
+     * @param tangentY the y component of the tangent of shape 'b'
+     * @return true if the search shall continue, false if it shall stop
+     */
+    default boolean addIntersection(double t, double x, double y, double tb, double tangentX, double tangentY) {
+        return addIntersection(t, x, y);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * @(#)IntersectionScratch.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom.intersect;
+
+/**
+ * Holds the arrays that the intersection methods need for finding the
+ * roots of polynomials.
+ * <p>
+ * The intersection methods that take an instance of this class do not
+ * allocate arrays. An instance can be reused for many intersection tests,
+ * for example for all segments of a path, but it must not be used by
+ * more than one thread at a time.
+ *
+ * @author Werner Randelshofer
+ */
+public final class IntersectionScratch {
+    /**
+     * The highest degree of a polynomial that is solved by an
+     * intersection method.
+     */
+    private static final int MAX_DEGREE = 9;
+
+    /**
+     * Receives the roots of the polynomial. Has room for two additional
+     * roots.
+     */
+    final double[] roots = new double[Polynomial.getRootsLength(MAX_DEGREE) + 2];
+    /**
+     * Scratch array for {@link Polynomial#getRootsInInterval(double[], int, double, double, double[], double[])}.
+     */
+    final double[] scratch = new double[Polynomial.getScratchLength(MAX_DEGREE)];
+    /**
+     * Coefficients of the polynomial.
+     */
+    final double[] coefs = new double[MAX_DEGREE + 1];
+    /**
+     * Coefficients and roots of the cubic polynomials that are solved for
+     * each root of the polynomial.
+     */
+    final double[] xCoefs = new double[4], yCoefs = new double[4],
+            xRoots = new double[4], yRoots = new double[4];
+
+    public IntersectionScratch() {
+    }
+}
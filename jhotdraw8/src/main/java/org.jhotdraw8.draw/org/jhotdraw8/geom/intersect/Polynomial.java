@@ -6,11 +6,11 @@ package org.jhotdraw8.geom.intersect;
 
 import javafx.geometry.Point2D;
 import org.jhotdraw8.annotation.NonNull;
-import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.collection.DoubleArrayList;
 import org.jhotdraw8.geom.Geom;
 
-import java.util.function.ToDoubleFunction;
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
 
 import static java.lang.Math.abs;
 import static java.lang.Math.cbrt;
@@ -26,6 +26,10 @@ import static java.lang.Math.sqrt;
  * <p>
  * The code of this class has been derived from intersection.js [1].
  * <p>
+ * The static root finding methods that take coefficient arrays do not
+ * allocate objects. The caller provides the arrays for the roots and for
+ * the intermediate results, and can reuse them for many polynomials.
+ * <p>
  * References:
  * <dl>
  *     <dt>[1] intersection.js</dt>
@@ -33,7 +37,7 @@ import static java.lang.Math.sqrt;
  *     <a href="http://www.kevlindev.com/gui/math/intersection/Intersection.js">kevlindev.com</a></dd>
  * </dl>
  */
-public class Polynomial implements ToDoubleFunction<Double> {
+public class Polynomial implements DoubleUnaryOperator {
 
     private static final double ACCURACY = 6;
 
@@ -146,7 +150,7 @@ public class Polynomial implements ToDoubleFunction<Double> {
     }
 
     @Override
-    public double applyAsDouble(Double x) {
+    public double applyAsDouble(double x) {
         return eval(x);
     }
 
@@ -156,12 +160,12 @@ public class Polynomial implements ToDoubleFunction<Double> {
      * @param func the function
      * @param min  the lower bound of the interval
      * @param max  the upper bound of the interval
-     * @return the root, null if no root could be found
+     * @return the root, {@link Double#NaN} if no root could be found
      */
-    public static @Nullable Double bisection(final @NonNull ToDoubleFunction<Double> func, double min, double max) {
+    public static double bisection(final @NonNull DoubleUnaryOperator func, double min, double max) {
         double minValue = func.applyAsDouble(min);
         double maxValue = func.applyAsDouble(max);
-        Double result = null;
+        double result = Double.NaN;
 
         if (abs(minValue) <= EPSILON) {
             result = min;
@@ -193,6 +197,51 @@ public class Polynomial implements ToDoubleFunction<Double> {
         return result;
     }
 
+    /**
+     * Searches for a root of the polynomial in the given interval using the
+     * bisection method.
+     *
+     * @param a   the coefficients from lowest to highest degree
+     * @param ao  the offset of the coefficients in the array
+     * @param n   the number of coefficients
+     * @param min the lower bound of the interval
+     * @param max the upper bound of the interval
+     * @return the root, {@link Double#NaN} if no root could be found
+     */
+    private static double bisection(@NonNull double[] a, int ao, int n, double min, double max) {
+        double minValue = eval(a, ao, n, min);
+        double maxValue = eval(a, ao, n, max);
+        double result = Double.NaN;
+
+        if (abs(minValue) <= EPSILON) {
+            result = min;
+        } else if (abs(maxValue) <= EPSILON) {
+            result = max;
+        } else if (minValue * maxValue <= 0) {
+            double tmp1 = log(max - min);
+            double tmp2 = LN10 * Polynomial.ACCURACY;
+            double iters = ceil((tmp1 + tmp2) / LN2);
+
+            for (double i = 0; i < iters; i++) {
+                result = 0.5 * (min + max);
+                double value = eval(a, ao, n, result);
+
+                if (abs(value) <= EPSILON) {
+                    break;
+                }
+
+                if (value * minValue < 0) {
+                    max = result;
+                } else {
+                    min = result;
+                    minValue = value;
+                }
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Divides the coefficients of this polynomial by the provided scalar.
      * Does not change this polynomial.
@@ -216,31 +265,108 @@ public class Polynomial implements ToDoubleFunction<Double> {
      * @return the value of the polynomial at x
      */
     public double eval(double x) {
+        return eval(coefs, 0, coefs.length, x);
+    }
+
+    private static double eval(@NonNull double[] a, int ao, int n, double x) {
         double result = 0;
-        for (int i = this.coefs.length - 1; i >= 0; i--) {
-            result = Geom.fma(result, x, this.coefs[i]);
+        for (int i = ao + n - 1; i >= ao; i--) {
+            result = Geom.fma(result, x, a[i]);
         }
         return result;
     }
 
     /**
-     * Returns the roots of a cubic polynomial (degree equals three).
+     * Returns the degree of this polynomial.
+     *
+     * @return the degree = number of coefficients.
+     */
+    public int getDegree() {
+        return this.coefs.length - 1;
+    }
+
+    /**
+     * Returns the derivative of this polynomial.
+     *
+     * @return returns the derivative of the current polynomial.
+     */
+    public @NonNull Polynomial getDerivative() {
+        double[] derivative = new double[coefs.length - 1];
+
+        for (int i = 1; i < this.coefs.length; i++) {
+            derivative[i - 1] = (i * this.coefs[i]);
+        }
+
+        return new Polynomial(false, derivative);
+    }
+
+    /**
+     * Returns the roots of a quadratic polynomial (degree equals two).
+     * <pre>
+     *     a*t^2 + b*t + c = 0
+     *
+     *     d = b^2 - 4 * c
+     *     t1 = ( -b + sqrt(d) ) / 2
+     *     t2 = ( -b - sqrt(d) ) / 2
+     * </pre>
      *
      * @return the roots
      */
-    private @NonNull double[] getCubicRoots() {
-        final double[] results = new double[4];
+    public static @NonNull double[] getQuadraticRoots(double a, double b, double c) {
+        double[] results = new double[2];
+        return trim(getQuadraticRoots(b, c, results, 0), results);
+    }
+
+    /**
+     * Computes the roots of a normalized quadratic polynomial
+     * {@code t^2 + b*t + c}.
+     *
+     * @param b  the coefficient of degree 1
+     * @param c  the coefficient of degree 0
+     * @param r  the array that receives the roots
+     * @param ro the offset of the roots in the array
+     * @return the number of roots
+     */
+    private static int getQuadraticRoots(double b, double c, @NonNull double[] r, int ro) {
+        double d = b * b - 4 * c;
+        if (d > 0) {
+            double e = sqrt(d);
+            r[ro] = 0.5 * (-b + e);
+            r[ro + 1] = 0.5 * (-b - e);
+            return 2;
+        } else if (d == 0) {
+            // really two roots with same value, but we only return one
+            r[ro] = 0.5 * -b;
+            return 1;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Computes the roots of a cubic polynomial (degree equals three).
+     *
+     * @param a  the coefficients from lowest to highest degree
+     * @param ao the offset of the coefficients in the array
+     * @param r  the array that receives up to 3 roots
+     * @param ro the offset of the roots in the array
+     * @return the number of roots
+     */
+    private static int getCubicRoots(@NonNull double[] a, int ao, @NonNull double[] r, int ro) {
+        return getCubicRoots(a[ao + 3], a[ao + 2], a[ao + 1], a[ao], r, ro);
+    }
+
+    private static int getCubicRoots(double d3, double d2, double d1, double d0, @NonNull double[] r, int ro) {
         int numResults = 0;
 
         final double c3, c2, c1, c0;
-        c3 = this.coefs[3];
-        c2 = this.coefs[2] / c3;
-        c1 = this.coefs[1] / c3;
-        c0 = this.coefs[0] / c3;
+        c3 = d3;
+        c2 = d2 / c3;
+        c1 = d1 / c3;
+        c0 = d0 / c3;
         if (c3 == 0) {
-            throw new IllegalArgumentException("Not a cubic root! simplifiedDegree=" + simplifiedDegree());
+            throw new IllegalArgumentException("Not a cubic root!");
         }
-
         final double a, b, offset, halfB;
         a = (3 * c1 - c2 * c2) / 3;
         b = (2 * c2 * c2 * c2 - 9 * c1 * c2 + 27 * c0) / 27;
@@ -271,7 +397,7 @@ public class Polynomial implements ToDoubleFunction<Double> {
             } else {
                 root -= cbrt(-tmp);
             }
-            results[numResults++] = root - offset;
+            r[ro + numResults++] = root - offset;
         } else if (discrim < 0) {
             double distance = sqrt(-a / 3);
             double angle = Geom.atan2(sqrt(-discrim), -halfB) / 3;
@@ -279,9 +405,9 @@ public class Polynomial implements ToDoubleFunction<Double> {
             double sin = sin(angle);
             final double sqrt3 = sqrt(3);
 
-            results[numResults++] = 2 * distance * cos - offset;
-            results[numResults++] = -distance * (cos + sqrt3 * sin) - offset;
-            results[numResults++] = -distance * (cos - sqrt3 * sin) - offset;
+            r[ro + numResults++] = 2 * distance * cos - offset;
+            r[ro + numResults++] = -distance * (cos + sqrt3 * sin) - offset;
+            r[ro + numResults++] = -distance * (cos - sqrt3 * sin) - offset;
         } else {
             double tmp;
 
@@ -291,114 +417,37 @@ public class Polynomial implements ToDoubleFunction<Double> {
                 tmp = cbrt(-halfB);
             }
 
-            results[numResults++] = 2 * tmp - offset;
+            r[ro + numResults++] = 2 * tmp - offset;
             // really should return next root twice, but we return only one
-            results[numResults++] = -tmp - offset;
+            r[ro + numResults++] = -tmp - offset;
         }
 
-        return trim(numResults, results);
+        return numResults;
     }
 
-    /**
-     * Returns the degree of this polynomial.
-     *
-     * @return the degree = number of coefficients.
-     */
-    public int getDegree() {
-        return this.coefs.length - 1;
-    }
 
     /**
-     * Returns the derivative of this polynomial.
+     * Computes the roots of a quartic polynomial (degree equals four).
      *
-     * @return returns the derivative of the current polynomial.
+     * @param a  the coefficients from lowest to highest degree
+     * @param ao the offset of the coefficients in the array
+     * @param r  the array that receives up to 4 roots
+     * @param ro the offset of the roots in the array
+     * @return the number of roots
      */
-    public @NonNull Polynomial getDerivative() {
-        double[] derivative = new double[coefs.length - 1];
-
-        for (int i = 1; i < this.coefs.length; i++) {
-            derivative[i - 1] = (i * this.coefs[i]);
-        }
-
-        return new Polynomial(false, derivative);
-    }
-
-    /**
-     * Returns the root of a linear polynomial (degree equals one).
-     *
-     * @return the roots
-     */
-    private @NonNull double[] getLinearRoot() {
-        double[] result = new double[0];
-        double a = this.coefs[1];
-
-        if (a != 0) {
-            result = new double[]{-this.coefs[0] / a};
-        }
-
-        return result;
-    }
-
-    /**
-     * Returns the roots of a quadratic polynomial (degree equals two).
-     *
-     * @return the roots
-     */
-    private @NonNull double[] getQuadraticRoots() {
-        double a = this.coefs[2];
-        double b = this.coefs[1] / a;
-        double c = this.coefs[0] / a;
-        return getQuadraticRoots(a, b, c);
-    }
-
-    /**
-     * Returns the roots of a quadratic polynomial (degree equals two).
-     * <pre>
-     *     a*t^2 + b*t + c = 0
-     *
-     *     d = b^2 - 4 * c
-     *     t1 = ( -b + sqrt(d) ) / 2
-     *     t2 = ( -b - sqrt(d) ) / 2
-     * </pre>
-     *
-     * @return the roots
-     */
-    public static @NonNull double[] getQuadraticRoots(double a, double b, double c) {
-        double d = b * b - 4 * c;
-        if (d > 0) {
-            double e = sqrt(d);
-            return new double[]{
-                    0.5 * (-b + e),
-                    0.5 * (-b - e)};
-        } else if (d == 0) {
-            // really two roots with same value, but we only return one
-            return new double[]{0.5 * -b};
-        }
-
-        return new double[0];
-    }
-
-    /**
-     * Returns the roots of a quartic polynomial (degree equals four).
-     *
-     * @return the roots
-     */
-    private @NonNull double[] getQuarticRoots() {
-
-        double[] results = new double[4];
+    private static int getQuarticRoots(@NonNull double[] a, int ao, @NonNull double[] r, int ro) {
         int numResults = 0;
 
         final double c4, c3, c2, c1, c0;
-        c4 = this.coefs[4];
-        c3 = this.coefs[3] / c4;
-        c2 = this.coefs[2] / c4;
-        c1 = this.coefs[1] / c4;
-        c0 = this.coefs[0] / c4;
-
-        double[] resolveRoots = new Polynomial(
-                1, -c2, c3 * c1 - 4 * c0, -c3 * c3 * c0 + 4 * c2 * c0 - c1 * c1
-        ).getCubicRoots();
-        double y = resolveRoots[0];
+        c4 = a[ao + 4];
+        c3 = a[ao + 3] / c4;
+        c2 = a[ao + 2] / c4;
+        c1 = a[ao + 1] / c4;
+        c0 = a[ao] / c4;
+
+        // the resolvent cubic always has a root
+        getCubicRoots(1, -c2, c3 * c1 - 4 * c0, -c3 * c3 * c0 + 4 * c2 * c0 - c1 * c1, r, ro);
+        double y = r[ro];
         double discrim = c3 * c3 / 4 - c2 + y;
 
         // Note: setting epsilon too high results in roots not being found!
@@ -423,13 +472,13 @@ public class Polynomial implements ToDoubleFunction<Double> {
 
             if (plus >= 0) {
                 double f = sqrt(plus);
-                results[numResults++] = c3 / -4 + (e + f) / 2;
-                results[numResults++] = c3 / -4 + (e - f) / 2;
+                r[ro + numResults++] = c3 / -4 + (e + f) / 2;
+                r[ro + numResults++] = c3 / -4 + (e - f) / 2;
             }
             if (minus >= 0) {
                 double f = sqrt(minus);
-                results[numResults++] = c3 / -4 + (f - e) / 2;
-                results[numResults++] = c3 / -4 - (f + e) / 2;
+                r[ro + numResults++] = c3 / -4 + (f - e) / 2;
+                r[ro + numResults++] = c3 / -4 - (f + e) / 2;
             }
         } else if (discrim < 0) {
             // no roots
@@ -446,19 +495,19 @@ public class Polynomial implements ToDoubleFunction<Double> {
                 if (t1 + t2 >= EPSILON) {
                     double d = sqrt(t1 + t2);
 
-                    results[numResults++] = -c3 / 4 + d / 2;
-                    results[numResults++] = -c3 / 4 - d / 2;
+                    r[ro + numResults++] = -c3 / 4 + d / 2;
+                    r[ro + numResults++] = -c3 / 4 - d / 2;
                 }
                 if (t1 - t2 >= EPSILON) {
                     double d = sqrt(t1 - t2);
 
-                    results[numResults++] = -c3 / 4 + d / 2;
-                    results[numResults++] = -c3 / 4 - d / 2;
+                    r[ro + numResults++] = -c3 / 4 + d / 2;
+                    r[ro + numResults++] = -c3 / 4 - d / 2;
                 }
             }
         }
 
-        return trim(numResults, results);
+        return numResults;
     }
 
     /**
@@ -475,30 +524,51 @@ public class Polynomial implements ToDoubleFunction<Double> {
      * @return the roots of the polynomial
      */
     public double[] getRoots() {
-        double[] result;
-        final int simplifiedDegree = simplifiedDegree();
+        double[] result = new double[4];
+        return trim(getRoots(coefs, 0, coefs.length, result, 0), result);
+    }
 
+    /**
+     * Computes the roots of a polynomial that can be simplified to the 4th
+     * degree or less. Does not allocate objects.
+     *
+     * @param coefs the coefficients from lowest to highest degree
+     * @param n     the number of coefficients
+     * @param roots the array that receives the roots, must have a length
+     *              of at least 4
+     * @return the number of roots
+     * @throws UnsupportedOperationException if the polynomial can not be
+     *                                       simplified to the 4th degree or
+     *                                       less
+     */
+    public static int getRoots(@NonNull double[] coefs, int n, @NonNull double[] roots) {
+        return getRoots(coefs, 0, n, roots, 0);
+    }
+
+    private static int getRoots(@NonNull double[] a, int ao, int n, @NonNull double[] r, int ro) {
+        final int simplifiedDegree = simplifiedDegree(a, ao, n);
         switch (simplifiedDegree) {
         case 0:
-            result = new double[0];
-            break;
-        case 1:
-            result = getLinearRoot();
-            break;
-        case 2:
-            result = getQuadraticRoots();
-            break;
+            return 0;
+        case 1: {
+            double a1 = a[ao + 1];
+            if (a1 == 0) {
+                return 0;
+            }
+            r[ro] = -a[ao] / a1;
+            return 1;
+        }
+        case 2: {
+            double a2 = a[ao + 2];
+            return getQuadraticRoots(a[ao + 1] / a2, a[ao] / a2, r, ro);
+        }
         case 3:
-            result = getCubicRoots();
-            break;
+            return getCubicRoots(a, ao, r, ro);
         case 4:
-            result = getQuarticRoots();
-            break;
+            return getQuarticRoots(a, ao, r, ro);
         default:
             throw new UnsupportedOperationException("Degree is too high. simplifiedDegree=" + simplifiedDegree);
         }
-
-        return result;
     }
 
     /**
@@ -510,38 +580,139 @@ public class Polynomial implements ToDoubleFunction<Double> {
      * @return a list of roots
      */
     public @NonNull DoubleArrayList getRootsInInterval(double min, double max) {
-        DoubleArrayList roots = new DoubleArrayList(getDegree());
+        double[] result = new double[getRootsLength(getDegree())];
+        int numRoots = getRootsInInterval(coefs, coefs.length, min, max, result,
+                new double[getScratchLength(getDegree())]);
+        return DoubleArrayList.of(trim(numRoots, result));
+    }
+
+    /**
+     * Gets roots in the given interval. Uses the bisection method for root
+     * finding. Can work with a polynomial of any degree.
+     * <p>
+     * Does not allocate objects. The caller can reuse the arrays for
+     * subsequent invocations.
+     *
+     * @param min     the lower bound of the interval (inclusive)
+     * @param max     the upper bound of the interval (inclusive)
+     * @param roots   the array that receives the roots in ascending order,
+     *                must have a length of at least
+     *                {@link #getRootsLength getRootsLength(getDegree())}
+     * @param scratch an array for intermediate results, must have a length
+     *                of at least {@link #getScratchLength getScratchLength(getDegree())}
+     * @return the number of roots
+     */
+    public int getRootsInInterval(double min, double max, @NonNull double[] roots, @NonNull double[] scratch) {
+        return getRootsInInterval(coefs, coefs.length, min, max, roots, scratch);
+    }
+
+    /**
+     * Gets roots in the given interval. Uses the bisection method for root
+     * finding. Can work with a polynomial of any degree.
+     * <p>
+     * Does not allocate objects. The caller can reuse the arrays for
+     * subsequent invocations.
+     *
+     * @param coefs   the coefficients from lowest to highest degree
+     * @param n       the number of coefficients
+     * @param min     the lower bound of the interval (inclusive)
+     * @param max     the upper bound of the interval (inclusive)
+     * @param roots   the array that receives the roots in ascending order,
+     *                must have a length of at least
+     *                {@link #getRootsLength getRootsLength(n - 1)}
+     * @param scratch an array for intermediate results, must have a length
+     *                of at least {@link #getScratchLength getScratchLength(n - 1)}
+     * @return the number of roots
+     */
+    public static int getRootsInInterval(@NonNull double[] coefs, int n, double min, double max,
+                                         @NonNull double[] roots, @NonNull double[] scratch) {
+        return getRootsInInterval(coefs, 0, n, min, max, roots, 0, scratch, 0);
+    }
+
+    /**
+     * Returns the length of the roots array that is needed for finding the
+     * roots of a polynomial of the specified degree.
+     *
+     * @param degree the degree of the polynomial
+     * @return the length of the roots array
+     */
+    public static int getRootsLength(int degree) {
+        return max(4, degree);
+    }
+
+    /**
+     * Returns the length of the scratch array that is needed for finding
+     * the roots of a polynomial of the specified degree in an interval.
+     *
+     * @param degree the degree of the polynomial
+     * @return the length of the scratch array
+     */
+    public static int getScratchLength(int degree) {
+        int length = 0;
+        for (int n = degree + 1; n > 5; n--) {
+            // coefficients of the derivative, and roots of the derivative
+            length += n - 1 + getRootsLength(n - 2);
+        }
+        return length;
+    }
+
+    private static int getRootsInInterval(@NonNull double[] a, int ao, int n, double min, double max,
+                                          @NonNull double[] r, int ro, @NonNull double[] s, int so) {
         int numRoots = 0;
 
-        switch (this.simplifiedDegree()) {
+        switch (simplifiedDegree(a, ao, n)) {
         case 0:
             break;
         case 1:
         case 2:
         case 3:
         case 4: {
-            double[] allroots = getRoots();
-            for (int i = 0; i < allroots.length; i++) {
-                double root = allroots[i];
+            int numAllRoots = getRoots(a, ao, n, r, ro);
+            for (int i = 0; i < numAllRoots; i++) {
+                double root = r[ro + i];
                 if (min <= root && root <= max) {
-                    roots.add(root);
+                    r[ro + numRoots++] = root;
                 }
             }
             break;
         }
         default: {
             // get roots of derivative
-            Polynomial deriv = this.getDerivative();
-            DoubleArrayList droots = deriv.getRootsInInterval(min, max);
+            int dn = n - 1;
+            for (int i = 1; i < n; i++) {
+                s[so + i - 1] = i * a[ao + i];
+            }
+            int dro = so + dn;
+            int numDRoots = getRootsInInterval(s, so, dn, min, max, s, dro, s, dro + getRootsLength(dn - 1));
+
+            if (numDRoots > 0) {
+                // find root on [min, droots[0]]
+                numRoots = addRoot(bisection(a, ao, n, min, s[dro]), r, ro, numRoots);
+
+                // find root on [droots[i],droots[i+1]] for 0 <= i <= count-2
+                for (int i = 0; i <= numDRoots - 2; i++) {
+                    numRoots = addRoot(bisection(a, ao, n, s[dro + i], s[dro + i + 1]), r, ro, numRoots);
+                }
 
-            roots = getRootsInInterval(this, droots, min, max);
-            numRoots = roots.size();
+                // find root on [droots[count-1],xmax]
+                numRoots = addRoot(bisection(a, ao, n, s[dro + numDRoots - 1], max), r, ro, numRoots);
+            } else {
+                // polynomial is monotone on [min,max], has at most one root
+                numRoots = addRoot(bisection(a, ao, n, min, max), r, ro, numRoots);
+            }
             break;
         }
         }
 
-        roots.sort();
-        return roots;
+        Arrays.sort(r, ro, ro + numRoots);
+        return numRoots;
+    }
+
+    private static int addRoot(double root, @NonNull double[] r, int ro, int numRoots) {
+        if (!Double.isNaN(root)) {
+            r[ro + numRoots++] = root;
+        }
+        return numRoots;
     }
 
     /**
@@ -554,34 +725,33 @@ public class Polynomial implements ToDoubleFunction<Double> {
      * @param max    the upper bound of the interval (inclusive)
      * @return a list of roots. The list if empty, if no roots have been found
      */
-    public static @NonNull DoubleArrayList getRootsInInterval(@NonNull ToDoubleFunction<Double> func, @NonNull DoubleArrayList droots, double min, double max) {
+    public static @NonNull DoubleArrayList getRootsInInterval(@NonNull DoubleUnaryOperator func, @NonNull DoubleArrayList droots, double min, double max) {
         final DoubleArrayList roots = new DoubleArrayList(droots.size());
-        int numRoots = 0;
 
         if (droots.size() > 0) {
             // find root on [min, droots[0]]
-            Double root = bisection(func, min, droots.get(0));
-            if (root != null) {
+            double root = bisection(func, min, droots.get(0));
+            if (!Double.isNaN(root)) {
                 roots.add(root);
             }
 
             // find root on [droots[i],droots[i+1]] for 0 <= i <= count-2
             for (int i = 0; i <= droots.size() - 2; i++) {
                 root = bisection(func, droots.get(i), droots.get(i + 1));
-                if (root != null) {
+                if (!Double.isNaN(root)) {
                     roots.add(root);
                 }
             }
 
             // find root on [droots[count-1],xmax]
             root = bisection(func, droots.get(droots.size() - 1), max);
-            if (root != null) {
+            if (!Double.isNaN(root)) {
                 roots.add(root);
             }
         } else {
             // polynomial is monotone on [min,max], has at most one root
-            Double root = bisection(func, min, max);
-            if (root != null) {
+            double root = bisection(func, min, max);
+            if (!Double.isNaN(root)) {
                 roots.add(root);
             }
         }
@@ -608,8 +778,12 @@ public class Polynomial implements ToDoubleFunction<Double> {
     }
 
     private int simplifiedDegree() {
-        int i = this.getDegree();
-        while (i > 0 && abs(this.coefs[i]) <= EPSILON) {
+        return simplifiedDegree(coefs, 0, coefs.length);
+    }
+
+    private static int simplifiedDegree(@NonNull double[] a, int ao, int n) {
+        int i = n - 1;
+        while (i > 0 && abs(a[ao + i]) <= EPSILON) {
             i--;
         }
         return i;
@@ -688,7 +862,7 @@ public class Polynomial implements ToDoubleFunction<Double> {
      * @param n    the number of trapezoids
      * @return the area of the function
      */
-    public static double trapezoid(@NonNull ToDoubleFunction<Double> func, double min, double max, int n) {
+    public static double trapezoid(@NonNull DoubleUnaryOperator func, double min, double max, int n) {
 
         double range = max - min;
         double _s = 0;
@@ -795,7 +969,7 @@ public class Polynomial implements ToDoubleFunction<Double> {
      * @param max  the upper bound of the interval
      * @return the area under the curve
      */
-    public static double simpson(@NonNull ToDoubleFunction<Double> func, double min, double max) {
+    public static double simpson(@NonNull DoubleUnaryOperator func, double min, double max) {
 
         double range = max - min;
         double st = 0.5 * range * (func.applyAsDouble(min) + func.applyAsDouble(max));
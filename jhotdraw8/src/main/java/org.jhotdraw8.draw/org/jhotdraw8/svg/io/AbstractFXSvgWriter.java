@@ -89,15 +89,22 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.net.URI;
 import java.text.AttributedCharacterIterator;
 import java.text.AttributedString;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import static org.jhotdraw8.draw.io.BitmapExportOutputFormat.fromFXImage;
 
@@ -113,6 +120,11 @@ public abstract class AbstractFXSvgWriter extends AbstractPropertyBean implement
     private final @Nullable Object skipKey;
     private final Converter<ImmutableList<Transform>> tx = new CssListConverter<>(new SvgTransformConverter(false));
     protected @NonNull IdFactory idFactory = new SimpleIdFactory();
+    /**
+     * Maps shapes, whose fill and stroke are shared with other shapes,
+     * to a CSS class.
+     */
+    private @NonNull Map<Node, String> sharedPaintClasses = Collections.emptyMap();
 
     /**
      * @param imageUriKey this property is used to retrieve an URL from an
@@ -378,6 +390,49 @@ public abstract class AbstractFXSvgWriter extends AbstractPropertyBean implement
     }
 
 
+    public boolean isParallel() {
+        return getNonNull(PARALLEL_KEY);
+    }
+
+    public void setParallel(boolean newValue) {
+        this.setNonNull(PARALLEL_KEY, newValue);
+    }
+
+    public boolean isSharePaints() {
+        return getNonNull(SHARE_PAINTS_KEY);
+    }
+
+    public void setSharePaints(boolean newValue) {
+        this.setNonNull(SHARE_PAINTS_KEY, newValue);
+    }
+
+    /**
+     * Returns true if the SVG profile of this writer supports style sheets.
+     * <p>
+     * Paints can only be shared, if style sheets are supported.
+     *
+     * @return true if style sheets are supported
+     */
+    protected boolean isStyleSheetSupported() {
+        return false;
+    }
+
+    /**
+     * Creates a new writer of the same class as this writer.
+     * <p>
+     * When subtrees are written in parallel, each subtree is written by
+     * its own writer, because the converters of a writer are not
+     * thread-safe.
+     *
+     * @param imageUriKey the image URI key
+     * @param skipKey     the skip key
+     * @return a new writer, or null if this writer does not support
+     * parallel writing
+     */
+    protected @Nullable AbstractFXSvgWriter newWriter(@Nullable Object imageUriKey, @Nullable Object skipKey) {
+        return null;
+    }
+
     public boolean isConvertTextToPath() {
         return getNonNull(CONVERT_TEXT_TO_PATH_KEY);
     }
@@ -564,6 +619,10 @@ public abstract class AbstractFXSvgWriter extends AbstractPropertyBean implement
     private void writeClassAttribute(@NonNull XMLStreamWriter w, @NonNull Node node) throws XMLStreamException {
         List<String> styleClass = new ArrayList<>(node.getStyleClass());
         styleClass.addAll(getAdditionalNodeClasses(node));
+        String paintClass = sharedPaintClasses.get(node);
+        if (paintClass != null) {
+            styleClass.add(paintClass);
+        }
 
         if (!styleClass.isEmpty()) {
             StringBuilder buf = new StringBuilder();
@@ -661,11 +720,86 @@ public abstract class AbstractFXSvgWriter extends AbstractPropertyBean implement
         if (shouldWriteDefs(drawingNode)) {
             writeDefs(w, drawingNode);
         }
-        writeNodeRecursively(w, drawingNode, 1);
+        try {
+            if (isSharePaints() && isStyleSheetSupported()) {
+                writeSharedPaintStyle(w, createSharedPaintClasses(drawingNode));
+            }
+            if (w instanceof IndentingXMLStreamWriter && isParallel()
+                    && drawingNode instanceof Parent
+                    && ((Parent) drawingNode).getChildrenUnmodifiable().size() > 1
+                    && newWriter(imageUriKey, skipKey) != null) {
+                writeNodeInParallel((IndentingXMLStreamWriter) w, drawingNode);
+            } else {
+                writeNodeRecursively(w, drawingNode, 1);
+            }
+        } finally {
+            sharedPaintClasses = Collections.emptyMap();
+        }
         w.writeEndElement();
         w.writeEndDocument();
     }
 
+    /**
+     * Assigns a CSS class to all shapes, whose fill and stroke are shared
+     * with other shapes.
+     *
+     * @param drawingNode the drawing node
+     * @return a map from CSS classes to declarations
+     */
+    private @NonNull Map<String, String> createSharedPaintClasses(@NonNull Node drawingNode) {
+        Map<String, List<Shape>> shapesByDeclarations = new LinkedHashMap<>();
+        collectPaintDeclarationsRecursively(drawingNode, shapesByDeclarations);
+        Map<String, String> declarationsByClass = new LinkedHashMap<>();
+        sharedPaintClasses = new IdentityHashMap<>();
+        for (Map.Entry<String, List<Shape>> entry : shapesByDeclarations.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                String paintClass = "paint-" + (declarationsByClass.size() + 1);
+                declarationsByClass.put(paintClass, entry.getKey());
+                for (Shape shape : entry.getValue()) {
+                    sharedPaintClasses.put(shape, paintClass);
+                }
+            }
+        }
+        return declarationsByClass;
+    }
+
+    private void collectPaintDeclarationsRecursively(@NonNull Node node, @NonNull Map<String, List<Shape>> shapesByDeclarations) {
+        if (!shouldWriteNode(node)) {
+            return;
+        }
+        if (node instanceof Shape) {
+            Shape shape = (Shape) node;
+            StringBuilder buf = new StringBuilder();
+            buf.append("fill:").append(getPaintValue(shape.getFill()));
+            if (shape.getStrokeType() == StrokeType.CENTERED && shape.getStroke() != null) {
+                buf.append(";stroke:").append(getPaintValue(shape.getStroke()));
+            }
+            shapesByDeclarations.computeIfAbsent(buf.toString(), k -> new ArrayList<>()).add(shape);
+        }
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                collectPaintDeclarationsRecursively(child, shapesByDeclarations);
+            }
+        }
+    }
+
+    private void writeSharedPaintStyle(@NonNull XMLStreamWriter w, @NonNull Map<String, String> declarationsByClass) throws XMLStreamException {
+        if (declarationsByClass.isEmpty()) {
+            return;
+        }
+        StringBuilder buf = new StringBuilder();
+        for (Map.Entry<String, String> entry : declarationsByClass.entrySet()) {
+            if (buf.length() != 0) {
+                buf.append(' ');
+            }
+            buf.append('.').append(entry.getKey()).append('{').append(entry.getValue()).append('}');
+        }
+        w.writeStartElement("style");
+        w.writeAttribute("type", "text/css");
+        w.writeCharacters(buf.toString());
+        w.writeEndElement();
+    }
+
     protected abstract void writeDocumentElementAttributes(@NonNull XMLStreamWriter
                                                                    w, Node drawingNode, @Nullable CssDimension2D size) throws XMLStreamException;
 
@@ -690,10 +824,10 @@ public abstract class AbstractFXSvgWriter extends AbstractPropertyBean implement
         String id = idFactory.getId(fill);
         double fillOpacity = shape.getOpacity();
 
-        if (id != null) {
-            w.writeAttribute("fill", "url(#" + id + ")");
-        } else {
-            w.writeAttribute("fill", paintConverter.toString(fill));
+        if (!sharedPaintClasses.containsKey(shape)) {
+            w.writeAttribute("fill", getPaintValue(fill));
+        }
+        if (id == null) {
             if (fill instanceof Color) {
                 Color c = (Color) fill;
                 if (!c.isOpaque()) {
@@ -840,6 +974,68 @@ public abstract class AbstractFXSvgWriter extends AbstractPropertyBean implement
             return;
         }
 
+        writeNodeStartElement(w, node);
+        if (node instanceof Parent) {
+            final Parent pp = (Parent) node;
+            for (javafx.scene.Node child : pp.getChildrenUnmodifiable()) {
+                writeNodeRecursively(w, child, depth + 1);
+            }
+        }
+        writeNodeEndElement(w, node);
+    }
+
+    /**
+     * Writes the node like {@link #writeNodeRecursively}, but writes the
+     * subtrees of its children into separate buffers in parallel.
+     * <p>
+     * The buffers are inserted in the order of the children, so that the
+     * output is the same as if the node had been written serially.
+     */
+    private void writeNodeInParallel(@NonNull IndentingXMLStreamWriter w, @NonNull Node node) throws IOException, XMLStreamException {
+        if (!shouldWriteNode(node)) {
+            return;
+        }
+
+        writeNodeStartElement(w, node);
+        List<Node> children = ((Parent) node).getChildrenUnmodifiable();
+        List<String> fragments;
+        try {
+            fragments = children.parallelStream()
+                    .map(child -> writeSubtree(w, child))
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (String fragment : fragments) {
+            w.writeFragment(fragment);
+        }
+        writeNodeEndElement(w, node);
+    }
+
+    /**
+     * Writes a subtree into a buffer. This method is invoked in a worker
+     * thread.
+     */
+    private @NonNull String writeSubtree(@NonNull IndentingXMLStreamWriter w, @NonNull Node node) {
+        AbstractFXSvgWriter worker = Objects.requireNonNull(newWriter(imageUriKey, skipKey));
+        worker.getProperties().putAll(getProperties());
+        worker.idFactory = idFactory;
+        worker.sharedPaintClasses = sharedPaintClasses;
+
+        StringWriter buf = new StringWriter();
+        IndentingXMLStreamWriter fragmentWriter = w.createFragmentWriter(buf);
+        try {
+            worker.writeNodeRecursively(fragmentWriter, node, 2);
+            fragmentWriter.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (XMLStreamException e) {
+            throw new UncheckedIOException(new IOException("Error writing to Writer.", e));
+        }
+        return buf.toString();
+    }
+
+    private void writeNodeStartElement(@NonNull XMLStreamWriter w, @NonNull Node node) throws IOException, XMLStreamException {
         if (node instanceof Shape) {
             writeShapeStartElement(w, (Shape) node);
             writeFillAttributes(w, (Shape) node);
@@ -866,13 +1062,9 @@ public abstract class AbstractFXSvgWriter extends AbstractPropertyBean implement
         }else if (node instanceof Region) {
             writeRegionChildElements(w,(Region) node);
         }
+    }
 
-        if (node instanceof Parent) {
-            final Parent pp = (Parent) node;
-            for (javafx.scene.Node child : pp.getChildrenUnmodifiable()) {
-                writeNodeRecursively(w, child, depth + 1);
-            }
-        }
+    private void writeNodeEndElement(@NonNull XMLStreamWriter w, @NonNull Node node) throws IOException, XMLStreamException {
         w.writeEndElement();
 
         if (node instanceof Shape && ((Shape) node).getStrokeType() != StrokeType.CENTERED) {
@@ -880,6 +1072,11 @@ public abstract class AbstractFXSvgWriter extends AbstractPropertyBean implement
         }
     }
 
+    private @NonNull String getPaintValue(@Nullable Paint paint) {
+        String id = idFactory.getId(paint);
+        return id != null ? "url(#" + id + ")" : paintConverter.toString(paint);
+    }
+
     private void writePaintDefs(@NonNull XMLStreamWriter w, Paint paint) throws IOException, XMLStreamException {
         if (idFactory.getId(paint) == null) {
             if (paint instanceof LinearGradient) {
@@ -1246,10 +1443,10 @@ public abstract class AbstractFXSvgWriter extends AbstractPropertyBean implement
         double strokeOpacity = shape.getOpacity();
 
         String id = idFactory.getId(stroke);
-        if (id != null) {
-            w.writeAttribute("stroke", "url(#" + id + ")");
-        } else {
-            w.writeAttribute("stroke", paintConverter.toString(stroke));
+        if (!sharedPaintClasses.containsKey(shape)) {
+            w.writeAttribute("stroke", getPaintValue(stroke));
+        }
+        if (id == null) {
             if (stroke instanceof Color) {
                 Color c = (Color) stroke;
                 if (!c.isOpaque()) {
@@ -52,6 +52,16 @@ public class FXSvgFullWriter extends AbstractFXSvgWriter {
         }
     }
 
+    @Override
+    protected @NonNull AbstractFXSvgWriter newWriter(@Nullable Object imageUriKey, @Nullable Object skipKey) {
+        return new FXSvgFullWriter(imageUriKey, skipKey);
+    }
+
+    @Override
+    protected boolean isStyleSheetSupported() {
+        return true;
+    }
+
     protected String getSvgVersion() {
         return SVG_VERSION;
     }
@@ -47,6 +47,11 @@ public class FXSvgTinyWriter extends AbstractFXSvgWriter {
         super(imageUriKey, skipKey);
     }
 
+    @Override
+    protected @NonNull AbstractFXSvgWriter newWriter(@Nullable Object imageUriKey, @Nullable Object skipKey) {
+        return new FXSvgTinyWriter(imageUriKey, skipKey);
+    }
+
     protected String getSvgVersion() {
         return SVG_VERSION;
     }
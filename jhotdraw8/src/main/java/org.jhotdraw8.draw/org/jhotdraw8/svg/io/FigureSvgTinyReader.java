@@ -9,11 +9,9 @@ import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.collection.ImmutableList;
 import org.jhotdraw8.collection.ImmutableLists;
-import org.jhotdraw8.collection.ImmutableMaps;
 import org.jhotdraw8.collection.Key;
 import org.jhotdraw8.collection.MapAccessor;
 import org.jhotdraw8.collection.NonNullKey;
-import org.jhotdraw8.concurrent.CheckedRunnable;
 import org.jhotdraw8.css.CssColor;
 import org.jhotdraw8.css.CssDefaultableValue;
 import org.jhotdraw8.css.CssRectangle2D;
@@ -27,6 +25,7 @@ import org.jhotdraw8.css.text.CssSizeConverter;
 import org.jhotdraw8.draw.figure.Figure;
 import org.jhotdraw8.draw.figure.StyleableFigure;
 import org.jhotdraw8.draw.render.SimpleRenderContext;
+import org.jhotdraw8.io.IdResolver;
 import org.jhotdraw8.io.SimpleIdFactory;
 import org.jhotdraw8.reflect.TypeToken;
 import org.jhotdraw8.styleable.ReadOnlyStyleableMapAccessor;
@@ -51,7 +50,6 @@ import org.jhotdraw8.svg.text.SvgXmlPaintableConverter;
 import org.jhotdraw8.text.Converter;
 import org.jhotdraw8.xml.text.XmlStringConverter;
 
-import javax.xml.namespace.QName;
 import javax.xml.stream.Location;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
@@ -59,18 +57,15 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Source;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
 import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 /**
  * Reads an SVG "Tiny" 1.2 file and creates Figure objects from it.
@@ -88,13 +83,20 @@ public class FigureSvgTinyReader {
     public static final String SVG_NAMESPACE = "http://www.w3.org/2000/svg";
     public static final String XML_NAMESPACE = "http://www.w3.org/XML/1998/namespace";
     /**
-     * Maps from an attribute name to an accessor.
+     * Maps from the local name of an element in the SVG namespace to its
+     * element type.
+     * <p>
+     * The map is immutable and is shared by all instances of the reader.
      */
-    private final Map<String, Map<String, MapAccessor<?>>> accessorMap = new LinkedHashMap<>();
+    private static final Map<String, ElementType> ELEMENT_TYPES = createElementTypes();
     /**
-     * Maps from an element name to a figure factory.
+     * The input factory of the current thread.
+     * <p>
+     * Looking up and configuring an input factory takes longer than reading
+     * a small file. An input factory is not thread-safe, therefore we keep
+     * one per thread.
      */
-    private final Map<QName, Supplier<Figure>> figureMap = new LinkedHashMap<>();
+    private static final ThreadLocal<XMLInputFactory> INPUT_FACTORY = ThreadLocal.withInitial(FigureSvgTinyReader::createInputFactory);
 
     /**
      * Converts a CSS size string into a CssSize value.
@@ -110,56 +112,6 @@ public class FigureSvgTinyReader {
      * FIXME we must use XmlColorConverter and not CssColorConverter!
      */
     private final SvgDefaultablePaintConverter<CssColor> colorConverter = new SvgDefaultablePaintConverter<>(new CssColorConverter(true));
-    /**
-     * Maps from a type to a converter.
-     */
-    private final Map<Type, Converter<?>> converterMap = new LinkedHashMap<>();
-
-    {
-        for (Map.Entry<String, ? extends Class<? extends Figure>> e : Arrays.asList(
-                ImmutableMaps.entry("svg", SvgDrawing.class),
-                ImmutableMaps.entry("g", SvgGFigure.class),
-                ImmutableMaps.entry("rect", SvgRectFigure.class),
-                ImmutableMaps.entry("defs", SvgDefsFigure.class),
-                ImmutableMaps.entry("circle", SvgCircleFigure.class),
-                ImmutableMaps.entry("ellipse", SvgEllipseFigure.class),
-                ImmutableMaps.entry("line", SvgLineFigure.class),
-                ImmutableMaps.entry("path", SvgPathFigure.class),
-                ImmutableMaps.entry("polygon", SvgPolygonFigure.class),
-                ImmutableMaps.entry("polyline", SvgPolylineFigure.class),
-                ImmutableMaps.entry("text", SvgTextFigure.class),
-                ImmutableMaps.entry("linearGradient", SvgLinearGradientFigure.class),
-                ImmutableMaps.entry("radialGradient", SvgRadialGradientFigure.class)
-        )) {
-            String elem = e.getKey();
-            Class<? extends Figure> figureClass = e.getValue();
-            Map<String, MapAccessor<?>> m = Figure.getDeclaredAndInheritedMapAccessors(figureClass).stream()
-                    .collect(Collectors.toMap(MapAccessor::getName, Function.identity()
-                    ));
-            accessorMap.put(elem, m);
-            for (MapAccessor<?> acc : m.values()) {
-                if (acc instanceof ReadOnlyStyleableMapAccessor) {
-                    ReadOnlyStyleableMapAccessor<?> rosma = (ReadOnlyStyleableMapAccessor<?>) acc;
-                    converterMap.put(acc.getValueType(), rosma.getCssConverter());
-                }
-            }
-
-            figureMap.put(new QName(SVG_NAMESPACE, e.getKey()), () -> {
-                try {
-                    return figureClass.getConstructor().newInstance();
-                } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException ex) {
-                    throw new RuntimeException(ex);
-                }
-            });
-        }
-
-        // Override converters that have different representations in CSS and XML
-        converterMap.put(String.class, new XmlStringConverter());
-        converterMap.put(new TypeToken<CssDefaultableValue<Paintable>>() {
-                }.getType(),
-                new CssDefaultableValueConverter<>(new SvgXmlPaintableConverter()));
-    }
-
     private final Key<String> textKey = SvgTextFigure.TEXT;
 
     /**
@@ -241,19 +193,22 @@ public class FigureSvgTinyReader {
         }
     }
 
-    public Figure read(@NonNull Source in) throws IOException {
-        try {
+    private static @NonNull XMLInputFactory createInputFactory() {
+        XMLInputFactory dbf = XMLInputFactory.newInstance();
 
-            XMLInputFactory dbf = XMLInputFactory.newInstance();
+        // We do not want that the reader creates a socket connection,
+        // even if we would get a better result!
+        dbf.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        dbf.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, false);
+        dbf.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        dbf.setXMLResolver((publicID, systemID, baseURI, namespace) -> null);
+        return dbf;
+    }
 
-            // We do not want that the reader creates a socket connection,
-            // even if we would get a better result!
-            dbf.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
-            dbf.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, false);
-            dbf.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-            dbf.setXMLResolver((publicID, systemID, baseURI, namespace) -> null);
+    public Figure read(@NonNull Source in) throws IOException {
+        try {
 
-            XMLStreamReader r = dbf.createXMLStreamReader(in);
+            XMLStreamReader r = INPUT_FACTORY.get().createXMLStreamReader(in);
             Context ctx = new Context();
             Figure root = null;
             Loop:
@@ -280,8 +235,8 @@ public class FigureSvgTinyReader {
                 handleError(r, "Could not find an <svg> element in the file.");
             }
 
-            for (CheckedRunnable secondPass : ctx.secondPass) {
-                secondPass.run();
+            for (DeferredAttribute a : ctx.secondPass) {
+                setAttribute(a, ctx);
             }
 
             root.set(SvgDrawing.INLINE_STYLESHEETS, ImmutableLists.ofCollection(ctx.stylesheets));
@@ -298,14 +253,71 @@ public class FigureSvgTinyReader {
             setSizeOfDrawing(root);
 
             return root;
-        } catch (IOException e) {
-            throw e;
         } catch (Exception e) {
             throw new IOException(e);
         }
     }
 
-    private void readAttributes(XMLStreamReader r, Figure node, Map<String, MapAccessor<?>> m, Context ctx) throws XMLStreamException {
+    /**
+     * Creates the element types.
+     * <p>
+     * The attribute setters are bound to their converter here, so that
+     * reading an attribute only takes a single map lookup.
+     */
+    private static @NonNull Map<String, ElementType> createElementTypes() {
+        Map<String, Supplier<Figure>> factories = new LinkedHashMap<>();
+        factories.put("svg", SvgDrawing::new);
+        factories.put("g", SvgGFigure::new);
+        factories.put("rect", SvgRectFigure::new);
+        factories.put("defs", SvgDefsFigure::new);
+        factories.put("circle", SvgCircleFigure::new);
+        factories.put("ellipse", SvgEllipseFigure::new);
+        factories.put("line", SvgLineFigure::new);
+        factories.put("path", SvgPathFigure::new);
+        factories.put("polygon", SvgPolygonFigure::new);
+        factories.put("polyline", SvgPolylineFigure::new);
+        factories.put("text", SvgTextFigure::new);
+        factories.put("linearGradient", SvgLinearGradientFigure::new);
+        factories.put("radialGradient", SvgRadialGradientFigure::new);
+
+        // Maps from a type to a converter.
+        Map<Type, Converter<?>> converterMap = new LinkedHashMap<>();
+        Map<String, List<ReadOnlyStyleableMapAccessor<?>>> accessorMap = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<Figure>> e : factories.entrySet()) {
+            List<ReadOnlyStyleableMapAccessor<?>> accessors = new ArrayList<>();
+            for (MapAccessor<?> acc : Figure.getDeclaredAndInheritedMapAccessors(e.getValue().get().getClass())) {
+                if (acc instanceof ReadOnlyStyleableMapAccessor) {
+                    ReadOnlyStyleableMapAccessor<?> rosma = (ReadOnlyStyleableMapAccessor<?>) acc;
+                    accessors.add(rosma);
+                    converterMap.put(acc.getValueType(), rosma.getCssConverter());
+                }
+            }
+            accessorMap.put(e.getKey(), accessors);
+        }
+
+        // Override converters that have different representations in CSS and XML
+        converterMap.put(String.class, new XmlStringConverter());
+        converterMap.put(new TypeToken<CssDefaultableValue<Paintable>>() {
+                }.getType(),
+                new CssDefaultableValueConverter<>(new SvgXmlPaintableConverter()));
+
+        Map<String, ElementType> elementTypes = new HashMap<>();
+        for (Map.Entry<String, Supplier<Figure>> e : factories.entrySet()) {
+            Map<String, AttributeSetter> setters = new HashMap<>();
+            for (ReadOnlyStyleableMapAccessor<?> acc : accessorMap.get(e.getKey())) {
+                @SuppressWarnings("unchecked")
+                MapAccessor<Object> key = (MapAccessor<Object>) acc;
+                Converter<?> converter = converterMap.get(acc.getValueType());
+                setters.put(acc.getName(), converter instanceof XmlStringConverter
+                        ? (figure, value, idResolver) -> figure.set(key, value)
+                        : (figure, value, idResolver) -> figure.set(key, converter.fromString(value, idResolver)));
+            }
+            elementTypes.put(e.getKey(), new ElementType(e.getValue(), setters));
+        }
+        return Collections.unmodifiableMap(elementTypes);
+    }
+
+    private void readAttributes(XMLStreamReader r, Figure node, Map<String, AttributeSetter> m, Context ctx) throws XMLStreamException {
         for (int i = 0, n = r.getAttributeCount(); i < n; i++) {
             String namespace = r.getAttributeNamespace(i);
             String localName = r.getAttributeLocalName(i);
@@ -315,29 +327,13 @@ public class FigureSvgTinyReader {
                     && (namespace == null
                     || SVG_NAMESPACE.equals(namespace)
                     || XML_NAMESPACE.equals(namespace))) {
-                ctx.idFactory.putIdAndObject(value, node);
+                ctx.idFactory.putIdToObject(value, node);
                 node.set(StyleableFigure.ID, value);
             } else if (namespace == null || SVG_NAMESPACE.equals(namespace)) {
-                Location location = r.getLocation();
                 if (m != null) {
-                    ctx.secondPass.add(() -> {
-                        @SuppressWarnings("unchecked") MapAccessor<Object> mapAccessor = (MapAccessor<Object>) m.get(localName);
-                        if (mapAccessor instanceof ReadOnlyStyleableMapAccessor<?>) {
-                            ReadOnlyStyleableMapAccessor<?> rosma = (ReadOnlyStyleableMapAccessor<?>) mapAccessor;
-                            Converter<?> converter = converterMap.get(rosma.getValueType());
-                            if (converter == null) {
-                                handleError(location, "No converter for attribute \"" + localName + "\".");
-                            } else {
-                                try {
-                                    node.set(mapAccessor, converter.fromString(value, ctx.idFactory));
-                                } catch (ParseException | IOException e) {
-                                    handleError(location, "Could not read attribute \"" + localName + "\".", e);
-                                }
-                            }
-                        } else {
-                            handleError(location, "Unsupported attribute " + localName + "=\"" + value + "\".");
-                        }
-                    });
+                    // Attributes may reference elements that have not been read yet.
+                    // Therefore, we set them in a second pass.
+                    ctx.secondPass.add(new DeferredAttribute(node, m.get(localName), localName, value, r.getLocation()));
                 } else {
                     handleError(r, "Skipping SVG attribute " + localName + "=\"" + value + "\".");
                 }
@@ -347,6 +343,18 @@ public class FigureSvgTinyReader {
         }
     }
 
+    private void setAttribute(@NonNull DeferredAttribute a, @NonNull Context ctx) throws XMLStreamException {
+        if (a.setter == null) {
+            handleError(a.location, "Unsupported attribute " + a.localName + "=\"" + a.value + "\".");
+        } else {
+            try {
+                a.setter.set(a.figure, a.value, ctx.idFactory);
+            } catch (ParseException | IOException e) {
+                handleError(a.location, "Could not read attribute \"" + a.localName + "\".", e);
+            }
+        }
+    }
+
     /**
      * Reads the children of the current element.
      * <p>
@@ -396,10 +404,10 @@ public class FigureSvgTinyReader {
         String localName = r.getLocalName();
 
         if (SVG_NAMESPACE.equals(r.getNamespaceURI())) {
-            Supplier<Figure> figureSupplier = figureMap.get(r.getName());
-            if (figureSupplier != null) {
-                Figure node = figureSupplier.get();
-                readAttributes(r, node, accessorMap.get(localName), ctx);
+            ElementType elementType = localName == null ? null : ELEMENT_TYPES.get(localName);
+            if (elementType != null) {
+                Figure node = elementType.factory.get();
+                readAttributes(r, node, elementType.attributes, ctx);
                 readChildElements(r, node == null ? parent : node, ctx);
                 if (parent != null) {
                     parent.getChildren().add(node);
@@ -615,12 +623,62 @@ public class FigureSvgTinyReader {
         return new ArrayList<>(errors);
     }
 
+    /**
+     * Sets the value of an attribute on a figure.
+     */
+    @FunctionalInterface
+    private interface AttributeSetter {
+        void set(@NonNull Figure figure, @NonNull String value, @NonNull IdResolver idResolver) throws ParseException, IOException;
+    }
+
+    /**
+     * Describes an element in the SVG namespace.
+     */
+    private static class ElementType {
+        /**
+         * Creates a figure for the element.
+         */
+        final @NonNull Supplier<Figure> factory;
+        /**
+         * Maps from an attribute name to an attribute setter.
+         */
+        final @NonNull Map<String, AttributeSetter> attributes;
+
+        ElementType(@NonNull Supplier<Figure> factory, @NonNull Map<String, AttributeSetter> attributes) {
+            this.factory = factory;
+            this.attributes = attributes;
+        }
+    }
+
+    /**
+     * An attribute that is set in the second pass.
+     */
+    private static class DeferredAttribute {
+        final @NonNull Figure figure;
+        /**
+         * The setter, null if the attribute is not supported.
+         */
+        final @Nullable AttributeSetter setter;
+        final @NonNull String localName;
+        final @NonNull String value;
+        final @Nullable Location location;
+
+        DeferredAttribute(@NonNull Figure figure, @Nullable AttributeSetter setter, @NonNull String localName,
+                          @NonNull String value, @Nullable Location location) {
+            this.figure = figure;
+            this.setter = setter;
+            this.localName = localName;
+            this.value = value;
+            this.location = location;
+        }
+    }
+
     /**
      * Holds the current reading context.
      */
     private static class Context {
         SimpleIdFactory idFactory = new SimpleIdFactory();
-        List<CheckedRunnable> secondPass = new ArrayList<>();
+        List<DeferredAttribute> secondPass = new ArrayList<>();
         List<String> stylesheets = new ArrayList<>();
         StringBuilder stringBuilder = new StringBuilder();
     }
@@ -27,4 +27,18 @@ public interface SvgSceneGraphWriter {
     NonNullObjectKey<Boolean> EXPORT_INVISIBLE_ELEMENTS_KEY = new NonNullObjectKey<>("exportInvisibleElements", Boolean.class, false);
     NonNullObjectKey<Boolean> RELATIVIZE_PATHS_KEY = new NonNullObjectKey<>("relativizePaths", Boolean.class, false);
     NonNullObjectKey<Boolean> CONVERT_TEXT_TO_PATH_KEY = new NonNullObjectKey<>("convertTextToPath", Boolean.class, false);
+    /**
+     * If this property is true, the subtrees of the children of the
+     * drawing node are written in parallel.
+     */
+    NonNullObjectKey<Boolean> PARALLEL_KEY = new NonNullObjectKey<>("parallel", Boolean.class, true);
+    /**
+     * If this property is true, fills and strokes that are used by more
+     * than one shape are written only once into a style sheet, and the
+     * shapes reference them with a CSS class.
+     * <p>
+     * This property has no effect if the SVG profile does not support
+     * style sheets.
+     */
+    NonNullObjectKey<Boolean> SHARE_PAINTS_KEY = new NonNullObjectKey<>("sharePaints", Boolean.class, false);
 }
@@ -253,8 +253,12 @@ public class IndentingXMLStreamWriter implements XMLStreamWriter {
     private boolean escapeGreaterThan;
 
     public IndentingXMLStreamWriter(Writer w) {
+        this(w, StandardCharsets.UTF_8);
+    }
+
+    private IndentingXMLStreamWriter(Writer w, Charset charset) {
         this.w = w;
-        this.encoder = StandardCharsets.UTF_8.newEncoder();
+        this.encoder = charset.newEncoder();
         stack.push(new Element("", "", "<root>", false));
     }
 
@@ -263,9 +267,7 @@ public class IndentingXMLStreamWriter implements XMLStreamWriter {
     }
 
     public IndentingXMLStreamWriter(OutputStream out, Charset charset) {
-        this.w = new BufferedWriter(new OutputStreamWriter(out, charset));
-        this.encoder = charset.newEncoder();
-        stack.push(new Element("", "", "<root>", false));
+        this(new BufferedWriter(new OutputStreamWriter(out, charset)), charset);
     }
 
     @Override
@@ -273,6 +275,49 @@ public class IndentingXMLStreamWriter implements XMLStreamWriter {
 
     }
 
+    /**
+     * Creates a writer for a fragment of the document.
+     * <p>
+     * The fragment writer starts with the elements that are currently
+     * open in this writer. It indents elements and resolves namespace
+     * prefixes as if they were written by this writer. The fragment must
+     * only contain complete elements, and must be inserted into this
+     * writer with {@link #writeFragment}.
+     * <p>
+     * Fragment writers can be used to write independent subtrees of a
+     * document in parallel.
+     *
+     * @param w the writer for the fragment
+     * @return a new fragment writer
+     */
+    public @NonNull IndentingXMLStreamWriter createFragmentWriter(@NonNull Writer w) {
+        IndentingXMLStreamWriter f = new IndentingXMLStreamWriter(w, encoder.charset());
+        f.stack.clear();
+        for (Iterator<Element> i = stack.descendingIterator(); i.hasNext(); ) {
+            Element e = i.next();
+            Element copy = new Element(e.getPrefix(), e.namespaceUri, e.getLocalName(), e.isEmpty());
+            copy.namespaceContext = e.namespaceContext;
+            copy.setHasContent(e.isHasContent());
+            f.stack.push(copy);
+        }
+        f.escapeGreaterThan = escapeGreaterThan;
+        return f;
+    }
+
+    /**
+     * Inserts a fragment that has been written with a fragment writer.
+     *
+     * @param fragment the fragment
+     * @throws XMLStreamException on failure
+     * @see #createFragmentWriter
+     */
+    public void writeFragment(@NonNull String fragment) throws XMLStreamException {
+        if (!fragment.isEmpty()) {
+            closeStartTagOrCloseEmptyElemTag();
+            write(fragment);
+        }
+    }
+
     private void closeStartTagOrCloseEmptyElemTag() throws XMLStreamException {
         if (isStartTagOpen) {
             doWriteAttributes();
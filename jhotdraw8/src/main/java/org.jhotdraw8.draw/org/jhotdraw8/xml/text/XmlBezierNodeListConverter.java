@@ -7,10 +7,10 @@ package org.jhotdraw8.xml.text;
 import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.collection.ImmutableList;
-import org.jhotdraw8.collection.ImmutableLists;
 import org.jhotdraw8.css.CssTokenType;
 import org.jhotdraw8.css.StreamCssTokenizer;
 import org.jhotdraw8.geom.BezierNode;
+import org.jhotdraw8.geom.BezierNodeList;
 import org.jhotdraw8.geom.BezierNodePath;
 import org.jhotdraw8.geom.BezierNodePathBuilder;
 import org.jhotdraw8.geom.SvgPaths;
@@ -80,6 +80,6 @@ public class XmlBezierNodeListConverter implements Converter<ImmutableList<Bezie
 
     @Override
     public ImmutableList<BezierNode> getDefaultValue() {
-        return ImmutableLists.emptyList();
+        return BezierNodeList.of();
     }
 }
@@ -35,11 +35,8 @@ public class XmlSvgPathConverter implements Converter<SVGPath> {
 
     @Override
     public @Nullable SVGPath fromString(@NonNull CharBuffer buf, @Nullable IdResolver idResolver) throws ParseException, IOException {
-        CharBuffer out = CharBuffer.allocate(buf.remaining());
-        int count = buf.read(out);
-        out.position(0);
-        out.limit(count);
-        final String string = out.toString();
+        final String string = buf.toString();
+        buf.position(buf.limit());
         if ("none".equals(string)) {
             return null;
         }
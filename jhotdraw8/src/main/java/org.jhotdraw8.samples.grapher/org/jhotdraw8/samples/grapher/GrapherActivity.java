@@ -20,6 +20,7 @@ import javafx.scene.layout.VBox;
 import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.app.AbstractFileBasedActivity;
+import org.jhotdraw8.app.DocumentJournal;
 import org.jhotdraw8.app.FileBasedActivity;
 import org.jhotdraw8.app.action.Action;
 import org.jhotdraw8.app.action.file.BrowseFileDirectoryAction;
@@ -57,7 +58,6 @@ import org.jhotdraw8.draw.action.SendBackwardAction;
 import org.jhotdraw8.draw.action.SendToBackAction;
 import org.jhotdraw8.draw.action.UngroupAction;
 import org.jhotdraw8.draw.constrain.GridConstrainer;
-import org.jhotdraw8.draw.figure.AbstractDrawing;
 import org.jhotdraw8.draw.figure.BezierFigure;
 import org.jhotdraw8.draw.figure.CombinedPathFigure;
 import org.jhotdraw8.draw.figure.Drawing;
@@ -100,8 +100,11 @@ import org.jhotdraw8.draw.inspector.ToolsToolbar;
 import org.jhotdraw8.draw.inspector.ZoomToolbar;
 import org.jhotdraw8.draw.io.BitmapExportOutputFormat;
 import org.jhotdraw8.draw.io.DefaultFigureFactory;
+import org.jhotdraw8.draw.io.DrawingJournal;
 import org.jhotdraw8.draw.io.FigureFactory;
 import org.jhotdraw8.draw.io.PrinterExportFormat;
+import org.jhotdraw8.draw.io.SimpleBinaryReader;
+import org.jhotdraw8.draw.io.SimpleBinaryWriter;
 import org.jhotdraw8.draw.io.SimpleFigureIdFactory;
 import org.jhotdraw8.draw.io.SimpleXmlStaxReader;
 import org.jhotdraw8.draw.io.SimpleXmlWriter;
@@ -135,6 +138,8 @@ import org.jhotdraw8.util.Resources;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -171,6 +176,11 @@ public class GrapherActivity extends AbstractFileBasedActivity implements FileBa
     private DrawingView drawingView;
 
     private DrawingEditor editor;
+    /**
+     * The last write of the native format. The next write waits until this
+     * one has completed.
+     */
+    private @NonNull CompletionStage<Void> nativeWrite = CompletableFuture.completedFuture(null);
     @FXML
     private BorderPane contentPane;
     private Node node;
@@ -455,54 +465,136 @@ public class GrapherActivity extends AbstractFileBasedActivity implements FileBa
 
     @Override
     public CompletionStage<DataFormat> read(@NonNull URI uri, DataFormat format, @Nullable Map<Key<?>, Object> options, boolean insert, @NonNull WorkState workState) {
+        DrawingJournal[] recoveredJournal = new DrawingJournal[1];
         return FXWorker.supply(() -> {
             IdFactory idFactory = new SimpleFigureIdFactory();
             FigureFactory factory = new DefaultFigureFactory(idFactory);
-            SimpleXmlStaxReader io = new SimpleXmlStaxReader(factory, idFactory, GRAPHER_NAMESPACE_URI);
-            AbstractDrawing drawing = (AbstractDrawing) io.read(uri, null, workState);
+            Drawing drawing;
+            if (isBinaryFormat(uri, format)) {
+                SimpleBinaryReader io = new SimpleBinaryReader(factory, idFactory);
+                drawing = (Drawing) io.read(uri, null, workState);
+            } else {
+                SimpleXmlStaxReader io = new SimpleXmlStaxReader(factory, idFactory, GRAPHER_NAMESPACE_URI);
+                drawing = (Drawing) io.read(uri, null, workState);
+            }
             System.out.println("READING..." + uri);
+            if (!insert && "file".equals(uri.getScheme())) {
+                Path file = Paths.get(uri);
+                DrawingJournal journal = createDrawingJournal(file);
+                Drawing recovered = journal.recover(file, drawing);
+                if (recovered != null) {
+                    drawing = recovered;
+                    recoveredJournal[0] = journal;
+                }
+            }
             applyUserAgentStylesheet(drawing);
             return drawing;
         }).thenApply(drawing -> {
             drawingView.setDrawing(drawing);
+            if (recoveredJournal[0] != null) {
+                recoveredJournal[0].attach(drawingView.getModel());
+                setRecoveredJournal(recoveredJournal[0]);
+            }
             return format;
         });
     }
 
+    @Override
+    protected @Nullable DocumentJournal createJournal(@NonNull Path file) throws IOException {
+        DrawingJournal journal = createDrawingJournal(file);
+        journal.start(file, drawingView.getModel());
+        return journal;
+    }
+
+    private @NonNull DrawingJournal createDrawingJournal(@NonNull Path file) {
+        return new DrawingJournal(getJournalFile(file), SimpleFigureIdFactory::new, DefaultFigureFactory::new, GRAPHER_NAMESPACE_URI);
+    }
+
     @Override
     public CompletionStage<Void> write(@NonNull URI uri, DataFormat format, Map<Key<?>, Object> options, WorkState workState) {
         Drawing drawing = drawingView.getDrawing();
-        return FXWorker.run(() -> {
-            if (registerDataFormat(FXSvgTinyWriter.SVG_MIME_TYPE_WITH_VERSION).equals(format)) {
+        final CompletionStage<Void> result;
+        if (registerDataFormat(FXSvgTinyWriter.SVG_MIME_TYPE_WITH_VERSION).equals(format)) {
+            result = FXWorker.run(() -> {
                 SvgExportOutputFormat io = new SvgExportOutputFormat();
                 io.setExporterFactory(FXSvgTinyWriter::new);
                 io.getProperties().putAll(options);
                 io.write(uri, drawing, workState);
-            } else if (registerDataFormat(FXSvgFullWriter.SVG_MIME_TYPE).equals(format)
-                    || registerDataFormat(FXSvgFullWriter.SVG_MIME_TYPE_WITH_VERSION).equals(format)
-                    || uri.getPath().endsWith(".svg")) {
+            });
+        } else if (registerDataFormat(FXSvgFullWriter.SVG_MIME_TYPE).equals(format)
+                || registerDataFormat(FXSvgFullWriter.SVG_MIME_TYPE_WITH_VERSION).equals(format)
+                || uri.getPath().endsWith(".svg") || uri.getPath().endsWith(".svgz")) {
+            result = FXWorker.run(() -> {
                 SvgExportOutputFormat io = new SvgExportOutputFormat();
                 io.getProperties().putAll(options);
                 io.write(uri, drawing, workState);
-            } else if (registerDataFormat(BitmapExportOutputFormat.PNG_MIME_TYPE).equals(format) || uri.getPath().endsWith(".png")) {
+            });
+        } else if (registerDataFormat(BitmapExportOutputFormat.PNG_MIME_TYPE).equals(format) || uri.getPath().endsWith(".png")) {
+            result = FXWorker.run(() -> {
                 BitmapExportOutputFormat io = new BitmapExportOutputFormat();
                 io.getProperties().putAll(options);
                 io.write(uri, drawing, workState);
-            } else if (registerDataFormat(XmlEncoderOutputFormat.XML_SERIALIZER_MIME_TYPE).equals(format) || uri.getPath().endsWith(".ser.xml")) {
+            });
+        } else if (registerDataFormat(XmlEncoderOutputFormat.XML_SERIALIZER_MIME_TYPE).equals(format) || uri.getPath().endsWith(".ser.xml")) {
+            result = FXWorker.run(() -> {
                 XmlEncoderOutputFormat io = new XmlEncoderOutputFormat();
                 io.write(uri, drawing, workState);
-            } else {
-                DefaultFigureFactory factory = new DefaultFigureFactory();
-                IdFactory idFactory = factory.getIdFactory();
-                SimpleXmlWriter io = new SimpleXmlWriter(factory, idFactory, GRAPHER_NAMESPACE_URI, null);
+            });
+        } else if (isBinaryFormat(uri, format)) {
+            result = FXWorker.run(() -> {
+                IdFactory idFactory = new SimpleFigureIdFactory();
+                SimpleBinaryWriter io = new SimpleBinaryWriter(new DefaultFigureFactory(idFactory), idFactory);
                 io.write(uri, drawing, workState);
-            }
-        }).handle((voidvalue, ex) -> {
-            if (ex != null) {
-                ex.printStackTrace();
-            }
-            return null;
-        });
+            });
+        } else {
+            result = writeNativeFormat(uri, drawing, workState);
+        }
+        // the caller reports the error, and must not clear the modified flag
+        return result;
+    }
+
+    private static boolean isBinaryFormat(@NonNull URI uri, @Nullable DataFormat format) {
+        return registerDataFormat(SimpleBinaryWriter.BINARY_DRAWING_MIME_TYPE).equals(format)
+                || uri.getPath().endsWith(".jhdb");
+    }
+
+    /**
+     * Takes a snapshot of the drawing on the FX Application Thread, and
+     * then writes the snapshot in a background thread.
+     * <p>
+     * The activity is enabled again as soon as the snapshot has been taken,
+     * so that the drawing can be edited while the snapshot is being written.
+     * Snapshots are written in the order in which they have been taken.
+     * <p>
+     * If the URI does not denote a file in a directory, the drawing is
+     * written without a snapshot in a background thread, and the activity
+     * remains disabled until the write has finished.
+     */
+    private @NonNull CompletionStage<Void> writeNativeFormat(@NonNull URI uri, @NonNull Drawing drawing, @NonNull WorkState workState) {
+        DefaultFigureFactory factory = new DefaultFigureFactory();
+        IdFactory idFactory = factory.getIdFactory();
+        SimpleXmlWriter io = new SimpleXmlWriter(factory, idFactory, GRAPHER_NAMESPACE_URI, null);
+        Path file;
+        try {
+            file = "file".equals(uri.getScheme()) && !uri.isOpaque() ? Paths.get(uri) : null;
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        Path dir = file == null ? null : file.getParent();
+        if (dir == null) {
+            return FXWorker.run(() -> io.write(uri, drawing, workState));
+        }
+        SimpleXmlWriter.Snapshot snapshot;
+        try {
+            snapshot = io.createSnapshot(dir.toUri(), drawing);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        onWriteSnapshotTaken(workState);
+        CompletionStage<Void> write = nativeWrite.handle((voidvalue, ex) -> null)
+                .thenCompose(voidvalue -> FXWorker.run(() -> io.write(file, snapshot, workState)));
+        nativeWrite = write;
+        return write;
     }
 
     private void applyUserAgentStylesheet(final @NonNull Drawing d) {
@@ -13,6 +13,7 @@ import org.jhotdraw8.collection.NonNullKey;
 import org.jhotdraw8.collection.SimpleNonNullKey;
 import org.jhotdraw8.draw.DrawStylesheets;
 import org.jhotdraw8.draw.io.BitmapExportOutputFormat;
+import org.jhotdraw8.draw.io.SimpleBinaryWriter;
 import org.jhotdraw8.draw.io.XmlEncoderOutputFormat;
 import org.jhotdraw8.fxml.FxmlUtil;
 import org.jhotdraw8.gui.FileURIChooser;
@@ -80,9 +81,11 @@ public class GrapherApplication extends AbstractFileBasedApplication {
 
         List<URIExtensionFilter> exportExtensions = new ArrayList<>();
         exportExtensions.add(new URIExtensionFilter("SVG Full", registerDataFormat(FXSvgFullWriter.SVG_MIME_TYPE_WITH_VERSION), "*.svg"));
+        exportExtensions.add(new URIExtensionFilter("SVG Full Compressed", registerDataFormat(FXSvgFullWriter.SVG_MIME_TYPE_WITH_VERSION), "*.svgz"));
         exportExtensions.add(new URIExtensionFilter("SVG Tiny", registerDataFormat(FXSvgTinyWriter.SVG_MIME_TYPE_WITH_VERSION), "*.svg"));
         exportExtensions.add(new URIExtensionFilter("PNG", registerDataFormat(BitmapExportOutputFormat.PNG_MIME_TYPE), "*.png"));
         exportExtensions.add(new URIExtensionFilter("XMLSerialized", registerDataFormat(XmlEncoderOutputFormat.XML_SERIALIZER_MIME_TYPE), "*.ser.xml"));
+        exportExtensions.add(new URIExtensionFilter("Binary Drawing", registerDataFormat(SimpleBinaryWriter.BINARY_DRAWING_MIME_TYPE), "*.jhdb"));
         set(EXPORT_CHOOSER_FACTORY_KEY, () -> new FileURIChooser(FileURIChooser.Mode.SAVE, exportExtensions));
     }
 
@@ -72,6 +72,7 @@ import org.jhotdraw8.draw.figure.Layer;
 import org.jhotdraw8.draw.figure.LayerFigure;
 import org.jhotdraw8.draw.figure.LineConnectionWithMarkersFigure;
 import org.jhotdraw8.draw.figure.LineFigure;
+import org.jhotdraw8.draw.figure.OrthogonalConnectionRouter;
 import org.jhotdraw8.draw.figure.PageFigure;
 import org.jhotdraw8.draw.figure.PageLabelFigure;
 import org.jhotdraw8.draw.figure.PolygonFigure;
@@ -106,6 +107,7 @@ import org.jhotdraw8.draw.io.SimpleXmlStaxReader;
 import org.jhotdraw8.draw.io.SimpleXmlWriter;
 import org.jhotdraw8.draw.io.SvgExportOutputFormat;
 import org.jhotdraw8.draw.io.XmlEncoderOutputFormat;
+import org.jhotdraw8.draw.render.RenderContext;
 import org.jhotdraw8.draw.render.SimpleRenderContext;
 import org.jhotdraw8.draw.tool.BezierCreationTool;
 import org.jhotdraw8.draw.tool.ConnectionTool;
@@ -441,6 +443,9 @@ public class ModelerActivity extends AbstractFileBasedActivity implements FileBa
         }
 
         drawingView = new SimpleDrawingView();
+        OrthogonalConnectionRouter router = new OrthogonalConnectionRouter();
+        router.install(drawingView.getModel());
+        drawingView.set(RenderContext.ORTHOGONAL_CONNECTION_ROUTER, router);
         // FIXME should use preferences!
         drawingView.setConstrainer(new GridConstrainer(0, 0, 10, 10, 11.25, 5, 5));
         //drawingView.setHandleType(HandleType.TRANSFORM);
@@ -121,6 +121,55 @@ public abstract class AbstractIndexedArraySetTest {
 
     }
 
+    public void testRemoveRange(@NonNull String initialList, int fromIndex, int toIndex, @NonNull String expectedListStr, String expectedChanges) throws Exception {
+        AbstractIndexedArraySet<Character> list = newInstance(asList(initialList));
+
+        AbstractIndexedArraySetTest.ChangeRecorder recorder = new AbstractIndexedArraySetTest.ChangeRecorder();
+        list.addListener(recorder);
+        list.removeRange(fromIndex, toIndex);
+
+        List<Character> expectedList = asList(expectedListStr);
+        assertEquals(expectedList, list);
+        assertEquals(expectedChanges, recorder.getChanges());
+        for (Character c : asList(initialList)) {
+            assertEquals(expectedList.contains(c), list.contains(c));
+        }
+    }
+
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsRemoveRange() {
+        return Arrays.asList(
+                dynamicTest("1", () -> testRemoveRange("a", 0, 0, "a", "")),
+                dynamicTest("2", () -> testRemoveRange("a", 0, 1, "", "rem(0,[a])")),
+                dynamicTest("3", () -> testRemoveRange("abc", 0, 1, "bc", "rem(0,[a])")),
+                dynamicTest("4", () -> testRemoveRange("abc", 1, 2, "ac", "rem(1,[b])")),
+                dynamicTest("5", () -> testRemoveRange("abc", 2, 3, "ab", "rem(2,[c])")),
+                dynamicTest("6", () -> testRemoveRange("abcd", 1, 3, "ad", "rem(1,[b, c])")),
+                dynamicTest("7", () -> testRemoveRange("abcd", 0, 4, "", "rem(0,[a, b, c, d])"))
+        );
+    }
+
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsClear() {
+        return Arrays.asList(
+                dynamicTest("1", () -> testClear("a")),
+                dynamicTest("2", () -> testClear("abcd"))
+        );
+    }
+
+    public void testClear(@NonNull String initialList) throws Exception {
+        AbstractIndexedArraySet<Character> list = newInstance(asList(initialList));
+        list.clear();
+        assertTrue(list.isEmpty());
+        for (Character c : asList(initialList)) {
+            assertFalse(list.contains(c));
+        }
+
+        // the list must still be usable after clearing it
+        list.addAll(asList(initialList));
+        assertEquals(asList(initialList), list);
+    }
+
     private static class ChangeRecorder implements ListChangeListener<Character> {
 
         private @NonNull StringBuilder buf = new StringBuilder();
@@ -0,0 +1,137 @@
+/*
+ * @(#)OrthogonalConnectionRouterTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.figure;
+
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.css.CssPoint2D;
+import org.jhotdraw8.draw.model.SimpleDrawingModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link OrthogonalConnectionRouter}.
+ */
+public class OrthogonalConnectionRouterTest {
+    @Test
+    public void testRouteAroundObstacleAndRerouteWhenObstacleMoves() {
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing();
+        LayerFigure layer = new LayerFigure();
+        drawing.addChild(layer);
+        RectangleFigure startTarget = new RectangleFigure(0, 0, 20, 20);
+        RectangleFigure endTarget = new RectangleFigure(200, 0, 20, 20);
+        RectangleFigure obstacle = new RectangleFigure(100, -50, 20, 120);
+        LineConnectionFigure connection = new LineConnectionFigure();
+        layer.addChild(startTarget);
+        layer.addChild(endTarget);
+        layer.addChild(obstacle);
+        layer.addChild(connection);
+
+        SimpleDrawingModel model = new SimpleDrawingModel();
+        model.setDrawing(drawing);
+        OrthogonalConnectionRouter router = new OrthogonalConnectionRouter(10, 20, f -> f instanceof RectangleFigure);
+        router.install(model);
+
+        Point2D start = new Point2D(10, 10);
+        Point2D end = new Point2D(210, 10);
+        List<Point2D> route = router.route(connection, start, startTarget, end, endTarget);
+        assertNotNull(route);
+        assertEquals(start, route.get(0));
+        assertEquals(end, route.get(route.size() - 1));
+        assertEquals(4, route.size(), "route around the obstacle has 2 bends");
+        assertOrthogonalAndOutside(route, obstacle.getLayoutBoundsInWorld());
+
+        model.translateInParent(obstacle, new CssPoint2D(0, 200));
+        List<Point2D> routeBeforeValidate = router.route(connection, start, startTarget, end, endTarget);
+        assertEquals(route, routeBeforeValidate, "route only sees the obstacles after validate");
+        router.validate();
+        route = router.route(connection, start, startTarget, end, endTarget);
+        assertNotNull(route);
+        assertEquals(List.of(start, end), route, "straight route after the obstacle has moved away");
+    }
+
+    @Test
+    public void testRerouteWhenObstaclesAreRemovedAndAdded() {
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing();
+        LayerFigure layer = new LayerFigure();
+        drawing.addChild(layer);
+        RectangleFigure startTarget = new RectangleFigure(0, 0, 20, 20);
+        RectangleFigure endTarget = new RectangleFigure(200, 0, 20, 20);
+        RectangleFigure obstacle = new RectangleFigure(100, -50, 20, 120);
+        LineConnectionFigure connection = new LineConnectionFigure();
+        layer.addChild(startTarget);
+        layer.addChild(endTarget);
+        layer.addChild(obstacle);
+        layer.addChild(connection);
+
+        SimpleDrawingModel model = new SimpleDrawingModel();
+        model.setDrawing(drawing);
+        OrthogonalConnectionRouter router = new OrthogonalConnectionRouter(10, 20, f -> f instanceof RectangleFigure);
+        router.install(model);
+
+        Point2D start = new Point2D(10, 10);
+        Point2D end = new Point2D(210, 10);
+        assertEquals(4, router.route(connection, start, startTarget, end, endTarget).size());
+
+        model.removeFromParent(obstacle);
+        router.validate();
+        assertEquals(List.of(start, end), router.route(connection, start, startTarget, end, endTarget),
+                "straight route after the obstacle has been removed");
+
+        RectangleFigure other = new RectangleFigure(60, -50, 20, 120);
+        model.addChildTo(other, layer);
+        router.validate();
+        List<Point2D> route = router.route(connection, start, startTarget, end, endTarget);
+        assertNotNull(route);
+        assertEquals(4, route.size(), "route around the added obstacle has 2 bends");
+        assertOrthogonalAndOutside(route, other.getLayoutBoundsInWorld());
+    }
+
+    @Test
+    public void testDefaultRouterTreatsUnconnectedFiguresAsObstacles() {
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing();
+        LayerFigure layer = new LayerFigure();
+        drawing.addChild(layer);
+        RectangleFigure startTarget = new RectangleFigure(0, 0, 20, 20);
+        RectangleFigure endTarget = new RectangleFigure(200, 0, 20, 20);
+        RectangleFigure obstacle = new RectangleFigure(100, -50, 20, 120);
+        LineConnectionFigure connection = new LineConnectionFigure();
+        layer.addChild(startTarget);
+        layer.addChild(endTarget);
+        layer.addChild(obstacle);
+        layer.addChild(connection);
+
+        SimpleDrawingModel model = new SimpleDrawingModel();
+        model.setDrawing(drawing);
+        OrthogonalConnectionRouter router = new OrthogonalConnectionRouter();
+        router.install(model);
+
+        Point2D start = new Point2D(10, 10);
+        Point2D end = new Point2D(210, 10);
+        List<Point2D> route = router.route(connection, start, startTarget, end, endTarget);
+        assertNotNull(route);
+        assertEquals(4, route.size(), "route around the unconnected obstacle has 2 bends");
+        assertOrthogonalAndOutside(route, obstacle.getLayoutBoundsInWorld());
+    }
+
+    private static void assertOrthogonalAndOutside(@NonNull List<Point2D> route, @NonNull Bounds obstacle) {
+        for (int i = 1; i < route.size(); i++) {
+            Point2D p0 = route.get(i - 1), p1 = route.get(i);
+            assertTrue(p0.getX() == p1.getX() || p0.getY() == p1.getY(), "segment must be orthogonal");
+            assertFalse(Math.max(p0.getX(), p1.getX()) > obstacle.getMinX()
+                            && Math.min(p0.getX(), p1.getX()) < obstacle.getMaxX()
+                            && Math.max(p0.getY(), p1.getY()) > obstacle.getMinY()
+                            && Math.min(p0.getY(), p1.getY()) < obstacle.getMaxY(),
+                    "segment must not cross the obstacle");
+        }
+    }
+}
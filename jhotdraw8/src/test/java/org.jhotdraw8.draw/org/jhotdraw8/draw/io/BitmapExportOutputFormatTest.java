@@ -0,0 +1,82 @@
+/*
+ * @(#)BitmapExportOutputFormatTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the encoder queue of {@link BitmapExportOutputFormat}.
+ */
+public class BitmapExportOutputFormatTest {
+    @Test
+    public void testEncodersRunInSubmissionOrderOrOnCallingThreadWhenQueueIsFull() throws Exception {
+        Queue<Runnable> executor = new ArrayDeque<>();
+        List<Integer> encoded = new ArrayList<>();
+        BitmapExportOutputFormat.EncoderQueue queue = new BitmapExportOutputFormat.EncoderQueue(executor::add, 2);
+
+        queue.submit(() -> encoded.add(1));
+        queue.submit(() -> encoded.add(2));
+        assertEquals(List.of(), encoded, "pending encoders run on the executor");
+        queue.submit(() -> encoded.add(3));
+        assertEquals(List.of(3), encoded, "a full queue encodes on the calling thread");
+
+        runQueue(executor);
+        assertEquals(List.of(3, 1, 2), encoded);
+        queue.await();
+
+        // the pending images have been released
+        queue.submit(() -> encoded.add(4));
+        assertEquals(List.of(3, 1, 2), encoded);
+        runQueue(executor);
+        queue.await();
+        assertEquals(List.of(3, 1, 2, 4), encoded);
+    }
+
+    @Test
+    public void testFailureIsRethrownByAwaitAndSubmit() throws Exception {
+        Queue<Runnable> executor = new ArrayDeque<>();
+        List<Integer> encoded = new ArrayList<>();
+        BitmapExportOutputFormat.EncoderQueue queue = new BitmapExportOutputFormat.EncoderQueue(executor::add, 2);
+        IOException failure = new IOException("encoder failed");
+
+        queue.submit(() -> {
+            throw failure;
+        });
+        queue.submit(() -> encoded.add(2));
+        runQueue(executor);
+        assertEquals(List.of(2), encoded, "a failure does not cancel encoders that have been submitted");
+
+        assertSame(failure, assertThrows(IOException.class, queue::await));
+        assertSame(failure, assertThrows(IOException.class, () -> queue.submit(() -> encoded.add(3))));
+        assertEquals(List.of(2), encoded, "no encoder is submitted after a failure");
+    }
+
+    @Test
+    public void testRuntimeExceptionIsWrappedIntoIOException() throws Exception {
+        BitmapExportOutputFormat.EncoderQueue queue = new BitmapExportOutputFormat.EncoderQueue(Runnable::run, 1);
+        IllegalStateException failure = new IllegalStateException("encoder failed");
+        queue.submit(() -> {
+            throw failure;
+        });
+        assertSame(failure, assertThrows(IOException.class, queue::await).getCause());
+    }
+
+    private static void runQueue(@NonNull Queue<Runnable> queue) {
+        for (Runnable r; (r = queue.poll()) != null; ) {
+            r.run();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * @(#)DrawingJournalTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.concurrent.SimpleWorkState;
+import org.jhotdraw8.css.CssPoint2D;
+import org.jhotdraw8.draw.connector.RectangleConnector;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.draw.figure.LineConnectionWithMarkersFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.figure.SimpleLayeredDrawing;
+import org.jhotdraw8.draw.figure.TextFigure;
+import org.jhotdraw8.draw.model.DrawingModel;
+import org.jhotdraw8.draw.model.SimpleDrawingModel;
+import org.jhotdraw8.io.IdFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Queue;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link DrawingJournal}.
+ */
+public class DrawingJournalTest {
+    private Path dir;
+    private Path documentFile;
+    private Path journalFile;
+    private final Queue<Runnable> fxQueue = new ArrayDeque<>();
+    private final Queue<Runnable> compactionQueue = new ArrayDeque<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("DrawingJournalTest");
+        documentFile = dir.resolve("drawing.xml");
+        journalFile = dir.resolve(".drawing.xml.journal");
+        createWriter().write(documentFile, createDrawing(), new SimpleWorkState());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testRecoverChanges() throws Exception {
+        DrawingModel model = openDocument();
+        DrawingJournal journal = createJournal();
+        journal.start(documentFile, model);
+        assertFalse(Files.exists(journalFile), "journal file is created lazily");
+
+        edit(model, 0);
+        runQueue(fxQueue);
+        assertTrue(Files.exists(journalFile));
+        long length = Files.size(journalFile);
+        assertEquals(length, journal.getLength());
+        assertTrue(length < Files.size(documentFile), "journal only contains the changes");
+
+        assertEquals(writeXml(model.getDrawing()), writeXml(recover()));
+    }
+
+    @Test
+    public void testRecoverIgnoresTornBatch() throws Exception {
+        DrawingModel model = openDocument();
+        DrawingJournal journal = createJournal();
+        journal.start(documentFile, model);
+        edit(model, 0);
+        runQueue(fxQueue);
+        String expected = writeXml(model.getDrawing());
+
+        Files.write(journalFile, new byte[]{0, 1, 2, 3, 0, 0, 0, 100, 1}, StandardOpenOption.APPEND);
+        assertEquals(expected, writeXml(recover()));
+    }
+
+    @Test
+    public void testRecoverAfterCompaction() throws Exception {
+        DrawingModel model = openDocument();
+        DrawingJournal journal = createJournal();
+        journal.setMinCompactionLength(0);
+        journal.start(documentFile, model);
+
+        for (int i = 0; compactionQueue.isEmpty(); i++) {
+            edit(model, i);
+            runQueue(fxQueue);
+        }
+        // edits during the compaction are appended after the snapshot
+        Figure layer = model.getDrawing().getChild(0);
+        model.set(layer.getChild(0), TextFigure.TEXT, "during compaction");
+        runQueue(fxQueue);
+        runQueue(compactionQueue);
+        runQueue(fxQueue);
+        assertEquals(1, Files.readAllBytes(journalFile)[5], "base must be a snapshot");
+        assertEquals(Files.size(journalFile), journal.getLength());
+
+        assertEquals(writeXml(model.getDrawing()), writeXml(recover()));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(2, files.count(), "temporary file must be removed");
+        }
+    }
+
+    @Test
+    public void testRecoverAfterRepeatedCompaction() throws Exception {
+        DrawingModel model = openDocument();
+        DrawingJournal journal = createJournal();
+        journal.setMinCompactionLength(0);
+        journal.start(documentFile, model);
+
+        int i = 0;
+        for (int compactions = 0; compactions < 3; compactions++) {
+            while (compactionQueue.isEmpty()) {
+                edit(model, i++);
+                runQueue(fxQueue);
+            }
+            runQueue(compactionQueue);
+            runQueue(fxQueue);
+            assertEquals(1, Files.readAllBytes(journalFile)[5], "base must be a snapshot");
+            assertEquals(Files.size(journalFile), journal.getLength());
+            assertEquals(writeXml(model.getDrawing()), writeXml(recover()));
+        }
+        // the snapshot ids of the last compaction must be mapped to the ids of the batches
+        edit(model, i);
+        runQueue(fxQueue);
+        assertEquals(writeXml(model.getDrawing()), writeXml(recover()));
+    }
+
+    @Test
+    public void testRecoverAfterRootChange() throws Exception {
+        DrawingModel model = openDocument();
+        DrawingJournal journal = createJournal();
+        journal.start(documentFile, model);
+        edit(model, 0);
+        runQueue(fxQueue);
+
+        model.setDrawing(readDocument());
+        runQueue(fxQueue);
+        // edits during the rebase are appended after the snapshot
+        edit(model, 1);
+        runQueue(fxQueue);
+        runQueue(compactionQueue);
+        runQueue(fxQueue);
+        assertEquals(1, Files.readAllBytes(journalFile)[5], "base must be a snapshot");
+        assertEquals(Files.size(journalFile), journal.getLength());
+        assertEquals(writeXml(model.getDrawing()), writeXml(recover()));
+
+        edit(model, 2);
+        runQueue(fxQueue);
+        assertEquals(writeXml(model.getDrawing()), writeXml(recover()));
+    }
+
+    @Test
+    public void testRecoverAfterRebaseWhenDocumentHasBeenRewritten() throws Exception {
+        DrawingModel model = openDocument();
+        DrawingJournal journal = createJournal();
+        journal.start(documentFile, model);
+        edit(model, 0);
+        runQueue(fxQueue);
+
+        // the document is saved, and edited while the snapshot is written
+        createWriter().write(documentFile, model.getDrawing(), new SimpleWorkState());
+        edit(model, 1);
+        journal.rebase();
+        runQueue(fxQueue);
+        runQueue(compactionQueue);
+        runQueue(fxQueue);
+        assertEquals(1, Files.readAllBytes(journalFile)[5], "base must be a snapshot");
+        assertEquals(writeXml(model.getDrawing()), writeXml(recover()));
+
+        edit(model, 2);
+        runQueue(fxQueue);
+        assertEquals(writeXml(model.getDrawing()), writeXml(recover()));
+    }
+
+    @Test
+    public void testDiscardDeletesJournal() throws Exception {
+        DrawingModel model = openDocument();
+        DrawingJournal journal = createJournal();
+        journal.start(documentFile, model);
+        edit(model, 0);
+        runQueue(fxQueue);
+        assertTrue(Files.exists(journalFile));
+        journal.discard();
+        assertFalse(Files.exists(journalFile));
+    }
+
+    @Test
+    public void testRecoverIgnoresJournalOfModifiedDocument() throws Exception {
+        DrawingModel model = openDocument();
+        DrawingJournal journal = createJournal();
+        journal.start(documentFile, model);
+        edit(model, 0);
+        runQueue(fxQueue);
+
+        Files.write(documentFile, "\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertNull(createJournal().recover(documentFile, readDocument()));
+    }
+
+    /**
+     * Changes properties, adds and removes figures, and moves a figure
+     * into another layer. Only removes figures that are not referenced
+     * by other figures.
+     */
+    private static void edit(@NonNull DrawingModel model, int i) {
+        Drawing drawing = model.getDrawing();
+        LayerFigure shapes = (LayerFigure) drawing.getChild(0);
+        LayerFigure connections = (LayerFigure) drawing.getChild(1);
+        model.set(shapes.getChild(0), TextFigure.TEXT, "edit " + i);
+        model.translateInParent(shapes.getChild(1), new CssPoint2D(5, 7));
+        RectangleFigure added = new RectangleFigure(i, i, 10, 10);
+        model.addChildTo(added, shapes);
+        LineConnectionWithMarkersFigure connection = new LineConnectionWithMarkersFigure();
+        connection.setStartConnection(added, new RectangleConnector());
+        connection.setEndConnection(shapes.getChild(1), new RectangleConnector());
+        model.addChildTo(connection, connections);
+        model.removeFromParent(connections.getChild(connections.getChildren().size() - 2));
+        model.insertChildAt(shapes.getChild(2), connections, 0);
+    }
+
+    private @NonNull Drawing recover() throws IOException {
+        Drawing recovered = createJournal().recover(documentFile, readDocument());
+        assertNotNull(recovered);
+        return recovered;
+    }
+
+    private static void runQueue(@NonNull Queue<Runnable> queue) {
+        for (Runnable r; (r = queue.poll()) != null; ) {
+            r.run();
+        }
+    }
+
+    private @NonNull DrawingJournal createJournal() {
+        DrawingJournal journal = new DrawingJournal(journalFile, SimpleFigureIdFactory::new, DefaultFigureFactory::new, null);
+        journal.setFlushExecutor(fxQueue::add);
+        journal.setCompactionExecutor(compactionQueue::add);
+        return journal;
+    }
+
+    private @NonNull DrawingModel openDocument() throws IOException {
+        DrawingModel model = new SimpleDrawingModel();
+        model.setDrawing(readDocument());
+        return model;
+    }
+
+    private @NonNull Drawing readDocument() throws IOException {
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        return (Drawing) new SimpleXmlStaxReader(new DefaultFigureFactory(idFactory), idFactory, null)
+                .read(documentFile, null, new SimpleWorkState());
+    }
+
+    private static @NonNull Drawing createDrawing() {
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing();
+        LayerFigure shapes = new LayerFigure();
+        LayerFigure connections = new LayerFigure();
+        drawing.addChild(shapes);
+        drawing.addChild(connections);
+        shapes.addChild(new TextFigure(0, 0, "Text"));
+        for (int i = 0; i < 50; i++) {
+            Figure start = new RectangleFigure(i * 50, 0, 40, 30);
+            Figure end = new RectangleFigure(i * 50, 100, 40, 30);
+            shapes.addChild(start);
+            shapes.addChild(end);
+            LineConnectionWithMarkersFigure connection = new LineConnectionWithMarkersFigure();
+            connection.setStartConnection(start, new RectangleConnector());
+            connection.setEndConnection(end, new RectangleConnector());
+            connections.addChild(connection);
+        }
+        return drawing;
+    }
+
+    private static @NonNull SimpleXmlWriter createWriter() {
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        return new SimpleXmlWriter(new DefaultFigureFactory(idFactory), idFactory);
+    }
+
+    private static @NonNull String writeXml(@NonNull Drawing drawing) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        createWriter().write(out, null, drawing, new SimpleWorkState());
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * @(#)FromFXImageBenchmark.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+
+import java.awt.image.BufferedImage;
+import java.util.Locale;
+
+/**
+ * Measures the cost of {@link BitmapExportOutputFormat#fromFXImage} per
+ * megapixel.
+ * <p>
+ * The benchmark converts an opaque image with a new buffered image, with
+ * a reused buffered image, with a reused opaque buffered image, and with a
+ * reused {@code TYPE_INT_RGB} image that requires a check of the alpha
+ * channel.
+ * <p>
+ * This is not a unit test. It is run from the command line in the
+ * {@code jhotdraw8} directory:
+ * <pre>
+ * java -cp ... org.jhotdraw8.draw.io.FromFXImageBenchmark [width] [height]
+ * </pre>
+ *
+ * @author Werner Randelshofer
+ */
+public class FromFXImageBenchmark {
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 50;
+
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        WritableImage image = new WritableImage(width, height);
+        int[] pixels = new int[width * height];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = 0xff000000 | (i * 0x010305);
+        }
+        image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+
+        measure("new buffer", image, null, false);
+        measure("reused buffer", image, new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE), false);
+        measure("reused opaque buffer", image, new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), true);
+        measure("reused rgb buffer with alpha check", image, new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), false);
+    }
+
+    private static void measure(@NonNull String name, @NonNull WritableImage image, @Nullable BufferedImage buffer, boolean opaque) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            BitmapExportOutputFormat.fromFXImage(image, buffer, opaque);
+        }
+        long nanosBefore = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            BitmapExportOutputFormat.fromFXImage(image, buffer, opaque);
+        }
+        long nanos = System.nanoTime() - nanosBefore;
+        double megapixels = image.getWidth() * image.getHeight() * MEASURED_ITERATIONS / 1e6;
+        System.out.println(String.format(Locale.ROOT, "%-36s %8.3f ms/megapixel", name, nanos / 1e6 / megapixels));
+    }
+}
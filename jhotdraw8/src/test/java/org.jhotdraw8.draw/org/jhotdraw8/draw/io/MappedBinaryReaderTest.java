@@ -0,0 +1,213 @@
+/*
+ * @(#)MappedBinaryReaderTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import javafx.scene.Group;
+import javafx.scene.input.DataFormat;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.concurrent.SimpleWorkState;
+import org.jhotdraw8.draw.connector.RectangleConnector;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.HideableFigure;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.draw.figure.LineConnectingFigure;
+import org.jhotdraw8.draw.figure.LineConnectionWithMarkersFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.figure.SimpleLayeredDrawing;
+import org.jhotdraw8.draw.figure.TextFigure;
+import org.jhotdraw8.draw.model.DrawingModel;
+import org.jhotdraw8.draw.model.SimpleDrawingModel;
+import org.jhotdraw8.draw.render.SimpleDrawingRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link MappedBinaryReader}.
+ */
+public class MappedBinaryReaderTest {
+    @Test
+    public void testExportMaterializesDeferredLayers() throws Exception {
+        Drawing drawing = createDrawing();
+        // text figures need the font system, which is not available in all test environments
+        drawing.removeChild(drawing.getChild(2));
+
+        Path file = Files.createTempFile("MappedBinaryReaderTest", ".jhdb");
+        try {
+            new SimpleBinaryWriter(new DefaultFigureFactory(), new SimpleFigureIdFactory())
+                    .write(file, drawing, new SimpleWorkState());
+            MappedBinaryReader reader = new MappedBinaryReader(new DefaultFigureFactory(), new SimpleFigureIdFactory());
+            Drawing materialized = (Drawing) reader.read(file, null, new SimpleWorkState());
+            LayerFigure.materializeDeferredChildren(materialized);
+            assertEquals(0, reader.getDeferredLayerCount());
+
+            Drawing actual = (Drawing) reader.read(file, null, new SimpleWorkState());
+            assertEquals(2, reader.getDeferredLayerCount());
+            assertEquals(writeSvg(materialized), writeSvg(actual));
+            assertEquals(0, reader.getDeferredLayerCount());
+
+            actual = (Drawing) reader.read(file, null, new SimpleWorkState());
+            assertEquals(2, reader.getDeferredLayerCount());
+            assertEquals(writeClipboard(materialized), writeClipboard(actual));
+            assertEquals(0, reader.getDeferredLayerCount());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testLayersAreMaterializedOnDemand() throws Exception {
+        Drawing drawing = createDrawing();
+        String expected = writeXml(drawing);
+
+        Path file = Files.createTempFile("MappedBinaryReaderTest", ".jhdb");
+        try {
+            new SimpleBinaryWriter(new DefaultFigureFactory(), new SimpleFigureIdFactory())
+                    .write(file, drawing, new SimpleWorkState());
+            MappedBinaryReader reader = new MappedBinaryReader(new DefaultFigureFactory(), new SimpleFigureIdFactory());
+            Drawing actual = (Drawing) reader.read(file, null, new SimpleWorkState());
+
+            assertEquals(3, actual.getChildren().size());
+            assertEquals(3, reader.getDeferredLayerCount());
+            LayerFigure shapes = (LayerFigure) actual.getChild(0);
+            LayerFigure connections = (LayerFigure) actual.getChild(1);
+            LayerFigure texts = (LayerFigure) actual.getChild(2);
+            assertTrue(shapes.hasDeferredChildren());
+
+            // reading the children does not materialize them
+            assertTrue(connections.getChildren().isEmpty());
+            assertEquals(3, reader.getDeferredLayerCount());
+
+            // materializing the connections also materializes the shapes that they reference
+            assertTrue(connections.materializeChildren());
+            LineConnectionWithMarkersFigure connection = (LineConnectionWithMarkersFigure) connections.getChild(0);
+            assertFalse(shapes.hasDeferredChildren());
+            assertTrue(texts.hasDeferredChildren());
+            assertSame(shapes.getChild(0), connection.get(LineConnectingFigure.START_TARGET));
+            assertSame(shapes.getChild(1), connection.get(LineConnectingFigure.END_TARGET));
+            assertEquals(1, reader.getDeferredLayerCount());
+
+            assertEquals(expected, writeXml(actual));
+            assertEquals(0, reader.getDeferredLayerCount());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testOpeningAndRenderingDoesNotMaterializeHiddenLayers() throws Exception {
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing();
+        for (int i = 0; i < 10; i++) {
+            LayerFigure layer = new LayerFigure();
+            layer.set(HideableFigure.VISIBLE, i == 0);
+            drawing.addChild(layer);
+            for (int j = 0; j < 1000; j++) {
+                layer.addChild(new RectangleFigure(j, i, 10, 10));
+            }
+        }
+
+        Path file = Files.createTempFile("MappedBinaryReaderTest", ".jhdb");
+        try {
+            new SimpleBinaryWriter(new DefaultFigureFactory(), new SimpleFigureIdFactory())
+                    .write(file, drawing, new SimpleWorkState());
+            MappedBinaryReader reader = new MappedBinaryReader(new DefaultFigureFactory(), new SimpleFigureIdFactory());
+            Drawing actual = (Drawing) reader.read(file, null, new SimpleWorkState());
+
+            DrawingModel model = new SimpleDrawingModel();
+            model.setDrawing(actual);
+            List<Figure> added = new ArrayList<>();
+            List<Figure> changed = new ArrayList<>();
+            model.addTreeModelListener(event -> {
+                switch (event.getEventType()) {
+                case NODE_ADDED_TO_PARENT:
+                    added.add(event.getNode());
+                    break;
+                case NODE_CHANGED:
+                    changed.add(event.getNode());
+                    break;
+                default:
+                    break;
+                }
+            });
+
+            // this is what the drawing view does before it renders the drawing
+            model.materializeVisibleLayers();
+            SimpleDrawingRenderer renderer = new SimpleDrawingRenderer();
+            renderer.render(actual);
+
+            LayerFigure visibleLayer = (LayerFigure) actual.getChild(0);
+            assertFalse(visibleLayer.hasDeferredChildren());
+            assertEquals(1000, visibleLayer.getChildren().size());
+            assertEquals(new ArrayList<>(visibleLayer.getChildren()), added);
+            assertEquals(List.of(visibleLayer), changed);
+            assertEquals(1000, ((Group) renderer.getNode(visibleLayer)).getChildren().size());
+            assertEquals(9, reader.getDeferredLayerCount());
+            for (int i = 1; i < 10; i++) {
+                LayerFigure hiddenLayer = (LayerFigure) actual.getChild(i);
+                assertTrue(hiddenLayer.hasDeferredChildren());
+                assertTrue(hiddenLayer.getChildren().isEmpty());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static @NonNull Drawing createDrawing() {
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing();
+        LayerFigure shapes = new LayerFigure();
+        LayerFigure connections = new LayerFigure();
+        LayerFigure texts = new LayerFigure();
+        drawing.addChild(shapes);
+        drawing.addChild(connections);
+        drawing.addChild(texts);
+        for (int i = 0; i < 10; i++) {
+            Figure start = new RectangleFigure(i * 50, 0, 40, 30);
+            Figure end = new RectangleFigure(i * 50, 100, 40, 30);
+            shapes.addChild(start);
+            shapes.addChild(end);
+            LineConnectionWithMarkersFigure connection = new LineConnectionWithMarkersFigure();
+            connection.setStartConnection(start, new RectangleConnector());
+            connection.setEndConnection(end, new RectangleConnector());
+            connections.addChild(connection);
+            texts.addChild(new TextFigure(i * 50, 200, "Text " + i));
+        }
+        return drawing;
+    }
+
+    private static @NonNull String writeSvg(@NonNull Drawing drawing) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SvgExportOutputFormat().write(out, null, drawing, new SimpleWorkState());
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static @NonNull String writeClipboard(@NonNull Drawing drawing) throws IOException {
+        Map<DataFormat, Object> clipboard = new HashMap<>();
+        SimpleXmlWriter writer = new SimpleXmlWriter(new DefaultFigureFactory(), new SimpleFigureIdFactory());
+        writer.write(clipboard, drawing, List.of(drawing.getChild(1)));
+        assertEquals(1, clipboard.size());
+        return (String) clipboard.values().iterator().next();
+    }
+
+    private static @NonNull String writeXml(@NonNull Drawing drawing) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SimpleXmlWriter(new DefaultFigureFactory(), new SimpleFigureIdFactory())
+                .write(out, null, drawing, new SimpleWorkState());
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * @(#)PngStripWriterTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link PngStripWriter}.
+ */
+public class PngStripWriterTest {
+    @Test
+    public void testWriteStrips() throws IOException {
+        int width = 7;
+        int height = 5;
+        int[] argb = new int[width * height];
+        for (int i = 0; i < argb.length; i++) {
+            argb[i] = (i * 0x01030507) ^ 0x80f0_4020;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PngStripWriter instance = new PngStripWriter(out, width, height, 144)) {
+            int[] strip = new int[width * 3];
+            System.arraycopy(argb, 0, strip, 0, width * 3);
+            instance.writeRows(strip, 3);
+            System.arraycopy(argb, width * 3, strip, 0, width * 2);
+            instance.writeRows(strip, 2);
+        }
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                assertEquals(argb[y * width + x], image.getRGB(x, y), "x=" + x + ", y=" + y);
+            }
+        }
+    }
+
+    @Test
+    public void testCloseIncompleteImage() throws IOException {
+        PngStripWriter instance = new PngStripWriter(new ByteArrayOutputStream(), 2, 2, 72);
+        instance.writeRows(new int[4], 1);
+        assertThrows(IOException.class, instance::close);
+    }
+}
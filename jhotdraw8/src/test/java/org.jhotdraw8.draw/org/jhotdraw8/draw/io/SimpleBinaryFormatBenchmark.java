@@ -0,0 +1,135 @@
+/*
+ * @(#)SimpleBinaryFormatBenchmark.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.collection.ImmutableSets;
+import org.jhotdraw8.concurrent.SimpleWorkState;
+import org.jhotdraw8.css.CssSize;
+import org.jhotdraw8.css.NamedCssColor;
+import org.jhotdraw8.draw.connector.RectangleConnector;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.EllipseFigure;
+import org.jhotdraw8.draw.figure.FillableFigure;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.draw.figure.LineConnectionWithMarkersFigure;
+import org.jhotdraw8.draw.figure.PolylineFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.figure.SimpleLayeredDrawing;
+import org.jhotdraw8.draw.figure.StrokableFigure;
+import org.jhotdraw8.draw.figure.StyleableFigure;
+import org.jhotdraw8.draw.figure.TextFigure;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Compares the load and save times of {@link SimpleBinaryReader} and
+ * {@link SimpleBinaryWriter} with {@link SimpleXmlStaxReader} and
+ * {@link SimpleXmlWriter}.
+ * <p>
+ * The drawing is created in memory, and the files are written into and
+ * read from byte arrays, so that only the time for encoding and decoding
+ * is measured. The benchmark reports the time in milliseconds per
+ * drawing, the file sizes, and the speedup of the binary format.
+ * <p>
+ * This is not a unit test. It is run from the command line in the
+ * {@code jhotdraw8} directory:
+ * <pre>
+ * java -cp ... org.jhotdraw8.draw.io.SimpleBinaryFormatBenchmark [figureCount]
+ * </pre>
+ *
+ * @author Werner Randelshofer
+ */
+public class SimpleBinaryFormatBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        Drawing drawing = createDrawing(count);
+        byte[] xml = writeXml(drawing);
+        byte[] binary = writeBinary(drawing);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            readXml(xml);
+            readBinary(binary);
+            writeXml(drawing);
+            writeBinary(drawing);
+        }
+        long xmlLoad = 0, binaryLoad = 0, xmlSave = 0, binarySave = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            readXml(xml);
+            long t1 = System.nanoTime();
+            readBinary(binary);
+            long t2 = System.nanoTime();
+            writeXml(drawing);
+            long t3 = System.nanoTime();
+            writeBinary(drawing);
+            long t4 = System.nanoTime();
+            xmlLoad += t1 - start;
+            binaryLoad += t2 - t1;
+            xmlSave += t3 - t2;
+            binarySave += t4 - t3;
+        }
+        System.out.println(String.format(Locale.ROOT, "%d figures, xml %d bytes, binary %d bytes, %.1fx smaller",
+                count * 5, xml.length, binary.length, (double) xml.length / binary.length));
+        System.out.println(String.format(Locale.ROOT, "load: xml %.1f ms, binary %.1f ms, %.1fx faster",
+                xmlLoad / 1e6 / MEASURED_ITERATIONS, binaryLoad / 1e6 / MEASURED_ITERATIONS, (double) xmlLoad / binaryLoad));
+        System.out.println(String.format(Locale.ROOT, "save: xml %.1f ms, binary %.1f ms, %.1fx faster",
+                xmlSave / 1e6 / MEASURED_ITERATIONS, binarySave / 1e6 / MEASURED_ITERATIONS, (double) xmlSave / binarySave));
+    }
+
+    private static @NonNull Drawing createDrawing(int count) {
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing();
+        LayerFigure layer = new LayerFigure();
+        drawing.addChild(layer);
+        for (int i = 0; i < count; i++) {
+            RectangleFigure rectangle = new RectangleFigure(i * 50, i * 0.25, 40, 30.5);
+            rectangle.set(FillableFigure.FILL, NamedCssColor.BLUE);
+            rectangle.set(StyleableFigure.STYLE_CLASS, ImmutableSets.of("node", "important"));
+            EllipseFigure ellipse = new EllipseFigure(i * 50, 100, 40, Math.PI);
+            ellipse.set(StrokableFigure.STROKE_WIDTH, new CssSize(2, "mm"));
+            TextFigure text = new TextFigure(i * 50, 200, "Text " + i);
+            PolylineFigure polyline = new PolylineFigure(i * 50, 300, i * 50 + 20, 1.0 / 3);
+            LineConnectionWithMarkersFigure connection = new LineConnectionWithMarkersFigure();
+            connection.setStartConnection(rectangle, new RectangleConnector());
+            connection.setEndConnection(ellipse, new RectangleConnector());
+            layer.addChild(rectangle);
+            layer.addChild(ellipse);
+            layer.addChild(text);
+            layer.addChild(polyline);
+            layer.addChild(connection);
+        }
+        return drawing;
+    }
+
+    private static void readXml(@NonNull byte[] xml) throws IOException {
+        new SimpleXmlStaxReader(new DefaultFigureFactory(), new SimpleFigureIdFactory(), null)
+                .read(new ByteArrayInputStream(xml), null, null, new SimpleWorkState());
+    }
+
+    private static void readBinary(@NonNull byte[] binary) throws IOException {
+        new SimpleBinaryReader(new DefaultFigureFactory(), new SimpleFigureIdFactory())
+                .read(new ByteArrayInputStream(binary), null, null, new SimpleWorkState());
+    }
+
+    private static @NonNull byte[] writeXml(@NonNull Drawing drawing) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SimpleXmlWriter(new DefaultFigureFactory(), new SimpleFigureIdFactory())
+                .write(out, null, drawing, new SimpleWorkState());
+        return out.toByteArray();
+    }
+
+    private static @NonNull byte[] writeBinary(@NonNull Drawing drawing) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SimpleBinaryWriter(new DefaultFigureFactory(), new SimpleFigureIdFactory())
+                .write(out, null, drawing, new SimpleWorkState());
+        return out.toByteArray();
+    }
+}
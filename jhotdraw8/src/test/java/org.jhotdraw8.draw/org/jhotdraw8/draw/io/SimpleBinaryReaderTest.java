@@ -0,0 +1,99 @@
+/*
+ * @(#)SimpleBinaryReaderTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.collection.ImmutableSets;
+import org.jhotdraw8.concurrent.SimpleWorkState;
+import org.jhotdraw8.css.CssSize;
+import org.jhotdraw8.css.NamedCssColor;
+import org.jhotdraw8.draw.connector.RectangleConnector;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.EllipseFigure;
+import org.jhotdraw8.draw.figure.FillableFigure;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.draw.figure.LineConnectionWithMarkersFigure;
+import org.jhotdraw8.draw.figure.PolylineFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.figure.SimpleLayeredDrawing;
+import org.jhotdraw8.draw.figure.StrokableFigure;
+import org.jhotdraw8.draw.figure.StyleableFigure;
+import org.jhotdraw8.draw.figure.TextFigure;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link SimpleBinaryReader} and {@link SimpleBinaryWriter}.
+ */
+public class SimpleBinaryReaderTest {
+    @Test
+    public void testRoundTripPreservesAllAttributes() throws Exception {
+        Drawing drawing = createDrawing(20);
+        String expected = writeXml(drawing);
+
+        byte[] binary = writeBinary(drawing);
+        Figure actual = new SimpleBinaryReader(new DefaultFigureFactory(), new SimpleFigureIdFactory())
+                .read(new ByteArrayInputStream(binary), null, null, new SimpleWorkState());
+
+        assertEquals(expected, writeXml((Drawing) actual));
+    }
+
+    @Test
+    public void testBinaryIsSmallerThanXml() throws Exception {
+        Drawing drawing = createDrawing(1000);
+        int xmlSize = writeXml(drawing).getBytes(StandardCharsets.UTF_8).length;
+        int binarySize = writeBinary(drawing).length;
+        assertTrue(binarySize * 3 < xmlSize, "binary size " + binarySize + " must be less than a third of xml size " + xmlSize);
+    }
+
+    private static @NonNull Drawing createDrawing(int count) {
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing();
+        LayerFigure layer = new LayerFigure();
+        drawing.addChild(layer);
+        for (int i = 0; i < count; i++) {
+            RectangleFigure rectangle = new RectangleFigure(i * 50, i * 0.25, 40, 30.5);
+            rectangle.set(FillableFigure.FILL, NamedCssColor.BLUE);
+            rectangle.set(StyleableFigure.STYLE_CLASS, ImmutableSets.of("node", "important"));
+            if (i == 0) {
+                rectangle.set(StyleableFigure.ID, "node007");
+            }
+            EllipseFigure ellipse = new EllipseFigure(i * 50, 100, 40, Math.PI);
+            ellipse.set(StrokableFigure.STROKE_WIDTH, new CssSize(2, "mm"));
+            TextFigure text = new TextFigure(i * 50, 200, "Text ä " + i);
+            PolylineFigure polyline = new PolylineFigure(i * 50, 300, i * 50 + 20, 1.0 / 3);
+            LineConnectionWithMarkersFigure connection = new LineConnectionWithMarkersFigure();
+            connection.setStartConnection(rectangle, new RectangleConnector());
+            connection.setEndConnection(ellipse, new RectangleConnector());
+            layer.addChild(rectangle);
+            layer.addChild(ellipse);
+            layer.addChild(text);
+            layer.addChild(polyline);
+            layer.addChild(connection);
+        }
+        return drawing;
+    }
+
+    private static @NonNull String writeXml(@NonNull Drawing drawing) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SimpleXmlWriter(new DefaultFigureFactory(), new SimpleFigureIdFactory())
+                .write(out, null, drawing, new SimpleWorkState());
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static @NonNull byte[] writeBinary(@NonNull Drawing drawing) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SimpleBinaryWriter(new DefaultFigureFactory(), new SimpleFigureIdFactory())
+                .write(out, null, drawing, new SimpleWorkState());
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * @(#)SimpleXmlStaxReaderTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.collection.MapAccessor;
+import org.jhotdraw8.concurrent.SimpleWorkState;
+import org.jhotdraw8.draw.connector.RectangleConnector;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.GroupFigure;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.draw.figure.LineConnectionWithMarkersFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.figure.SimpleLayeredDrawing;
+import org.jhotdraw8.draw.figure.TextFigure;
+import org.jhotdraw8.io.IdFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests {@link SimpleXmlStaxReader}.
+ */
+public class SimpleXmlStaxReaderTest {
+    private static final String NAMESPACE_URI = "http://www.jhotdraw.org/test";
+
+    @Test
+    public void testChunkedReadIsEqualToSequentialRead() throws Exception {
+        doTestChunkedRead(null);
+    }
+
+    @Test
+    public void testChunkedReadWithNamespaceIsEqualToSequentialRead() throws Exception {
+        doTestChunkedRead(NAMESPACE_URI);
+    }
+
+    @Test
+    public void testChunkedReadRegistersIdsAndConvertsValuesOnCallingThread() throws Exception {
+        byte[] bytes = writeXml(createDrawing(), null).getBytes(StandardCharsets.UTF_8);
+        Thread caller = Thread.currentThread();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        IdFactory idFactory = new SimpleFigureIdFactory() {
+            @Override
+            public Object putIdToObject(String id, Object object) {
+                threads.add(Thread.currentThread());
+                return super.putIdToObject(id, object);
+            }
+        };
+        FigureFactory figureFactory = new DefaultFigureFactory(idFactory) {
+            @Override
+            public <T> T stringToValue(@NonNull MapAccessor<T> key, @NonNull String string) throws IOException {
+                threads.add(Thread.currentThread());
+                return super.stringToValue(key, string);
+            }
+        };
+        SimpleXmlStaxReader reader = new SimpleXmlStaxReader(figureFactory, idFactory, null);
+        reader.setMinChunkedLength(0);
+        reader.read(new ByteArrayInputStream(bytes), null, null, new SimpleWorkState());
+        assertEquals(Set.of(caller), threads);
+    }
+
+    private void doTestChunkedRead(@Nullable String namespaceURI) throws IOException {
+        String expected = writeXml(createDrawing(), namespaceURI);
+        byte[] bytes = expected.getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(expected, writeXml(read(bytes, Integer.MAX_VALUE, namespaceURI), namespaceURI));
+        assertEquals(expected, writeXml(read(bytes, 0, namespaceURI), namespaceURI));
+    }
+
+    private static @NonNull Drawing read(@NonNull byte[] bytes, int minChunkedLength, @Nullable String namespaceURI) throws IOException {
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        SimpleXmlStaxReader reader = new SimpleXmlStaxReader(new DefaultFigureFactory(idFactory), idFactory, namespaceURI);
+        reader.setMinChunkedLength(minChunkedLength);
+        return (Drawing) reader.read(new ByteArrayInputStream(bytes), null, null, new SimpleWorkState());
+    }
+
+    private static @NonNull Drawing createDrawing() {
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing();
+        LayerFigure shapes = new LayerFigure();
+        LayerFigure empty = new LayerFigure();
+        LayerFigure connections = new LayerFigure();
+        drawing.addChild(shapes);
+        drawing.addChild(empty);
+        drawing.addChild(connections);
+        for (int i = 0; i < 200; i++) {
+            Figure start = new RectangleFigure(i * 50, 0, 40, 30);
+            GroupFigure group = new GroupFigure();
+            Figure end = new RectangleFigure(i * 50, 100, 40, 30);
+            group.addChild(end);
+            group.addChild(new TextFigure(i * 50, 200, "Text <" + i + "> & \"" + i + "\""));
+            shapes.addChild(start);
+            shapes.addChild(group);
+            LineConnectionWithMarkersFigure connection = new LineConnectionWithMarkersFigure();
+            connection.setStartConnection(start, new RectangleConnector());
+            connection.setEndConnection(end, new RectangleConnector());
+            connections.addChild(connection);
+        }
+        return drawing;
+    }
+
+    private static @NonNull String writeXml(@NonNull Drawing drawing, @Nullable String namespaceURI) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        new SimpleXmlWriter(new DefaultFigureFactory(idFactory), idFactory, namespaceURI, null)
+                .write(out, null, drawing, new SimpleWorkState());
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * @(#)SimpleXmlWriterTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.concurrent.SimpleWorkState;
+import org.jhotdraw8.draw.connector.RectangleConnector;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.draw.figure.LineConnectionWithMarkersFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.figure.SimpleLayeredDrawing;
+import org.jhotdraw8.draw.figure.TextFigure;
+import org.jhotdraw8.io.IdFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link SimpleXmlWriter}.
+ */
+public class SimpleXmlWriterTest {
+    @Test
+    public void testWriteSnapshotIsEqualToWriteDrawing() throws Exception {
+        Drawing drawing = createDrawing();
+        Path dir = Files.createTempDirectory("SimpleXmlWriterTest");
+        Path file = dir.resolve("drawing.xml");
+        try {
+            String expected = writeXml(drawing, dir);
+
+            SimpleXmlWriter writer = createWriter();
+            SimpleXmlWriter.Snapshot snapshot = writer.createSnapshot(dir.toUri(), drawing);
+            // editing the drawing does not affect the snapshot
+            drawing.getChild(0).getChild(0).set(TextFigure.TEXT, "Changed");
+            WriteStatistics statistics = writer.write(file, snapshot, new SimpleWorkState());
+
+            assertEquals(expected, Files.readString(file, StandardCharsets.UTF_8));
+            assertEquals(Files.size(file), statistics.getBytes());
+            assertEquals(snapshot.getFigureCount(), statistics.getFigureCount());
+            assertTrue(statistics.getBytesPerSecond() > 0);
+            try (Stream<Path> files = Files.list(dir)) {
+                assertEquals(1, files.count(), "temporary file must be removed");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static @NonNull Drawing createDrawing() {
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing();
+        LayerFigure shapes = new LayerFigure();
+        LayerFigure connections = new LayerFigure();
+        drawing.addChild(shapes);
+        drawing.addChild(connections);
+        shapes.addChild(new TextFigure(0, 0, "Text <0> & \"0\""));
+        for (int i = 0; i < 100; i++) {
+            Figure start = new RectangleFigure(i * 50, 0, 40, 30);
+            Figure end = new RectangleFigure(i * 50, 100, 40, 30);
+            shapes.addChild(start);
+            shapes.addChild(end);
+            LineConnectionWithMarkersFigure connection = new LineConnectionWithMarkersFigure();
+            connection.setStartConnection(start, new RectangleConnector());
+            connection.setEndConnection(end, new RectangleConnector());
+            connections.addChild(connection);
+        }
+        return drawing;
+    }
+
+    private static @NonNull SimpleXmlWriter createWriter() {
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        return new SimpleXmlWriter(new DefaultFigureFactory(idFactory), idFactory);
+    }
+
+    private static @NonNull String writeXml(@NonNull Drawing drawing, @NonNull Path dir) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        createWriter().write(out, dir.toUri(), drawing, new SimpleWorkState());
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
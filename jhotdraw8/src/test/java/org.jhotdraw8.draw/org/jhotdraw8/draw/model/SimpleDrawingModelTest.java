@@ -0,0 +1,82 @@
+/*
+ * @(#)SimpleDrawingModelTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.model;
+
+import javafx.geometry.Point2D;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.css.CssPoint2D;
+import org.jhotdraw8.draw.connector.EllipseConnector;
+import org.jhotdraw8.draw.connector.PathConnector;
+import org.jhotdraw8.draw.connector.RectangleConnector;
+import org.jhotdraw8.draw.figure.EllipseFigure;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.draw.figure.LineConnectionFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.figure.SimpleLayeredDrawing;
+import org.jhotdraw8.draw.render.SimpleRenderContext;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+/**
+ * Tests the layout of connections in {@link SimpleDrawingModel}.
+ */
+public class SimpleDrawingModelTest {
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsValidateConnections() {
+        return Arrays.asList(
+                dynamicTest("1 connection", () -> testValidateConnections(1)),
+                dynamicTest("10 connections", () -> testValidateConnections(10)),
+                dynamicTest("500 connections", () -> testValidateConnections(500))
+        );
+    }
+
+    /**
+     * Moves a figure with many connections, and checks that the model
+     * lays out the connections in the same way as the connections lay
+     * out themselves.
+     */
+    private void testValidateConnections(int count) {
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing();
+        LayerFigure layer = new LayerFigure();
+        drawing.addChild(layer);
+        RectangleFigure hub = new RectangleFigure(0, 0, 40, 30);
+        layer.addChild(hub);
+
+        List<LineConnectionFigure> connections = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double angle = 2 * Math.PI * i / count;
+            EllipseFigure node = new EllipseFigure(Math.cos(angle) * 300, Math.sin(angle) * 300, 10, 10);
+            layer.addChild(node);
+            LineConnectionFigure c = new LineConnectionFigure();
+            c.setStartConnection(hub, i % 2 == 0 ? new RectangleConnector() : new PathConnector());
+            c.setEndConnection(node, new EllipseConnector());
+            layer.addChild(c);
+            connections.add(c);
+        }
+
+        SimpleRenderContext ctx = new SimpleRenderContext();
+        SimpleDrawingModel model = new SimpleDrawingModel();
+        model.setDrawing(drawing);
+        model.validate(ctx);
+
+        model.translateInParent(hub, new CssPoint2D(17, -5));
+        model.validate(ctx);
+
+        for (LineConnectionFigure c : connections) {
+            Point2D actualStart = c.getNonNull(LineConnectionFigure.START).getConvertedValue();
+            Point2D actualEnd = c.getNonNull(LineConnectionFigure.END).getConvertedValue();
+            c.layout(ctx);
+            assertEquals(c.getNonNull(LineConnectionFigure.START).getConvertedValue(), actualStart);
+            assertEquals(c.getNonNull(LineConnectionFigure.END).getConvertedValue(), actualEnd);
+        }
+    }
+}
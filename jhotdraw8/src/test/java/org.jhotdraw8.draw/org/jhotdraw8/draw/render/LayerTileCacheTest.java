@@ -0,0 +1,129 @@
+/*
+ * @(#)LayerTileCacheTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.render;
+
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.image.ImageView;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.draw.figure.Layer;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.figure.SimpleLayeredDrawing;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link LayerTileCache}.
+ * <p>
+ * The tests run without the JavaFX toolkit, so the snapshot of a tile is
+ * replaced by an empty image view, and the pulses are run by the test.
+ */
+public class LayerTileCacheTest {
+    private static final Bounds CLIP_BOUNDS = new BoundingBox(0, 0, 199, 199);
+
+    @Test
+    public void testReuseTilesAndInvalidateOnlyTheChangedLayer() {
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing();
+        LayerFigure layerA = new LayerFigure();
+        LayerFigure layerB = new LayerFigure();
+        drawing.addChild(layerA);
+        drawing.addChild(layerB);
+        RectangleFigure figureA = new RectangleFigure(10, 10, 40, 40);
+        layerA.addChild(figureA);
+        layerA.addChild(new RectangleFigure(120, 120, 40, 40));
+        layerB.addChild(new RectangleFigure(10, 10, 40, 40));
+
+        TestCache cache = new TestCache();
+        RenderContext ctx = new SimpleDrawingRenderer();
+
+        // The tiles are rasterized in later pulses
+        assertNull(cache.getTileNodes(ctx, layerA, CLIP_BOUNDS, 1.0));
+        assertNull(cache.getTileNodes(ctx, layerB, CLIP_BOUNDS, 1.0));
+        cache.runPulses();
+        assertEquals(List.of(layerA, layerB), cache.availableLayers);
+        assertEquals(8, cache.createdTiles.size());
+
+        // The cached tiles are reused
+        List<Node> tilesA = cache.getTileNodes(ctx, layerA, CLIP_BOUNDS, 1.0);
+        List<Node> tilesB = cache.getTileNodes(ctx, layerB, CLIP_BOUNDS, 1.0);
+        assertNotNull(tilesA);
+        assertNotNull(tilesB);
+        assertEquals(4, tilesA.size());
+        assertEquals(4, tilesB.size());
+        assertTrue(cache.pulses.isEmpty(), "no tiles are rasterized when all tiles are cached");
+
+        // Changing a figure only invalidates the tiles of its layer
+        cache.createdTiles.clear();
+        figureA.reshapeInLocal(20, 20, 40, 40);
+        assertEquals(Set.of(layerA), cache.invalidate(figureA));
+        assertEquals(tilesB, cache.getTileNodes(ctx, layerB, CLIP_BOUNDS, 1.0));
+        assertNull(cache.getTileNodes(ctx, layerA, CLIP_BOUNDS, 1.0));
+        cache.runPulses();
+        assertEquals(List.of(layerA), cache.createdTiles, "only the tile under the changed figure is rasterized");
+        List<Node> newTilesA = cache.getTileNodes(ctx, layerA, CLIP_BOUNDS, 1.0);
+        assertNotNull(newTilesA);
+        assertEquals(tilesA.subList(1, 4), newTilesA.subList(1, 4));
+
+        // Removing a figure invalidates the tiles of the layer in which it was rasterized
+        layerA.removeChild(figureA);
+        assertEquals(Set.of(layerA), cache.invalidate(figureA));
+        assertEquals(tilesB, cache.getTileNodes(ctx, layerB, CLIP_BOUNDS, 1.0));
+    }
+
+    private static class TestCache extends LayerTileCache {
+        private final @NonNull List<Runnable> pulses;
+        private final @NonNull List<Layer> availableLayers;
+        private final @NonNull Map<Node, Layer> renderedLayers = new IdentityHashMap<>();
+        private final @NonNull List<Layer> createdTiles = new ArrayList<>();
+        private final @NonNull List<Layer> renderedInPulse = new ArrayList<>();
+
+        TestCache() {
+            this(new ArrayList<>(), new ArrayList<>());
+        }
+
+        private TestCache(@NonNull List<Runnable> pulses, @NonNull List<Layer> availableLayers) {
+            super(100, 1L << 20, l -> true, availableLayers::add, pulses::add);
+            this.pulses = pulses;
+            this.availableLayers = availableLayers;
+        }
+
+        void runPulses() {
+            while (!pulses.isEmpty()) {
+                renderedInPulse.clear();
+                pulses.remove(0).run();
+            }
+        }
+
+        @Override
+        @NonNull Node renderLayer(@NonNull RenderContext ctx, @NonNull Layer layer, @NonNull Bounds boundsInWorld) {
+            assertFalse(renderedInPulse.contains(layer), "a layer is rendered only once per pulse");
+            renderedInPulse.add(layer);
+            Node node = super.renderLayer(ctx, layer, boundsInWorld);
+            assertTrue(node instanceof Group);
+            renderedLayers.put(node, layer);
+            return node;
+        }
+
+        @Override
+        @NonNull ImageView createTile(@NonNull Node layerNode, @NonNull TileKey key) {
+            createdTiles.add(renderedLayers.get(layerNode));
+            return new ImageView();
+        }
+    }
+}
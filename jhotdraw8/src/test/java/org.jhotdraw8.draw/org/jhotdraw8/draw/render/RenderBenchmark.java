@@ -0,0 +1,287 @@
+/*
+ * @(#)RenderBenchmark.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.render;
+
+import javafx.application.Platform;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.concurrent.SimpleWorkState;
+import org.jhotdraw8.draw.connector.RectangleConnector;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.EllipseFigure;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.draw.figure.LineConnectionWithMarkersFigure;
+import org.jhotdraw8.draw.figure.LineFigure;
+import org.jhotdraw8.draw.figure.PolylineFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.figure.SimpleLayeredDrawing;
+import org.jhotdraw8.draw.figure.TextFigure;
+import org.jhotdraw8.draw.io.BitmapExportOutputFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the render path on synthetic drawings.
+ * <p>
+ * The benchmark measures {@link Figure#createNode}, {@link Figure#updateNode},
+ * {@link SimpleDrawingRenderer#render} and {@link BitmapExportOutputFormat}
+ * on drawings of varying size and with varying mixes of figures. It reports
+ * the time in milliseconds per figure, and the number of bytes that have
+ * been allocated per figure.
+ * <p>
+ * This is not a unit test. It is run from the command line:
+ * <pre>
+ * java -cp ... org.jhotdraw8.draw.render.RenderBenchmark [-headless] [sizes...]
+ * </pre>
+ * With {@code -headless}, the JavaFX toolkit is started with the Monocle
+ * headless platform and the software pipeline. This requires that Monocle
+ * is on the class path. If the JavaFX toolkit cannot be started, the bitmap
+ * export is skipped.
+ *
+ * @author Werner Randelshofer
+ */
+public class RenderBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+
+    /**
+     * A mix of figures in the synthetic drawing.
+     */
+    enum FigureMix {
+        /**
+         * Rectangles and ellipses.
+         */
+        SHAPES,
+        /**
+         * Shapes, lines, polylines and texts.
+         */
+        MIXED,
+        /**
+         * Rectangles that are connected by lines with markers.
+         */
+        CONNECTED
+    }
+
+    /**
+     * The result of a measurement.
+     */
+    static class Result {
+        final double millisPerFigure;
+        final double bytesPerFigure;
+
+        Result(double millisPerFigure, double bytesPerFigure) {
+            this.millisPerFigure = millisPerFigure;
+            this.bytesPerFigure = bytesPerFigure;
+        }
+    }
+
+    @FunctionalInterface
+    interface Phase {
+        void run(@NonNull Drawing drawing, @NonNull List<Figure> figures) throws IOException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> sizes = new ArrayList<>();
+        boolean headless = false;
+        for (String arg : args) {
+            if (arg.equals("-headless")) {
+                headless = true;
+            } else {
+                sizes.add(Integer.parseInt(arg));
+            }
+        }
+        if (sizes.isEmpty()) {
+            sizes.add(100);
+            sizes.add(1_000);
+            sizes.add(10_000);
+        }
+        boolean toolkit = startToolkit(headless);
+
+        System.out.println(String.format(Locale.ROOT, "%-10s %8s %-14s %12s %14s",
+                "mix", "figures", "phase", "ms/figure", "bytes/figure"));
+        for (FigureMix mix : FigureMix.values()) {
+            for (int size : sizes) {
+                Drawing drawing = createDrawing(mix, size);
+                List<Figure> figures = new ArrayList<>();
+                for (Figure f : drawing.preorderIterable()) {
+                    figures.add(f);
+                }
+                report(mix, size, "createNode", measure(drawing, figures, RenderBenchmark::createNodes, toolkit));
+                SimpleDrawingRenderer renderer = new SimpleDrawingRenderer();
+                for (Figure f : figures) {
+                    renderer.getNode(f);
+                }
+                report(mix, size, "updateNode", measure(drawing, figures, (d, fs) -> updateNodes(renderer, fs), toolkit));
+                report(mix, size, "render", measure(drawing, figures, RenderBenchmark::render, toolkit));
+                if (toolkit) {
+                    report(mix, size, "bitmapExport", measure(drawing, figures, RenderBenchmark::exportBitmap, true));
+                }
+            }
+        }
+        if (toolkit) {
+            Platform.exit();
+        }
+    }
+
+    /**
+     * Starts the JavaFX toolkit.
+     *
+     * @param headless whether the toolkit shall use the headless platform
+     * @return true if the toolkit could be started
+     */
+    private static boolean startToolkit(boolean headless) throws InterruptedException {
+        if (headless) {
+            System.setProperty("glass.platform", "Monocle");
+            System.setProperty("monocle.platform", "Headless");
+            System.setProperty("prism.order", "sw");
+            System.setProperty("prism.text", "t2k");
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            Platform.startup(latch::countDown);
+        } catch (RuntimeException | LinkageError e) {
+            System.err.println("JavaFX toolkit not available, skipping bitmap export: " + e);
+            return false;
+        }
+        return latch.await(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a synthetic drawing with the specified number of figures.
+     * The figures are placed in a square grid.
+     */
+    static @NonNull Drawing createDrawing(@NonNull FigureMix mix, int size) {
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing();
+        LayerFigure layer = new LayerFigure();
+        drawing.addChild(layer);
+        Random rnd = new Random(size);
+        int columns = Math.max(1, (int) Math.ceil(Math.sqrt(size)));
+        List<RectangleFigure> rectangles = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            double x = (i % columns) * 60.0;
+            double y = (i / columns) * 60.0;
+            Figure f;
+            switch (mix) {
+                case SHAPES:
+                    f = i % 2 == 0 ? new RectangleFigure(x, y, 40, 30) : new EllipseFigure(x, y, 40, 30);
+                    break;
+                case MIXED:
+                    switch (i % 4) {
+                        case 0:
+                            f = new RectangleFigure(x, y, 40, 30);
+                            break;
+                        case 1:
+                            f = new LineFigure(x, y, x + 40, y + 30);
+                            break;
+                        case 2:
+                            f = new PolylineFigure(x, y, x + 20, y + rnd.nextDouble() * 30);
+                            break;
+                        default:
+                            f = new TextFigure(x, y + 20, "Text " + i);
+                            break;
+                    }
+                    break;
+                case CONNECTED:
+                default:
+                    if (i % 2 == 0) {
+                        RectangleFigure r = new RectangleFigure(x, y, 40, 30);
+                        rectangles.add(r);
+                        f = r;
+                    } else {
+                        LineConnectionWithMarkersFigure c = new LineConnectionWithMarkersFigure();
+                        c.setStartConnection(rectangles.get(rectangles.size() - 1), new RectangleConnector());
+                        c.setEndConnection(rectangles.get(rnd.nextInt(rectangles.size())), new RectangleConnector());
+                        f = c;
+                    }
+                    break;
+            }
+            layer.addChild(f);
+        }
+        drawing.layoutAll(new SimpleRenderContext());
+        return drawing;
+    }
+
+    private static void createNodes(@NonNull Drawing drawing, @NonNull List<Figure> figures) {
+        SimpleDrawingRenderer ctx = new SimpleDrawingRenderer();
+        for (Figure f : figures) {
+            f.createNode(ctx);
+        }
+    }
+
+    /**
+     * Updates the nodes of the figures. The nodes have already been created
+     * by the provided renderer.
+     */
+    private static void updateNodes(@NonNull SimpleDrawingRenderer ctx, @NonNull List<Figure> figures) {
+        for (Figure f : figures) {
+            f.updateNode(ctx, ctx.getNode(f));
+        }
+    }
+
+    private static void render(@NonNull Drawing drawing, @NonNull List<Figure> figures) {
+        new SimpleDrawingRenderer().render(drawing);
+    }
+
+    private static void exportBitmap(@NonNull Drawing drawing, @NonNull List<Figure> figures) throws IOException {
+        new BitmapExportOutputFormat().write(OutputStream.nullOutputStream(), null, drawing, new SimpleWorkState());
+    }
+
+    /**
+     * Measures a phase. If the toolkit is running, the phase is run on the
+     * JavaFX application thread, so that it measures the allocations of
+     * snapshots as well.
+     */
+    private static @NonNull Result measure(@NonNull Drawing drawing, @NonNull List<Figure> figures,
+                                           @NonNull Phase phase, boolean onFxThread) throws IOException {
+        if (!onFxThread) {
+            return doMeasure(drawing, figures, phase);
+        }
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                future.complete(doMeasure(drawing, figures, phase));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static @NonNull Result doMeasure(@NonNull Drawing drawing, @NonNull List<Figure> figures,
+                                             @NonNull Phase phase) throws IOException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            phase.run(drawing, figures);
+        }
+        com.sun.management.ThreadMXBean mxBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bytesBefore = mxBean.getCurrentThreadAllocatedBytes();
+        long nanosBefore = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            phase.run(drawing, figures);
+        }
+        long nanos = System.nanoTime() - nanosBefore;
+        long bytes = mxBean.getCurrentThreadAllocatedBytes() - bytesBefore;
+        double count = (double) MEASURED_ITERATIONS * figures.size();
+        return new Result(nanos / 1e6 / count, bytes / count);
+    }
+
+    private static void report(@NonNull FigureMix mix, int size, @NonNull String phase, @NonNull Result result) {
+        System.out.println(String.format(Locale.ROOT, "%-10s %8d %-14s %12.5f %14.1f",
+                mix, size, phase, result.millisPerFigure, result.bytesPerFigure));
+    }
+}
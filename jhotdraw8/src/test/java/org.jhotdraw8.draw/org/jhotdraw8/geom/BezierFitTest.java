@@ -0,0 +1,134 @@
+/*
+ * @(#)BezierFitTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom;
+
+import javafx.geometry.Point2D;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.collection.DoubleArrayList;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+/**
+ * Tests {@link BezierFit} and {@link IncrementalBezierFit}.
+ */
+public class BezierFitTest {
+
+    @TestFactory
+    public @NonNull Stream<DynamicTest> dynamicTestsFitBezierPath() {
+        return Stream.of(
+                dynamicTest("empty", () -> testFitBezierPath(createStroke(new Random(0), 0), 2.0)),
+                dynamicTest("1 point", () -> testFitBezierPath(createStroke(new Random(0), 1), 2.0)),
+                dynamicTest("2 points", () -> testFitBezierPath(createStroke(new Random(0), 2), 2.0)),
+                dynamicTest("100 points", () -> testFitBezierPath(createStroke(new Random(1), 100), 2.0)),
+                dynamicTest("1000 points", () -> testFitBezierPath(createStroke(new Random(2), 1000), 3.0)),
+                dynamicTest("5000 points", () -> testFitBezierPath(createStroke(new Random(3), 5000), 1.5))
+        );
+    }
+
+    /**
+     * Fits the stroke with all variants of the fit, and checks that they
+     * produce the same path.
+     */
+    private void testFitBezierPath(@NonNull DoubleArrayList stroke, double error) {
+        List<Point2D> points = new ArrayList<>();
+        for (int i = 0, n = stroke.size(); i < n; i += 2) {
+            points.add(new Point2D(stroke.get(i), stroke.get(i + 1)));
+        }
+        SvgDoublePathBuilder expected = new SvgDoublePathBuilder();
+        BezierFit.fitBezierPath(expected, points, error);
+
+        SvgDoublePathBuilder actual = new SvgDoublePathBuilder();
+        BezierFit.fitBezierPath(actual, stroke, error);
+        assertEquals(expected.build(), actual.build(), "fitBezierPath");
+
+        actual = new SvgDoublePathBuilder();
+        BezierFit.parallelFitBezierPath(actual, stroke, error);
+        assertEquals(expected.build(), actual.build(), "parallelFitBezierPath");
+
+        actual = new SvgDoublePathBuilder();
+        IncrementalBezierFit fit = new IncrementalBezierFit(actual, error);
+        for (int i = 0, n = stroke.size(); i < n; i += 2) {
+            fit.addPoint(stroke.get(i), stroke.get(i + 1));
+        }
+        fit.finish();
+        assertEquals(expected.build(), actual.build(), "IncrementalBezierFit");
+    }
+
+    @Test
+    public void testIncrementalFitAddsSegmentsAtCorners() {
+        SvgDoublePathBuilder builder = new SvgDoublePathBuilder();
+        IncrementalBezierFit fit = new IncrementalBezierFit(builder, 1.0);
+        // a horizontal stroke with a corner at (100,0), followed by a vertical stroke
+        for (int x = 0; x <= 100; x += 2) {
+            fit.addPoint(x, 0);
+        }
+        for (int y = 2; y <= 20; y += 2) {
+            fit.addPoint(100, y);
+        }
+        assertFalse(builder.build().isEmpty(), "segment before the corner must have been fitted");
+        assertTrue(fit.getPendingPointCount() < 20, "points before the corner must have been removed");
+
+        fit.finish();
+        fit.finish();
+        assertEquals("M0.0,0.0L100.0,0.0L100.0,20.0", builder.build());
+        assertThrows(IllegalStateException.class, () -> fit.addPoint(0, 0));
+    }
+
+    @Test
+    public void testRemoveClosePointsAndReduceNoise() {
+        DoubleArrayList stroke = createStroke(new Random(4), 300);
+        List<Point2D> points = new ArrayList<>();
+        for (int i = 0, n = stroke.size(); i < n; i += 2) {
+            points.add(new Point2D(stroke.get(i), stroke.get(i + 1)));
+        }
+        assertEquals(toDoubleArrayList(BezierFit.removeClosePoints(points, 2.0)), BezierFit.removeClosePoints(stroke, 2.0));
+        assertEquals(toDoubleArrayList(BezierFit.removeClosePoints(points, 0.0)), BezierFit.removeClosePoints(stroke, 0.0));
+        assertEquals(toDoubleArrayList(BezierFit.reduceNoise(points, 0.8)), BezierFit.reduceNoise(stroke, 0.8));
+        assertEquals(BezierFit.findCorners(points, BezierFit.CORNER_ANGLE, 2.0), BezierFit.findCorners(stroke, BezierFit.CORNER_ANGLE, 2.0));
+    }
+
+    /**
+     * Creates a freehand stroke with occasional sharp turns and repeated
+     * points.
+     */
+    private static @NonNull DoubleArrayList createStroke(@NonNull Random r, int n) {
+        DoubleArrayList stroke = new DoubleArrayList(n * 2);
+        double x = 0, y = 0, angle = 0;
+        for (int i = 0; i < n; i++) {
+            if (r.nextInt(40) == 0) {
+                angle += Math.PI / 2 + r.nextDouble();
+            } else {
+                angle += r.nextGaussian() * 0.05;
+            }
+            double step = r.nextInt(10) == 0 ? 0 : 1 + r.nextDouble() * 3;
+            x += Math.cos(angle) * step;
+            y += Math.sin(angle) * step;
+            stroke.add(x);
+            stroke.add(y);
+        }
+        return stroke;
+    }
+
+    private static @NonNull DoubleArrayList toDoubleArrayList(@NonNull List<Point2D> points) {
+        DoubleArrayList list = new DoubleArrayList();
+        for (Point2D p : points) {
+            list.add(p.getX());
+            list.add(p.getY());
+        }
+        return list;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * @(#)BezierNodeListTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom;
+
+import javafx.scene.transform.Transform;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.collection.ImmutableLists;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares {@link BezierNodeList} with an {@link ArrayList} of
+ * {@link BezierNode}s.
+ */
+public class BezierNodeListTest {
+    private static final int N = 3 * BezierNodeList.CHUNK_SIZE + 17;
+
+    @Test
+    public void testOf() {
+        Random r = new Random(0);
+        List<BezierNode> expected = new ArrayList<>();
+        for (int i = 0; i < N; i++) {
+            expected.add(randomNode(r));
+        }
+        BezierNodeList actual = BezierNodeList.of(expected);
+        assertEquals(expected, actual.asList());
+        assertEquals(ImmutableLists.ofCollection(expected), actual);
+        assertEquals(actual, ImmutableLists.ofCollection(expected));
+        assertEquals(ImmutableLists.ofCollection(expected).hashCode(), actual.hashCode());
+        assertSame(actual, BezierNodeList.of(actual));
+        assertEquals(expected.get(5), actual.get(5));
+        assertEquals(5, actual.indexOf(expected.get(5)));
+        assertTrue(actual.contains(expected.get(N - 1)));
+        assertEquals(expected.subList(250, 520), actual.readOnlySubList(250, 520).asList());
+    }
+
+    @Test
+    public void testPersistentEdits() {
+        Random r = new Random(1);
+        List<BezierNode> expected = new ArrayList<>();
+        BezierNodeList actual = BezierNodeList.of();
+        for (int i = 0; i < N; i++) {
+            BezierNode node = randomNode(r);
+            expected.add(node);
+            actual = actual.add(node);
+        }
+        assertEquals(expected, actual.asList());
+
+        for (int k = 0; k < 500; k++) {
+            BezierNodeList before = actual;
+            List<BezierNode> expectedBefore = new ArrayList<>(expected);
+            BezierNode node = randomNode(r);
+            switch (r.nextInt(3)) {
+            case 0: {
+                int i = r.nextInt(expected.size());
+                expected.set(i, node);
+                actual = actual.set(i, node);
+                break;
+            }
+            case 1: {
+                int i = r.nextInt(expected.size());
+                expected.remove(i);
+                actual = actual.remove(i);
+                break;
+            }
+            default: {
+                int i = r.nextInt(expected.size() + 1);
+                expected.add(i, node);
+                actual = actual.add(i, node);
+                break;
+            }
+            }
+            assertEquals(expected, actual.asList());
+            // the previous list is not changed
+            assertEquals(expectedBefore, before.asList());
+        }
+        assertEquals(BezierNodeList.of(expected), actual);
+        assertEquals(BezierNodeList.of(expected).hashCode(), actual.hashCode());
+        assertFalse(actual.equals(actual.set(0, randomNode(r))));
+    }
+
+    @Test
+    public void testTransform() {
+        Random r = new Random(2);
+        List<BezierNode> nodes = new ArrayList<>();
+        for (int i = 0; i < N; i++) {
+            nodes.add(randomNode(r));
+        }
+        Transform transform = Transform.affine(2, 0.5, -1, 3, 10, 20);
+        List<BezierNode> expected = new ArrayList<>();
+        for (BezierNode node : nodes) {
+            expected.add(node.transform(transform));
+        }
+        assertEquals(expected, BezierNodeList.of(nodes).transform(transform).asList());
+    }
+
+    @Test
+    public void testPathBuilder() throws Exception {
+        BezierNodePathBuilder builder = new BezierNodePathBuilder();
+        SvgPaths.buildFromSvgString(builder, "M0,0 L10,0 C10,5 5,10 0,10 Q-5,5 0,0 Z");
+        BezierNodeList nodes = builder.build();
+        assertEquals(4, nodes.size());
+        assertTrue(nodes.isMoveTo(0));
+        assertTrue(nodes.isC2(1));
+        assertTrue(nodes.isC1(2));
+        assertEquals(BezierNode.C0C1_MASK | BezierNode.CLOSE_MASK, nodes.getMask(3));
+        assertEquals(-5.0, nodes.getX1(3));
+        assertEquals("M0,0 10,0 C10,5,5,10,0,10 Q-5,5,0,0 Z",
+                SvgPaths.doubleSvgStringFromAwt(new BezierNodePath(nodes).getPathIterator(null)));
+    }
+
+    private static @NonNull BezierNode randomNode(@NonNull Random r) {
+        int mask = BezierNode.C0_MASK | r.nextInt(4) << 1 | (r.nextInt(8) == 0 ? BezierNode.MOVE_MASK : 0);
+        return new BezierNode(mask, r.nextBoolean(), r.nextBoolean(),
+                r.nextDouble(), r.nextDouble(), r.nextDouble(), r.nextDouble(), r.nextDouble(), r.nextDouble());
+    }
+}
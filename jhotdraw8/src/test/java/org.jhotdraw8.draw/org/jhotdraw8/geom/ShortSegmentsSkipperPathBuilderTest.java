@@ -0,0 +1,34 @@
+/*
+ * @(#)ShortSegmentsSkipperPathBuilderTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+public class ShortSegmentsSkipperPathBuilderTest {
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsSkipShortSegments() {
+        return Arrays.asList(
+                dynamicTest("long segments are kept", () -> testSkipShortSegments("M0,0 L10,0 L10,10", 1, "M0.0,0.0L10.0,0.0L10.0,10.0")),
+                dynamicTest("short segment is skipped", () -> testSkipShortSegments("M0,0 L0.5,0 L10,0", 1, "M0.0,0.0L10.0,0.0")),
+                dynamicTest("all short segments are skipped", () -> testSkipShortSegments("M0,0 L0.5,0 L1,0 L1.5,0 L2,0", 1, "M0.0,0.0")),
+                dynamicTest("end of subpath is skipped", () -> testSkipShortSegments("M0,0 L10,0 L10.5,0 M20,0 L20.5,0 Z", 1, "M0.0,0.0L10.0,0.0M20.0,0.0Z"))
+        );
+    }
+
+    private void testSkipShortSegments(@NonNull String input, double epsilon, @NonNull String expected) throws Exception {
+        ShortSegmentsSkipperPathBuilder<String> instance = new ShortSegmentsSkipperPathBuilder<>(new SvgDoublePathBuilder(), epsilon);
+        SvgPaths.buildFromSvgString(instance, input);
+        String actual = instance.build();
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * @(#)SpatialIndexTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.collection.IntArrayList;
+import org.jhotdraw8.geom.contour.StaticSpatialIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the results of {@link DynamicSpatialIndex} and
+ * {@link StaticSpatialIndex} with a brute force search.
+ */
+public class SpatialIndexTest {
+    private static final int N = 500;
+
+    @Test
+    public void testStaticSpatialIndex() {
+        Random r = new Random(1);
+        double[] boxes = new double[N * 4];
+        StaticSpatialIndex index = new StaticSpatialIndex(N);
+        for (int i = 0; i < N; i++) {
+            randomBox(r, boxes, i);
+            index.add(boxes[i * 4], boxes[i * 4 + 1], boxes[i * 4 + 2], boxes[i * 4 + 3]);
+        }
+        index.finish();
+        boolean[] used = new boolean[N];
+        Arrays.fill(used, true);
+        assertQueries(r, index, boxes, used);
+    }
+
+    @Test
+    public void testDynamicSpatialIndex() {
+        Random r = new Random(2);
+        double[] boxes = new double[N * 4];
+        boolean[] used = new boolean[N];
+        DynamicSpatialIndex index = new DynamicSpatialIndex(6);
+        for (int i = 0; i < N; i++) {
+            randomBox(r, boxes, i);
+            assertEquals(i, index.add(boxes[i * 4], boxes[i * 4 + 1], boxes[i * 4 + 2], boxes[i * 4 + 3]));
+            used[i] = true;
+        }
+        assertQueries(r, index, boxes, used);
+
+        for (int round = 0; round < 5; round++) {
+            for (int k = 0; k < N / 2; k++) {
+                int i = r.nextInt(N);
+                if (!used[i]) {
+                    continue;
+                }
+                if (r.nextBoolean()) {
+                    index.remove(i);
+                    used[i] = false;
+                } else {
+                    randomBox(r, boxes, i);
+                    index.update(i, boxes[i * 4], boxes[i * 4 + 1], boxes[i * 4 + 2], boxes[i * 4 + 3]);
+                }
+            }
+            assertQueries(r, index, boxes, used);
+            double[] box = new double[4];
+            for (int free = N - index.size(); free > 0; free--) {
+                randomBox(r, box, 0);
+                int added = index.add(box[0], box[1], box[2], box[3]);
+                // removed indexes are reused
+                assertFalse(used[added]);
+                System.arraycopy(box, 0, boxes, added * 4, 4);
+                used[added] = true;
+            }
+            assertQueries(r, index, boxes, used);
+        }
+
+        for (int i = 0; i < N; i++) {
+            index.remove(i);
+        }
+        assertEquals(0, index.size());
+        assertFalse(index.contains(0));
+        index.visitQuery(-1e9, -1e9, 1e9, 1e9, i -> {
+            throw new AssertionError("unexpected " + i);
+        });
+    }
+
+    private static void randomBox(@NonNull Random r, @NonNull double[] boxes, int i) {
+        double x = r.nextDouble() * 1000, y = r.nextDouble() * 1000;
+        boxes[i * 4] = x;
+        boxes[i * 4 + 1] = y;
+        boxes[i * 4 + 2] = x + r.nextDouble() * 50;
+        boxes[i * 4 + 3] = y + r.nextDouble() * 50;
+    }
+
+    private static void assertQueries(@NonNull Random r, @NonNull SpatialIndex index, @NonNull double[] boxes,
+                                      @NonNull boolean[] used) {
+        int count = 0;
+        for (boolean u : used) {
+            count += u ? 1 : 0;
+        }
+        assertEquals(count, index.size(), "size");
+
+        for (int q = 0; q < 50; q++) {
+            double x = r.nextDouble() * 1000, y = r.nextDouble() * 1000;
+            double w = r.nextDouble() * 200, h = r.nextDouble() * 200;
+
+            // intersects query
+            IntArrayList expected = new IntArrayList();
+            for (int i = 0; i < used.length; i++) {
+                if (used[i] && !(x + w < boxes[i * 4] || y + h < boxes[i * 4 + 1]
+                        || x > boxes[i * 4 + 2] || y > boxes[i * 4 + 3])) {
+                    expected.add(i);
+                }
+            }
+            IntArrayList actual = new IntArrayList();
+            index.visitQuery(x, y, x + w, y + h, i -> {
+                actual.add(i);
+                return true;
+            });
+            actual.sort();
+            assertEquals(expected, actual, "visitQuery");
+
+            // k nearest query
+            int k = 1 + r.nextInt(10);
+            double maxDistance = r.nextDouble() * 100;
+            double[] distances = new double[used.length];
+            int n = 0;
+            for (int i = 0; i < used.length; i++) {
+                double d = SpatialIndex.squaredDistanceToBox(x, y,
+                        boxes[i * 4], boxes[i * 4 + 1], boxes[i * 4 + 2], boxes[i * 4 + 3]);
+                if (used[i] && d <= maxDistance * maxDistance) {
+                    distances[n++] = d;
+                }
+            }
+            Arrays.sort(distances, 0, n);
+            double[] expectedDistances = Arrays.copyOf(distances, Math.min(n, k));
+            double[] actualDistances = new double[k];
+            int[] visited = {0};
+            index.visitNearest(x, y, k, maxDistance, (i, d) -> {
+                assertTrue(used[i]);
+                actualDistances[visited[0]++] = d;
+                return true;
+            });
+            assertArrayEquals(expectedDistances, Arrays.copyOf(actualDistances, visited[0]), "visitNearest");
+        }
+    }
+}
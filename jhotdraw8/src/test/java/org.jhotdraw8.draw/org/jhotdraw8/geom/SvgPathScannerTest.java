@@ -0,0 +1,98 @@
+/*
+ * @(#)SvgPathScannerTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+public class SvgPathScannerTest {
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsNextNumber() {
+        return Arrays.asList(
+                dynamicTest("integer", () -> testNextNumber("12", 12)),
+                dynamicTest("signs", () -> testNextNumber("-1+2", -1, 2)),
+                dynamicTest("compact decimals", () -> testNextNumber("1.5.5", 1.5, 0.5)),
+                dynamicTest("compact negatives", () -> testNextNumber("-1-2", -1, -2)),
+                dynamicTest("leading decimal point", () -> testNextNumber("-.5", -0.5)),
+                dynamicTest("trailing decimal point", () -> testNextNumber("5.", 5)),
+                dynamicTest("exponents", () -> testNextNumber("1e3 1E-3 -2.5e+2", 1e3, 1e-3, -2.5e2)),
+                dynamicTest("exponent followed by number", () -> testNextNumber("1e2-3", 1e2, -3)),
+                dynamicTest("separators", () -> testNextNumber(" 1 ,\t2\n,3 ", 1, 2, 3)),
+                dynamicTest("long significand", () -> testNextNumber("0.1234567890123456789", 0.1234567890123456789)),
+                dynamicTest("large exponent", () -> testNextNumber("1e300 1e-300", 1e300, 1e-300))
+        );
+    }
+
+    private void testNextNumber(@NonNull String input, double... expected) throws ParseException {
+        SvgPathScanner instance = new SvgPathScanner(input);
+        for (double d : expected) {
+            assertEquals(d, instance.nextNumber("number expected"));
+        }
+        assertFalse(instance.hasNext());
+    }
+
+    @Test
+    public void testNextNumberMatchesParseDouble() throws ParseException {
+        Random r = new Random(0);
+        for (int i = 0; i < 10_000; i++) {
+            double d = (r.nextDouble() - 0.5) * Math.pow(10, r.nextInt(20) - 10);
+            String str = Double.toString(d);
+            assertEquals(d, new SvgPathScanner(str).nextNumber("number expected"), str);
+            str = String.format("%.4f", d);
+            assertEquals(Double.parseDouble(str), new SvgPathScanner(str).nextNumber("number expected"), str);
+        }
+    }
+
+    @Test
+    public void testIllegalNumber() {
+        ParseException e = assertThrows(ParseException.class, () -> new SvgPathScanner("  -x").nextNumber("number expected"));
+        assertEquals(2, e.getErrorOffset());
+    }
+
+    @Test
+    public void testNextFlag() throws ParseException {
+        SvgPathScanner instance = new SvgPathScanner("10 1,0");
+        assertTrue(instance.nextFlag("flag expected"));
+        assertFalse(instance.nextFlag("flag expected"));
+        assertTrue(instance.nextFlag("flag expected"));
+        assertFalse(instance.nextFlag("flag expected"));
+        assertThrows(ParseException.class, () -> new SvgPathScanner("2").nextFlag("flag expected"));
+    }
+
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsBuildFromSvgString() {
+        return Arrays.asList(
+                dynamicTest("implicit lineto", () -> testBuildFromSvgString("M0,0 1,2 3,4", "M0.0,0.0L1.0,2.0L3.0,4.0")),
+                dynamicTest("compact syntax", () -> testBuildFromSvgString("M.5.5L-1-2", "M0.5,0.5L-1.0,-2.0")),
+                dynamicTest("relative commands", () -> testBuildFromSvgString("m1 1l1 1 1 1h1v1z", "M1.0,1.0L2.0,2.0L3.0,3.0L4.0,3.0L4.0,4.0Z")),
+                dynamicTest("path is built up to the error", () -> testBuildFromSvgString("M0,0 L1,1 L2", "M0.0,0.0L1.0,1.0")),
+                dynamicTest("illegal command", () -> testBuildFromSvgString("M0,0 L1,1 X2,2", "M0.0,0.0L1.0,1.0"))
+        );
+    }
+
+    private void testBuildFromSvgString(@NonNull String input, @NonNull String expected) throws ParseException {
+        String actual = SvgPaths.buildFromSvgString(new SvgDoublePathBuilder(), input).build();
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testFxPathElementsWithArcFlags() throws ParseException {
+        assertEquals(FXSvgPaths.fxPathElementsFromSvgString("M0,0 A5,5 0 1 0 10,0").toString(),
+                FXSvgPaths.fxPathElementsFromSvgString("M0,0A5,5,0,10,10,0").toString());
+    }
+}
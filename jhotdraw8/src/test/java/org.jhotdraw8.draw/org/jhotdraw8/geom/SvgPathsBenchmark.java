@@ -0,0 +1,152 @@
+/*
+ * @(#)SvgPathsBenchmark.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.io.StreamPosTokenizer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Measures the time for parsing a large SVG path with
+ * {@link SvgPaths#buildFromSvgString(PathBuilder, CharSequence)}, and with
+ * the {@link StreamPosTokenizer} based parser that it replaced.
+ * <p>
+ * This is not a unit test. It is run from the command line:
+ * <pre>
+ * java -cp ... org.jhotdraw8.geom.SvgPathsBenchmark
+ * </pre>
+ *
+ * @author Werner Randelshofer
+ */
+public class SvgPathsBenchmark {
+    private static final int SEGMENTS = 20_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    public static void main(String[] args) throws Exception {
+        String path = createPath(new Random(0));
+        System.out.println("path length: " + path.length() + " chars");
+        for (int i = 0; i < 2; i++) {
+            measure("StreamPosTokenizer", SvgPathsBenchmark::buildWithTokenizer, path);
+            measure("SvgPathScanner", p -> {
+                BoundingBoxBuilder builder = new BoundingBoxBuilder();
+                SvgPaths.buildFromSvgString(builder, p);
+                return builder.build().getWidth();
+            }, path);
+        }
+    }
+
+    private static @NonNull String createPath(@NonNull Random r) {
+        StringBuilder buf = new StringBuilder();
+        buf.append("M0,0");
+        for (int i = 0; i < SEGMENTS; i++) {
+            if (r.nextBoolean()) {
+                buf.append(String.format(Locale.ROOT, "L%.3f,%.3f",
+                        r.nextDouble() * 1000, r.nextDouble() * 1000));
+            } else {
+                buf.append(String.format(Locale.ROOT, "C%.3f,%.3f %.3f,%.3f %.3f,%.3f",
+                        r.nextDouble() * 1000, r.nextDouble() * 1000,
+                        r.nextDouble() * 1000, r.nextDouble() * 1000,
+                        r.nextDouble() * 1000, r.nextDouble() * 1000));
+            }
+        }
+        buf.append('Z');
+        return buf.toString();
+    }
+
+    /**
+     * The parser before {@link SvgPathScanner} was introduced, reduced to
+     * the commands that occur in the generated path.
+     */
+    private static double buildWithTokenizer(@NonNull String str) throws ParseException {
+        BoundingBoxBuilder builder = new BoundingBoxBuilder();
+        StreamPosTokenizer tt = new StreamPosTokenizer(new StringReader(str));
+        try {
+            tt.resetSyntax();
+            tt.parseNumbers();
+            tt.parseExponents();
+            tt.parsePlusAsNumber();
+            tt.whitespaceChars(0, ' ');
+            tt.whitespaceChars(',', ',');
+
+            char next = 'M';
+            char command;
+            while (tt.nextToken() != StreamPosTokenizer.TT_EOF) {
+                if (tt.ttype > 0) {
+                    command = (char) tt.ttype;
+                } else {
+                    command = next;
+                    tt.pushBack();
+                }
+                switch (command) {
+                case 'M':
+                case 'L': {
+                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing");
+                    double x = tt.nval;
+                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing");
+                    double y = tt.nval;
+                    if (command == 'M') {
+                        builder.moveTo(x, y);
+                    } else {
+                        builder.lineTo(x, y);
+                    }
+                    next = 'L';
+                    break;
+                }
+                case 'C': {
+                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x1 coordinate missing");
+                    double x1 = tt.nval;
+                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y1 coordinate missing");
+                    double y1 = tt.nval;
+                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x2 coordinate missing");
+                    double x2 = tt.nval;
+                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y2 coordinate missing");
+                    double y2 = tt.nval;
+                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "x coordinate missing");
+                    double x = tt.nval;
+                    tt.requireNextToken(StreamPosTokenizer.TT_NUMBER, "y coordinate missing");
+                    double y = tt.nval;
+                    builder.curveTo(x1, y1, x2, y2, x, y);
+                    next = 'C';
+                    break;
+                }
+                case 'Z':
+                    builder.closePath();
+                    break;
+                default:
+                    throw new ParseException("Illegal command: " + command + ".", tt.getStartPosition());
+                }
+            }
+        } catch (IOException e) {
+            throw new ParseException(e.getMessage(), tt.getStartPosition());
+        }
+        builder.pathDone();
+        return builder.build().getWidth();
+    }
+
+    private static void measure(@NonNull String name, @NonNull Parser parser, @NonNull String path) throws ParseException {
+        double sum = 0;
+        for (int r = 0; r < WARMUP_ROUNDS; r++) {
+            sum += parser.parse(path);
+        }
+        long nanosBefore = System.nanoTime();
+        for (int r = 0; r < MEASURED_ROUNDS; r++) {
+            sum += parser.parse(path);
+        }
+        long nanos = System.nanoTime() - nanosBefore;
+        System.out.println(String.format(Locale.ROOT, "%-20s %8.1f M chars/s  (%.0f)",
+                name, path.length() * (double) MEASURED_ROUNDS / (nanos / 1e3), sum));
+    }
+
+    @FunctionalInterface
+    private interface Parser {
+        double parse(@NonNull String path) throws ParseException;
+    }
+}
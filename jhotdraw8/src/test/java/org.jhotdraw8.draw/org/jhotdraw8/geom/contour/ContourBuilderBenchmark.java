@@ -0,0 +1,71 @@
+/*
+ * @(#)ContourBuilderBenchmark.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom.contour;
+
+import org.jhotdraw8.annotation.NonNull;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToIntFunction;
+
+/**
+ * Measures the time for computing many offsets of the polyline that
+ * is used in {@code OffsetPathSampleMain}, one offset at a time and
+ * with {@link ContourBuilder#parallelOffsets}.
+ * <p>
+ * This is not a unit test. It is run from the command line:
+ * <pre>
+ * java -cp ... org.jhotdraw8.geom.contour.ContourBuilderBenchmark
+ * </pre>
+ *
+ * @author Werner Randelshofer
+ */
+public class ContourBuilderBenchmark {
+    private static final int OFFSETS = 50;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    public static void main(String[] args) {
+        double[] offsets = new double[OFFSETS];
+        for (int i = 0; i < OFFSETS; i++) {
+            offsets[i] = (i - OFFSETS / 2) * 2.0;
+        }
+        ContourBuilder builder = new ContourBuilder();
+        for (boolean closed : new boolean[]{false, true}) {
+            PolyArcPath pline = new PolyArcPath();
+            pline.addVertex(110, 200);
+            pline.addVertex(160, 180);
+            pline.addVertex(210, 120);
+            pline.addVertex(260, 180);
+            pline.addVertex(310, 200);
+            pline.isClosed(closed);
+
+            String shape = closed ? "closed" : "open";
+            measure(shape + ", one at a time", p -> {
+                int count = 0;
+                for (double offset : offsets) {
+                    count += builder.parallelOffset(p, offset).size();
+                }
+                return count;
+            }, pline);
+            measure(shape + ", parallelOffsets", p -> builder.parallelOffsets(p, offsets)
+                    .mapToInt(List::size).sum(), pline);
+        }
+    }
+
+    private static void measure(@NonNull String name, @NonNull ToIntFunction<PolyArcPath> offsetter, @NonNull PolyArcPath pline) {
+        int count = 0;
+        for (int r = 0; r < WARMUP_ROUNDS; r++) {
+            count += offsetter.applyAsInt(pline);
+        }
+        long nanosBefore = System.nanoTime();
+        for (int r = 0; r < MEASURED_ROUNDS; r++) {
+            count += offsetter.applyAsInt(pline);
+        }
+        long nanos = System.nanoTime() - nanosBefore;
+        System.out.println(String.format(Locale.ROOT, "%-24s %10.0f offsets/s  (%d polylines)",
+                name, OFFSETS * MEASURED_ROUNDS / (nanos / 1e9), count));
+    }
+}
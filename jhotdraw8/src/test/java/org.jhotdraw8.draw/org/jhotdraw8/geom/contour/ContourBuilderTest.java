@@ -5,6 +5,7 @@ import org.jhotdraw8.geom.AwtPathBuilder;
 import org.jhotdraw8.geom.Geom;
 import org.jhotdraw8.geom.SvgPaths;
 import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
 
 import javax.swing.JComponent;
@@ -17,6 +18,7 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
@@ -119,6 +121,23 @@ public class ContourBuilderTest {
         );
     }
 
+    @Test
+    public void testParallelOffsetsEqualsParallelOffset() {
+        double[] offsets = new double[41];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = (i - 20) * 2.5;
+        }
+        for (boolean closed : new boolean[]{false, true}) {
+            PolyArcPath input = polylineOf(closed, new double[][]{{110, 200, 0}, {160, 180, 0}, {210, 120, 0}, {260, 180, 0}, {310, 200, 0}});
+            ContourBuilder builder = new ContourBuilder();
+            List<List<PolyArcPath>> actual = builder.parallelOffsets(input, offsets).collect(Collectors.toList());
+            assertEquals(offsets.length, actual.size());
+            for (int i = 0; i < offsets.length; i++) {
+                assertEquals(builder.parallelOffset(input, offsets[i]), actual.get(i), "closed=" + closed + ", offset=" + offsets[i]);
+            }
+        }
+    }
+
     private static PolyArcPath polylineOf(double[][] coords) {
         return polylineOf(false, coords);
     }
@@ -0,0 +1,184 @@
+/*
+ * @(#)PolyArcPathCombinerTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom.contour;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.awt.geom.Area;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+public class PolyArcPathCombinerTest {
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsCombineSquares() {
+        PolyArcPath a = square(0, 0, 100);
+        PolyArcPath b = square(50, 50, 100);
+        PolyArcPath inner = square(25, 25, 50);
+        PolyArcPath adjacent = square(100, 0, 100);
+        return Arrays.asList(
+                dynamicTest("overlapping union", () -> testCombine(a, b, PlineCombineMode.Union, 17500, 1)),
+                dynamicTest("overlapping intersect", () -> testCombine(a, b, PlineCombineMode.Intersect, 2500, 1)),
+                dynamicTest("overlapping exclude", () -> testCombine(a, b, PlineCombineMode.Exclude, 7500, 1)),
+                dynamicTest("overlapping xor", () -> testCombine(a, b, PlineCombineMode.XOR, 15000, 2)),
+                dynamicTest("contained union", () -> testCombine(a, inner, PlineCombineMode.Union, 10000, 1)),
+                dynamicTest("contained intersect", () -> testCombine(a, inner, PlineCombineMode.Intersect, 2500, 1)),
+                dynamicTest("contained exclude", () -> testCombine(a, inner, PlineCombineMode.Exclude, 7500, 2)),
+                dynamicTest("contained xor", () -> testCombine(inner, a, PlineCombineMode.XOR, 7500, 2)),
+                dynamicTest("adjacent union", () -> testCombine(a, adjacent, PlineCombineMode.Union, 20000, 1)),
+                dynamicTest("adjacent intersect", () -> testCombine(a, adjacent, PlineCombineMode.Intersect, 0, 0)),
+                dynamicTest("adjacent exclude", () -> testCombine(a, adjacent, PlineCombineMode.Exclude, 10000, 1)),
+                dynamicTest("identical union", () -> testCombine(a, square(0, 0, 100), PlineCombineMode.Union, 10000, 1)),
+                dynamicTest("identical intersect", () -> testCombine(a, square(0, 0, 100), PlineCombineMode.Intersect, 10000, 1)),
+                dynamicTest("identical exclude", () -> testCombine(a, square(0, 0, 100), PlineCombineMode.Exclude, 0, 0)),
+                dynamicTest("disjoint union", () -> testCombine(a, square(200, 0, 100), PlineCombineMode.Union, 20000, 2)),
+                dynamicTest("disjoint intersect", () -> testCombine(a, square(200, 0, 100), PlineCombineMode.Intersect, 0, 0))
+        );
+    }
+
+    private void testCombine(@NonNull PolyArcPath a, @NonNull PolyArcPath b, @NonNull PlineCombineMode mode,
+                             double expectedArea, int expectedCount) {
+        List<PolyArcPath> actual = PolyArcPathCombiner.combine(Collections.singletonList(a), Collections.singletonList(b), mode);
+        assertEquals(expectedArea, area(actual), 1e-6, "area");
+        assertEquals(expectedCount, actual.size(), "count");
+    }
+
+    @Test
+    public void testCombineCircles() {
+        // the lens of two unit circles at distance 1
+        double lens = 2 * Math.acos(0.5) - 0.5 * Math.sqrt(3);
+        List<PolyArcPath> a = Collections.singletonList(circle(0, 0));
+        List<PolyArcPath> b = Collections.singletonList(circle(1, 0));
+        assertEquals(Math.PI, area(a), 1e-9, "circle");
+        assertEquals(lens, area(PolyArcPathCombiner.combine(a, b, PlineCombineMode.Intersect)), 1e-9, "intersect");
+        assertEquals(2 * Math.PI - lens, area(PolyArcPathCombiner.combine(a, b, PlineCombineMode.Union)), 1e-9, "union");
+        assertEquals(Math.PI - lens, area(PolyArcPathCombiner.combine(a, b, PlineCombineMode.Exclude)), 1e-9, "exclude");
+        assertEquals(2 * Math.PI - 2 * lens, area(PolyArcPathCombiner.combine(a, b, PlineCombineMode.XOR)), 1e-9, "xor");
+    }
+
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsCombineAllAgainstArea() {
+        return Arrays.asList(
+                dynamicTest("union", () -> testCombineAllAgainstArea(1, PlineCombineMode.Union)),
+                dynamicTest("intersect", () -> testCombineAllAgainstArea(2, PlineCombineMode.Intersect)),
+                dynamicTest("exclude", () -> testCombineAllAgainstArea(3, PlineCombineMode.Exclude)),
+                dynamicTest("xor", () -> testCombineAllAgainstArea(4, PlineCombineMode.XOR))
+        );
+    }
+
+    /**
+     * Combines random triangles and compares the area of the result with
+     * the area that is computed with {@link Area}.
+     */
+    private void testCombineAllAgainstArea(long seed, @NonNull PlineCombineMode mode) {
+        Random r = new Random(seed);
+        List<List<PolyArcPath>> regions = new ArrayList<>();
+        Area expected = null;
+        for (int i = 0; i < 40; i++) {
+            double x = r.nextDouble() * 500, y = r.nextDouble() * 500;
+            PolyArcPath triangle = new PolyArcPath();
+            Path2D.Double path = new Path2D.Double();
+            path.moveTo(x, y);
+            triangle.addVertex(x, y);
+            for (int k = 0; k < 2; k++) {
+                double px = x + r.nextDouble() * 200 - 100, py = y + r.nextDouble() * 200 - 100;
+                path.lineTo(px, py);
+                triangle.addVertex(px, py);
+            }
+            path.closePath();
+            triangle.isClosed(true);
+            regions.add(Collections.singletonList(triangle));
+
+            Area area = new Area(path);
+            if (expected == null) {
+                expected = area;
+            } else {
+                switch (mode) {
+                case Union:
+                    expected.add(area);
+                    break;
+                case Intersect:
+                    expected.intersect(area);
+                    break;
+                case Exclude:
+                    expected.subtract(area);
+                    break;
+                case XOR:
+                    expected.exclusiveOr(area);
+                    break;
+                }
+            }
+        }
+
+        List<PolyArcPath> actual = PolyArcPathCombiner.combineAll(regions, mode);
+        assertEquals(area(expected.getPathIterator(null)), area(actual), 1e-3);
+    }
+
+    private static double area(@NonNull List<PolyArcPath> plines) {
+        double area = 0;
+        for (PolyArcPath pline : plines) {
+            area += pline.getArea();
+        }
+        return area;
+    }
+
+    /**
+     * Computes the area of a polygonal path. Subpaths that are oriented
+     * clockwise are subtracted.
+     */
+    private static double area(@NonNull PathIterator it) {
+        double[] coords = new double[6];
+        double area = 0, firstX = 0, firstY = 0, lastX = 0, lastY = 0;
+        for (; !it.isDone(); it.next()) {
+            switch (it.currentSegment(coords)) {
+            case PathIterator.SEG_MOVETO:
+                firstX = lastX = coords[0];
+                firstY = lastY = coords[1];
+                break;
+            case PathIterator.SEG_LINETO:
+                area += lastX * coords[1] - lastY * coords[0];
+                lastX = coords[0];
+                lastY = coords[1];
+                break;
+            case PathIterator.SEG_CLOSE:
+                area += lastX * firstY - lastY * firstX;
+                lastX = firstX;
+                lastY = firstY;
+                break;
+            default:
+                throw new AssertionError("unexpected segment");
+            }
+        }
+        return Math.abs(area) / 2;
+    }
+
+    private static @NonNull PolyArcPath square(double x, double y, double size) {
+        PolyArcPath p = new PolyArcPath();
+        p.addVertex(x, y);
+        p.addVertex(x + size, y);
+        p.addVertex(x + size, y + size);
+        p.addVertex(x, y + size);
+        p.isClosed(true);
+        return p;
+    }
+
+    private static @NonNull PolyArcPath circle(double cx, double cy) {
+        PolyArcPath p = new PolyArcPath();
+        p.addVertex(cx + 1, cy, 1);
+        p.addVertex(cx - 1, cy, 1);
+        p.isClosed(true);
+        return p;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * @(#)PolyArcPathTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom.contour;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class PolyArcPathTest {
+    @Test
+    public void testGetReturnsDetachedCopy() {
+        PolyArcPath p = new PolyArcPath(1);
+        p.addVertex(0, 0, 0.5);
+        p.addVertex(10, 0);
+        p.addVertex(new PlineVertex(10, 10, -0.25));
+
+        PlineVertex v = p.get(1);
+        v.bulge(0.75);
+        assertEquals(0.0, p.getBulge(1));
+        assertEquals(Arrays.asList(new PlineVertex(0, 0, 0.5), new PlineVertex(10, 0),
+                new PlineVertex(10, 10, -0.25)), p);
+
+        // a copy is not affected by inserting or removing vertexes
+        PlineVertex last = p.lastVertex();
+        p.add(0, new PlineVertex(-10, 0));
+        p.remove(1);
+        assertEquals(new PlineVertex(10, 10, -0.25), last);
+    }
+
+    @Test
+    public void testVertexViewWritesThrough() {
+        PolyArcPath p = new PolyArcPath(1);
+        p.addVertex(0, 0, 0.5);
+        p.addVertex(10, 0);
+        p.addVertex(new PlineVertex(10, 10, -0.25));
+
+        PolyArcPath.VertexView v = p.view().at(1);
+        v.bulge(0.75);
+        assertEquals(0.75, p.getBulge(1));
+        assertEquals(new PlineVertex(10, 0, 0.75), v);
+
+        PlineVertex copy = v.clone();
+        p.setBulge(1, 0.0);
+        assertEquals(0.0, v.bulge());
+        assertEquals(0.75, copy.bulge());
+
+        // the view stays at its index
+        p.remove(0);
+        assertEquals(new PlineVertex(10, 10, -0.25), v);
+    }
+
+    @Test
+    public void testSetAddRemoveCopyValues() {
+        PolyArcPath p = new PolyArcPath();
+        p.addVertex(0, 0, 0.5);
+        p.addVertex(10, 0);
+
+        // appending a view of the path itself copies its values
+        p.addVertex(p.view().at(0));
+        p.setBulge(p.size() - 1, 0.0);
+        assertEquals(0.5, p.getBulge(0));
+        assertEquals(new PlineVertex(0, 0, 0.0), p.get(2));
+
+        PlineVertex old = p.set(0, new PlineVertex(1, 1, 0.25));
+        assertEquals(new PlineVertex(0, 0, 0.5), old);
+
+        p.add(1, new PlineVertex(5, 5));
+        assertEquals(4, p.size());
+        assertEquals(new PlineVertex(10, 0), p.get(2));
+
+        PlineVertex removed = p.remove(0);
+        assertEquals(new PlineVertex(1, 1, 0.25), removed);
+        assertEquals(Arrays.asList(new PlineVertex(5, 5), new PlineVertex(10, 0), new PlineVertex(0, 0)), p);
+    }
+
+    @Test
+    public void testCloneIsDeep() {
+        PolyArcPath p = new PolyArcPath();
+        p.addVertex(0, 0, 0.5);
+        p.addVertex(10, 0);
+        p.isClosed(true);
+
+        PolyArcPath clone = p.clone();
+        clone.setBulge(0, 0.0);
+        clone.addVertex(20, 20);
+        assertEquals(0.5, p.getBulge(0));
+        assertEquals(2, p.size());
+        assertNotEquals(p, clone);
+    }
+
+    @Test
+    public void testInvertDirection() {
+        PolyArcPath p = new PolyArcPath();
+        p.addVertex(0, 0, 0.5);
+        p.addVertex(10, 0, 0.0);
+        p.addVertex(10, 10, -0.25);
+        p.isClosed(true);
+        double area = p.getArea();
+
+        PolyArcPath.invertDirection(p);
+        assertEquals(Arrays.asList(new PlineVertex(10, 10, -0.0), new PlineVertex(10, 0, -0.5),
+                new PlineVertex(0, 0, 0.25)), p);
+        assertEquals(-area, p.getArea(), 1e-9);
+    }
+
+    @Test
+    public void testDistanceSqToSegEqualsClosestPointOnSeg() {
+        Random r = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            PlineVertex v1 = new PlineVertex(r.nextDouble() * 100, r.nextDouble() * 100,
+                    i % 3 == 0 ? 0.0 : r.nextDouble() * 2 - 1);
+            PlineVertex v2 = new PlineVertex(r.nextDouble() * 100, r.nextDouble() * 100);
+            Point2D.Double point = new Point2D.Double(r.nextDouble() * 100, r.nextDouble() * 100);
+            double expected = PlineVertex.closestPointOnSeg(v1, v2, point).distanceSq(point);
+            double actual = PlineVertex.distanceSqToSeg(v1.getX(), v1.getY(), v1.bulge(),
+                    v2.getX(), v2.getY(), point.getX(), point.getY());
+            assertEquals(expected, actual, 1e-6 * Math.max(1, expected));
+        }
+    }
+}
@@ -12,10 +12,12 @@ import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.TestFactory;
 
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
 
 public class IntersectLinePathIteratorTest {
@@ -39,6 +41,77 @@ public class IntersectLinePathIteratorTest {
 
 
 
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsIntersectLinePathIteratorWithCollector() {
+        String circle = "M5930,425 C5930,422.2404174804688,5927.759765625,420,5925,420 5922.240234375,420,5920,422.2404174804688,5920,425 5920,427.7595825195313,5922.240234375,430,5925,430 5927.759765625,430,5930,427.7595825195313,5930,425 Z";
+        String polygon = "M0,0 L100,0 100,100 0,100 Z";
+        String quads = "M0,50 Q50,-50 100,50 Q50,150 0,50 Z";
+        return Arrays.asList(
+                dynamicTest("circle", () -> testIntersectLinePathIteratorWithCollector(new Line(5925, 425, 6085, 345), circle)),
+                dynamicTest("circle through", () -> testIntersectLinePathIteratorWithCollector(new Line(5900, 425, 5950, 425), circle)),
+                dynamicTest("circle outside", () -> testIntersectLinePathIteratorWithCollector(new Line(0, 0, 10, 10), circle)),
+                dynamicTest("polygon", () -> testIntersectLinePathIteratorWithCollector(new Line(-10, 50, 110, 60), polygon)),
+                dynamicTest("polygon inside", () -> testIntersectLinePathIteratorWithCollector(new Line(10, 10, 90, 90), polygon)),
+                dynamicTest("quads", () -> testIntersectLinePathIteratorWithCollector(new Line(50, -20, 50, 120), quads)),
+                dynamicTest("quads diagonal", () -> testIntersectLinePathIteratorWithCollector(new Line(-10, -10, 110, 110), quads))
+        );
+    }
+
+    /**
+     * The collector must receive the same intersection points in the same
+     * order as the result list of the Ex method.
+     */
+    public void testIntersectLinePathIteratorWithCollector(Line line, String path) throws ParseException {
+        IntersectionResultEx expected = IntersectLinePathIterator.intersectLinePathIteratorEx(
+                line.getStartX(), line.getStartY(),
+                line.getEndX(), line.getEndY(),
+                SvgPaths.awtShapeFromSvgString(path).getPathIterator(null));
+        List<IntersectionPointEx> actual = new ArrayList<>();
+        boolean completed = IntersectLinePathIterator.intersectLinePathIterator(
+                line.getStartX(), line.getStartY(),
+                line.getEndX(), line.getEndY(),
+                SvgPaths.awtShapeFromSvgString(path).getPathIterator(null),
+                new IntersectionCollector() {
+                    @Override
+                    public boolean addIntersection(double t, double x, double y) {
+                        throw new AssertionError("tangent expected");
+                    }
+
+                    @Override
+                    public boolean addIntersection(double t, double x, double y, double tb, double tangentX, double tangentY) {
+                        actual.add(new IntersectionPointEx(x, y, t, 0, 0, tb, tangentX, tangentY));
+                        return true;
+                    }
+                });
+        assertTrue(completed);
+        List<IntersectionPointEx> expectedList = expected.getStatus() == IntersectionStatus.INTERSECTION ? expected.asList() : List.of();
+        assertEquals(expectedList.size(), actual.size(), "size");
+        for (int i = 0; i < expectedList.size(); i++) {
+            IntersectionPointEx e = expectedList.get(i);
+            IntersectionPointEx a = actual.get(i);
+            assertEquals(e.getX(), a.getX(), 1e-9, "x");
+            assertEquals(e.getY(), a.getY(), 1e-9, "y");
+            assertEquals(e.getArgumentA(), a.getArgumentA(), 1e-9, "argumentA");
+            assertEquals(e.getArgumentB(), a.getArgumentB(), 1e-9, "argumentB");
+            assertEquals(e.getTangentB().getX(), a.getTangentB().getX(), 1e-9, "tangentB.x");
+            assertEquals(e.getTangentB().getY(), a.getTangentB().getY(), 1e-9, "tangentB.y");
+        }
+
+        assertEquals(!expectedList.isEmpty(), IntersectLinePathIterator.anyIntersectionLinePathIterator(
+                line.getStartX(), line.getStartY(),
+                line.getEndX(), line.getEndY(),
+                SvgPaths.awtShapeFromSvgString(path).getPathIterator(null)), "anyIntersection");
+        double first = IntersectLinePathIterator.firstIntersectionLinePathIterator(
+                line.getStartX(), line.getStartY(),
+                line.getEndX(), line.getEndY(),
+                SvgPaths.awtShapeFromSvgString(path).getPathIterator(null));
+        if (expectedList.isEmpty()) {
+            assertTrue(Double.isNaN(first), "firstIntersection");
+        } else {
+            assertEquals(expectedList.get(0).getArgumentA(), first, 1e-9, "firstIntersection");
+        }
+    }
+
     public void testIntersectLinePathIterator(Line line, String path, IntersectionStatus expectedStatus) throws ParseException {
         IntersectionResultEx actual = IntersectLinePathIterator.intersectLinePathIteratorEx(
                 line.getStartX(), line.getStartY(),
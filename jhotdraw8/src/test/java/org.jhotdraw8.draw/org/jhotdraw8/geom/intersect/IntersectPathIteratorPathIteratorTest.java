@@ -0,0 +1,121 @@
+/*
+ * @(#)IntersectPathIteratorPathIteratorTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.geom.intersect;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+public class IntersectPathIteratorPathIteratorTest {
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsIntersectPathIteratorPathIteratorAgainstLines() {
+        return Arrays.asList(
+                dynamicTest("lines", () -> testIntersectPathIteratorPathIteratorAgainstLines(1, 200, false)),
+                dynamicTest("curves", () -> testIntersectPathIteratorPathIteratorAgainstLines(2, 200, true)),
+                dynamicTest("many curves", () -> testIntersectPathIteratorPathIteratorAgainstLines(3, 1000, true))
+        );
+    }
+
+    /**
+     * Intersects a polyline with a random path and compares the result
+     * with the intersections of each line of the polyline with the path.
+     */
+    public void testIntersectPathIteratorPathIteratorAgainstLines(long seed, int n, boolean curves) {
+        Random r = new Random(seed);
+        Path2D.Double a = new Path2D.Double();
+        Path2D.Double b = new Path2D.Double();
+        a.moveTo(r.nextDouble() * 1000, r.nextDouble() * 1000);
+        b.moveTo(r.nextDouble() * 1000, r.nextDouble() * 1000);
+        for (int i = 0; i < n; i++) {
+            a.lineTo(r.nextDouble() * 1000, r.nextDouble() * 1000);
+            switch (curves ? r.nextInt(3) : 0) {
+            case 0:
+                b.lineTo(r.nextDouble() * 1000, r.nextDouble() * 1000);
+                break;
+            case 1:
+                b.quadTo(r.nextDouble() * 1000, r.nextDouble() * 1000, r.nextDouble() * 1000, r.nextDouble() * 1000);
+                break;
+            default:
+                b.curveTo(r.nextDouble() * 1000, r.nextDouble() * 1000, r.nextDouble() * 1000, r.nextDouble() * 1000,
+                        r.nextDouble() * 1000, r.nextDouble() * 1000);
+                break;
+            }
+        }
+        b.closePath();
+
+        List<IntersectionPointEx> expected = new ArrayList<>();
+        double[] seg = new double[6];
+        double lastx = 0, lasty = 0;
+        for (PathIterator it = a.getPathIterator(null); !it.isDone(); it.next()) {
+            if (it.currentSegment(seg) == PathIterator.SEG_LINETO) {
+                IntersectionResultEx inter = IntersectLinePathIterator.intersectLinePathIteratorEx(lastx, lasty, seg[0], seg[1], b.getPathIterator(null));
+                expected.addAll(inter.asList());
+            }
+            lastx = seg[0];
+            lasty = seg[1];
+        }
+
+        IntersectionResultEx actual = IntersectPathIteratorPathIterator.intersectPathIteratorPathIteratorEx(
+                a.getPathIterator(null), b.getPathIterator(null));
+        assertEquals(expected.isEmpty() ? IntersectionStatus.NO_INTERSECTION : IntersectionStatus.INTERSECTION, actual.getStatus());
+        assertEquals(expected.size(), actual.size(), "size");
+        for (int i = 0; i < expected.size(); i++) {
+            IntersectionPointEx e = expected.get(i);
+            IntersectionPointEx ac = actual.get(i);
+            assertEquals(e.getX(), ac.getX(), 1e-9, "x");
+            assertEquals(e.getY(), ac.getY(), 1e-9, "y");
+            assertEquals(e.getArgumentA(), ac.getArgumentA(), 1e-9, "argumentA");
+            assertEquals(e.getArgumentB(), ac.getArgumentB(), 1e-9, "argumentB");
+        }
+    }
+
+    @Test
+    public void testIntersectCircleCircle() {
+        IntersectionResultEx actual = IntersectPathIteratorPathIterator.intersectPathIteratorPathIteratorEx(
+                new Ellipse2D.Double(0, 0, 100, 100).getPathIterator(null),
+                new Ellipse2D.Double(50, 0, 100, 100).getPathIterator(null));
+        assertEquals(IntersectionStatus.INTERSECTION, actual.getStatus());
+        assertEquals(2, actual.size());
+        for (IntersectionPointEx ip : actual) {
+            assertEquals(75, ip.getX(), 1e-3, "x");
+        }
+
+        IntersectionResultEx disjoint = IntersectPathIteratorPathIterator.intersectPathIteratorPathIteratorEx(
+                new Ellipse2D.Double(0, 0, 100, 100).getPathIterator(null),
+                new Ellipse2D.Double(200, 0, 100, 100).getPathIterator(null));
+        assertEquals(IntersectionStatus.NO_INTERSECTION, disjoint.getStatus());
+    }
+
+    @Test
+    public void testIntersectPolygonPolygon() {
+        List<Point2D.Double> square1 = Arrays.asList(new Point2D.Double(0, 0), new Point2D.Double(100, 0),
+                new Point2D.Double(100, 100), new Point2D.Double(0, 100));
+        List<Point2D.Double> square2 = Arrays.asList(new Point2D.Double(50, 50), new Point2D.Double(150, 50),
+                new Point2D.Double(150, 150), new Point2D.Double(50, 150));
+        IntersectionResultEx actual = IntersectPolygonPolygon.intersectPolygonPolygonEx(square1, square2);
+        assertEquals(IntersectionStatus.INTERSECTION, actual.getStatus());
+        assertEquals(2, actual.size());
+        assertEquals(new Point2D.Double(100, 50), new Point2D.Double(actual.get(0).getX(), actual.get(0).getY()));
+        assertEquals(1, actual.get(0).getSegmentA());
+        assertEquals(0, actual.get(0).getSegmentB());
+        assertEquals(new Point2D.Double(50, 100), new Point2D.Double(actual.get(1).getX(), actual.get(1).getY()));
+        assertEquals(2, actual.get(1).getSegmentA());
+        assertEquals(3, actual.get(1).getSegmentB());
+    }
+}
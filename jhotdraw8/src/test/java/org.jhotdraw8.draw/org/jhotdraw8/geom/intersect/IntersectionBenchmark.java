@@ -0,0 +1,79 @@
+/*
+ * @(#)IntersectionBenchmark.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom.intersect;
+
+import org.jhotdraw8.annotation.NonNull;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Measures the number of intersections per second of the intersection
+ * methods that find the roots of polynomials with a degree above four.
+ * <p>
+ * This is not a unit test. It is run from the command line:
+ * <pre>
+ * java -cp ... org.jhotdraw8.geom.intersect.IntersectionBenchmark
+ * </pre>
+ *
+ * @author Werner Randelshofer
+ */
+public class IntersectionBenchmark {
+    private static final int CURVES = 1000;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 100;
+
+    public static void main(String[] args) {
+        Random rnd = new Random(0);
+        double[] c = new double[CURVES * 8];
+        for (int i = 0; i < c.length; i++) {
+            c[i] = rnd.nextDouble() * 100;
+        }
+
+        measure("cubic curve/cubic curve", i -> {
+            int a = i * 8, b = ((i + 1) % CURVES) * 8;
+            return IntersectCubicCurveCubicCurve.intersectCubicCurveCubicCurve(
+                    c[a], c[a + 1], c[a + 2], c[a + 3], c[a + 4], c[a + 5], c[a + 6], c[a + 7],
+                    c[b], c[b + 1], c[b + 2], c[b + 3], c[b + 4], c[b + 5], c[b + 6], c[b + 7]).size();
+        });
+        measure("quad curve/cubic curve", i -> {
+            int a = i * 8, b = ((i + 1) % CURVES) * 8;
+            return IntersectCubicCurveQuadCurve.intersectQuadCurveCubicCurve(
+                    c[a], c[a + 1], c[a + 2], c[a + 3], c[a + 4], c[a + 5],
+                    c[b], c[b + 1], c[b + 2], c[b + 3], c[b + 4], c[b + 5], c[b + 6], c[b + 7]).size();
+        });
+        measure("cubic curve/ellipse", i -> {
+            int a = i * 8, b = ((i + 1) % CURVES) * 8;
+            return IntersectCubicCurveEllipse.intersectCubicCurveEllipse(
+                    c[a], c[a + 1], c[a + 2], c[a + 3], c[a + 4], c[a + 5], c[a + 6], c[a + 7],
+                    c[b], c[b + 1], c[b + 2] * 0.5, c[b + 3] * 0.5).size();
+        });
+        measure("cubic curve/point", i -> {
+            int a = i * 8, b = ((i + 1) % CURVES) * 8;
+            return IntersectCubicCurvePoint.intersectCubicCurvePoint(
+                    c[a], c[a + 1], c[a + 2], c[a + 3], c[a + 4], c[a + 5], c[a + 6], c[a + 7],
+                    c[b], c[b + 1], 10.0).size();
+        });
+    }
+
+    private static void measure(@NonNull String name, @NonNull IntUnaryOperator intersection) {
+        int count = 0;
+        for (int r = 0; r < WARMUP_ROUNDS; r++) {
+            for (int i = 0; i < CURVES; i++) {
+                count += intersection.applyAsInt(i);
+            }
+        }
+        long nanosBefore = System.nanoTime();
+        for (int r = 0; r < MEASURED_ROUNDS; r++) {
+            for (int i = 0; i < CURVES; i++) {
+                count += intersection.applyAsInt(i);
+            }
+        }
+        long nanos = System.nanoTime() - nanosBefore;
+        System.out.println(String.format(Locale.ROOT, "%-26s %12.0f intersections/s  (%d points)",
+                name, CURVES * MEASURED_ROUNDS / (nanos / 1e9), count));
+    }
+}
@@ -80,5 +80,39 @@ public class PolynomialTest {
         }
     }
 
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsGetRootsInIntervalWithArrays() {
+        return Arrays.asList(
+                dynamicTest("1", () -> testGetRootsInIntervalWithArrays(new Polynomial(false, 2330400.0, -1.49088E7, 3.76128E7, -4.6464E7, 2.3232E7), 0.0, 1.0, new double[]{0.405180683762359,
+                        0.722769898622671})),
+                dynamicTest("1", () -> testGetRootsInIntervalWithArrays(new Polynomial(false, -288000.0, 2330400.0, -7454400.0, 1.25376E7, -1.1616E7, 4646400.0), -5.0, 5.0, new double[]{0.327910033575923,
+                        0.838094098688656,
+                        0.5})),
+                dynamicTest("1", () -> testGetRootsInIntervalWithArrays(new Polynomial(1, -0.3, -4.1, 1.23, 4.69, -1.407, -1.096, 0.3288, 0.0576, -0.01728), -5.0, 5.0, new double[]{-1.466132726797,
+                        -1.288659628284, -0.463281817443, -0.274191807818, 0.274191807818, 0.3, 0.463281817443, 1.288659628284, 1.466132726797})),
+                dynamicTest("1", () -> testGetRootsInIntervalWithArrays(new Polynomial(1, 0, 0, 0, 0, 0, 0, 0, -1), -2.0, 2.0, new double[]{-1.0, 1.0})),
+                dynamicTest("1", () -> testGetRootsInIntervalWithArrays(new Polynomial(1, 0, 0, 0, 0, 0, 0, 0, -1), 0.0, 0.5, new double[]{}))
+        );
+    }
+
+    /**
+     * Tests the allocation-free variant, also when the arrays are reused.
+     */
+    public static void testGetRootsInIntervalWithArrays(@NonNull Polynomial instance, double from, double to, @NonNull double[] expected) {
+        Arrays.sort(expected);
+        int degree = instance.getDegree();
+        double[] roots = new double[Polynomial.getRootsLength(degree)];
+        double[] scratch = new double[Polynomial.getScratchLength(degree)];
+        for (int repeat = 0; repeat < 2; repeat++) {
+            int numRoots = instance.getRootsInInterval(from, to, roots, scratch);
+            assertEquals(expected.length, numRoots);
+            double[] actual = Arrays.copyOf(roots, numRoots);
+            Arrays.sort(actual);
+            for (int i = 0; i < numRoots; i++) {
+                assertEquals(expected[i], actual[i], 1e-6, "root #" + i);
+            }
+        }
+    }
+
 
 }
@@ -0,0 +1,80 @@
+/*
+ * @(#)FXSvgFullWriterTest.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.svg.io;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Ellipse;
+import javafx.scene.shape.Rectangle;
+import org.jhotdraw8.annotation.NonNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FXSvgFullWriterTest {
+    @Test
+    public void testParallelWriteProducesSameOutputAsSerialWrite() throws IOException {
+        Group drawing = new Group();
+        for (int layer = 0; layer < 4; layer++) {
+            Group layerNode = new Group();
+            layerNode.setId("layer" + layer);
+            for (int i = 0; i < 50; i++) {
+                Rectangle r = new Rectangle(i, layer, 10 + i, 20);
+                r.setFill(Color.hsb(i * 7, 0.5, 0.5));
+                r.setStroke(i % 2 == 0 ? Color.BLACK : null);
+                layerNode.getChildren().add(r);
+            }
+            layerNode.getChildren().add(new Group(new Ellipse(5, 5, 3, 4), new Group()));
+            drawing.getChildren().add(layerNode);
+        }
+        drawing.getChildren().add(new Group());
+
+        String serial = write(drawing, false, false);
+        String parallel = write(drawing, true, false);
+        assertEquals(serial, parallel);
+    }
+
+    @Test
+    public void testSharePaints() throws IOException {
+        Rectangle r1 = new Rectangle(0, 0, 10, 10);
+        r1.setFill(Color.RED);
+        r1.setStroke(Color.BLUE);
+        Rectangle r2 = new Rectangle(20, 0, 10, 10);
+        r2.setFill(Color.RED);
+        r2.setStroke(Color.BLUE);
+        Rectangle r3 = new Rectangle(40, 0, 10, 10);
+        r3.setFill(Color.RED);
+        Group drawing = new Group(new Group(r1, r2), new Group(r3));
+
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n" +
+                        "<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\" baseProfile=\"full\" version=\"1.1\">\n" +
+                        "  <style type=\"text/css\">.paint-1{fill:#ff0000;stroke:#0000ff}</style>\n" +
+                        "  <g>\n" +
+                        "    <g>\n" +
+                        "      <rect class=\"paint-1\" height=\"10\" stroke-linecap=\"square\" stroke-miterlimit=\"10\" width=\"10\"/>\n" +
+                        "      <rect class=\"paint-1\" height=\"10\" stroke-linecap=\"square\" stroke-miterlimit=\"10\" width=\"10\" x=\"20\"/>\n" +
+                        "    </g>\n" +
+                        "    <g>\n" +
+                        "      <rect fill=\"#ff0000\" height=\"10\" width=\"10\" x=\"40\"/>\n" +
+                        "    </g>\n" +
+                        "  </g>\n" +
+                        "</svg>",
+                write(drawing, true, true));
+    }
+
+    private static @NonNull String write(@NonNull Node drawing, boolean parallel, boolean sharePaints) throws IOException {
+        StringWriter w = new StringWriter();
+        FXSvgFullWriter instance = new FXSvgFullWriter(null, null);
+        instance.setParallel(parallel);
+        instance.setSharePaints(sharePaints);
+        instance.write(w, drawing, null);
+        return w.toString();
+    }
+}
@@ -9,12 +9,17 @@ import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.css.CssColor;
 import org.jhotdraw8.css.Paintable;
 import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.svg.figure.SvgCircleFigure;
 import org.jhotdraw8.svg.figure.SvgDefaultableFigure;
+import org.jhotdraw8.svg.figure.SvgDrawing;
+import org.jhotdraw8.svg.figure.SvgGFigure;
 import org.jhotdraw8.svg.figure.SvgRectFigure;
 import org.jhotdraw8.svg.key.SvgDefaultablePaintStyleableMapAccessor;
 import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
 
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.stream.StreamSource;
 import java.io.IOException;
 import java.io.StringReader;
@@ -22,6 +27,10 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
 
 public class FigureSvgTinyReaderTest {
@@ -56,6 +65,94 @@ public class FigureSvgTinyReaderTest {
         );
     }
 
+    @Test
+    public void testNestedGroups() throws IOException {
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" baseProfile=\"tiny\" version=\"1.2\">\n" +
+                " <g id=\"g1\">\n" +
+                "  <g id=\"g2\">\n" +
+                "   <rect id=\"r\" height=\"200\" width=\"100\"/>\n" +
+                "  </g>\n" +
+                "  <circle id=\"c\" r=\"10\"/>\n" +
+                " </g>\n" +
+                "</svg>\n";
+        FigureSvgTinyReader instance = new FigureSvgTinyReader();
+        Figure drawing = instance.read(new StreamSource(new StringReader(svg)));
+
+        assertInstanceOf(SvgDrawing.class, drawing);
+        assertEquals(1, drawing.getChildren().size());
+        Figure g1 = drawing.getChildren().get(0);
+        assertInstanceOf(SvgGFigure.class, g1);
+        assertEquals("g1", g1.getId());
+        assertEquals(2, g1.getChildren().size());
+        Figure g2 = g1.getChildren().get(0);
+        assertInstanceOf(SvgGFigure.class, g2);
+        assertEquals("g2", g2.getId());
+        assertInstanceOf(SvgCircleFigure.class, g1.getChildren().get(1));
+        assertEquals(1, g2.getChildren().size());
+        Figure r = g2.getChildren().get(0);
+        assertInstanceOf(SvgRectFigure.class, r);
+        assertSame(g2, r.getParent());
+        assertTrue(instance.getCopyOfErrors().isEmpty(), instance.getCopyOfErrors().toString());
+    }
+
+    @Test
+    public void testUnknownElementsInBestEffortMode() throws IOException {
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:x=\"urn:x\" baseProfile=\"tiny\" version=\"1.2\">\n" +
+                " <g id=\"g\">\n" +
+                "  <unknown>\n" +
+                "   <rect id=\"r1\" height=\"200\" width=\"100\"/>\n" +
+                "  </unknown>\n" +
+                "  <x:foreign>\n" +
+                "   <rect id=\"r2\" height=\"200\" width=\"100\"/>\n" +
+                "  </x:foreign>\n" +
+                " </g>\n" +
+                "</svg>\n";
+        FigureSvgTinyReader instance = new FigureSvgTinyReader();
+        instance.setBestEffort(true);
+        Figure drawing = instance.read(new StreamSource(new StringReader(svg)));
+
+        // the children of an unknown SVG element are added to its parent,
+        // a foreign element is skipped including its children
+        Figure g = drawing.getChildren().get(0);
+        assertEquals(1, g.getChildren().size());
+        assertEquals("r1", g.getChildren().get(0).getId());
+        List<String> errors = instance.getCopyOfErrors();
+        assertEquals(3, errors.size(), errors.toString());
+        assertTrue(errors.get(0).startsWith("Don't understand SVG element: unknown."), errors.get(0));
+        assertTrue(errors.get(1).startsWith("Skipping foreign element: {urn:x}foreign."), errors.get(1));
+        assertTrue(errors.get(2).startsWith("Skipping element {http://www.w3.org/2000/svg}rect."), errors.get(2));
+    }
+
+    @Test
+    public void testMalformedAttributesInBestEffortMode() throws IOException {
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" baseProfile=\"tiny\" version=\"1.2\">\n" +
+                " <rect id=\"r1\" fill=\"rgb(\" height=\"200\" width=\"100\"/>\n" +
+                " <rect id=\"r2\" stroke-width=\"@@\" height=\"200\" width=\"100\"/>\n" +
+                "</svg>\n";
+        FigureSvgTinyReader instance = new FigureSvgTinyReader();
+        instance.setBestEffort(true);
+        Figure drawing = instance.read(new StreamSource(new StringReader(svg)));
+
+        // a malformed attribute is reported, and does not abort the import
+        assertEquals(2, drawing.getChildren().size());
+        assertEquals("r2", drawing.getChildren().get(1).getId());
+        List<String> errors = instance.getCopyOfErrors();
+        assertEquals(2, errors.size(), errors.toString());
+        assertTrue(errors.get(0).startsWith("Could not read attribute \"fill\"."), errors.get(0));
+        assertTrue(errors.get(1).startsWith("Could not read attribute \"stroke-width\"."), errors.get(1));
+    }
+
+    @Test
+    public void testUnknownElementThrowsIOException() {
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" baseProfile=\"tiny\" version=\"1.2\">\n" +
+                " <g><unknown/></g>\n" +
+                "</svg>\n";
+        FigureSvgTinyReader instance = new FigureSvgTinyReader();
+        IOException e = assertThrows(IOException.class, () -> instance.read(new StreamSource(new StringReader(svg))));
+        assertInstanceOf(XMLStreamException.class, e.getCause());
+    }
+
+
     private <T extends Paintable> void testDefaultable(String svg, String id, SvgDefaultablePaintStyleableMapAccessor<T> key, T expected) throws IOException {
         FigureSvgTinyReader instance = new FigureSvgTinyReader();
         Figure drawing = instance.read(new StreamSource(new StringReader(svg)));
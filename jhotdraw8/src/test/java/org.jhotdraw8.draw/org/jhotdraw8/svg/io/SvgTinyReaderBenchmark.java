@@ -0,0 +1,79 @@
+/*
+ * @(#)SvgTinyReaderBenchmark.java
+ * Copyright © 2021 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.svg.io;
+
+import org.jhotdraw8.annotation.NonNull;
+
+import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Measures the throughput of {@link FigureSvgTinyReader} on the files of
+ * the W3C SVG 1.2 Tiny test suite.
+ * <p>
+ * The files are read into memory before the measurement starts, so that
+ * only the time for parsing and for creating the figures is measured.
+ * The benchmark reports the time in milliseconds per file, and the number
+ * of bytes that have been allocated per file.
+ * <p>
+ * This is not a unit test. It is run from the command line in the
+ * {@code jhotdraw8} directory:
+ * <pre>
+ * java -cp ... org.jhotdraw8.svg.io.SvgTinyReaderBenchmark [directory]
+ * </pre>
+ *
+ * @author Werner Randelshofer
+ */
+public class SvgTinyReaderBenchmark {
+    private static final String W3C_SVG_12_TINY_TEST_SUITE = "data/W3C_SVG_12_TinyTestSuite/svggen";
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 20;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Path.of(args.length > 0 ? args[0] : W3C_SVG_12_TINY_TEST_SUITE);
+        List<byte[]> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(dir)) {
+            for (Path p : paths.filter(p -> p.toString().endsWith(".svg")).sorted().collect(Collectors.toList())) {
+                files.add(Files.readAllBytes(p));
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("No SVG files found in " + dir.toAbsolutePath());
+            return;
+        }
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            readAll(files);
+        }
+        com.sun.management.ThreadMXBean mxBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bytesBefore = mxBean.getCurrentThreadAllocatedBytes();
+        long nanosBefore = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            readAll(files);
+        }
+        long nanos = System.nanoTime() - nanosBefore;
+        long bytes = mxBean.getCurrentThreadAllocatedBytes() - bytesBefore;
+        int count = files.size() * MEASURED_ITERATIONS;
+        System.out.println(String.format(Locale.ROOT, "%d files, %.3f ms/file, %.0f bytes/file",
+                files.size(), nanos / 1e6 / count, (double) bytes / count));
+    }
+
+    private static void readAll(@NonNull List<byte[]> files) throws IOException {
+        for (byte[] file : files) {
+            FigureSvgTinyReader reader = new FigureSvgTinyReader();
+            reader.setBestEffort(true);
+            reader.read(new StreamSource(new ByteArrayInputStream(file)));
+        }
+    }
+}